@@ -28,6 +28,10 @@
 package org.hisp.dhis.analytics;
 
 /**
+ * Analytics table types. Analytics tables are generated in the order of
+ * declaration; event tables must precede enrollment tables, as materialized
+ * program indicators of enrollment tables are computed from event tables.
+ *
  * @author Lars Helge Overland
  */
 public enum AnalyticsTableType
@@ -29,6 +29,8 @@ package org.hisp.dhis.common;
 
 import java.util.concurrent.Future;
 
+import org.hisp.dhis.scheduling.JobConfiguration;
+
 /**
  * A general service to run asynchronous tasks.
  *
@@ -51,4 +53,16 @@ public interface AsyncTaskExecutor
      * @return a {@link Future} to cancel running execution
      */
     Future<?> executeTaskWithCancelation( Runnable task );
+
+    /**
+     * Executes the task of a job asynchronously once a worker is available.
+     * Jobs waiting for a worker are started by priority class of their job
+     * type and fairly among users, within per-user and per-job type limits of
+     * concurrently running jobs.
+     *
+     * @param task The task to be executed
+     * @param configuration The configuration of the job the task belongs to
+     * @return a {@link Future} to cancel waiting or running execution
+     */
+    Future<?> executeJob( Runnable task, JobConfiguration configuration );
 }
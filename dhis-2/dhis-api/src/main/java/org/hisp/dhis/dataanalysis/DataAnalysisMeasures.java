@@ -30,12 +30,15 @@ package org.hisp.dhis.dataanalysis;
 /**
  * DataAnalysisMeasures contains the average and standard deviation measures of
  * data for a given combination of organisation unit and category option combo.
- * (The data element is fixed.)
+ * The data element is either fixed, or given when measures of several data
+ * elements are calculated together.
  *
  * @author Jim Grace
  */
 public class DataAnalysisMeasures
 {
+    private long dataElementId;
+
     private long orgUnitId;
 
     private long categoryOptionComboId;
@@ -57,10 +60,25 @@ public class DataAnalysisMeasures
         this.standardDeviation = standardDeviation;
     }
 
+    public DataAnalysisMeasures( long dataElementId, long orgUnitId, long categoryOptionComboId,
+        double average, double standardDeviation )
+    {
+        this.dataElementId = dataElementId;
+        this.orgUnitId = orgUnitId;
+        this.categoryOptionComboId = categoryOptionComboId;
+        this.average = average;
+        this.standardDeviation = standardDeviation;
+    }
+
     // -------------------------------------------------------------------------
     // Getters
     // -------------------------------------------------------------------------
 
+    public long getDataElementId()
+    {
+        return dataElementId;
+    }
+
     public long getOrgUnitId()
     {
         return orgUnitId;
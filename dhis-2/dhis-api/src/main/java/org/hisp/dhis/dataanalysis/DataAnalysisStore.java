@@ -60,6 +60,24 @@ public interface DataAnalysisStore
         Collection<CategoryOptionCombo> categoryOptionCombos,
         Collection<String> parentPaths, Date from );
 
+    /**
+     * Calculates the average and standard deviation measures of the
+     * DataValues registered for the given data elements, set of category
+     * option combos, and organisation unit parents, in a single statement.
+     * Measures are only returned where the standard deviation is not zero.
+     *
+     * @param dataElements the DataElements.
+     * @param categoryOptionCombos the category option combos of the data
+     *        elements.
+     * @param parentPaths the parent OrganisationUnits' paths.
+     * @param from the from date for which to include data values.
+     * @return a list of measures for each combination of data element,
+     *         organisation unit and category option combo.
+     */
+    List<DataAnalysisMeasures> getDataAnalysisMeasures( Collection<DataElement> dataElements,
+        Collection<CategoryOptionCombo> categoryOptionCombos,
+        Collection<String> parentPaths, Date from );
+
     /**
      * Generates a collection of data value violations of min-max predefined
      * values.
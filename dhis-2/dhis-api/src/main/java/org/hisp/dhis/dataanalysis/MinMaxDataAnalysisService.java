@@ -31,6 +31,7 @@ import java.util.Collection;
 
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.scheduling.JobProgress;
 
 public interface MinMaxDataAnalysisService
     extends DataAnalysisService
@@ -44,4 +45,17 @@ public interface MinMaxDataAnalysisService
      */
     void generateMinMaxValues( OrganisationUnit parent,
         Collection<DataElement> dataElements, Double stdDevFactor );
+
+    /**
+     * Generate min-max values. The data elements are split into partitions,
+     * and the values of each partition are calculated with a single
+     * statement. Partitions may be processed in parallel.
+     *
+     * @param parent the parent organisation unit.
+     * @param dataElements the data elements.
+     * @param stdDevFactor the std dev factor.
+     * @param progress to track progress of the generation.
+     */
+    void generateMinMaxValues( OrganisationUnit parent,
+        Collection<DataElement> dataElements, Double stdDevFactor, JobProgress progress );
 }
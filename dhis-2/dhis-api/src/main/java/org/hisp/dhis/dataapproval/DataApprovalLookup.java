@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataapproval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+
+/**
+ * The approval state of all organisation units for one workflow, period and
+ * attribute option combo, loaded at once so that the approval of many
+ * organisation units can be checked in memory.
+ * <p>
+ * For each approval level the IDs of the approved organisation units are kept
+ * in a sorted array.
+ */
+public final class DataApprovalLookup
+{
+    private static final long[] NONE = new long[0];
+
+    private final DataApprovalWorkflow workflow;
+
+    private final Period period;
+
+    private final CategoryOptionCombo attributeOptionCombo;
+
+    private final Map<Long, long[]> approvedOrgUnitIdsByLevelId;
+
+    private DataApprovalLookup( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo, Map<Long, long[]> approvedOrgUnitIdsByLevelId )
+    {
+        this.workflow = workflow;
+        this.period = period;
+        this.attributeOptionCombo = attributeOptionCombo;
+        this.approvedOrgUnitIdsByLevelId = approvedOrgUnitIdsByLevelId;
+    }
+
+    /**
+     * Creates a lookup from the approvals of a workflow, period and attribute
+     * option combo.
+     *
+     * @param workflow the workflow.
+     * @param period the period.
+     * @param attributeOptionCombo the attribute option combo.
+     * @param approvals pairs of approval level ID and organisation unit ID of
+     *        the existing approvals.
+     * @return a {@link DataApprovalLookup}.
+     */
+    public static DataApprovalLookup of( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo, List<long[]> approvals )
+    {
+        Map<Long, List<Long>> orgUnitIdsByLevelId = new HashMap<>();
+
+        for ( long[] approval : approvals )
+        {
+            orgUnitIdsByLevelId.computeIfAbsent( approval[0], key -> new ArrayList<>() ).add( approval[1] );
+        }
+
+        Map<Long, long[]> byLevelId = new HashMap<>();
+
+        orgUnitIdsByLevelId.forEach( ( levelId, orgUnitIds ) -> byLevelId.put( levelId,
+            orgUnitIds.stream().mapToLong( Long::longValue ).sorted().toArray() ) );
+
+        return new DataApprovalLookup( workflow, period, attributeOptionCombo, byLevelId );
+    }
+
+    /**
+     * Tells whether data of the given organisation unit is approved, the same
+     * way as {@link DataApprovalService#isApproved} does.
+     *
+     * @param organisationUnit the organisation unit.
+     * @return true if data is approved.
+     */
+    public boolean isApproved( OrganisationUnit organisationUnit )
+    {
+        if ( approvedOrgUnitIdsByLevelId.isEmpty() )
+        {
+            return false;
+        }
+
+        DataApproval lowestApproval = DataApproval.getLowestApproval(
+            new DataApproval( null, workflow, period, organisationUnit, attributeOptionCombo ) );
+
+        if ( lowestApproval == null )
+        {
+            return false;
+        }
+
+        long[] orgUnitIds = approvedOrgUnitIdsByLevelId.getOrDefault( lowestApproval.getDataApprovalLevel().getId(),
+            NONE );
+
+        return Arrays.binarySearch( orgUnitIds, lowestApproval.getOrganisationUnit().getId() ) >= 0;
+    }
+}
@@ -151,6 +151,19 @@ public interface DataApprovalService
     boolean isApproved( DataApprovalWorkflow workflow, Period period,
         OrganisationUnit organisationUnit, CategoryOptionCombo attributeOptionCombo );
 
+    /**
+     * Loads the approval state of all organisation units for a workflow,
+     * period and attribute option combo at once, for checking the approval
+     * of many organisation units in memory.
+     *
+     * @param workflow workflow to check for approval.
+     * @param period Period to check for approval.
+     * @param attributeOptionCombo CategoryOptionCombo for approval.
+     * @return a {@link DataApprovalLookup}.
+     */
+    DataApprovalLookup getDataApprovalLookup( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo );
+
     /**
      * Returns a map showing each data approval status for a list of data
      * approval objects.
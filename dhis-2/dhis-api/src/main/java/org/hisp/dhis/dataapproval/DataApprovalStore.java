@@ -109,6 +109,19 @@ public interface DataApprovalStore
      */
     boolean dataApprovalExists( DataApproval dataApproval );
 
+    /**
+     * Returns the approvals of all approval levels and organisation units for
+     * a given workflow, period and attribute option combo, using a single
+     * query.
+     *
+     * @param workflow DataApprovalWorkflow for approval
+     * @param period Period for approval
+     * @param attributeOptionCombo attribute option combo for approval
+     * @return a {@link DataApprovalLookup} of the approvals.
+     */
+    DataApprovalLookup getDataApprovalLookup( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo );
+
     /**
      * Returns DataApproval objects (if any) for given collections of approval
      * level, workflow, period, organisation unit, and attribute option combo.
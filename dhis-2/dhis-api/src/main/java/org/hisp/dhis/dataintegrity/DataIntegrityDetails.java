@@ -31,11 +31,14 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Stream;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 import org.hisp.dhis.common.IdentifiableObject;
 
@@ -48,7 +51,7 @@ import com.fasterxml.jackson.annotation.JsonUnwrapped;
  * @author Jan Bernitt
  */
 @Getter
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DataIntegrityDetails implements Serializable
 {
     @JsonUnwrapped
@@ -57,6 +60,19 @@ public class DataIntegrityDetails implements Serializable
     @JsonProperty
     private final List<DataIntegrityIssue> issues;
 
+    /**
+     * The time when the check finished.
+     */
+    @JsonProperty
+    private final Date finishedTime = new Date();
+
+    /**
+     * The execution time of the check in milliseconds.
+     */
+    @Setter
+    @JsonProperty
+    private long executionTime;
+
     @Getter
     @AllArgsConstructor
     public static final class DataIntegrityIssue implements Serializable
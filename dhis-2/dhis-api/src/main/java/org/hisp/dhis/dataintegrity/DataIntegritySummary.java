@@ -28,9 +28,11 @@
 package org.hisp.dhis.dataintegrity;
 
 import java.io.Serializable;
+import java.util.Date;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
@@ -41,16 +43,28 @@ import com.fasterxml.jackson.annotation.JsonUnwrapped;
  * @author Jan Bernitt
  */
 @Getter
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DataIntegritySummary implements Serializable
 {
     @JsonUnwrapped
     private final DataIntegrityCheck check;
 
     @JsonProperty
-    private int count;
+    private final int count;
 
     @JsonProperty
-    private Double percentage;
+    private final Double percentage;
 
+    /**
+     * The time when the check finished.
+     */
+    @JsonProperty
+    private final Date finishedTime = new Date();
+
+    /**
+     * The execution time of the check in milliseconds.
+     */
+    @Setter
+    @JsonProperty
+    private long executionTime;
 }
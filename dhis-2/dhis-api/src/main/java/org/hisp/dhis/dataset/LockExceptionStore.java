@@ -28,6 +28,7 @@
 package org.hisp.dhis.dataset;
 
 import java.util.List;
+import java.util.Set;
 
 import org.hisp.dhis.common.GenericStore;
 import org.hisp.dhis.dataelement.DataElement;
@@ -56,5 +57,15 @@ public interface LockExceptionStore
 
     long getCount( DataSet dataSet, Period period, OrganisationUnit organisationUnit );
 
+    /**
+     * Returns the IDs of all organisation units which have a lock exception
+     * for the given data set and period, using a single query.
+     *
+     * @param dataSet the data set.
+     * @param period the period.
+     * @return the IDs of the organisation units.
+     */
+    Set<Long> getOrganisationUnitIds( DataSet dataSet, Period period );
+
     boolean anyExists();
 }
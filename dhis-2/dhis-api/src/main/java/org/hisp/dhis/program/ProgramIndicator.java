@@ -100,6 +100,16 @@ public class ProgramIndicator
 
     private Boolean displayInForm;
 
+    /**
+     * Indicates whether the values of this program indicator are pre-computed
+     * and stored as a column in the enrollment analytics tables. Only applies
+     * to program indicators of analytics type enrollment whose values do not
+     * depend on the reporting period. Values computed from program stage data
+     * are read from the event analytics tables, which are generated before the
+     * enrollment analytics tables.
+     */
+    private boolean materializedInAnalytics;
+
     private Set<ProgramIndicatorGroup> groups = new HashSet<>();
 
     private AnalyticsType analyticsType = AnalyticsType.EVENT;
@@ -356,6 +366,18 @@ public class ProgramIndicator
         this.displayInForm = displayInForm;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isMaterializedInAnalytics()
+    {
+        return materializedInAnalytics;
+    }
+
+    public void setMaterializedInAnalytics( boolean materializedInAnalytics )
+    {
+        this.materializedInAnalytics = materializedInAnalytics;
+    }
+
     @JsonProperty( "programIndicatorGroups" )
     @JsonSerialize( contentAs = BaseIdentifiableObject.class )
     @JacksonXmlElementWrapper( localName = "programIndicatorGroups", namespace = DxfNamespaces.DXF_2_0 )
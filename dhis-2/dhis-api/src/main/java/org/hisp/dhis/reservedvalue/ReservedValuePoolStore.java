@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import java.util.List;
+
+/**
+ * Store for pools of pre-generated values, which are known to be neither
+ * reserved nor used when added to a pool. Pools are identified by the owner
+ * object, owner uid and key of the text pattern the values are generated for.
+ */
+public interface ReservedValuePoolStore
+{
+    /**
+     * Removes and returns up to the given number of values from a pool. Values
+     * claimed by concurrent transactions are skipped.
+     *
+     * @param ownerObject the owner object of the text pattern.
+     * @param ownerUid the owner uid of the text pattern.
+     * @param key the key of the text pattern.
+     * @param numberOfValues the maximum number of values to claim.
+     * @return the claimed values.
+     */
+    List<String> claimValues( String ownerObject, String ownerUid, String key, int numberOfValues );
+
+    /**
+     * Adds the given values to a pool. Values already in the pool are ignored.
+     *
+     * @param ownerObject the owner object of the text pattern.
+     * @param ownerUid the owner uid of the text pattern.
+     * @param key the key of the text pattern.
+     * @param values the values to add.
+     */
+    void addValues( String ownerObject, String ownerUid, String key, List<String> values );
+
+    /**
+     * Returns the number of values in a pool.
+     *
+     * @param ownerObject the owner object of the text pattern.
+     * @param ownerUid the owner uid of the text pattern.
+     * @param key the key of the text pattern.
+     * @return the number of values in the pool.
+     */
+    int getPoolSize( String ownerObject, String ownerUid, String key );
+
+    /**
+     * Deletes the pools of the given owner with a key other than the given
+     * key, which are left behind when the text pattern of the owner changes.
+     *
+     * @param ownerUid the owner uid of the text pattern.
+     * @param key the current key of the text pattern.
+     */
+    void deleteOutdatedPools( String ownerUid, String key );
+
+    /**
+     * Deletes all pools of the given owner.
+     *
+     * @param ownerUid the owner uid of the text pattern.
+     */
+    void deletePools( String ownerUid );
+}
@@ -46,6 +46,21 @@ public interface ReservedValueService
         throws ReserveValueException,
         TextPatternGenerationException;
 
+    /**
+     * Refills the pool of pre-generated values of the given attribute up to
+     * the high watermark if it holds fewer values than the low watermark. Only
+     * attributes generated from a RANDOM segment and without required values
+     * have a pool.
+     *
+     * @param trackedEntityAttribute the attribute.
+     * @param lowWatermark the pool size below which the pool is refilled.
+     * @param highWatermark the pool size up to which the pool is refilled.
+     * @return the number of values added to the pool.
+     */
+    int refillValuePool( TrackedEntityAttribute trackedEntityAttribute, int lowWatermark, int highWatermark )
+        throws ReserveValueException,
+        TextPatternGenerationException;
+
     boolean useReservedValue( TextPattern textPattern, String value );
 
     boolean isReserved( TextPattern textPattern, String value );
@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.common.CodeGenerator;
 
@@ -129,12 +130,13 @@ public abstract class ResourceTable<T>
     public abstract Optional<String> getPopulateTempTableStatement();
 
     /**
-     * Provides content for the temporary resource table as a list of object
-     * arrays.
+     * Provides content for the temporary resource table as a stream of object
+     * arrays. The stream is consumed in batches when populating the table, and
+     * should produce rows lazily rather than collecting all rows up front.
      *
      * @return content for the temporary resource table.
      */
-    public abstract Optional<List<Object[]>> getPopulateTempTableContent();
+    public abstract Optional<Stream<Object[]>> getPopulateTempTableContent();
 
     /**
      * Returns SQL create index statements for the temporary table. Note that
@@ -63,4 +63,22 @@ public interface ResourceTableStore
      * @param batchArgs the arguments to use for the update statement.
      */
     void batchUpdate( int columns, String tableName, List<Object[]> batchArgs );
+
+    /**
+     * Returns a signature of the content of the source tables of the given
+     * resource table type. The signature changes whenever rows are inserted,
+     * updated or deleted in any of the source tables.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @return a signature, or null if the table type has no source tables.
+     */
+    String getSourceTableSignature( ResourceTableType tableType );
+
+    /**
+     * Indicates whether the resource table of the given type exists.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @return true if the resource table exists.
+     */
+    boolean resourceTableExists( ResourceTableType tableType );
 }
@@ -27,34 +27,67 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import java.util.List;
+
 /**
  * @author Lars Helge Overland
  */
 public enum ResourceTableType
 {
-    ORG_UNIT_STRUCTURE( "_orgunitstructure" ),
-    DATA_SET_ORG_UNIT_CATEGORY( "_datasetorganisationunitcategory" ),
-    CATEGORY_OPTION_COMBO_NAME( "_categoryoptioncomboname" ),
-    DATA_ELEMENT_GROUP_SET_STRUCTURE( "_dataelementgroupsetstructure" ),
-    INDICATOR_GROUP_SET_STRUCTURE( "_indicatorgroupsetstructure" ),
-    ORG_UNIT_GROUP_SET_STRUCTURE( "_organisationunitgroupsetstructure" ),
-    CATEGORY_STRUCTURE( "_categorystructure" ),
-    DATA_ELEMENT_STRUCTURE( "_dataelementstructure" ),
+    ORG_UNIT_STRUCTURE( "_orgunitstructure", "organisationunit", "orgunitlevel" ),
+    DATA_SET_ORG_UNIT_CATEGORY( "_datasetorganisationunitcategory", "dataset", "datasetsource", "categorycombo",
+        "categorycombos_optioncombos", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+        "dataelementcategoryoption", "categoryoption_organisationunits" ),
+    CATEGORY_OPTION_COMBO_NAME( "_categoryoptioncomboname", "categorycombo", "categorycombos_categories",
+        "categorycombos_optioncombos", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+        "dataelementcategory", "categories_categoryoptions", "dataelementcategoryoption" ),
+    DATA_ELEMENT_GROUP_SET_STRUCTURE( "_dataelementgroupsetstructure", "dataelement", "dataelementgroup",
+        "dataelementgroupmembers", "dataelementgroupset", "dataelementgroupsetmembers" ),
+    INDICATOR_GROUP_SET_STRUCTURE( "_indicatorgroupsetstructure", "indicator", "indicatorgroup",
+        "indicatorgroupmembers", "indicatorgroupset", "indicatorgroupsetmembers" ),
+    ORG_UNIT_GROUP_SET_STRUCTURE( "_organisationunitgroupsetstructure", "organisationunit", "orgunitlevel",
+        "orgunitgroup", "orgunitgroupmembers", "orgunitgroupset", "orgunitgroupsetmembers" ),
+    CATEGORY_STRUCTURE( "_categorystructure", "dataelementcategory", "dataelementcategoryoption",
+        "categories_categoryoptions", "categoryoptioncombo", "categoryoptioncombos_categoryoptions",
+        "categoryoptiongroup", "categoryoptiongroupmembers", "categoryoptiongroupset",
+        "categoryoptiongroupsetmembers" ),
+    DATA_ELEMENT_STRUCTURE( "_dataelementstructure", "dataelement", "dataset", "datasetelement", "periodtype",
+        "dataapprovalworkflow" ),
     PERIOD_STRUCTURE( "_periodstructure" ),
     DATE_PERIOD_STRUCTURE( "_dateperiodstructure" ),
-    DATA_ELEMENT_CATEGORY_OPTION_COMBO( "_dataelementcategoryoptioncombo" ),
-    DATA_APPROVAL_REMAP_LEVEL( "_dataapprovalremaplevel" ),
+    DATA_ELEMENT_CATEGORY_OPTION_COMBO( "_dataelementcategoryoptioncombo", "dataelement",
+        "categorycombos_optioncombos", "categoryoptioncombo" ),
+    DATA_APPROVAL_REMAP_LEVEL( "_dataapprovalremaplevel", "dataapprovalworkflowlevels", "dataapprovallevel" ),
     DATA_APPROVAL_MIN_LEVEL( "_dataapprovalminlevel" );
 
     private String tableName;
 
-    ResourceTableType( String tableName )
+    /**
+     * Database tables which the content of the resource table is derived from.
+     * Resource tables without source tables depend on state which is not
+     * captured by database tables, such as the current date or the system
+     * calendar, and must always be regenerated.
+     */
+    private List<String> sourceTables;
+
+    ResourceTableType( String tableName, String... sourceTables )
     {
         this.tableName = tableName;
+        this.sourceTables = List.of( sourceTables );
     }
 
     public String getTableName()
     {
         return tableName;
     }
+
+    public List<String> getSourceTables()
+    {
+        return sourceTables;
+    }
+
+    public boolean hasSourceTables()
+    {
+        return !sourceTables.isEmpty();
+    }
 }
@@ -127,6 +127,8 @@ public class JobConfiguration
 
     private boolean leaderOnlyJob = false;
 
+    private volatile Integer queuePosition;
+
     public JobConfiguration()
     {
     }
@@ -455,4 +457,20 @@ public class JobConfiguration
     {
         this.userUid = userUid;
     }
+
+    /**
+     * @return the 1-based position of this job among the jobs waiting for a
+     *         worker, or null if this job is not waiting.
+     */
+    @JacksonXmlProperty
+    @JsonProperty( access = JsonProperty.Access.READ_ONLY )
+    public Integer getQueuePosition()
+    {
+        return queuePosition;
+    }
+
+    public void setQueuePosition( Integer queuePosition )
+    {
+        this.queuePosition = queuePosition;
+    }
 }
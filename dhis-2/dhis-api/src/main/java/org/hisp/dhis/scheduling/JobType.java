@@ -77,8 +77,10 @@ public enum JobType
         "attributes", "/api/trackedEntityAttributes/indexable" ) ),
     PREDICTOR( true, SchedulingType.CRON, PredictorJobParameters.class, ImmutableMap.of(
         "predictors", "/api/predictors", "predictorGroups", "/api/predictorGroups" ) ),
+    OUTLIER_STATISTICS( true ),
     DATA_SET_NOTIFICATION( false ),
     REMOVE_USED_OR_EXPIRED_RESERVED_VALUES( false ),
+    RESERVED_VALUE_POOL_REFILL( true ),
     TRACKER_IMPORT_JOB( false ),
     TRACKER_IMPORT_NOTIFICATION_JOB( false ),
     TRACKER_IMPORT_RULE_ENGINE_JOB( false ),
@@ -97,6 +99,7 @@ public enum JobType
         DisableInactiveUsersJobParameters.class, null ),
     ACCOUNT_EXPIRY_ALERT( false ),
     SYSTEM_VERSION_UPDATE_CHECK( false ),
+    MIN_MAX_VALUES_GENERATION( false ),
 
     // Testing purposes
     MOCK( false, SchedulingType.CRON, MockJobParameters.class, null ),
@@ -138,6 +141,31 @@ public enum JobType
         return this == RESOURCE_TABLE || this == ANALYTICS_TABLE || this == CONTINUOUS_ANALYTICS_TABLE;
     }
 
+    /**
+     * @return the priority class of jobs of this type when they wait for a
+     *         worker.
+     */
+    public JobPriority getPriority()
+    {
+        switch ( this )
+        {
+        case DATA_INTEGRITY:
+        case RESOURCE_TABLE:
+        case VALIDATION_RESULTS_NOTIFICATION:
+            return JobPriority.HIGH;
+        case COMPLETE_DATA_SET_REGISTRATION_IMPORT:
+        case DATAVALUE_IMPORT:
+        case METADATA_IMPORT:
+        case EVENT_IMPORT:
+        case ENROLLMENT_IMPORT:
+        case TEI_IMPORT:
+        case GML_IMPORT:
+            return JobPriority.LOW;
+        default:
+            return JobPriority.NORMAL;
+        }
+    }
+
     public boolean isCronSchedulingType()
     {
         return getSchedulingType() == SchedulingType.CRON;
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the functions used by {@link Property} to read and write property
+ * values. The functions are generated with {@link LambdaMetafactory} and call
+ * the getter and setter methods directly, which avoids the access checks and
+ * argument boxing of {@link Method#invoke(Object, Object...)}. If a function
+ * cannot be generated, for instance because the declaring class is not
+ * accessible, the method is invoked reflectively instead.
+ * <p>
+ * The functions behave like {@code ReflectionUtils.invokeMethod}:
+ * <ul>
+ * <li>Protected and private methods are not invoked; the getter function
+ * returns null and the setter function does nothing.</li>
+ * <li>Exceptions thrown by the method are wrapped in a
+ * {@link RuntimeException} with an {@link InvocationTargetException} as
+ * cause.</li>
+ * <li>Targets and values of an unexpected type are passed to the reflective
+ * invocation, which converts or rejects them.</li>
+ * </ul>
+ * In addition, the setter function of a method with a primitive parameter
+ * does nothing for a null value.
+ */
+@Slf4j
+final class PropertyAccessors
+{
+    private static final Function<Object, Object> NO_GETTER = target -> null;
+
+    private static final BiConsumer<Object, Object> NO_SETTER = ( target, value ) -> {
+    };
+
+    private PropertyAccessors()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    static Function<Object, Object> createGetter( Method method )
+    {
+        if ( !isInvocable( method ) )
+        {
+            return NO_GETTER;
+        }
+
+        Function<Object, Object> getter = generateGetter( method );
+        Class<?> declaringClass = method.getDeclaringClass();
+
+        return target -> {
+            if ( getter == null || !declaringClass.isInstance( target ) )
+            {
+                return invoke( method, target );
+            }
+
+            try
+            {
+                return getter.apply( target );
+            }
+            catch ( Throwable ex )
+            {
+                throw new RuntimeException( new InvocationTargetException( ex ) );
+            }
+        };
+    }
+
+    static BiConsumer<Object, Object> createSetter( Method method )
+    {
+        if ( !isInvocable( method ) )
+        {
+            return NO_SETTER;
+        }
+
+        if ( method.getParameterCount() != 1 )
+        {
+            return ( target, value ) -> invoke( method, target, value );
+        }
+
+        BiConsumer<Object, Object> setter = generateSetter( method );
+        Class<?> declaringClass = method.getDeclaringClass();
+        Class<?> parameterType = method.getParameterTypes()[0];
+        Class<?> valueType = MethodType.methodType( parameterType ).wrap().returnType();
+
+        return ( target, value ) -> {
+            if ( value == null && parameterType.isPrimitive() )
+            {
+                return;
+            }
+
+            if ( setter == null || !declaringClass.isInstance( target )
+                || value != null && !valueType.isInstance( value ) )
+            {
+                invoke( method, target, value );
+                return;
+            }
+
+            try
+            {
+                setter.accept( target, value );
+            }
+            catch ( Throwable ex )
+            {
+                throw new RuntimeException( new InvocationTargetException( ex ) );
+            }
+        };
+    }
+
+    /**
+     * Generates a function calling the given getter method, or returns null if
+     * the function cannot be generated.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static Function<Object, Object> generateGetter( Method method )
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = getLookup( method );
+            MethodHandle handle = lookup.unreflect( method );
+
+            CallSite site = LambdaMetafactory.metafactory( lookup, "apply",
+                MethodType.methodType( Function.class ),
+                MethodType.methodType( Object.class, Object.class ),
+                handle, handle.type().wrap() );
+
+            return (Function<Object, Object>) site.getTarget().invoke();
+        }
+        catch ( Throwable ex )
+        {
+            log.debug( "Falling back to reflection for getter: " + method, ex );
+
+            return null;
+        }
+    }
+
+    /**
+     * Generates a function calling the given setter method, or returns null if
+     * the function cannot be generated.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static BiConsumer<Object, Object> generateSetter( Method method )
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = getLookup( method );
+            MethodHandle handle = lookup.unreflect( method );
+
+            CallSite site = LambdaMetafactory.metafactory( lookup, "accept",
+                MethodType.methodType( BiConsumer.class ),
+                MethodType.methodType( void.class, Object.class, Object.class ),
+                handle, handle.type().wrap().changeReturnType( void.class ) );
+
+            return (BiConsumer<Object, Object>) site.getTarget().invoke();
+        }
+        catch ( Throwable ex )
+        {
+            log.debug( "Falling back to reflection for setter: " + method, ex );
+
+            return null;
+        }
+    }
+
+    private static boolean isInvocable( Method method )
+    {
+        return method != null
+            && !Modifier.isProtected( method.getModifiers() ) && !Modifier.isPrivate( method.getModifiers() );
+    }
+
+    /**
+     * Returns a lookup in the declaring class of the given method, so that the
+     * generated function is defined alongside the class it accesses.
+     */
+    private static MethodHandles.Lookup getLookup( Method method )
+        throws IllegalAccessException
+    {
+        return MethodHandles.privateLookupIn( method.getDeclaringClass(), MethodHandles.lookup() );
+    }
+
+    private static Object invoke( Method method, Object target, Object... args )
+    {
+        try
+        {
+            return method.invoke( target, args );
+        }
+        catch ( InvocationTargetException | IllegalAccessException ex )
+        {
+            throw new RuntimeException( ex );
+        }
+    }
+}
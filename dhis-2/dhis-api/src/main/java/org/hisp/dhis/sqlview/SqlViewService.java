@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IllegalQueryException;
 
 /**
@@ -100,6 +101,22 @@ public interface SqlViewService
     Grid getSqlViewGrid( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
         List<String> filters, List<String> fields );
 
+    /**
+     * Writes the rows of the SQL view to the given writer as they are read
+     * from the database, without building a grid in memory. Checks if the SQL
+     * query is valid.
+     *
+     * @param sqlView the SQL view to render.
+     * @param criteria the criteria on the format key:value, will be applied as
+     *        criteria on the SQL result set.
+     * @param variables the variables on the format key:value, will be
+     *        substituted with variables inside the SQL view.
+     * @param writer the {@link GridWriter} to write headers and rows to.
+     * @throws {@link IllegalQueryException} if the SQL query is invalid.
+     */
+    void writeSqlViewGrid( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
+        List<String> filters, List<String> fields, GridWriter writer );
+
     /**
      * Validates the given SQL view. Checks include:
      *
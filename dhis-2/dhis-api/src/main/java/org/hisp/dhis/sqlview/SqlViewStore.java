@@ -28,6 +28,7 @@
 package org.hisp.dhis.sqlview;
 
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 
 /**
@@ -46,6 +47,15 @@ public interface SqlViewStore
 
     void populateSqlViewGrid( Grid grid, String sql );
 
+    /**
+     * Runs the given SQL and writes the headers and rows to the given writer
+     * while reading the result set.
+     *
+     * @param writer the {@link GridWriter}.
+     * @param sql the SQL string.
+     */
+    void writeSqlViewGrid( GridWriter writer, String sql );
+
     /**
      * Tests the given SQL for validity.
      *
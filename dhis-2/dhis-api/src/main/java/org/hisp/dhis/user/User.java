@@ -46,7 +46,9 @@ import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.annotation.Property;
 import org.hisp.dhis.schema.annotation.PropertyRange;
 import org.hisp.dhis.security.Authorities;
+import org.hisp.dhis.user.sharing.SharingPrincipal;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
@@ -139,6 +141,11 @@ public class User
      */
     private List<String> apps = new ArrayList<>();
 
+    /**
+     * Cached principal for sharing checks {@link #getSharingPrincipal()}.
+     */
+    private transient volatile SharingPrincipal cachedSharingPrincipal;
+
     // -------------------------------------------------------------------------
     // Logic
     // -------------------------------------------------------------------------
@@ -181,6 +188,27 @@ public class User
         }
     }
 
+    /**
+     * Returns the principal of this user for sharing checks. The principal is
+     * cached and created again when the user groups or authorities of this
+     * user have changed.
+     */
+    @JsonIgnore
+    public SharingPrincipal getSharingPrincipal()
+    {
+        // cached principal can be replaced by different thread and must be
+        // assigned before evaluation
+        SharingPrincipal principal = cachedSharingPrincipal;
+
+        if ( principal == null || !principal.isValidFor( this ) )
+        {
+            principal = SharingPrincipal.of( this );
+            cachedSharingPrincipal = principal;
+        }
+
+        return principal;
+    }
+
     /**
      * Returns the concatenated first name and surname.
      */
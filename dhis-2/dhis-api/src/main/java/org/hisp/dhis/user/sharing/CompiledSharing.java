@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hisp.dhis.sharing.AccessObject;
+
+/**
+ * The access strings of a {@link Sharing} parsed into bit masks, so that
+ * checking whether a {@link SharingPrincipal} has a permission only takes a
+ * few hash lookups.
+ * <p>
+ * Bit {@code i} of a mask is set if the permission at position {@code i} of
+ * the access string is enabled, for instance {@code rw------} becomes
+ * {@code 0b0011}. Like {@code AccessStringHelper.isEnabled}, a missing access
+ * string enables all permissions and an invalid one enables none.
+ * <p>
+ * Instances are created through {@link Sharing#compile()}.
+ */
+public final class CompiledSharing
+{
+    private static final int ALL = 0b1111;
+
+    private static final int NONE = 0;
+
+    private static final char[] ENABLED = { 'r', 'w', 'r', 'w' };
+
+    private final String publicAccess;
+
+    private final Map<String, UserAccess> users;
+
+    private final Map<String, UserGroupAccess> userGroups;
+
+    private final int userCount;
+
+    private final int userGroupCount;
+
+    private final int publicMask;
+
+    private final Map<String, Integer> userMasks;
+
+    private final Map<String, Integer> userGroupMasks;
+
+    CompiledSharing( String publicAccess, Map<String, UserAccess> users, Map<String, UserGroupAccess> userGroups )
+    {
+        this.publicAccess = publicAccess;
+        this.users = users;
+        this.userGroups = userGroups;
+        this.userCount = users != null ? users.size() : 0;
+        this.userGroupCount = userGroups != null ? userGroups.size() : 0;
+        this.publicMask = toMask( publicAccess );
+        this.userMasks = toMasks( users );
+        this.userGroupMasks = toMasks( userGroups );
+    }
+
+    /**
+     * Indicates whether the given principal has the permission at the given
+     * position of the access string, through public access, user access or
+     * user group access.
+     *
+     * @param principal the principal.
+     * @param position the position of the permission in the access string.
+     * @return true if the permission is enabled for the principal.
+     */
+    public boolean isEnabled( SharingPrincipal principal, int position )
+    {
+        int bit = 1 << position;
+
+        if ( (publicMask & bit) != 0 )
+        {
+            return true;
+        }
+
+        Integer userMask = userMasks.get( principal.getUserUid() );
+
+        if ( userMask != null && (userMask & bit) != 0 )
+        {
+            return true;
+        }
+
+        if ( userGroupMasks.size() <= principal.getUserGroupUids().size() )
+        {
+            for ( Map.Entry<String, Integer> entry : userGroupMasks.entrySet() )
+            {
+                if ( (entry.getValue() & bit) != 0 && principal.isMemberOf( entry.getKey() ) )
+                {
+                    return true;
+                }
+            }
+        }
+        else
+        {
+            for ( String userGroupUid : principal.getUserGroupUids() )
+            {
+                Integer userGroupMask = userGroupMasks.get( userGroupUid );
+
+                if ( userGroupMask != null && (userGroupMask & bit) != 0 )
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Parses an access string into a bit mask.
+     *
+     * @param access the access string, may be null.
+     * @return the bit mask.
+     */
+    public static int toMask( String access )
+    {
+        if ( access == null )
+        {
+            return ALL;
+        }
+
+        if ( access.length() != 8 || !access.endsWith( "----" ) )
+        {
+            return NONE;
+        }
+
+        int mask = NONE;
+
+        for ( int i = 0; i < ENABLED.length; i++ )
+        {
+            char c = access.charAt( i );
+
+            if ( c == ENABLED[i] )
+            {
+                mask |= 1 << i;
+            }
+            else if ( c != '-' )
+            {
+                return NONE;
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Indicates whether this was compiled from the given sharing state. Maps
+     * and access strings are compared by identity, and map sizes are compared
+     * to notice entries added to or removed from the same map.
+     */
+    boolean isCompiledFrom( String publicAccess, Map<String, UserAccess> users,
+        Map<String, UserGroupAccess> userGroups )
+    {
+        return this.publicAccess == publicAccess
+            && this.users == users && userCount == (users != null ? users.size() : 0)
+            && this.userGroups == userGroups && userGroupCount == (userGroups != null ? userGroups.size() : 0);
+    }
+
+    private static Map<String, Integer> toMasks( Map<String, ? extends AccessObject> accesses )
+    {
+        Map<String, Integer> masks = new HashMap<>();
+
+        if ( accesses != null )
+        {
+            for ( AccessObject access : accesses.values() )
+            {
+                int mask = toMask( access.getAccess() );
+
+                if ( mask != NONE )
+                {
+                    masks.merge( access.getId(), mask, ( a, b ) -> a | b );
+                }
+            }
+        }
+
+        return masks;
+    }
+}
@@ -36,11 +36,13 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.UnaryOperator;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import lombok.ToString;
 
 import org.apache.commons.collections.MapUtils;
 import org.hisp.dhis.common.DxfNamespaces;
@@ -51,9 +53,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
 
-@Builder
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @JacksonXmlRootElement( localName = "sharing", namespace = DxfNamespaces.DXF_2_0 )
 public class Sharing
@@ -92,6 +92,26 @@ public class Sharing
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     private Map<String, UserGroupAccess> userGroups = new HashMap<>();
 
+    /**
+     * Access strings parsed for sharing checks, see {@link #compile()}.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter( AccessLevel.NONE )
+    @Setter( AccessLevel.NONE )
+    private transient volatile CompiledSharing compiledSharing;
+
+    @Builder
+    public Sharing( String owner, String publicAccess, boolean external, Map<String, UserAccess> users,
+        Map<String, UserGroupAccess> userGroups )
+    {
+        this.owner = owner;
+        this.publicAccess = publicAccess;
+        this.external = external;
+        this.users = users;
+        this.userGroups = userGroups;
+    }
+
     public Sharing( String publicAccess, UserAccess... userAccesses )
     {
         this.publicAccess = publicAccess;
@@ -112,6 +132,10 @@ public class Sharing
         }
     }
 
+    /**
+     * Returns the user accesses. As the returned map and its entries can be
+     * changed by the caller, the compiled sharing is discarded.
+     */
     public Map<String, UserAccess> getUsers()
     {
         if ( users == null )
@@ -119,9 +143,15 @@ public class Sharing
             users = new HashMap<>();
         }
 
+        compiledSharing = null;
+
         return users;
     }
 
+    /**
+     * Returns the user group accesses. As the returned map and its entries can
+     * be changed by the caller, the compiled sharing is discarded.
+     */
     public Map<String, UserGroupAccess> getUserGroups()
     {
         if ( userGroups == null )
@@ -129,9 +159,33 @@ public class Sharing
             userGroups = new HashMap<>();
         }
 
+        compiledSharing = null;
+
         return userGroups;
     }
 
+    /**
+     * Returns the access strings of this sharing parsed into bit masks for
+     * fast sharing checks. The parsed form is reused until the public access
+     * or the user and user group access maps are replaced or change size, or
+     * until the maps are handed out through {@link #getUsers()} or
+     * {@link #getUserGroups()}.
+     *
+     * @return the {@link CompiledSharing}.
+     */
+    public CompiledSharing compile()
+    {
+        CompiledSharing compiled = compiledSharing;
+
+        if ( compiled == null || !compiled.isCompiledFrom( publicAccess, users, userGroups ) )
+        {
+            compiled = new CompiledSharing( publicAccess, users, userGroups );
+            compiledSharing = compiled;
+        }
+
+        return compiled;
+    }
+
     public void setOwner( User user )
     {
         this.owner = user != null ? user.getUid() : null;
@@ -152,12 +206,16 @@ public class Sharing
 
     public void setUserAccesses( Set<UserAccess> userAccesses )
     {
+        compiledSharing = null;
+
         this.users = clearOrInit( this.users );
         userAccesses.forEach( this::addUserAccess );
     }
 
     public void setDtoUserAccesses( Set<org.hisp.dhis.user.UserAccess> dto )
     {
+        compiledSharing = null;
+
         if ( dto == null )
         {
             return;
@@ -169,6 +227,8 @@ public class Sharing
 
     public void setDtoUserGroupAccesses( Set<org.hisp.dhis.user.UserGroupAccess> userGroupAccesses )
     {
+        compiledSharing = null;
+
         if ( userGroupAccesses == null )
         {
             return;
@@ -181,6 +241,8 @@ public class Sharing
 
     public void setUserGroupAccess( Set<UserGroupAccess> userGroupAccesses )
     {
+        compiledSharing = null;
+
         this.userGroups = clearOrInit( this.userGroups );
         userGroupAccesses.forEach( this::addUserGroupAccess );
     }
@@ -195,16 +257,22 @@ public class Sharing
 
     public void addDtoUserAccess( org.hisp.dhis.user.UserAccess userAccess )
     {
+        compiledSharing = null;
+
         this.users.put( userAccess.getUid(), new UserAccess( userAccess ) );
     }
 
     public void addDtoUserGroupAccess( org.hisp.dhis.user.UserGroupAccess userGroupAccess )
     {
+        compiledSharing = null;
+
         this.userGroups.put( userGroupAccess.getUid(), new UserGroupAccess( userGroupAccess ) );
     }
 
     public void addUserGroupAccess( UserGroupAccess userGroupAccess )
     {
+        compiledSharing = null;
+
         if ( userGroups == null )
         {
             userGroups = new HashMap<>();
@@ -215,6 +283,8 @@ public class Sharing
 
     public void resetUserAccesses()
     {
+        compiledSharing = null;
+
         if ( hasUserAccesses() )
         {
             this.users.clear();
@@ -223,6 +293,8 @@ public class Sharing
 
     public void resetUserGroupAccesses()
     {
+        compiledSharing = null;
+
         if ( hasUserGroupAccesses() )
         {
             this.userGroups.clear();
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+import lombok.Getter;
+
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
+import org.hisp.dhis.user.UserGroup;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Immutable view of the identity of a user as needed for sharing checks: the
+ * UID of the user, the UIDs of the user groups of the user and the
+ * authorities of the user.
+ * <p>
+ * A principal is kept by {@link User#getSharingPrincipal()} and is used for as
+ * long as it still matches the groups and authorities of the user.
+ */
+@Getter
+public final class SharingPrincipal
+{
+    private final String userUid;
+
+    private final Set<String> userGroupUids;
+
+    private final Set<String> authorities;
+
+    private SharingPrincipal( String userUid, Set<String> userGroupUids, Set<String> authorities )
+    {
+        this.userUid = userUid;
+        this.userGroupUids = userGroupUids;
+        this.authorities = authorities;
+    }
+
+    /**
+     * Creates the principal of the given user.
+     *
+     * @param user the user.
+     * @return a {@link SharingPrincipal}.
+     */
+    public static SharingPrincipal of( User user )
+    {
+        ImmutableSet.Builder<String> userGroupUids = ImmutableSet.builder();
+
+        if ( user.getGroups() != null )
+        {
+            user.getGroups().forEach( group -> userGroupUids.add( group.getUid() ) );
+        }
+
+        return new SharingPrincipal( user.getUid(), userGroupUids.build(), getAllAuthorities( user ) );
+    }
+
+    /**
+     * Indicates whether this principal still matches the given user. The
+     * authorities are compared by identity, as {@link UserCredentials} keeps
+     * the same set until its authorities change.
+     *
+     * @param user the user.
+     * @return true if the principal can be used for the user.
+     */
+    public boolean isValidFor( User user )
+    {
+        if ( !Objects.equals( userUid, user.getUid() ) || authorities != getAllAuthorities( user ) )
+        {
+            return false;
+        }
+
+        Set<UserGroup> groups = user.getGroups() != null ? user.getGroups() : Collections.emptySet();
+
+        if ( groups.size() != userGroupUids.size() )
+        {
+            return false;
+        }
+
+        for ( UserGroup group : groups )
+        {
+            if ( !userGroupUids.contains( group.getUid() ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean isMemberOf( String userGroupUid )
+    {
+        return userGroupUids.contains( userGroupUid );
+    }
+
+    public boolean hasAnyAuthority( Collection<String> anyAuthorities )
+    {
+        for ( String authority : anyAuthorities )
+        {
+            if ( authorities.contains( authority ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Set<String> getAllAuthorities( User user )
+    {
+        UserCredentials userCredentials = user.getUserCredentials();
+
+        return userCredentials != null ? userCredentials.getAllAuthorities() : Collections.emptySet();
+    }
+}
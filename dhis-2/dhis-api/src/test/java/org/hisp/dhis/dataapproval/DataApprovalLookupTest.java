@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataapproval;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DataApprovalLookup}.
+ */
+class DataApprovalLookupTest
+{
+    private DataApprovalWorkflow workflow;
+
+    private Period period;
+
+    private CategoryOptionCombo attributeOptionCombo;
+
+    private OrganisationUnit country;
+
+    private OrganisationUnit district;
+
+    private OrganisationUnit facility;
+
+    @BeforeEach
+    void setUp()
+    {
+        DataApprovalLevel countryLevel = createLevel( 11, 1 );
+        DataApprovalLevel districtLevel = createLevel( 12, 2 );
+
+        workflow = new DataApprovalWorkflow( "Workflow", PeriodType.getPeriodTypeByName( "Monthly" ),
+            new HashSet<>( Arrays.asList( countryLevel, districtLevel ) ) );
+        period = PeriodType.getPeriodFromIsoString( "202101" );
+        attributeOptionCombo = new CategoryOptionCombo();
+
+        country = createOrgUnit( 1, "countryUid1", null );
+        district = createOrgUnit( 2, "districtUid", country );
+        facility = createOrgUnit( 3, "facilityUid", district );
+    }
+
+    @Test
+    void testIsApprovedAtLowestApprovalLevel()
+    {
+        DataApprovalLookup lookup = DataApprovalLookup.of( workflow, period, attributeOptionCombo,
+            Collections.singletonList( new long[] { 12, 2 } ) );
+
+        assertTrue( lookup.isApproved( district ) );
+        assertTrue( lookup.isApproved( facility ) );
+        assertFalse( lookup.isApproved( country ) );
+    }
+
+    @Test
+    void testIsNotApprovedAtOtherLevel()
+    {
+        DataApprovalLookup lookup = DataApprovalLookup.of( workflow, period, attributeOptionCombo,
+            Arrays.asList( new long[] { 11, 2 }, new long[] { 12, 1 } ) );
+
+        assertFalse( lookup.isApproved( district ) );
+        assertFalse( lookup.isApproved( facility ) );
+        assertFalse( lookup.isApproved( country ) );
+    }
+
+    @Test
+    void testIsNotApprovedWithoutApprovals()
+    {
+        DataApprovalLookup lookup = DataApprovalLookup.of( workflow, period, attributeOptionCombo,
+            Collections.emptyList() );
+
+        assertFalse( lookup.isApproved( facility ) );
+    }
+
+    private static DataApprovalLevel createLevel( long id, int orgUnitLevel )
+    {
+        DataApprovalLevel level = new DataApprovalLevel( "Level " + orgUnitLevel, orgUnitLevel );
+        level.setId( id );
+        level.setLevel( orgUnitLevel );
+        return level;
+    }
+
+    private static OrganisationUnit createOrgUnit( long id, String uid, OrganisationUnit parent )
+    {
+        OrganisationUnit orgUnit = new OrganisationUnit( uid );
+        orgUnit.setId( id );
+        orgUnit.setUid( uid );
+        orgUnit.setParent( parent );
+        orgUnit.getPath();
+        return orgUnit;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares reading and writing property values through the generated
+ * {@link Property} functions with invoking the getter and setter methods
+ * reflectively, the way {@code ReflectionUtils.invokeMethod} does.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE, through {@link #main}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class PropertyAccessBenchmark
+{
+    private DataElement dataElement;
+
+    private OrganisationUnit organisationUnit;
+
+    private Property dataElementName;
+
+    private Property dataElementZeroIsSignificant;
+
+    private Property organisationUnitOpeningDate;
+
+    private Date openingDate;
+
+    @Setup
+    public void setUp()
+        throws NoSuchMethodException
+    {
+        dataElement = new DataElement( "ANC 1st visit" );
+        organisationUnit = new OrganisationUnit( "Ngelehun CHC" );
+        openingDate = new Date();
+
+        dataElementName = new Property( DataElement.class, DataElement.class.getMethod( "getName" ),
+            DataElement.class.getMethod( "setName", String.class ) );
+        dataElementZeroIsSignificant = new Property( DataElement.class,
+            DataElement.class.getMethod( "isZeroIsSignificant" ),
+            DataElement.class.getMethod( "setZeroIsSignificant", boolean.class ) );
+        organisationUnitOpeningDate = new Property( OrganisationUnit.class,
+            OrganisationUnit.class.getMethod( "getOpeningDate" ),
+            OrganisationUnit.class.getMethod( "setOpeningDate", Date.class ) );
+    }
+
+    @Benchmark
+    public Object reflectionGetDataElementName()
+    {
+        return invoke( dataElement, dataElementName.getGetterMethod() );
+    }
+
+    @Benchmark
+    public Object accessorGetDataElementName()
+    {
+        return dataElementName.getValue( dataElement );
+    }
+
+    @Benchmark
+    public Object reflectionSetDataElementName()
+    {
+        return invoke( dataElement, dataElementName.getSetterMethod(), "ANC 2nd visit" );
+    }
+
+    @Benchmark
+    public void accessorSetDataElementName()
+    {
+        dataElementName.setValue( dataElement, "ANC 2nd visit" );
+    }
+
+    @Benchmark
+    public Object reflectionGetDataElementZeroIsSignificant()
+    {
+        return invoke( dataElement, dataElementZeroIsSignificant.getGetterMethod() );
+    }
+
+    @Benchmark
+    public Object accessorGetDataElementZeroIsSignificant()
+    {
+        return dataElementZeroIsSignificant.getValue( dataElement );
+    }
+
+    @Benchmark
+    public Object reflectionGetOrganisationUnitOpeningDate()
+    {
+        return invoke( organisationUnit, organisationUnitOpeningDate.getGetterMethod() );
+    }
+
+    @Benchmark
+    public Object accessorGetOrganisationUnitOpeningDate()
+    {
+        return organisationUnitOpeningDate.getValue( organisationUnit );
+    }
+
+    @Benchmark
+    public Object reflectionSetOrganisationUnitOpeningDate()
+    {
+        return invoke( organisationUnit, organisationUnitOpeningDate.getSetterMethod(), openingDate );
+    }
+
+    @Benchmark
+    public void accessorSetOrganisationUnitOpeningDate()
+    {
+        organisationUnitOpeningDate.setValue( organisationUnit, openingDate );
+    }
+
+    /**
+     * Same checks and invocation as {@code ReflectionUtils.invokeMethod}.
+     */
+    private static Object invoke( Object target, Method method, Object... args )
+    {
+        if ( Modifier.isProtected( method.getModifiers() ) || Modifier.isPrivate( method.getModifiers() ) )
+        {
+            return null;
+        }
+
+        try
+        {
+            return method.invoke( target, args );
+        }
+        catch ( InvocationTargetException | IllegalAccessException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    public static void main( String[] args )
+        throws RunnerException
+    {
+        new Runner( new OptionsBuilder().include( PropertyAccessBenchmark.class.getSimpleName() ).build() ).run();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the getter and setter functions of {@link Property}.
+ */
+class PropertyTest
+{
+    @Test
+    void testGetAndSetValue()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( DataElement.class, "getName", "setName", String.class );
+        DataElement dataElement = new DataElement( "ANC" );
+
+        assertEquals( "ANC", property.getValue( dataElement ) );
+
+        property.setValue( dataElement, "ANC 1st visit" );
+        assertEquals( "ANC 1st visit", dataElement.getName() );
+    }
+
+    @Test
+    void testGetAndSetPrimitiveValue()
+        throws NoSuchMethodException
+    {
+        Property property = new Property( DataElement.class,
+            DataElement.class.getMethod( "isZeroIsSignificant" ),
+            DataElement.class.getMethod( "setZeroIsSignificant", boolean.class ) );
+        DataElement dataElement = new DataElement();
+
+        assertEquals( Boolean.FALSE, property.getValue( dataElement ) );
+
+        property.setValue( dataElement, true );
+        assertTrue( dataElement.isZeroIsSignificant() );
+
+        property.setValue( dataElement, null );
+        assertTrue( dataElement.isZeroIsSignificant() );
+    }
+
+    @Test
+    void testExceptionsAreWrapped()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( Failing.class, "getValue", "setValue", String.class );
+        Failing failing = new Failing();
+
+        RuntimeException ex = assertThrows( RuntimeException.class, () -> property.getValue( failing ) );
+        assertTrue( ex.getCause() instanceof InvocationTargetException );
+        assertTrue( ex.getCause().getCause() instanceof IllegalStateException );
+
+        ex = assertThrows( RuntimeException.class, () -> property.setValue( failing, "value" ) );
+        assertTrue( ex.getCause() instanceof InvocationTargetException );
+        assertTrue( ex.getCause().getCause() instanceof IllegalStateException );
+    }
+
+    @Test
+    void testSetValueOfOtherType()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( DataElement.class, "getName", "setName", String.class );
+
+        assertThrows( IllegalArgumentException.class, () -> property.setValue( new DataElement(), 1 ) );
+    }
+
+    @Test
+    void testGetValueNullTargetOrMethod()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( DataElement.class, "getValueType", "setValueType", ValueType.class );
+
+        assertNull( property.getValue( null ) );
+        property.setValue( null, ValueType.TEXT );
+
+        property.setGetterMethod( null );
+        assertNull( property.getValue( new DataElement() ) );
+    }
+
+    @Test
+    void testChangeGetterMethod()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( DataElement.class, "getName", "setName", String.class );
+        DataElement dataElement = new DataElement( "ANC" );
+        dataElement.setCode( "ANC_CODE" );
+
+        assertEquals( "ANC", property.getValue( dataElement ) );
+
+        property.setGetterMethod( DataElement.class.getMethod( "getCode" ) );
+        assertEquals( "ANC_CODE", property.getValue( dataElement ) );
+    }
+
+    @Test
+    void testNonPublicMethodsAreNotInvoked()
+        throws NoSuchMethodException
+    {
+        Property property = new Property( Hidden.class, Hidden.class.getDeclaredMethod( "getSecret" ),
+            Hidden.class.getDeclaredMethod( "setSecret", String.class ) );
+        Hidden hidden = new Hidden();
+
+        assertNull( property.getValue( hidden ) );
+
+        property.setValue( hidden, "changed" );
+        assertEquals( "secret", hidden.secret );
+    }
+
+    @Test
+    void testPackagePrivateClass()
+        throws NoSuchMethodException
+    {
+        Property property = createProperty( Visible.class, "getValue", "setValue", String.class );
+        Visible visible = new Visible();
+
+        property.setValue( visible, "value" );
+        assertEquals( "value", property.getValue( visible ) );
+    }
+
+    private static Property createProperty( Class<?> klass, String getter, String setter, Class<?> type )
+        throws NoSuchMethodException
+    {
+        return new Property( klass, klass.getMethod( getter ), klass.getMethod( setter, type ) );
+    }
+
+    static class Hidden
+    {
+        private String secret = "secret";
+
+        private String getSecret()
+        {
+            return secret;
+        }
+
+        protected void setSecret( String secret )
+        {
+            this.secret = secret;
+        }
+    }
+
+    static class Failing
+    {
+        public String getValue()
+        {
+            throw new IllegalStateException( "get" );
+        }
+
+        public void setValue( String value )
+        {
+            throw new IllegalStateException( "set" );
+        }
+    }
+
+    static class Visible
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue( String value )
+        {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
+import org.hisp.dhis.user.UserGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CompiledSharing} and {@link SharingPrincipal}.
+ */
+class CompiledSharingTest
+{
+    private static final int READ = 0;
+
+    private static final int WRITE = 1;
+
+    private static final int DATA_READ = 2;
+
+    private User user;
+
+    private UserGroup userGroupA;
+
+    private UserGroup userGroupB;
+
+    @BeforeEach
+    void setUp()
+    {
+        user = new User();
+        user.setUid( "userUid0001" );
+        user.setUserCredentials( new UserCredentials() );
+
+        userGroupA = new UserGroup( "A" );
+        userGroupA.setUid( "groupUid00A" );
+
+        userGroupB = new UserGroup( "B" );
+        userGroupB.setUid( "groupUid00B" );
+    }
+
+    @Test
+    void testToMask()
+    {
+        assertEquals( 0b1111, CompiledSharing.toMask( null ) );
+        assertEquals( 0b0000, CompiledSharing.toMask( "--------" ) );
+        assertEquals( 0b0011, CompiledSharing.toMask( "rw------" ) );
+        assertEquals( 0b0101, CompiledSharing.toMask( "r-r-----" ) );
+        assertEquals( 0b1111, CompiledSharing.toMask( "rwrw----" ) );
+        assertEquals( 0b0000, CompiledSharing.toMask( "wr------" ) );
+        assertEquals( 0b0000, CompiledSharing.toMask( "rw--x---" ) );
+        assertEquals( 0b0000, CompiledSharing.toMask( "rw" ) );
+    }
+
+    @Test
+    void testPublicAccess()
+    {
+        Sharing sharing = Sharing.builder().publicAccess( "r-------" ).build();
+
+        assertTrue( sharing.compile().isEnabled( user.getSharingPrincipal(), READ ) );
+        assertFalse( sharing.compile().isEnabled( user.getSharingPrincipal(), WRITE ) );
+    }
+
+    @Test
+    void testUserAccess()
+    {
+        Sharing sharing = new Sharing( "--------", new UserAccess( "rw------", user.getUid() ),
+            new UserAccess( "rwrw----", "otherUser01" ) );
+
+        assertTrue( sharing.compile().isEnabled( user.getSharingPrincipal(), WRITE ) );
+        assertFalse( sharing.compile().isEnabled( user.getSharingPrincipal(), DATA_READ ) );
+    }
+
+    @Test
+    void testUserGroupAccess()
+    {
+        user.getGroups().add( userGroupA );
+
+        Sharing sharing = new Sharing( "--------", new UserGroupAccess( "r-------", userGroupA.getUid() ),
+            new UserGroupAccess( "rw------", userGroupB.getUid() ) );
+
+        assertTrue( sharing.compile().isEnabled( user.getSharingPrincipal(), READ ) );
+        assertFalse( sharing.compile().isEnabled( user.getSharingPrincipal(), WRITE ) );
+    }
+
+    @Test
+    void testCompiledSharingIsReusedUntilChanged()
+    {
+        user.getGroups().add( userGroupB );
+
+        Sharing sharing = new Sharing( "--------", new UserGroupAccess( "r-------", userGroupB.getUid() ) );
+
+        CompiledSharing compiled = sharing.compile();
+
+        assertSame( compiled, sharing.compile() );
+        assertFalse( compiled.isEnabled( user.getSharingPrincipal(), WRITE ) );
+
+        sharing.addUserGroupAccess( new UserGroupAccess( "rw------", userGroupB.getUid() ) );
+
+        assertNotSame( compiled, sharing.compile() );
+        assertTrue( sharing.compile().isEnabled( user.getSharingPrincipal(), WRITE ) );
+
+        compiled = sharing.compile();
+        sharing.setPublicAccess( "rwrw----" );
+
+        assertNotSame( compiled, sharing.compile() );
+        assertTrue( sharing.compile().isEnabled( user.getSharingPrincipal(), DATA_READ ) );
+    }
+
+    @Test
+    void testSharingPrincipalFollowsUserGroups()
+    {
+        SharingPrincipal principal = user.getSharingPrincipal();
+
+        assertSame( principal, user.getSharingPrincipal() );
+        assertFalse( principal.isMemberOf( userGroupA.getUid() ) );
+
+        user.getGroups().add( userGroupA );
+
+        assertTrue( user.getSharingPrincipal().isMemberOf( userGroupA.getUid() ) );
+
+        user.getGroups().remove( userGroupA );
+        user.getGroups().add( userGroupB );
+
+        assertFalse( user.getSharingPrincipal().isMemberOf( userGroupA.getUid() ) );
+        assertTrue( user.getSharingPrincipal().isMemberOf( userGroupB.getUid() ) );
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user.sharing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
+import org.hisp.dhis.user.UserGroup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares checking sharing access through {@link CompiledSharing} and
+ * {@link SharingPrincipal} with scanning the access strings of all user group
+ * accesses against all groups of the user, the way
+ * {@code DefaultAclService} used to. The user is a member of none of the
+ * shared groups, which is the worst case for both.
+ * <p>
+ * Run with the test classpath, e.g. from the IDE, through {@link #main}.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class SharingAccessBenchmark
+{
+    private static final int USER_GROUPS = 20;
+
+    private static final int DATA_READ = 2;
+
+    @Param( { "10", "100", "1000" } )
+    private int userGroupAccesses;
+
+    private User user;
+
+    private Sharing sharing;
+
+    @Setup
+    public void setUp()
+    {
+        user = new User();
+        user.setUid( CodeGenerator.generateUid() );
+        user.setUserCredentials( new UserCredentials() );
+
+        for ( int i = 0; i < USER_GROUPS; i++ )
+        {
+            UserGroup userGroup = new UserGroup( "Group " + i );
+            userGroup.setUid( CodeGenerator.generateUid() );
+            user.getGroups().add( userGroup );
+        }
+
+        Map<String, UserGroupAccess> userGroups = new HashMap<>();
+
+        for ( int i = 0; i < userGroupAccesses; i++ )
+        {
+            String uid = CodeGenerator.generateUid();
+            userGroups.put( uid, new UserGroupAccess( "rwrw----", uid ) );
+        }
+
+        sharing = Sharing.builder().publicAccess( "--------" ).users( new HashMap<>() ).userGroups( userGroups )
+            .build();
+    }
+
+    @Benchmark
+    public boolean scanAccessStrings()
+    {
+        if ( isEnabled( sharing.getPublicAccess(), DATA_READ ) )
+        {
+            return true;
+        }
+
+        for ( UserGroupAccess userGroupAccess : sharing.getUserGroups().values() )
+        {
+            if ( isEnabled( userGroupAccess.getAccess(), DATA_READ )
+                && isMember( user.getGroups(), userGroupAccess.getId() ) )
+            {
+                return true;
+            }
+        }
+
+        for ( UserAccess userAccess : sharing.getUsers().values() )
+        {
+            if ( isEnabled( userAccess.getAccess(), DATA_READ ) && user.getUid().equals( userAccess.getId() ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Benchmark
+    public boolean compiledSharing()
+    {
+        return sharing.compile().isEnabled( user.getSharingPrincipal(), DATA_READ );
+    }
+
+    /**
+     * Same check as {@code AccessStringHelper.isEnabled} used to do.
+     */
+    private static boolean isEnabled( String access, int position )
+    {
+        return access == null || (access.length() == 8 && access.charAt( position ) == "rwrw".charAt( position ));
+    }
+
+    private static boolean isMember( Set<UserGroup> userGroups, String userGroupUid )
+    {
+        for ( UserGroup userGroup : userGroups )
+        {
+            if ( userGroup.getUid().equals( userGroupUid ) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static void main( String[] args )
+        throws RunnerException
+    {
+        new Runner( new OptionsBuilder().include( SharingAccessBenchmark.class.getSimpleName() ).build() ).run();
+    }
+}
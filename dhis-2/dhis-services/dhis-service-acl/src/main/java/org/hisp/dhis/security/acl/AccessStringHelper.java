@@ -28,6 +28,7 @@
 package org.hisp.dhis.security.acl;
 
 import org.hisp.dhis.common.BaseIdentifiableObject;
+import org.hisp.dhis.user.sharing.CompiledSharing;
 import org.springframework.util.Assert;
 
 /**
@@ -199,8 +200,7 @@ public class AccessStringHelper
 
     public static boolean isEnabled( String access, Permission permission )
     {
-        return access == null
-            || (validateAccessString( access ) && access.charAt( permission.getPosition() ) == permission.getValue());
+        return (CompiledSharing.toMask( access ) & (1 << permission.getPosition())) != 0;
     }
 
     public static boolean isValid( String access )
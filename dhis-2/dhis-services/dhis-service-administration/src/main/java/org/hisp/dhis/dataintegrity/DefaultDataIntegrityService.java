@@ -39,8 +39,10 @@ import static org.hisp.dhis.dataintegrity.DataIntegrityYamlReader.readDataIntegr
 import static org.hisp.dhis.expression.ParseType.INDICATOR_EXPRESSION;
 import static org.hisp.dhis.expression.ParseType.VALIDATION_RULE_EXPRESSION;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -52,17 +54,20 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.function.ObjLongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import javax.annotation.PostConstruct;
 
-import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dataelement.DataElement;
@@ -75,6 +80,8 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expression.ExpressionValidationOutcome;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.indicator.Indicator;
@@ -98,8 +105,13 @@ import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.validation.ValidationRule;
 import org.hisp.dhis.validation.ValidationRuleService;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Lars Helge Overland
@@ -107,7 +119,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service( "org.hisp.dhis.dataintegrity.DataIntegrityService" )
 @Transactional
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class DefaultDataIntegrityService
     implements DataIntegrityService
 {
@@ -145,6 +157,18 @@ public class DefaultDataIntegrityService
 
     private final SessionFactory sessionFactory;
 
+    private final DhisConfigurationProvider config;
+
+    private final CacheProvider cacheProvider;
+
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Summary results by check name, so that polling clients do not run the
+     * checks again.
+     */
+    private Cache<DataIntegritySummary> summaryCache;
+
     private static int alphabeticalOrder( DataIntegrityIssue a, DataIntegrityIssue b )
     {
         return a.getName().compareTo( b.getName() );
@@ -515,6 +539,9 @@ public class DefaultDataIntegrityService
     @PostConstruct
     public void initIntegrityChecks()
     {
+        summaryCache = cacheProvider.createDataIntegritySummaryCache( Duration.ofSeconds(
+            Long.parseLong( config.getProperty( ConfigurationKey.DATA_INTEGRITY_SUMMARY_CACHE_TTL ) ) ) );
+
         registerNonDatabaseIntegrityCheck( DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_DATA_SETS,
             this::getDataElementsWithoutDataSet );
         registerNonDatabaseIntegrityCheck( DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS,
@@ -787,8 +814,20 @@ public class DefaultDataIntegrityService
     @Transactional( readOnly = true )
     public Map<String, DataIntegritySummary> getSummaries( Set<String> checks, JobProgress progress )
     {
-        return runDataIntegrityChecks( "Data Integrity summary checks", expandChecks( checks ), progress,
-            check -> check.getRunSummaryCheck().apply( check ) );
+        Set<String> names = expandChecks( checks );
+        Map<String, DataIntegritySummary> cached = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for ( String name : names )
+        {
+            summaryCache.getIfPresent( name ).ifPresentOrElse( summary -> cached.put( name, summary ),
+                () -> missing.add( name ) );
+        }
+        Map<String, DataIntegritySummary> computed = runDataIntegrityChecks( "Data Integrity summary checks",
+            missing, progress, check -> check.getRunSummaryCheck().apply( check ),
+            DataIntegritySummary::setExecutionTime );
+        computed.forEach( summaryCache::put );
+        cached.putAll( computed );
+        return inOrderOf( names, cached );
     }
 
     @Override
@@ -796,26 +835,91 @@ public class DefaultDataIntegrityService
     public Map<String, DataIntegrityDetails> getDetails( Set<String> checks, JobProgress progress )
     {
         return runDataIntegrityChecks( "Data Integrity details checks", expandChecks( checks ), progress,
-            check -> check.getRunDetailsCheck().apply( check ) );
+            check -> check.getRunDetailsCheck().apply( check ), DataIntegrityDetails::setExecutionTime );
     }
 
+    /**
+     * Runs the given checks, in parallel when a parallelism greater than 1 is
+     * configured. Each check then runs in its own read-only transaction, which
+     * also enforces the configured per-check timeout.
+     *
+     * @param setExecutionTime records the execution time of a check in
+     *        milliseconds on its result
+     * @return the results by check name, in order of the given checks
+     */
     private <T> Map<String, T> runDataIntegrityChecks( String stageDesc, Set<String> checks, JobProgress progress,
-        Function<DataIntegrityCheck, T> runCheck )
+        Function<DataIntegrityCheck, T> runCheck, ObjLongConsumer<T> setExecutionTime )
     {
+        int parallelism = Integer.parseInt( config.getProperty( ConfigurationKey.DATA_INTEGRITY_PARALLELISM ) );
+        int timeout = Integer.parseInt( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT ) );
+        Function<DataIntegrityCheck, T> run = parallelism > 1 || timeout > 0
+            ? inNewTransaction( runCheck, timeout )
+            : runCheck;
+
         progress.startingProcess( "Data Integrity check" );
         progress.startingStage( stageDesc, checks.size() );
-        Map<String, T> checkResults = new LinkedHashMap<>();
-        progress.runStage( checks.stream().map( checksByName::get ).filter( Objects::nonNull ),
+        Map<String, T> checkResults = new ConcurrentHashMap<>();
+        progress.runStageInParallel( parallelism,
+            checks.stream().map( checksByName::get ).filter( Objects::nonNull ).collect( toList() ),
             DataIntegrityCheck::getDescription,
             check -> {
-                T res = runCheck.apply( check );
+                long startTime = System.currentTimeMillis();
+                T res = run.apply( check );
+                long executionTime = System.currentTimeMillis() - startTime;
+                log.debug( "Data integrity check '{}' took {} ms", check.getName(), executionTime );
                 if ( res != null )
                 {
+                    setExecutionTime.accept( res, executionTime );
                     checkResults.put( check.getName(), res );
                 }
             } );
         progress.completedProcess( null );
-        return checkResults;
+        return inOrderOf( checks, checkResults );
+    }
+
+    /**
+     * Wraps the given check in a new read-only transaction, bound to the thread
+     * and security context running the check.
+     *
+     * @param timeout the transaction timeout in seconds, 0 for none
+     */
+    private <T> Function<DataIntegrityCheck, T> inNewTransaction( Function<DataIntegrityCheck, T> runCheck,
+        int timeout )
+    {
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+        transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+        transactionTemplate.setReadOnly( true );
+        if ( timeout > 0 )
+        {
+            transactionTemplate.setTimeout( timeout );
+        }
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return check -> {
+            SecurityContext previousContext = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext( securityContext );
+            try
+            {
+                return transactionTemplate.execute( status -> runCheck.apply( check ) );
+            }
+            finally
+            {
+                SecurityContextHolder.setContext( previousContext );
+            }
+        };
+    }
+
+    private static <T> Map<String, T> inOrderOf( Set<String> names, Map<String, T> results )
+    {
+        Map<String, T> ordered = new LinkedHashMap<>();
+        for ( String name : names )
+        {
+            T res = results.get( name );
+            if ( res != null )
+            {
+                ordered.put( name, res );
+            }
+        }
+        return ordered;
     }
 
     private Set<String> expandChecks( Set<String> names )
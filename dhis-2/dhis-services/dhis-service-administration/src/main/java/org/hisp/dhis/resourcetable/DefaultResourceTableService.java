@@ -29,9 +29,13 @@ package org.hisp.dhis.resourcetable;
 
 import static java.util.Comparator.reverseOrder;
 import static java.util.stream.Collectors.toList;
+import static org.hisp.dhis.external.conf.ConfigurationKey.RESOURCE_TABLES_INCREMENTAL;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +50,7 @@ import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroupSet;
 import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.indicator.IndicatorGroupSet;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupSet;
@@ -98,11 +103,19 @@ public class DefaultResourceTableService
 
     private final StatementBuilder statementBuilder;
 
+    private final DhisConfigurationProvider config;
+
+    /**
+     * Signatures of the source tables of each resource table type as of the
+     * last generation, used in incremental mode.
+     */
+    private final Map<ResourceTableType, String> sourceTableSignatures = new ConcurrentHashMap<>();
+
     @Override
     @Transactional
     public void generateOrganisationUnitStructures()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitStructureResourceTable(
+        generateResourceTable( ResourceTableType.ORG_UNIT_STRUCTURE, () -> new OrganisationUnitStructureResourceTable(
             null, organisationUnitService, organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
 
@@ -110,48 +123,54 @@ public class DefaultResourceTableService
     @Transactional
     public void generateDataSetOrganisationUnitCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new DataSetOrganisationUnitCategoryResourceTable(
-            idObjectManager.getAllNoAcl( DataSet.class ), categoryService.getDefaultCategoryOptionCombo() ) );
+        generateResourceTable( ResourceTableType.DATA_SET_ORG_UNIT_CATEGORY,
+            () -> new DataSetOrganisationUnitCategoryResourceTable(
+                idObjectManager.getAllNoAcl( DataSet.class ), categoryService.getDefaultCategoryOptionCombo() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryOptionComboNames()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboNameResourceTable(
-            idObjectManager.getAllNoAcl( CategoryCombo.class ) ) );
+        generateResourceTable( ResourceTableType.CATEGORY_OPTION_COMBO_NAME,
+            () -> new CategoryOptionComboNameResourceTable(
+                idObjectManager.getAllNoAcl( CategoryCombo.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateDataElementGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementGroupSetResourceTable(
-            idObjectManager.getDataDimensionsNoAcl( DataElementGroupSet.class ) ) );
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE,
+            () -> new DataElementGroupSetResourceTable(
+                idObjectManager.getDataDimensionsNoAcl( DataElementGroupSet.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateIndicatorGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new IndicatorGroupSetResourceTable(
-            idObjectManager.getAllNoAcl( IndicatorGroupSet.class ) ) );
+        generateResourceTable( ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE,
+            () -> new IndicatorGroupSetResourceTable(
+                idObjectManager.getAllNoAcl( IndicatorGroupSet.class ) ) );
     }
 
     @Override
     @Transactional
     public void generateOrganisationUnitGroupSetTable()
     {
-        resourceTableStore.generateResourceTable( new OrganisationUnitGroupSetResourceTable(
-            idObjectManager.getDataDimensionsNoAcl( OrganisationUnitGroupSet.class ),
-            statementBuilder.supportsPartialIndexes(), organisationUnitService.getNumberOfOrganisationalLevels() ) );
+        generateResourceTable( ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE,
+            () -> new OrganisationUnitGroupSetResourceTable(
+                idObjectManager.getDataDimensionsNoAcl( OrganisationUnitGroupSet.class ),
+                statementBuilder.supportsPartialIndexes(),
+                organisationUnitService.getNumberOfOrganisationalLevels() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryResourceTable(
+        generateResourceTable( ResourceTableType.CATEGORY_STRUCTURE, () -> new CategoryResourceTable(
             idObjectManager.getDataDimensionsNoAcl( Category.class ),
             idObjectManager.getDataDimensionsNoAcl( CategoryOptionGroupSet.class ) ) );
     }
@@ -160,34 +179,37 @@ public class DefaultResourceTableService
     @Transactional
     public void generateDataElementTable()
     {
-        resourceTableStore.generateResourceTable( new DataElementResourceTable(
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_STRUCTURE, () -> new DataElementResourceTable(
             idObjectManager.getAllNoAcl( DataElement.class ) ) );
     }
 
     @Override
     public void generateDatePeriodTable()
     {
-        resourceTableStore.generateResourceTable( new DatePeriodResourceTable( null ) );
+        generateResourceTable( ResourceTableType.DATE_PERIOD_STRUCTURE, () -> new DatePeriodResourceTable( null ) );
     }
 
     @Override
     @Transactional
     public void generatePeriodTable()
     {
-        resourceTableStore.generateResourceTable( new PeriodResourceTable( periodService.getAllPeriods() ) );
+        generateResourceTable( ResourceTableType.PERIOD_STRUCTURE,
+            () -> new PeriodResourceTable( periodService.getAllPeriods() ) );
     }
 
     @Override
     @Transactional
     public void generateCategoryOptionComboTable()
     {
-        resourceTableStore.generateResourceTable( new CategoryOptionComboResourceTable( null ) );
+        generateResourceTable( ResourceTableType.DATA_ELEMENT_CATEGORY_OPTION_COMBO,
+            () -> new CategoryOptionComboResourceTable( null ) );
     }
 
     @Override
     public void generateDataApprovalRemapLevelTable()
     {
-        resourceTableStore.generateResourceTable( new DataApprovalRemapLevelResourceTable( null ) );
+        generateResourceTable( ResourceTableType.DATA_APPROVAL_REMAP_LEVEL,
+            () -> new DataApprovalRemapLevelResourceTable( null ) );
     }
 
     @Override
@@ -198,7 +220,43 @@ public class DefaultResourceTableService
 
         if ( orgUnitLevels.size() > 0 )
         {
-            resourceTableStore.generateResourceTable( new DataApprovalMinLevelResourceTable( orgUnitLevels ) );
+            generateResourceTable( ResourceTableType.DATA_APPROVAL_MIN_LEVEL,
+                () -> new DataApprovalMinLevelResourceTable( orgUnitLevels ) );
+        }
+    }
+
+    /**
+     * Generates the resource table of the given type. In incremental mode the
+     * generation is skipped if the resource table exists and none of its source
+     * tables have changed since the last generation. The resource table is
+     * supplied lazily so that no metadata is loaded when generation is
+     * skipped.
+     *
+     * @param tableType the {@link ResourceTableType}.
+     * @param resourceTable the supplier of the {@link ResourceTable}.
+     */
+    private void generateResourceTable( ResourceTableType tableType, Supplier<ResourceTable<?>> resourceTable )
+    {
+        String signature = config.isEnabled( RESOURCE_TABLES_INCREMENTAL )
+            ? resourceTableStore.getSourceTableSignature( tableType )
+            : null;
+
+        if ( signature != null && signature.equals( sourceTableSignatures.get( tableType ) )
+            && resourceTableStore.resourceTableExists( tableType ) )
+        {
+            log.info( "Skipping resource table '{}', source tables unchanged", tableType.getTableName() );
+            return;
+        }
+
+        resourceTableStore.generateResourceTable( resourceTable.get() );
+
+        if ( signature != null )
+        {
+            sourceTableSignatures.put( tableType, signature );
+        }
+        else
+        {
+            sourceTableSignatures.remove( tableType );
         }
     }
 
@@ -29,8 +29,12 @@ package org.hisp.dhis.resourcetable.jdbc;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,6 +45,7 @@ import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
+import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.system.util.Clock;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -53,6 +58,12 @@ import org.springframework.stereotype.Service;
 public class JdbcResourceTableStore
     implements ResourceTableStore
 {
+    /**
+     * Number of rows to insert per batch when populating resource tables from
+     * content.
+     */
+    private static final int BATCH_SIZE = 5000;
+
     // -------------------------------------------------------------------------
     // Dependencies
     // -------------------------------------------------------------------------
@@ -91,7 +102,7 @@ public class JdbcResourceTableStore
         final Clock clock = new Clock().startClock();
         final String createTableSql = resourceTable.getCreateTempTableStatement();
         final Optional<String> populateTableSql = resourceTable.getPopulateTempTableStatement();
-        final Optional<List<Object[]>> populateTableContent = resourceTable.getPopulateTempTableContent();
+        final Optional<Stream<Object[]>> populateTableContent = resourceTable.getPopulateTempTableContent();
         final List<String> createIndexSql = resourceTable.getCreateIndexStatements();
         final String analyzeTableSql = statementBuilder.getAnalyze( resourceTable.getTableName() );
 
@@ -124,15 +135,11 @@ public class JdbcResourceTableStore
         }
         else if ( populateTableContent.isPresent() )
         {
-            List<Object[]> content = populateTableContent.get();
-
-            log.debug( String.format( "Populate table content rows: '%d'", content.size() ) );
-
-            if ( content.size() > 0 )
+            try ( Stream<Object[]> content = populateTableContent.get() )
             {
-                int columns = content.get( 0 ).length;
+                long rows = batchUpdate( resourceTable.getTempTableName(), content );
 
-                batchUpdate( columns, resourceTable.getTempTableName(), content );
+                log.debug( String.format( "Populate table content rows: '%d'", rows ) );
             }
         }
 
@@ -200,6 +207,73 @@ public class JdbcResourceTableStore
             return;
         }
 
+        jdbcTemplate.batchUpdate( getInsertSql( columns, tableName ), batchArgs );
+    }
+
+    @Override
+    public String getSourceTableSignature( ResourceTableType tableType )
+    {
+        if ( !tableType.hasSourceTables() )
+        {
+            return null;
+        }
+
+        // The transaction id of the most recent row version changes on inserts
+        // and updates, the row count changes on deletes
+
+        String sql = tableType.getSourceTables().stream()
+            .map( table -> "select '" + table + "' as tablename, count(*) as rowcount, " +
+                "max(xmin::text::bigint) as maxxmin from " + table )
+            .collect( Collectors.joining( " union all " ) );
+
+        return jdbcTemplate.query( sql, ( rs, rowNum ) -> rs.getString( "tablename" ) + ":" +
+            rs.getLong( "rowcount" ) + ":" + rs.getLong( "maxxmin" ) )
+            .stream()
+            .collect( Collectors.joining( "," ) );
+    }
+
+    @Override
+    public boolean resourceTableExists( ResourceTableType tableType )
+    {
+        return dbmsManager.tableExists( tableType.getTableName() );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Inserts the given content into the given table in batches of
+     * {@link #BATCH_SIZE} rows, so that the content is never held in memory
+     * in its entirety.
+     *
+     * @param tableName the name of the table to insert into.
+     * @param content the content.
+     * @return the number of inserted rows.
+     */
+    private long batchUpdate( String tableName, Stream<Object[]> content )
+    {
+        Iterator<Object[]> iterator = content.iterator();
+        List<Object[]> batch = new ArrayList<>( BATCH_SIZE );
+        long rows = 0;
+
+        while ( iterator.hasNext() )
+        {
+            batch.add( iterator.next() );
+
+            if ( batch.size() == BATCH_SIZE || !iterator.hasNext() )
+            {
+                batchUpdate( batch.get( 0 ).length, tableName, batch );
+                rows += batch.size();
+                batch.clear();
+            }
+        }
+
+        return rows;
+    }
+
+    private String getInsertSql( int columns, String tableName )
+    {
         StringBuilder builder = new StringBuilder( "insert into " + tableName + " values (" );
 
         for ( int i = 0; i < columns; i++ )
@@ -207,8 +281,6 @@ public class JdbcResourceTableStore
             builder.append( "?," );
         }
 
-        builder.deleteCharAt( builder.length() - 1 ).append( ")" );
-
-        jdbcTemplate.batchUpdate( builder.toString(), batchArgs );
+        return builder.deleteCharAt( builder.length() - 1 ).append( ")" ).toString();
     }
 }
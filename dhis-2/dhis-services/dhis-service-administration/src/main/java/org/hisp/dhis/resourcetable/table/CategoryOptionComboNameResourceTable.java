@@ -32,11 +32,11 @@ import static org.hisp.dhis.dataapproval.DataApprovalLevelService.APPROVAL_LEVEL
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.category.CategoryCombo;
-import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableType;
 
@@ -76,20 +76,20 @@ public class CategoryOptionComboNameResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for ( CategoryCombo combo : objects )
-        {
-            if ( !combo.isValid() )
-            {
-                log.warn( "Ignoring category combo, not valid: " + combo );
-                continue;
-            }
-
-            for ( CategoryOptionCombo coc : combo.getOptionCombos() )
-            {
+        return Optional.of( objects.stream()
+            .filter( combo -> {
+                if ( !combo.isValid() )
+                {
+                    log.warn( "Ignoring category combo, not valid: " + combo );
+                    return false;
+                }
+
+                return true;
+            } )
+            .flatMap( combo -> combo.getOptionCombos().stream() )
+            .map( coc -> {
                 List<Object> values = new ArrayList<>();
 
                 values.add( coc.getId() );
@@ -98,11 +98,8 @@ public class CategoryOptionComboNameResourceTable
                 values.add( coc.getLatestStartDate() );
                 values.add( coc.getEarliestEndDate() );
 
-                batchArgs.add( values.toArray() );
-            }
-        }
-
-        return Optional.of( batchArgs );
+                return values.toArray();
+            } ) );
     }
 
     @Override
@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable.table;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.resourcetable.ResourceTable;
@@ -80,7 +81,7 @@ public class CategoryOptionComboResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         return Optional.empty();
     }
@@ -31,6 +31,7 @@ import static org.hisp.dhis.system.util.SqlUtils.quote;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.category.Category;
 import org.hisp.dhis.category.CategoryOptionGroupSet;
@@ -140,7 +141,7 @@ public class CategoryResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         return Optional.empty();
     }
@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable.table;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
@@ -100,7 +101,7 @@ public class DataApprovalMinLevelResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         return Optional.empty();
     }
@@ -29,6 +29,7 @@ package org.hisp.dhis.resourcetable.table;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.resourcetable.ResourceTable;
@@ -96,7 +97,7 @@ public class DataApprovalRemapLevelResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         return Optional.empty();
     }
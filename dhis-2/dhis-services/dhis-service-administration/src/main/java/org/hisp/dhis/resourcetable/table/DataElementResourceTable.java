@@ -32,6 +32,7 @@ import static org.hisp.dhis.dataapproval.DataApprovalLevelService.APPROVAL_LEVEL
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
@@ -83,12 +84,9 @@ public class DataElementResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for ( DataElement dataElement : objects )
-        {
+        return Optional.of( objects.stream().map( dataElement -> {
             List<Object> values = new ArrayList<>();
 
             final DataSet dataSet = dataElement.getApprovalDataSet();
@@ -110,10 +108,8 @@ public class DataElementResourceTable
             values.add( periodType != null ? periodType.getId() : null );
             values.add( periodType != null ? periodType.getName() : null );
 
-            batchArgs.add( values.toArray() );
-        }
-
-        return Optional.of( batchArgs );
+            return values.toArray();
+        } ) );
     }
 
     @Override
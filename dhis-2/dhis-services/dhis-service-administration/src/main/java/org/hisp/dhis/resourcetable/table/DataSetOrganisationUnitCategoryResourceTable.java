@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.category.CategoryOption;
@@ -88,52 +89,53 @@ public class DataSetOrganisationUnitCategoryResourceTable
      * not, use the default category option combo.
      */
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
+    {
+        return Optional.of( objects.stream()
+            .flatMap( dataSet -> dataSet.getSources().stream()
+                .flatMap( orgUnit -> getRows( dataSet, orgUnit ).stream() ) ) );
+    }
+
+    private List<Object[]> getRows( DataSet dataSet, OrganisationUnit orgUnit )
     {
         List<Object[]> batchArgs = new ArrayList<>();
 
-        for ( DataSet dataSet : objects )
-        {
-            CategoryCombo categoryCombo = dataSet.getCategoryCombo();
+        CategoryCombo categoryCombo = dataSet.getCategoryCombo();
 
-            for ( OrganisationUnit orgUnit : dataSet.getSources() )
+        if ( !categoryCombo.isDefault() )
+        {
+            if ( orgUnit.hasCategoryOptions() )
             {
-                if ( !categoryCombo.isDefault() )
-                {
-                    if ( orgUnit.hasCategoryOptions() )
-                    {
-                        Set<CategoryOption> orgUnitOptions = orgUnit.getCategoryOptions();
+                Set<CategoryOption> orgUnitOptions = orgUnit.getCategoryOptions();
 
-                        for ( CategoryOptionCombo optionCombo : categoryCombo.getOptionCombos() )
-                        {
-                            Set<CategoryOption> optionComboOptions = optionCombo.getCategoryOptions();
+                for ( CategoryOptionCombo optionCombo : categoryCombo.getOptionCombos() )
+                {
+                    Set<CategoryOption> optionComboOptions = optionCombo.getCategoryOptions();
 
-                            if ( orgUnitOptions.containsAll( optionComboOptions ) )
-                            {
-                                Date startDate = DateUtils.min( optionComboOptions.stream()
-                                    .map( co -> co.getStartDate() ).collect( Collectors.toSet() ) );
-                                Date endDate = DateUtils.max( optionComboOptions.stream()
-                                    .map( co -> co.getAdjustedEndDate( dataSet ) ).collect( Collectors.toSet() ) );
+                    if ( orgUnitOptions.containsAll( optionComboOptions ) )
+                    {
+                        Date startDate = DateUtils.min( optionComboOptions.stream()
+                            .map( co -> co.getStartDate() ).collect( Collectors.toSet() ) );
+                        Date endDate = DateUtils.max( optionComboOptions.stream()
+                            .map( co -> co.getAdjustedEndDate( dataSet ) ).collect( Collectors.toSet() ) );
 
-                                List<Object> values = Lists.newArrayList( dataSet.getId(), orgUnit.getId(),
-                                    optionCombo.getId(), startDate, endDate );
+                        List<Object> values = Lists.newArrayList( dataSet.getId(), orgUnit.getId(),
+                            optionCombo.getId(), startDate, endDate );
 
-                                batchArgs.add( values.toArray() );
-                            }
-                        }
+                        batchArgs.add( values.toArray() );
                     }
                 }
-                else
-                {
-                    List<Object> values = Lists.newArrayList( dataSet.getId(), orgUnit.getId(),
-                        defaultOptionCombo.getId(), null, null );
-
-                    batchArgs.add( values.toArray() );
-                }
             }
         }
+        else
+        {
+            List<Object> values = Lists.newArrayList( dataSet.getId(), orgUnit.getId(),
+                defaultOptionCombo.getId(), null, null );
+
+            batchArgs.add( values.toArray() );
+        }
 
-        return Optional.of( batchArgs );
+        return batchArgs;
     }
 
     @Override
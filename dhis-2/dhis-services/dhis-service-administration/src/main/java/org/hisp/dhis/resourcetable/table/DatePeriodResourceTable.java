@@ -34,6 +34,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.commons.collection.UniqueArrayList;
@@ -84,12 +85,10 @@ public class DatePeriodResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         List<PeriodType> periodTypes = PeriodType.getAvailablePeriodTypes();
 
-        List<Object[]> batchArgs = new ArrayList<>();
-
         // TODO Create a dynamic solution instead of having fixed dates
 
         Date startDate = new Cal( 1975, 1, 1, true ).time();
@@ -102,8 +101,7 @@ public class DatePeriodResourceTable
 
         Calendar calendar = PeriodType.getCalendar();
 
-        for ( Date day : days )
-        {
+        return Optional.of( days.stream().map( day -> {
             List<Object> values = new ArrayList<>();
 
             final int year = PeriodType.getCalendar().fromIso( day ).getYear();
@@ -116,10 +114,8 @@ public class DatePeriodResourceTable
                 values.add( periodType.createPeriod( day, calendar ).getIsoDate() );
             }
 
-            batchArgs.add( values.toArray() );
-        }
-
-        return Optional.of( batchArgs );
+            return values.toArray();
+        } ) );
     }
 
     @Override
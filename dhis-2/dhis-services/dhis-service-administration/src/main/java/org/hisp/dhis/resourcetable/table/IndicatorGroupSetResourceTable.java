@@ -31,6 +31,7 @@ import static org.hisp.dhis.system.util.SqlUtils.quote;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.indicator.IndicatorGroupSet;
@@ -106,7 +107,7 @@ public class IndicatorGroupSetResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         return Optional.empty();
     }
@@ -30,11 +30,12 @@ package org.hisp.dhis.resourcetable.table;
 import static org.hisp.dhis.system.util.SqlUtils.quote;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
@@ -92,49 +93,42 @@ public class OrganisationUnitStructureResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
-        List<Object[]> batchArgs = new ArrayList<>();
-
-        for ( int i = 0; i < organisationUnitLevels; i++ )
-        {
-            int level = i + 1;
-
-            Collection<OrganisationUnit> units = organisationUnitService.getOrganisationUnitsAtLevel( level );
-
-            for ( OrganisationUnit unit : units )
-            {
-                List<Object> values = new ArrayList<>();
+        return Optional.of( IntStream.rangeClosed( 1, organisationUnitLevels ).boxed()
+            .flatMap( level -> organisationUnitService.getOrganisationUnitsAtLevel( level ).stream()
+                .map( unit -> getRow( unit, level ) ) ) );
+    }
 
-                values.add( unit.getId() );
-                values.add( unit.getUid() );
-                values.add( level );
+    private Object[] getRow( OrganisationUnit unit, int level )
+    {
+        List<Object> values = new ArrayList<>();
 
-                Map<Integer, Long> identifiers = new HashMap<>();
-                Map<Integer, String> uids = new HashMap<>();
-                Map<Integer, String> names = new HashMap<>();
+        values.add( unit.getId() );
+        values.add( unit.getUid() );
+        values.add( level );
 
-                for ( int j = level; j > 0; j-- )
-                {
-                    identifiers.put( j, unit.getId() );
-                    uids.put( j, unit.getUid() );
-                    names.put( j, unit.getName() );
+        Map<Integer, Long> identifiers = new HashMap<>();
+        Map<Integer, String> uids = new HashMap<>();
+        Map<Integer, String> names = new HashMap<>();
 
-                    unit = unit.getParent();
-                }
+        for ( int j = level; j > 0; j-- )
+        {
+            identifiers.put( j, unit.getId() );
+            uids.put( j, unit.getUid() );
+            names.put( j, unit.getName() );
 
-                for ( int k = 1; k <= organisationUnitLevels; k++ )
-                {
-                    values.add( identifiers.get( k ) != null ? identifiers.get( k ) : null );
-                    values.add( uids.get( k ) );
-                    values.add( names.get( k ) );
-                }
+            unit = unit.getParent();
+        }
 
-                batchArgs.add( values.toArray() );
-            }
+        for ( int k = 1; k <= organisationUnitLevels; k++ )
+        {
+            values.add( identifiers.get( k ) != null ? identifiers.get( k ) : null );
+            values.add( uids.get( k ) );
+            values.add( names.get( k ) );
         }
 
-        return Optional.of( batchArgs );
+        return values.toArray();
     }
 
     @Override
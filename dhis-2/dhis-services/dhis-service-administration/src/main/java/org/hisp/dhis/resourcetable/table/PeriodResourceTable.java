@@ -34,6 +34,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -89,34 +90,33 @@ public class PeriodResourceTable
     }
 
     @Override
-    public Optional<List<Object[]>> getPopulateTempTableContent()
+    public Optional<Stream<Object[]>> getPopulateTempTableContent()
     {
         Calendar calendar = PeriodType.getCalendar();
 
-        List<Object[]> batchArgs = new ArrayList<>();
-
         Set<String> uniqueIsoDates = new HashSet<>();
 
-        for ( Period period : objects )
-        {
-            if ( period != null && period.isValid() )
-            {
-                final String isoDate = period.getIsoDate();
-
-                final int year = resolveYearFromPeriod( period );
-
-                if ( !uniqueIsoDates.add( isoDate ) )
+        return Optional.of( objects.stream()
+            .filter( period -> period != null && period.isValid() )
+            .filter( period -> {
+                // Protect against duplicates produced by calendar
+                // implementations
+                if ( !uniqueIsoDates.add( period.getIsoDate() ) )
                 {
-                    // Protect against duplicates produced by calendar
-                    // implementations
-                    log.warn( "Duplicate ISO date for period, ignoring: " + period + ", ISO date: " + isoDate );
-                    continue;
+                    log.warn( "Duplicate ISO date for period, ignoring: " + period + ", ISO date: "
+                        + period.getIsoDate() );
+                    return false;
                 }
 
+                return true;
+            } )
+            .map( period -> {
+                final int year = resolveYearFromPeriod( period );
+
                 List<Object> values = new ArrayList<>();
 
                 values.add( period.getId() );
-                values.add( isoDate );
+                values.add( period.getIsoDate() );
                 values.add( period.getDaysInPeriod() );
                 values.add( period.getStartDate() );
                 values.add( period.getEndDate() );
@@ -127,11 +127,8 @@ public class PeriodResourceTable
                     values.add( pe != null ? IdentifiableObjectUtils.getLocalPeriodIdentifier( pe, calendar ) : null );
                 }
 
-                batchArgs.add( values.toArray() );
-            }
-        }
-
-        return Optional.of( batchArgs );
+                return values.toArray();
+            } ) );
     }
 
     @Override
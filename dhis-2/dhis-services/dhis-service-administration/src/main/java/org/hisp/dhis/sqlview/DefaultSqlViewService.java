@@ -42,6 +42,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.commons.util.SqlHelper;
 import org.hisp.dhis.external.conf.ConfigurationKey;
@@ -171,23 +172,36 @@ public class DefaultSqlViewService
     public Grid getSqlViewGrid( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
         List<String> filters, List<String> fields )
     {
-        canAccess( sqlView );
-        validateSqlView( sqlView, criteria, variables );
+        String sql = getSqlViewSql( sqlView, criteria, variables, filters, fields );
 
         Grid grid = new ListGrid();
         grid.setTitle( sqlView.getName() );
         grid.setSubtitle( sqlView.getDescription() );
 
-        log.info( String.format( "Retrieving data for SQL view: '%s'", sqlView.getUid() ) );
-
-        String sql = sqlView.isQuery() ? getSqlForQuery( sqlView, criteria, variables, filters, fields )
-            : getSqlForView( sqlView, criteria, filters, fields );
-
         sqlViewStore.populateSqlViewGrid( grid, sql );
 
         return grid;
     }
 
+    @Override
+    public void writeSqlViewGrid( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
+        List<String> filters, List<String> fields, GridWriter writer )
+    {
+        sqlViewStore.writeSqlViewGrid( writer, getSqlViewSql( sqlView, criteria, variables, filters, fields ) );
+    }
+
+    private String getSqlViewSql( SqlView sqlView, Map<String, String> criteria, Map<String, String> variables,
+        List<String> filters, List<String> fields )
+    {
+        canAccess( sqlView );
+        validateSqlView( sqlView, criteria, variables );
+
+        log.info( String.format( "Retrieving data for SQL view: '%s'", sqlView.getUid() ) );
+
+        return sqlView.isQuery() ? getSqlForQuery( sqlView, criteria, variables, filters, fields )
+            : getSqlForView( sqlView, criteria, filters, fields );
+    }
+
     private void canAccess( SqlView sqlView )
     {
         User currentUser = currentUserService.getCurrentUser();
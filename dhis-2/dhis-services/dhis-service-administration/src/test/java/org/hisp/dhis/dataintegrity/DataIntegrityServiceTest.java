@@ -44,25 +44,33 @@ import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssu
 import static org.hisp.dhis.utils.Assertions.assertContainsOnly;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
@@ -72,6 +80,8 @@ import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.indicator.Indicator;
 import org.hisp.dhis.indicator.IndicatorGroup;
@@ -95,12 +105,14 @@ import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
 import org.hisp.dhis.random.BeanRandomizer;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * @author Lars Helge Overland
@@ -160,6 +172,15 @@ class DataIntegrityServiceTest
     @Mock
     private ProgramRuleActionService programRuleActionService;
 
+    @Mock
+    private DhisConfigurationProvider config;
+
+    @Mock
+    private CacheProvider cacheProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private DefaultDataIntegrityService subject;
 
     private DataElementGroup elementGroupA;
@@ -217,7 +238,7 @@ class DataIntegrityServiceTest
             programRuleVariableService, dataElementService, indicatorService, dataSetService,
             organisationUnitService, organisationUnitGroupService, validationRuleService, expressionService,
             dataEntryFormService, categoryService, periodService, programIndicatorService,
-            mock( SessionFactory.class ) );
+            mock( SessionFactory.class ), config, cacheProvider, transactionManager );
         setUpFixtures();
     }
 
@@ -564,6 +585,51 @@ class DataIntegrityServiceTest
         assertTrue( issues.isEmpty() );
     }
 
+    @Test
+    void testGetSummariesIsCached()
+    {
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_SUMMARY_CACHE_TTL ) ).thenReturn( "60" );
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_PARALLELISM ) ).thenReturn( "1" );
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT ) ).thenReturn( "0" );
+        when( cacheProvider.<DataIntegritySummary> createDataIntegritySummaryCache( any() ) ).thenReturn(
+            new SimpleCacheBuilder<DataIntegritySummary>().expireAfterWrite( 60, TimeUnit.SECONDS ).build() );
+        when( dataElementService.getDataElementsWithoutGroups() ).thenReturn( List.of( elementA, elementB ) );
+        subject.initIntegrityChecks();
+
+        Set<String> checks = Set.of( DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName() );
+        Map<String, DataIntegritySummary> first = subject.getSummaries( checks, NoopJobProgress.INSTANCE );
+        Map<String, DataIntegritySummary> second = subject.getSummaries( checks, NoopJobProgress.INSTANCE );
+
+        DataIntegritySummary summary = first.get( DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName() );
+        assertEquals( 2, summary.getCount() );
+        assertNotNull( summary.getFinishedTime() );
+        assertSame( summary, second.get( DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName() ) );
+        verify( dataElementService, times( 1 ) ).getDataElementsWithoutGroups();
+        verifyNoInteractions( transactionManager );
+    }
+
+    @Test
+    void testGetDetailsInParallel()
+    {
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_SUMMARY_CACHE_TTL ) ).thenReturn( "0" );
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_PARALLELISM ) ).thenReturn( "4" );
+        when( config.getProperty( ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT ) ).thenReturn( "30" );
+        when( dataElementService.getDataElementsWithoutGroups() ).thenReturn( List.of( elementA ) );
+        when( indicatorService.getIndicatorsWithoutGroups() ).thenReturn( List.of( indicatorA, indicatorB ) );
+        subject.initIntegrityChecks();
+
+        String elementCheck = DataIntegrityCheckType.DATA_ELEMENTS_WITHOUT_GROUPS.getName();
+        String indicatorCheck = DataIntegrityCheckType.INDICATORS_WITHOUT_GROUPS.getName();
+        Map<String, DataIntegrityDetails> details = subject.getDetails(
+            new LinkedHashSet<>( List.of( indicatorCheck, elementCheck ) ), NoopJobProgress.INSTANCE );
+
+        assertEquals( List.of( indicatorCheck, elementCheck ), new ArrayList<>( details.keySet() ) );
+        assertEquals( 2, details.get( indicatorCheck ).getIssues().size() );
+        assertEquals( 1, details.get( elementCheck ).getIssues().size() );
+        verify( transactionManager, times( 2 ) )
+            .getTransaction( argThat( definition -> definition.isReadOnly() && definition.getTimeout() == 30 ) );
+    }
+
     private Map<String, DataElement> createRandomDataElements( int quantity, String uidSeed )
     {
 
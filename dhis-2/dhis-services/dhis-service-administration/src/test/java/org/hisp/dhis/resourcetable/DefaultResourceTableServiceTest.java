@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.resourcetable;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.hisp.dhis.category.CategoryService;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.dataapproval.DataApprovalLevelService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.jdbc.StatementBuilder;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.period.PeriodService;
+import org.hisp.dhis.sqlview.SqlViewService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Tests the incremental generation of resource tables in
+ * {@link DefaultResourceTableService}.
+ */
+@ExtendWith( MockitoExtension.class )
+class DefaultResourceTableServiceTest
+{
+    @Mock
+    private ResourceTableStore resourceTableStore;
+
+    @Mock
+    private IdentifiableObjectManager idObjectManager;
+
+    @Mock
+    private OrganisationUnitService organisationUnitService;
+
+    @Mock
+    private PeriodService periodService;
+
+    @Mock
+    private SqlViewService sqlViewService;
+
+    @Mock
+    private DataApprovalLevelService dataApprovalLevelService;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private StatementBuilder statementBuilder;
+
+    @Mock
+    private DhisConfigurationProvider config;
+
+    private DefaultResourceTableService subject;
+
+    @BeforeEach
+    void setUp()
+    {
+        subject = new DefaultResourceTableService( resourceTableStore, idObjectManager, organisationUnitService,
+            periodService, sqlViewService, dataApprovalLevelService, categoryService, statementBuilder, config );
+    }
+
+    @Test
+    void testGenerateIncrementalSkipsUnchangedSourceTables()
+    {
+        when( config.isEnabled( ConfigurationKey.RESOURCE_TABLES_INCREMENTAL ) ).thenReturn( true );
+        when( resourceTableStore.getSourceTableSignature( ResourceTableType.DATA_ELEMENT_STRUCTURE ) )
+            .thenReturn( "dataelement:10:1234," );
+        when( resourceTableStore.resourceTableExists( ResourceTableType.DATA_ELEMENT_STRUCTURE ) )
+            .thenReturn( true );
+
+        subject.generateDataElementTable();
+        subject.generateDataElementTable();
+
+        verify( resourceTableStore, times( 1 ) ).generateResourceTable( any() );
+    }
+
+    @Test
+    void testGenerateIncrementalRegeneratesChangedSourceTables()
+    {
+        when( config.isEnabled( ConfigurationKey.RESOURCE_TABLES_INCREMENTAL ) ).thenReturn( true );
+        when( resourceTableStore.getSourceTableSignature( ResourceTableType.DATA_ELEMENT_STRUCTURE ) )
+            .thenReturn( "dataelement:10:1234," ).thenReturn( "dataelement:11:1240," );
+
+        subject.generateDataElementTable();
+        subject.generateDataElementTable();
+
+        verify( resourceTableStore, times( 2 ) ).generateResourceTable( any() );
+    }
+
+    @Test
+    void testGenerateNotIncremental()
+    {
+        when( config.isEnabled( ConfigurationKey.RESOURCE_TABLES_INCREMENTAL ) ).thenReturn( false );
+
+        subject.generateDataElementTable();
+        subject.generateDataElementTable();
+
+        verify( resourceTableStore, never() ).getSourceTableSignature( any() );
+        verify( resourceTableStore, times( 2 ) ).generateResourceTable( any() );
+    }
+}
@@ -90,6 +90,29 @@ public interface AnalyticsTableManager
         // NOOP by default
     }
 
+    /**
+     * Returns the estimated number of rows in the "latest" partitions of the
+     * analytics tables of this type.
+     *
+     * @return the estimated number of rows in the latest partitions.
+     */
+    default long getLatestPartitionRowCount()
+    {
+        return 0;
+    }
+
+    /**
+     * Moves the rows of the "latest" partition of the given analytics table
+     * into the yearly partitions of the table, then reindexes and analyzes the
+     * yearly partitions which received rows.
+     *
+     * @param table the analytics table.
+     */
+    default void compactLatestPartition( AnalyticsTable table )
+    {
+        // NOOP by default
+    }
+
     /**
      * Attempts to drop and then create analytics table.
      *
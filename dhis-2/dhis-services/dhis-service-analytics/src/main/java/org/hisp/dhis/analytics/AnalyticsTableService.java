@@ -52,6 +52,14 @@ public interface AnalyticsTableService
      */
     void update( AnalyticsTableUpdateParams params, JobProgress progress );
 
+    /**
+     * Returns the estimated number of rows in the "latest" partitions of the
+     * analytics tables.
+     *
+     * @return the estimated number of rows in the latest partitions.
+     */
+    long getLatestPartitionRowCount();
+
     /**
      * Drops main and temporary analytics tables.
      */
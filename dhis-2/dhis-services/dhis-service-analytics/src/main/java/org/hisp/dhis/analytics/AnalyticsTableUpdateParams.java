@@ -70,6 +70,12 @@ public class AnalyticsTableUpdateParams
      */
     private Set<String> skipPrograms = new HashSet<>();
 
+    /**
+     * Indicates whether to move the rows of the "latest" partition into the
+     * yearly partitions after a latest partition update.
+     */
+    private boolean compactLatestPartition;
+
     /**
      * Job ID.
      */
@@ -119,6 +125,11 @@ public class AnalyticsTableUpdateParams
         return skipPrograms;
     }
 
+    public boolean isCompactLatestPartition()
+    {
+        return compactLatestPartition;
+    }
+
     public JobConfiguration getJobId()
     {
         return jobId;
@@ -169,6 +180,7 @@ public class AnalyticsTableUpdateParams
             .add( "skip resource tables", skipResourceTables )
             .add( "skip table types", skipTableTypes )
             .add( "skip programs", skipPrograms )
+            .add( "compact latest partition", compactLatestPartition )
             .add( "start time", DateUtils.getLongDateString( startTime ) )
             .toString();
     }
@@ -212,6 +224,7 @@ public class AnalyticsTableUpdateParams
         params.skipResourceTables = this.skipResourceTables;
         params.skipTableTypes = new HashSet<>( this.skipTableTypes );
         params.skipPrograms = new HashSet<>( this.skipPrograms );
+        params.compactLatestPartition = this.compactLatestPartition;
         params.jobId = this.jobId;
         params.startTime = this.startTime;
         params.lastSuccessfulUpdate = this.lastSuccessfulUpdate;
@@ -276,6 +289,12 @@ public class AnalyticsTableUpdateParams
             return this;
         }
 
+        public Builder withCompactLatestPartition( boolean compactLatestPartition )
+        {
+            this.params.compactLatestPartition = compactLatestPartition;
+            return this;
+        }
+
         public Builder withJobId( JobConfiguration jobId )
         {
             this.params.jobId = jobId;
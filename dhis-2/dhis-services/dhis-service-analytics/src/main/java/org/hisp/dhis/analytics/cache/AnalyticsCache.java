@@ -31,7 +31,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static org.apache.commons.logging.LogFactory.getLog;
 
 import java.time.Duration;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.apache.commons.lang3.SerializationUtils;
@@ -55,6 +59,13 @@ public class AnalyticsCache
 
     private final AnalyticsCacheSettings analyticsCacheSettings;
 
+    /**
+     * Grids currently being fetched, mapped by cache key. Concurrent requests
+     * for the same key wait for the grid being fetched instead of fetching it
+     * again.
+     */
+    private final Map<String, CompletableFuture<Grid>> inFlight = new ConcurrentHashMap<>();
+
     /**
      * Default constructor. Note that a default expiration time is set, as as
      * the TTL will always be overwritten during cache put operations.
@@ -85,6 +96,10 @@ public class AnalyticsCache
      * will be fetched by the function provided. In this case, the fetched Grid
      * will be cached, so the next consumers can hit the cache only.
      *
+     * Concurrent calls for the same DataQueryParams key share a single fetch.
+     * The first caller fetches the Grid while the others wait for it and
+     * receive their own copy, or the exception thrown by the fetch.
+     *
      * The TTL of the cached object will be set accordingly to the cache
      * settings available at
      * {@link org.hisp.dhis.analytics.cache.AnalyticsCacheSettings}.
@@ -95,20 +110,45 @@ public class AnalyticsCache
      */
     public Grid getOrFetch( final DataQueryParams params, final Function<DataQueryParams, Grid> function )
     {
-        final Optional<Grid> cachedGrid = get( params.getKey() );
+        final String key = params.getKey();
+
+        final Optional<Grid> cachedGrid = get( key );
 
         if ( cachedGrid.isPresent() )
         {
             return getGridClone( cachedGrid.get() );
         }
-        else
+
+        final CompletableFuture<Grid> fetch = new CompletableFuture<>();
+        final CompletableFuture<Grid> pendingFetch = inFlight.putIfAbsent( key, fetch );
+
+        if ( pendingFetch != null )
+        {
+            log.debug( String.format( "Waiting for analytics query in progress with key: '%s'", key ) );
+
+            return getGridClone( join( pendingFetch ) );
+        }
+
+        try
         {
             final Grid grid = function.apply( params );
 
             put( params, grid );
 
+            fetch.complete( grid );
+
             return getGridClone( grid );
         }
+        catch ( RuntimeException | Error ex )
+        {
+            fetch.completeExceptionally( ex );
+
+            throw ex;
+        }
+        finally
+        {
+            inFlight.remove( key, fetch );
+        }
     }
 
     /**
@@ -164,6 +204,32 @@ public class AnalyticsCache
         return analyticsCacheSettings.isCachingEnabled();
     }
 
+    /**
+     * Waits for the given fetch and returns its Grid. Exceptions thrown by the
+     * fetch are rethrown as is.
+     */
+    private Grid join( final CompletableFuture<Grid> fetch )
+    {
+        try
+        {
+            return fetch.join();
+        }
+        catch ( CompletionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
+
+            if ( ex.getCause() instanceof Error )
+            {
+                throw (Error) ex.getCause();
+            }
+
+            throw ex;
+        }
+    }
+
     private Grid getGridClone( Grid grid )
     {
         if ( grid != null )
@@ -41,6 +41,7 @@ import javax.annotation.PostConstruct;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.system.grid.ColumnarGrid;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.springframework.stereotype.Component;
 
@@ -82,7 +83,7 @@ public class DataAggregator
         // Headers
         // ---------------------------------------------------------------------
 
-        Grid grid = new ListGrid();
+        Grid grid = new ColumnarGrid();
 
         headerHandler.addHeaders( params, grid );
 
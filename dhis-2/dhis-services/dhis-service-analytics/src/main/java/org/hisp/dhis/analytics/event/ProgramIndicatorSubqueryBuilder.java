@@ -103,4 +103,60 @@ public interface ProgramIndicatorSubqueryBuilder
      */
     String getAggregateClauseForProgramIndicator( ProgramIndicator programIndicator, RelationshipType relationshipType,
         AnalyticsType outerSqlEntity, Date earliestStartDate, Date latestDate );
+
+    /**
+     * Indicates whether the values of the given Program Indicator can be
+     * pre-computed per enrollment while populating the enrollment analytics
+     * table. This is the case when the Program Indicator is materialized in
+     * analytics, is of analytics type enrollment and its sub-query does not
+     * depend on the reporting period. The sub-query may read the event
+     * analytics table of the program, see
+     * {@link #isMaterializedFromEventData(ProgramIndicator)}.
+     *
+     * @param programIndicator a {@see ProgramIndicator} object
+     *
+     * @return true if the Program Indicator values can be pre-computed
+     */
+    boolean isMaterializable( ProgramIndicator programIndicator );
+
+    /**
+     * Returns the name of the enrollment analytics table column holding the
+     * pre-computed values of the given Program Indicator. The name includes a
+     * hash of the Program Indicator sub-query, so that a column computed
+     * before the expression, filter or aggregation type was changed is not
+     * used.
+     *
+     * @param programIndicator a {@see ProgramIndicator} object
+     *
+     * @return the column name, or null if the Program Indicator is not
+     *         materializable
+     */
+    String getMaterializedColumnName( ProgramIndicator programIndicator );
+
+    /**
+     * Indicates whether the pre-computed values of the given materializable
+     * Program Indicator are computed from the event analytics table of its
+     * program, for instance for program stage data elements. Such values can
+     * only be computed once the event analytics table exists, and reflect the
+     * event data as of the last event analytics table update.
+     *
+     * @param programIndicator a {@see ProgramIndicator} object
+     *
+     * @return true if the sub-query reads the event analytics table
+     */
+    boolean isMaterializedFromEventData( ProgramIndicator programIndicator );
+
+    /**
+     * Generates the Program Indicator sub-query to be used for pre-computing
+     * the values of a materialized Program Indicator per enrollment. Enrollment
+     * data is read from the given enrollment analytics table instead of the
+     * current enrollment analytics table of the program.
+     *
+     * @param programIndicator a {@see ProgramIndicator} object
+     * @param enrollmentTableName the name of the enrollment analytics table
+     *
+     * @return a String containing a Program Indicator sub-query
+     */
+    String getAggregateClauseForMaterializedProgramIndicator( ProgramIndicator programIndicator,
+        String enrollmentTableName );
 }
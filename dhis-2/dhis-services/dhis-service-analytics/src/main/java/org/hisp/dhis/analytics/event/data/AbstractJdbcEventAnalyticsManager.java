@@ -39,8 +39,10 @@ import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quoteAlias;
 import static org.hisp.dhis.common.DimensionalObjectUtils.COMPOSITE_DIM_OBJECT_PLAIN_SEP;
 import static org.hisp.dhis.system.util.MathUtils.getRounded;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -222,6 +224,8 @@ public abstract class AbstractJdbcEventAnalyticsManager
     {
         List<String> columns = Lists.newArrayList();
 
+        Map<String, String> programIndicatorColumns = getProgramIndicatorColumns( params );
+
         for ( DimensionalObject dimension : params.getDimensions() )
         {
             if ( isGroupByClause && dimension.getDimensionType() == DimensionType.PERIOD
@@ -272,6 +276,10 @@ public abstract class AbstractJdbcEventAnalyticsManager
                         queryItem.getRelationshipType(), getAnalyticsType(), params.getEarliestStartDate(),
                         params.getLatestEndDate() ) + asClause );
                 }
+                else if ( programIndicatorColumns.containsKey( in.getUid() ) )
+                {
+                    columns.add( quote( ANALYTICS_TBL_ALIAS, programIndicatorColumns.get( in.getUid() ) ) + asClause );
+                }
                 else
                 {
                     columns.add( programIndicatorSubqueryBuilder.getAggregateClauseForProgramIndicator( in,
@@ -739,6 +747,19 @@ public abstract class AbstractJdbcEventAnalyticsManager
         }
     }
 
+    /**
+     * Returns the columns of the analytics table holding pre-computed values of
+     * the program indicators of the given query, which can then be selected
+     * instead of computing the values with a sub-query.
+     *
+     * @param params the {@link EventQueryParams}.
+     * @return a mapping of program indicator identifier to column name.
+     */
+    protected Map<String, String> getProgramIndicatorColumns( EventQueryParams params )
+    {
+        return Collections.emptyMap();
+    }
+
     /**
      * Returns a select SQL clause for the given query.
      *
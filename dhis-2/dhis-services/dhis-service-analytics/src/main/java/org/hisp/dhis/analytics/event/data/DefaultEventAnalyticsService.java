@@ -91,6 +91,7 @@ import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.legend.Legend;
 import org.hisp.dhis.option.Option;
 import org.hisp.dhis.system.database.DatabaseInfo;
+import org.hisp.dhis.system.grid.ColumnarGrid;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.util.Timer;
@@ -499,7 +500,7 @@ public class DefaultEventAnalyticsService
     {
         params.removeProgramIndicatorItems();
 
-        Grid grid = new ListGrid();
+        Grid grid = new ColumnarGrid();
 
         int maxLimit = queryValidator.getMaxLimit();
 
@@ -708,7 +709,7 @@ public class DefaultEventAnalyticsService
     @Override
     protected Grid createGridWithHeaders( EventQueryParams params )
     {
-        Grid grid = new ListGrid();
+        Grid grid = new ColumnarGrid();
 
         grid
             .addHeader( new GridHeader( ITEM_EVENT, NAME_EVENT, TEXT, false, true ) )
@@ -37,7 +37,12 @@ import static org.hisp.dhis.common.QueryOperator.IN;
 import static org.hisp.dhis.commons.util.TextUtils.getQuotedCommaDelimitedString;
 import static org.hisp.dhis.commons.util.TextUtils.removeLastOr;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,6 +69,7 @@ import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.program.AnalyticsType;
+import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.program.ProgramIndicatorService;
 import org.locationtech.jts.util.Assert;
 import org.springframework.dao.DataAccessResourceFailureException;
@@ -196,6 +202,46 @@ public class JdbcEnrollmentAnalyticsManager
         return " from " + params.getTableName() + " as " + ANALYTICS_TBL_ALIAS + " ";
     }
 
+    @Override
+    protected Map<String, String> getProgramIndicatorColumns( EventQueryParams params )
+    {
+        Map<String, String> columns = new HashMap<>();
+
+        for ( QueryItem queryItem : params.getItems() )
+        {
+            if ( queryItem.isProgramIndicator() && !queryItem.hasRelationshipType() )
+            {
+                ProgramIndicator programIndicator = (ProgramIndicator) queryItem.getItem();
+
+                String column = params.hasProgram() && params.getProgram().equals( programIndicator.getProgram() )
+                    ? programIndicatorSubqueryBuilder.getMaterializedColumnName( programIndicator )
+                    : null;
+
+                if ( column != null )
+                {
+                    columns.put( programIndicator.getUid(), column );
+                }
+            }
+        }
+
+        if ( columns.isEmpty() )
+        {
+            return Collections.emptyMap();
+        }
+
+        // Column is missing if materialized or changed after the last table
+        // update
+
+        final String sql = "select column_name from information_schema.columns where table_name = ?";
+
+        Set<String> tableColumns = new HashSet<>(
+            jdbcTemplate.queryForList( sql, String.class, params.getTableName() ) );
+
+        columns.values().retainAll( tableColumns );
+
+        return columns;
+    }
+
     /**
      * Returns a from and where SQL clause. If this is a program indicator with
      * non-default boundaries, the relationship with the reporting period is
@@ -32,6 +32,9 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 import java.util.Date;
 
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.codec.digest.DigestUtils;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.event.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.commons.util.TextUtils;
@@ -39,10 +42,12 @@ import org.hisp.dhis.program.AnalyticsType;
 import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.program.ProgramIndicatorService;
 import org.hisp.dhis.relationship.RelationshipType;
+import org.hisp.dhis.util.DateUtils;
 import org.springframework.stereotype.Component;
 
 import com.google.common.base.Strings;
 
+@Slf4j
 @Component
 public class DefaultProgramIndicatorSubqueryBuilder
     implements ProgramIndicatorSubqueryBuilder
@@ -51,6 +56,20 @@ public class DefaultProgramIndicatorSubqueryBuilder
 
     private final static String SUBQUERY_TABLE_ALIAS = "subax";
 
+    /**
+     * Reporting period used for the sub-queries of materialized program
+     * indicators, which do not depend on the reporting period.
+     */
+    private final static Date MATERIALIZED_START_DATE = DateUtils.getMediumDate( "2000-01-01" );
+
+    private final static Date MATERIALIZED_END_DATE = DateUtils.getMediumDate( "2000-12-31" );
+
+    private final static Date PERIOD_CHECK_START_DATE = DateUtils.getMediumDate( "2001-01-01" );
+
+    private final static Date PERIOD_CHECK_END_DATE = DateUtils.getMediumDate( "2001-12-31" );
+
+    private final static int COLUMN_HASH_LENGTH = 10;
+
     private final ProgramIndicatorService programIndicatorService;
 
     public DefaultProgramIndicatorSubqueryBuilder( ProgramIndicatorService programIndicatorService )
@@ -67,7 +86,8 @@ public class DefaultProgramIndicatorSubqueryBuilder
     public String getAggregateClauseForProgramIndicator( ProgramIndicator pi, AnalyticsType outerSqlEntity,
         Date earliestStartDate, Date latestDate )
     {
-        return getAggregateClauseForPIandRelationshipType( pi, null, outerSqlEntity, earliestStartDate, latestDate );
+        return getAggregateClauseForPIandRelationshipType( pi, null, outerSqlEntity, earliestStartDate, latestDate,
+            getTableName( pi ) );
     }
 
     /**
@@ -78,7 +98,82 @@ public class DefaultProgramIndicatorSubqueryBuilder
         RelationshipType relationshipType, AnalyticsType outerSqlEntity, Date earliestStartDate, Date latestDate )
     {
         return getAggregateClauseForPIandRelationshipType( programIndicator, relationshipType, outerSqlEntity,
-            earliestStartDate, latestDate );
+            earliestStartDate, latestDate, getTableName( programIndicator ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMaterializable( ProgramIndicator programIndicator )
+    {
+        if ( !programIndicator.isMaterializedInAnalytics()
+            || !isEnrollment( programIndicator.getAnalyticsType() ) )
+        {
+            return false;
+        }
+
+        try
+        {
+            // Sub-query must be the same for any reporting period
+
+            return getMaterializedSubquery( programIndicator ).equals( getAggregateClauseForProgramIndicator(
+                programIndicator, AnalyticsType.ENROLLMENT, PERIOD_CHECK_START_DATE, PERIOD_CHECK_END_DATE ) );
+        }
+        catch ( RuntimeException ex )
+        {
+            log.warn( "Program indicator '{}' cannot be materialized: {}", programIndicator.getUid(),
+                ex.getMessage() );
+
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMaterializedColumnName( ProgramIndicator programIndicator )
+    {
+        if ( !isMaterializable( programIndicator ) )
+        {
+            return null;
+        }
+
+        String hash = DigestUtils.sha1Hex( getMaterializedSubquery( programIndicator ) );
+
+        return programIndicator.getUid() + "_" + hash.substring( 0, COLUMN_HASH_LENGTH );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isMaterializedFromEventData( ProgramIndicator programIndicator )
+    {
+        return getMaterializedSubquery( programIndicator )
+            .contains( ANALYTICS_TABLE_NAME + "_" + AnalyticsType.EVENT.getValue() + "_" );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAggregateClauseForMaterializedProgramIndicator( ProgramIndicator programIndicator,
+        String enrollmentTableName )
+    {
+        return getAggregateClauseForPIandRelationshipType( programIndicator, null, AnalyticsType.ENROLLMENT,
+            MATERIALIZED_START_DATE, MATERIALIZED_END_DATE, enrollmentTableName );
+    }
+
+    /**
+     * Returns the sub-query of a materialized program indicator reading the
+     * enrollment analytics table of the program.
+     */
+    private String getMaterializedSubquery( ProgramIndicator programIndicator )
+    {
+        return getAggregateClauseForProgramIndicator( programIndicator, AnalyticsType.ENROLLMENT,
+            MATERIALIZED_START_DATE, MATERIALIZED_END_DATE );
     }
 
     /**
@@ -91,12 +186,13 @@ public class DefaultProgramIndicatorSubqueryBuilder
      *        outer sql context
      * @param earliestStartDate reporting start date
      * @param latestDate reporting end date
+     * @param tableName the name of the analytics table to aggregate
      *
      * @return a String containing a Program Indicator sub-query
      */
     private String getAggregateClauseForPIandRelationshipType( ProgramIndicator programIndicator,
         RelationshipType relationshipType,
-        AnalyticsType outerSqlEntity, Date earliestStartDate, Date latestDate )
+        AnalyticsType outerSqlEntity, Date earliestStartDate, Date latestDate, String tableName )
     {
         // Define aggregation function (avg, sum, ...) //
         String function = TextUtils.emptyIfEqual( programIndicator.getAggregationTypeFallback().getValue(),
@@ -110,7 +206,7 @@ public class DefaultProgramIndicatorSubqueryBuilder
         aggregateSql += ")";
 
         // Determine Table name from FROM clause
-        aggregateSql += getFrom( programIndicator );
+        aggregateSql += " FROM " + tableName + " as " + SUBQUERY_TABLE_ALIAS;
 
         // Determine JOIN
         String where = getWhere( outerSqlEntity, programIndicator, relationshipType );
@@ -128,10 +224,10 @@ public class DefaultProgramIndicatorSubqueryBuilder
 
     }
 
-    private String getFrom( ProgramIndicator pi )
+    private String getTableName( ProgramIndicator pi )
     {
-        return " FROM " + ANALYTICS_TABLE_NAME + "_" + pi.getAnalyticsType().getValue() + "_"
-            + pi.getProgram().getUid().toLowerCase() + " as " + SUBQUERY_TABLE_ALIAS;
+        return ANALYTICS_TABLE_NAME + "_" + pi.getAnalyticsType().getValue() + "_"
+            + pi.getProgram().getUid().toLowerCase();
     }
 
     /**
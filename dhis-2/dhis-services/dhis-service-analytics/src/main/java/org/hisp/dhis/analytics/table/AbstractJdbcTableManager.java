@@ -35,6 +35,7 @@ import static org.hisp.dhis.analytics.util.AnalyticsIndexHelper.getIndexName;
 import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -256,6 +257,80 @@ public abstract class AbstractJdbcTableManager
         populateTable( params, partition );
     }
 
+    @Override
+    public long getLatestPartitionRowCount()
+    {
+        final String sql = "select cast(coalesce(sum(greatest(c.reltuples, 0)), 0) as bigint) " +
+            "from pg_class c " +
+            "where c.relkind = 'r' " +
+            "and c.relname ~ '^" + getTableName() + "(_[a-z0-9]{11})?_" + AnalyticsTablePartition.LATEST_PARTITION +
+            "$'";
+
+        Long count = jdbcTemplate.queryForObject( sql, Long.class );
+
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public void compactLatestPartition( AnalyticsTable table )
+    {
+        AnalyticsTablePartition latestPartition = table.getLatestPartition();
+
+        if ( latestPartition == null || !tableTypeIsPartitioned()
+            || !partitionManager.tableExists( latestPartition.getTableName() ) )
+        {
+            return;
+        }
+
+        String latestTableName = latestPartition.getTableName();
+        String partitionColumn = quote( getPartitionColumn() );
+
+        List<Integer> years = jdbcTemplate.queryForList( "select distinct cast(" + partitionColumn +
+            " as integer) from " + latestTableName + " where " + partitionColumn + " is not null", Integer.class );
+
+        List<String> partitionTables = new ArrayList<>();
+        List<String> sqlSteps = new ArrayList<>();
+
+        for ( Integer year : years )
+        {
+            String partitionTable = PartitionUtils.getPartitionName( table.getTableName(), year );
+
+            jdbcTemplate.execute( "create table if not exists " + partitionTable + " partition of " +
+                table.getTableName() + " for values in (" + year + ")" );
+
+            String columns = getCommonColumns( partitionTable, latestTableName );
+
+            sqlSteps.add( "insert into " + partitionTable + " (" + columns + ") " +
+                "select " + columns + " from " + latestTableName + " " +
+                "where " + partitionColumn + " = '" + year + "'" );
+
+            partitionTables.add( partitionTable );
+        }
+
+        sqlSteps.add( "truncate table " + latestTableName );
+
+        // Statements are sent as one batch and are applied atomically
+
+        invokeTimeAndLog( String.join( ";", sqlSteps ) + ";",
+            String.format( "Moved latest partition rows to %d yearly partitions for table: '%s'",
+                partitionTables.size(), table.getTableName() ) );
+
+        for ( String partitionTable : partitionTables )
+        {
+            invokeTimeAndLog( "reindex table " + partitionTable,
+                String.format( "Reindexed table: '%s'", partitionTable ) );
+
+            String vacuum = statementBuilder.getVacuum( partitionTable );
+
+            if ( vacuum != null )
+            {
+                executeSilently( vacuum );
+            }
+
+            analyzeTable( partitionTable );
+        }
+    }
+
     @Override
     public int invokeAnalyticsTableSqlHooks()
     {
@@ -423,9 +498,11 @@ public abstract class AbstractJdbcTableManager
 
     /**
      * Creates a {@link AnalyticsTable} with a partition for the "latest" data.
-     * The start date of the partition is the time of the last successful full
-     * analytics table update. The end date of the partition is the start time
-     * of this analytics table update process.
+     * The start date of the partition is given by
+     * {@link #getLatestPartitionStartDate()}. The end date of the partition is
+     * the start time of this analytics table update process. The partition is
+     * always included when the latest partition is to be compacted, as the
+     * partition must then contain all data since the start date.
      *
      * @param params the {@link AnalyticsTableUpdateParams}.
      * @param dimensionColumns the list of dimension
@@ -435,25 +512,21 @@ public abstract class AbstractJdbcTableManager
     protected AnalyticsTable getLatestAnalyticsTable( AnalyticsTableUpdateParams params,
         List<AnalyticsTableColumn> dimensionColumns, List<AnalyticsTableColumn> valueColumns )
     {
-        Date lastFullTableUpdate = systemSettingManager
-            .getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE );
+        Date startDate = getLatestPartitionStartDate();
         Date lastLatestPartitionUpdate = systemSettingManager
             .getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE );
-        Date lastAnyTableUpdate = DateUtils.getLatest( lastLatestPartitionUpdate, lastFullTableUpdate );
-
-        Assert.notNull( lastFullTableUpdate,
-            "A full analytics table update process must be run prior to a latest partition update process" );
+        Date lastAnyTableUpdate = DateUtils.getLatest( lastLatestPartitionUpdate, startDate );
 
         Date endDate = params.getStartTime();
         boolean hasUpdatedData = hasUpdatedLatestData( lastAnyTableUpdate, endDate );
 
         AnalyticsTable table = new AnalyticsTable( getAnalyticsTableType(), dimensionColumns, valueColumns );
 
-        if ( hasUpdatedData )
+        if ( hasUpdatedData || params.isCompactLatestPartition() )
         {
-            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, lastFullTableUpdate, endDate );
+            table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION, startDate, endDate );
             log.info( "Added latest analytics partition with start: '{}' and end: '{}'",
-                getLongDateString( lastFullTableUpdate ), getLongDateString( endDate ) );
+                getLongDateString( startDate ), getLongDateString( endDate ) );
         }
         else
         {
@@ -464,6 +537,25 @@ public abstract class AbstractJdbcTableManager
         return table;
     }
 
+    /**
+     * Returns the start date of the "latest" partition, which is the time of
+     * the last successful full analytics table update, or the end date of the
+     * last compacted latest partition if later. Data updated before this date
+     * is held by the yearly partitions.
+     */
+    protected Date getLatestPartitionStartDate()
+    {
+        Date lastFullTableUpdate = systemSettingManager
+            .getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE );
+        Date lastCompaction = systemSettingManager
+            .getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_COMPACTION );
+
+        Assert.notNull( lastFullTableUpdate,
+            "A full analytics table update process must be run prior to a latest partition update process" );
+
+        return DateUtils.getLatest( lastCompaction, lastFullTableUpdate );
+    }
+
     /**
      * Checks whether the given list of columns are valid.
      *
@@ -626,6 +718,24 @@ public abstract class AbstractJdbcTableManager
         executeSilently( sql );
     }
 
+    /**
+     * Returns the quoted and comma separated names of the columns which exist
+     * in both of the given tables.
+     *
+     * @param tableA the first table name.
+     * @param tableB the second table name.
+     */
+    private String getCommonColumns( String tableA, String tableB )
+    {
+        final String sql = "select column_name from information_schema.columns where table_name = '" + tableA +
+            "' intersect " +
+            "select column_name from information_schema.columns where table_name = '" + tableB + "'";
+
+        return jdbcTemplate.queryForList( sql, String.class ).stream()
+            .map( column -> quote( column ) )
+            .collect( Collectors.joining( "," ) );
+    }
+
     /**
      * Create a analytics table (non partition)
      *
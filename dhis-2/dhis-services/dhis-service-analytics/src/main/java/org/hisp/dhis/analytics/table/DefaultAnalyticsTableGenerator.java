@@ -29,11 +29,13 @@ package org.hisp.dhis.analytics.table;
 
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
+import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
@@ -45,12 +47,16 @@ import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.commons.collection.CollectionUtils;
 import org.hisp.dhis.commons.util.DebugUtils;
+import org.hisp.dhis.commons.util.SystemUtils;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.message.MessageService;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.util.Clock;
+import org.hisp.dhis.util.DateUtils;
 import org.springframework.stereotype.Service;
 
 /**
@@ -70,6 +76,8 @@ public class DefaultAnalyticsTableGenerator
 
     private final SystemSettingManager systemSettingManager;
 
+    private final DhisConfigurationProvider config;
+
     // TODO introduce last successful timestamps per table type
 
     @Override
@@ -85,6 +93,8 @@ public class DefaultAnalyticsTableGenerator
 
         params = AnalyticsTableUpdateParams.newBuilder( params )
             .withLastSuccessfulUpdate( lastSuccessfulUpdate )
+            .withCompactLatestPartition( params.isLatestUpdate()
+                && isLatestPartitionCompactionDue( params, lastSuccessfulUpdate, skipTypes ) )
             .build();
 
         log.info( "Found {} analytics table types: {}", availableTypes.size(), availableTypes );
@@ -100,7 +110,7 @@ public class DefaultAnalyticsTableGenerator
                 generateResourceTablesInternal( progress );
             }
 
-            for ( AnalyticsTableService service : analyticsTableServices )
+            for ( AnalyticsTableService service : getOrderedServices() )
             {
                 AnalyticsTableType tableType = service.getAnalyticsTableType();
 
@@ -131,6 +141,12 @@ public class DefaultAnalyticsTableGenerator
                 params.getStartTime() );
             systemSettingManager.saveSystemSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_RUNTIME,
                 clock.time() );
+
+            if ( params.isCompactLatestPartition() )
+            {
+                systemSettingManager.saveSystemSetting(
+                    SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_COMPACTION, params.getStartTime() );
+            }
         }
         else
         {
@@ -170,13 +186,28 @@ public class DefaultAnalyticsTableGenerator
     // Supportive methods
     // -------------------------------------------------------------------------
 
+    /**
+     * Returns the analytics table services in the order of their
+     * {@link AnalyticsTableType}, so that event analytics tables are generated
+     * before the enrollment analytics tables which read them.
+     */
+    private List<AnalyticsTableService> getOrderedServices()
+    {
+        return analyticsTableServices.stream()
+            .sorted( Comparator.comparing( AnalyticsTableService::getAnalyticsTableType ) )
+            .collect( Collectors.toList() );
+    }
+
     private void generateResourceTablesInternal( JobProgress progress )
     {
         resourceTableService.dropAllSqlViews( progress );
 
+        // Other resource tables join the organisation unit structure table
+
+        progress.startingStage( "Generating OrganisationUnit structures" );
+        progress.runStage( resourceTableService::generateOrganisationUnitStructures );
+
         Map<String, Runnable> generators = new LinkedHashMap<>();
-        generators.put( "generating OrganisationUnit structures",
-            resourceTableService::generateOrganisationUnitStructures );
         generators.put( "generating DataSetOrganisationUnitCategory table",
             resourceTableService::generateDataSetOrganisationUnitCategoryTable );
         generators.put( "generating CategoryOptionCombo names",
@@ -192,9 +223,76 @@ public class DefaultAnalyticsTableGenerator
         generators.put( "generating DatePeriod table", resourceTableService::generateDatePeriodTable );
         generators.put( "generating  CategoryOptionCombo table",
             resourceTableService::generateCategoryOptionComboTable );
+
+        int parallelism = Math.min( getProcessNo(), generators.size() );
+        log.info( "Resource table generation task number: " + parallelism );
+
         progress.startingStage( "Generating resource tables", generators.size() );
-        progress.runStage( generators );
+        progress.runStageInParallel( parallelism, generators.entrySet(), Map.Entry::getKey,
+            generator -> generator.getValue().run() );
 
         resourceTableService.createAllSqlViews( progress );
     }
+
+    /**
+     * Indicates whether the rows of the latest partitions should be moved into
+     * the yearly partitions as part of this update, which is the case when the
+     * time since the last full update or compaction exceeds the configured
+     * maximum age, or when the estimated number of rows in the latest
+     * partitions exceeds the configured maximum.
+     *
+     * @param params the {@link AnalyticsTableUpdateParams}.
+     * @param lastSuccessfulUpdate the time of the last successful full update.
+     * @param skipTypes the table types to skip.
+     */
+    private boolean isLatestPartitionCompactionDue( AnalyticsTableUpdateParams params, Date lastSuccessfulUpdate,
+        Set<AnalyticsTableType> skipTypes )
+    {
+        final long maxAgeHours = Long.parseLong(
+            config.getProperty( ConfigurationKey.ANALYTICS_LATEST_PARTITION_COMPACTION_MAX_AGE ) );
+        final long maxRows = Long.parseLong(
+            config.getProperty( ConfigurationKey.ANALYTICS_LATEST_PARTITION_COMPACTION_MAX_ROWS ) );
+        final Date lastCompaction = DateUtils.getLatest( lastSuccessfulUpdate, systemSettingManager
+            .getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_COMPACTION ) );
+
+        if ( maxAgeHours > 0 && lastCompaction != null
+            && params.getStartTime().getTime() - lastCompaction.getTime() >= TimeUnit.HOURS.toMillis( maxAgeHours ) )
+        {
+            log.info( "Latest partition compaction due, last full update or compaction: '{}'",
+                getLongDateString( lastCompaction ) );
+
+            return true;
+        }
+
+        if ( maxRows > 0 )
+        {
+            long rows = analyticsTableServices.stream()
+                .filter( service -> service.getAnalyticsTableType().hasLatestPartition() )
+                .filter( service -> !skipTypes.contains( service.getAnalyticsTableType() ) )
+                .mapToLong( AnalyticsTableService::getLatestPartitionRowCount )
+                .sum();
+
+            if ( rows >= maxRows )
+            {
+                log.info( "Latest partition compaction due, estimated rows in latest partitions: {}", rows );
+
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the number of resource tables to generate in parallel, based on
+     * the number of database server CPUs.
+     */
+    private int getProcessNo()
+    {
+        Integer cores = systemSettingManager.getIntegerSetting( SettingKey.DATABASE_SERVER_CPUS );
+
+        cores = (cores == null || cores == 0) ? SystemUtils.getCpuCores() : cores;
+
+        return cores > 2 ? (cores - 1) : cores;
+    }
 }
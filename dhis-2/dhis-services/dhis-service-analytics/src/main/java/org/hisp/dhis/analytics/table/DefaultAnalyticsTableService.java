@@ -166,9 +166,22 @@ public class DefaultAnalyticsTableService
 
         swapTables( params, tables, progress );
 
+        if ( params.isLatestUpdate() && params.isCompactLatestPartition() )
+        {
+            progress.startingStage( "Compacting latest partition " + tableType, tables.size() );
+            compactLatestPartitions( tables, progress );
+            clock.logTime( "Compacted latest partition" );
+        }
+
         clock.logTime( "Table update done: " + tableType.getTableName() );
     }
 
+    @Override
+    public long getLatestPartitionRowCount()
+    {
+        return tableManager.getLatestPartitionRowCount();
+    }
+
     @Override
     public void dropTables()
     {
@@ -300,6 +313,25 @@ public class DefaultAnalyticsTableService
         resourceTableService.createAllSqlViews( progress );
     }
 
+    /**
+     * Moves the rows of the latest partitions of the given analytics tables
+     * into the yearly partitions.
+     *
+     * @throws IllegalStateException if the latest partition of any table could
+     *         not be compacted.
+     */
+    private void compactLatestPartitions( List<AnalyticsTable> tables, JobProgress progress )
+    {
+        boolean compacted = progress.runStage( tables, AnalyticsTable::getTableName,
+            tableManager::compactLatestPartition );
+
+        if ( !compacted )
+        {
+            throw new IllegalStateException( "Latest partition compaction failed for table type: "
+                + getAnalyticsTableType() );
+        }
+    }
+
     /**
      * Gets the number of available cores. Uses explicit number from system
      * setting if available. Detects number of cores from current server runtime
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.analytics.table;
 
+import static com.google.common.base.Preconditions.checkNotNull;
 import static org.hisp.dhis.analytics.ColumnDataType.CHARACTER_11;
 import static org.hisp.dhis.analytics.ColumnDataType.DOUBLE;
 import static org.hisp.dhis.analytics.ColumnDataType.GEOMETRY;
@@ -40,7 +41,9 @@ import static org.hisp.dhis.analytics.util.AnalyticsSqlUtils.quote;
 import static org.hisp.dhis.util.DateUtils.getLongDateString;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.hisp.dhis.analytics.AnalyticsTable;
 import org.hisp.dhis.analytics.AnalyticsTableColumn;
@@ -49,6 +52,7 @@ import org.hisp.dhis.analytics.AnalyticsTablePartition;
 import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.IndexType;
+import org.hisp.dhis.analytics.event.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectManager;
@@ -57,6 +61,7 @@ import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.database.DatabaseInfo;
@@ -74,16 +79,22 @@ import com.google.common.collect.Lists;
 public class JdbcEnrollmentAnalyticsTableManager
     extends AbstractEventJdbcTableManager
 {
+    private final ProgramIndicatorSubqueryBuilder programIndicatorSubqueryBuilder;
+
     public JdbcEnrollmentAnalyticsTableManager( IdentifiableObjectManager idObjectManager,
         OrganisationUnitService organisationUnitService, CategoryService categoryService,
         SystemSettingManager systemSettingManager, DataApprovalLevelService dataApprovalLevelService,
         ResourceTableService resourceTableService, AnalyticsTableHookService tableHookService,
         StatementBuilder statementBuilder, PartitionManager partitionManager, DatabaseInfo databaseInfo,
-        JdbcTemplate jdbcTemplate )
+        JdbcTemplate jdbcTemplate, ProgramIndicatorSubqueryBuilder programIndicatorSubqueryBuilder )
     {
         super( idObjectManager, organisationUnitService, categoryService, systemSettingManager,
             dataApprovalLevelService, resourceTableService, tableHookService, statementBuilder, partitionManager,
             databaseInfo, jdbcTemplate );
+
+        checkNotNull( programIndicatorSubqueryBuilder );
+
+        this.programIndicatorSubqueryBuilder = programIndicatorSubqueryBuilder;
     }
 
     public static final String STORED_BY_COL_NAME = "storedby";
@@ -177,6 +188,69 @@ public class JdbcEnrollmentAnalyticsTableManager
             "and pi.deleted is false ";
 
         populateTableInternal( partition, getDimensionColumns( program ), fromClause );
+
+        populateProgramIndicatorColumns( partition, getMaterializedProgramIndicators( program ) );
+    }
+
+    /**
+     * Populates the columns of the given materialized program indicators with
+     * the program indicator value per enrollment. The program indicator values
+     * are computed with the same sub-queries which are otherwise used by
+     * enrollment analytics queries. A temporary index on the enrollment column
+     * serves the sub-queries reading enrollment data.
+     *
+     * @param partition the {@link AnalyticsTablePartition}.
+     * @param programIndicators the materialized program indicators.
+     */
+    private void populateProgramIndicatorColumns( AnalyticsTablePartition partition,
+        List<ProgramIndicator> programIndicators )
+    {
+        if ( programIndicators.isEmpty() )
+        {
+            return;
+        }
+
+        final String tableName = partition.getTempTableName();
+        final String indexName = quote( "in_pi_" + tableName );
+
+        jdbcTemplate.execute( "create index " + indexName + " on " + tableName + " (" + quote( "pi" ) + ")" );
+
+        String sql = "update " + tableName + " as ax set " + programIndicators.stream()
+            .map( pi -> quote( programIndicatorSubqueryBuilder.getMaterializedColumnName( pi ) ) + " = " +
+                programIndicatorSubqueryBuilder.getAggregateClauseForMaterializedProgramIndicator( pi, tableName ) )
+            .collect( Collectors.joining( ", " ) );
+
+        try
+        {
+            invokeTimeAndLog( sql, String.format( "Populate %d program indicator columns of %s",
+                programIndicators.size(), tableName ) );
+        }
+        finally
+        {
+            jdbcTemplate.execute( "drop index if exists " + indexName );
+        }
+    }
+
+    /**
+     * Returns the program indicators of the given program which are
+     * materialized as columns of the enrollment analytics table, sorted by
+     * identifier. Program indicators computed from event data are only
+     * materialized when the event analytics table of the program exists. Event
+     * analytics tables are generated before enrollment analytics tables, see
+     * {@link AnalyticsTableType}.
+     *
+     * @param program the {@link Program}.
+     */
+    private List<ProgramIndicator> getMaterializedProgramIndicators( Program program )
+    {
+        boolean eventTableExists = partitionManager.tableExists(
+            AnalyticsTableType.EVENT.getTableName() + "_" + program.getUid().toLowerCase() );
+
+        return program.getProgramIndicators().stream()
+            .filter( programIndicatorSubqueryBuilder::isMaterializable )
+            .filter( pi -> eventTableExists || !programIndicatorSubqueryBuilder.isMaterializedFromEventData( pi ) )
+            .sorted( Comparator.comparing( ProgramIndicator::getUid ) )
+            .collect( Collectors.toList() );
     }
 
     private List<AnalyticsTableColumn> getDimensionColumns( Program program )
@@ -194,6 +268,14 @@ public class JdbcEnrollmentAnalyticsTableManager
             columns.add( new AnalyticsTableColumn( quote( "tei" ), CHARACTER_11, "tei.uid" ) );
         }
 
+        for ( ProgramIndicator programIndicator : getMaterializedProgramIndicators( program ) )
+        {
+            String column = quote( programIndicatorSubqueryBuilder.getMaterializedColumnName( programIndicator ) );
+
+            columns.add( new AnalyticsTableColumn( column, DOUBLE, "cast(null as double precision) as " + column )
+                .withSkipIndex( true ) );
+        }
+
         return filterDimensionColumns( columns );
     }
 
@@ -80,7 +80,6 @@ import org.hisp.dhis.util.DateUtils;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Assert;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -203,8 +202,8 @@ public class JdbcEventAnalyticsTableManager
 
     /**
      * Creates a list of {@link AnalyticsTable} with a partition each or the
-     * "latest" data. The start date of the partition is the time of the last
-     * successful full analytics table update. The end date of the partition is
+     * "latest" data. The start date of the partition is given by
+     * {@link #getLatestPartitionStartDate()}. The end date of the partition is
      * the start time of this analytics table update process.
      *
      * @param params the {@link AnalyticsTableUpdateParams}.
@@ -212,16 +211,11 @@ public class JdbcEventAnalyticsTableManager
      */
     private List<AnalyticsTable> getLatestAnalyticsTables( AnalyticsTableUpdateParams params )
     {
-        Date lastFullTableUpdate = systemSettingManager
-            .getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE );
+        Date startDate = getLatestPartitionStartDate();
         Date lastLatestPartitionUpdate = systemSettingManager
             .getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE );
-        Date lastAnyTableUpdate = DateUtils.getLatest( lastLatestPartitionUpdate, lastFullTableUpdate );
+        Date lastAnyTableUpdate = DateUtils.getLatest( lastLatestPartitionUpdate, startDate );
 
-        Assert.notNull( lastFullTableUpdate,
-            "A full analytics table update process must be run prior to a latest partition update process" );
-
-        Date startDate = lastFullTableUpdate;
         Date endDate = params.getStartTime();
 
         List<AnalyticsTable> tables = new ArrayList<>();
@@ -235,7 +229,7 @@ public class JdbcEventAnalyticsTableManager
         {
             boolean hasUpdatedData = hasUpdatedLatestData( lastAnyTableUpdate, endDate, program );
 
-            if ( hasUpdatedData )
+            if ( hasUpdatedData || params.isCompactLatestPartition() )
             {
                 AnalyticsTable table = new AnalyticsTable( getAnalyticsTableType(), getDimensionColumns( program ),
                     Lists.newArrayList(), program );
@@ -28,12 +28,18 @@
 package org.hisp.dhis.analytics.cache;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.cache.Cache;
@@ -43,6 +49,7 @@ import org.hisp.dhis.cache.LocalCache;
 import org.hisp.dhis.cache.SimpleCacheBuilder;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.setting.SystemSettingManager;
 import org.hisp.dhis.system.grid.ListGrid;
@@ -124,4 +131,98 @@ class AnalyticsCacheTest
 
         assertEquals( 2, optCachedGrid.get().getRows().size() );
     }
+
+    @Test
+    void fetchOnceForConcurrentRequests()
+        throws Exception
+    {
+        final AnalyticsCache analyticsCache = createAnalyticsCache();
+
+        final DataQueryParams params = DataQueryParams.newBuilder()
+            .withDataElements( Lists.newArrayList( new DataElement( "dataElementA" ) ) )
+            .build();
+
+        final CountDownLatch fetchStarted = new CountDownLatch( 1 );
+        final CountDownLatch fetchReleased = new CountDownLatch( 1 );
+        final AtomicInteger fetches = new AtomicInteger();
+
+        final Function<DataQueryParams, Grid> function = p -> {
+            fetches.incrementAndGet();
+            fetchStarted.countDown();
+            awaitUninterruptibly( fetchReleased );
+            return new ListGrid().addHeader( new GridHeader( "Header1" ) ).addRow().addValue( "Value11" );
+        };
+
+        final AtomicReference<Grid> firstGrid = new AtomicReference<>();
+        final AtomicReference<Grid> secondGrid = new AtomicReference<>();
+
+        final Thread first = new Thread( () -> firstGrid.set( analyticsCache.getOrFetch( params, function ) ) );
+        first.start();
+        fetchStarted.await();
+
+        final Thread second = new Thread( () -> secondGrid.set( analyticsCache.getOrFetch( params, function ) ) );
+        second.start();
+
+        while ( second.isAlive() && second.getState() != Thread.State.WAITING )
+        {
+            Thread.sleep( 10 );
+        }
+
+        fetchReleased.countDown();
+        first.join();
+        second.join();
+
+        assertEquals( 1, fetches.get() );
+        assertEquals( "Value11", firstGrid.get().getValue( 0, 0 ) );
+        assertEquals( "Value11", secondGrid.get().getValue( 0, 0 ) );
+        assertTrue( firstGrid.get() != secondGrid.get() );
+    }
+
+    @Test
+    void fetchAgainAfterFailedFetch()
+    {
+        final AnalyticsCache analyticsCache = createAnalyticsCache();
+
+        final DataQueryParams params = DataQueryParams.newBuilder()
+            .withDataElements( Lists.newArrayList( new DataElement( "dataElementA" ) ) )
+            .build();
+
+        final IllegalQueryException failure = new IllegalQueryException( "Query failed" );
+
+        assertSame( failure, assertThrows( IllegalQueryException.class,
+            () -> analyticsCache.getOrFetch( params, p -> {
+                throw failure;
+            } ) ) );
+
+        final Grid grid = analyticsCache.getOrFetch( params,
+            p -> new ListGrid().addHeader( new GridHeader( "Header1" ) ) );
+
+        assertEquals( 1, grid.getHeaderWidth() );
+    }
+
+    private AnalyticsCache createAnalyticsCache()
+    {
+        final AnalyticsCacheSettings settings = new AnalyticsCacheSettings( systemSettingManager );
+
+        final CacheBuilder<Grid> cacheBuilder = new SimpleCacheBuilder<>();
+
+        cacheBuilder.expireAfterWrite( 1L, TimeUnit.MINUTES );
+
+        Mockito.<Cache<Grid>> when( cacheProvider.createAnalyticsResponseCache( any( Duration.class ) ) )
+            .thenReturn( new LocalCache<>( cacheBuilder ) );
+
+        return new AnalyticsCache( cacheProvider, settings );
+    }
+
+    private static void awaitUninterruptibly( CountDownLatch latch )
+    {
+        try
+        {
+            latch.await();
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -42,13 +42,17 @@ import static org.hisp.dhis.common.DimensionalObject.OPTION_SEP;
 import static org.hisp.dhis.common.QueryOperator.EQ;
 import static org.hisp.dhis.common.QueryOperator.IN;
 import static org.hisp.dhis.common.QueryOperator.NE;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.function.Consumer;
 
 import org.hisp.dhis.analytics.TimeField;
@@ -62,6 +66,7 @@ import org.hisp.dhis.common.QueryOperator;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.jdbc.statementbuilder.PostgreSQLStatementBuilder;
+import org.hisp.dhis.program.AnalyticsType;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.program.ProgramIndicatorService;
@@ -452,6 +457,54 @@ class EnrollmentAnalyticsManagerTest extends
         return relationshipTypeA;
     }
 
+    @Test
+    void verifyWithMaterializedProgramIndicator()
+    {
+        ProgramIndicator programIndicatorA = createMaterializedProgramIndicator();
+        String column = new DefaultProgramIndicatorSubqueryBuilder( programIndicatorService )
+            .getMaterializedColumnName( programIndicatorA );
+
+        when( jdbcTemplate.queryForList( anyString(), eq( String.class ), any() ) )
+            .thenReturn( List.of( "pi", column ) );
+
+        subject.getEnrollments( createRequestParams( programIndicatorA, null ), new ListGrid(), 100 );
+
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+        verify( jdbcTemplate, times( 1 ) ).queryForList( anyString(), eq( String.class ), any() );
+
+        assertThat( sql.getValue(),
+            containsString( "ax.\"" + column + "\" as \"" + programIndicatorA.getUid() + "\"" ) );
+    }
+
+    @Test
+    void verifyWithMaterializedProgramIndicatorWithoutColumn()
+    {
+        ProgramIndicator programIndicatorA = createMaterializedProgramIndicator();
+
+        when( jdbcTemplate.queryForList( anyString(), eq( String.class ), any() ) )
+            .thenReturn( List.of( "pi", programIndicatorA.getUid() ) );
+
+        subject.getEnrollments( createRequestParams( programIndicatorA, null ), new ListGrid(), 100 );
+
+        verify( jdbcTemplate ).queryForRowSet( sql.capture() );
+
+        assertThat( sql.getValue(), containsString( "(SELECT avg (subax.value) FROM analytics_enrollment_"
+            + programA.getUid().toLowerCase() + " as subax WHERE pi = ax.pi) as \"" + programIndicatorA.getUid()
+            + "\"" ) );
+    }
+
+    private ProgramIndicator createMaterializedProgramIndicator()
+    {
+        ProgramIndicator programIndicator = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, programA, "",
+            "" );
+        programIndicator.setMaterializedInAnalytics( true );
+
+        when( programIndicatorService.getAnalyticsSql( any(), eq( programIndicator ), any(), any(),
+            eq( "subax" ) ) ).thenReturn( "subax.value" );
+
+        return programIndicator;
+    }
+
     private RelationshipType createRelationshipType( RelationshipEntity fromToConstraint )
     {
         return createRelationshipType( fromToConstraint, fromToConstraint );
@@ -28,10 +28,15 @@
 package org.hisp.dhis.analytics.event.data.programindicator;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hisp.dhis.DhisConvenienceTest.createProgram;
 import static org.hisp.dhis.DhisConvenienceTest.createProgramIndicator;
 import static org.hisp.dhis.DhisConvenienceTest.getDate;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
@@ -172,4 +177,102 @@ class ProgramIndicatorSubqueryBuilderTest
             + " as subax WHERE pi = ax.pi AND a = b)" ) );
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void verifyProgramIndicatorNotMaterializedIsNotMaterializable()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', program, DUMMY_EXPRESSION, "" );
+
+        assertThat( subject.isMaterializable( pi ), is( false ) );
+    }
+
+    @Test
+    void verifyPeriodIndependentProgramIndicatorIsMaterializable()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, program, DUMMY_EXPRESSION,
+            "" );
+        pi.setMaterializedInAnalytics( true );
+
+        when( programIndicatorService.getAnalyticsSql( eq( DUMMY_EXPRESSION ), eq( pi ), any(), any(),
+            eq( "subax" ) ) ).thenReturn( "subax.value" );
+
+        assertThat( subject.isMaterializable( pi ), is( true ) );
+        assertThat( subject.isMaterializedFromEventData( pi ), is( false ) );
+    }
+
+    @Test
+    void verifyPeriodDependentProgramIndicatorIsNotMaterializable()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, program, DUMMY_EXPRESSION,
+            "" );
+        pi.setMaterializedInAnalytics( true );
+
+        when( programIndicatorService.getAnalyticsSql( eq( DUMMY_EXPRESSION ), eq( pi ), any(), any(),
+            eq( "subax" ) ) ).thenAnswer( invocation -> "'" + invocation.getArgument( 2 ) + "'" );
+
+        assertThat( subject.isMaterializable( pi ), is( false ) );
+    }
+
+    @Test
+    void verifyEventProgramIndicatorIsNotMaterializable()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', program, DUMMY_EXPRESSION, "" );
+        pi.setMaterializedInAnalytics( true );
+
+        assertThat( subject.isMaterializable( pi ), is( false ) );
+    }
+
+    @Test
+    void verifyProgramIndicatorReadingEventTableIsMaterializedFromEventData()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, program, DUMMY_EXPRESSION,
+            "" );
+        pi.setMaterializedInAnalytics( true );
+
+        when( programIndicatorService.getAnalyticsSql( eq( DUMMY_EXPRESSION ), eq( pi ), any(), any(),
+            eq( "subax" ) ) ).thenReturn( "(select \"de\" from analytics_event_" + program.getUid().toLowerCase()
+                + " where pi = subax.pi)" );
+
+        assertThat( subject.isMaterializable( pi ), is( true ) );
+        assertThat( subject.isMaterializedFromEventData( pi ), is( true ) );
+    }
+
+    @Test
+    void verifyMaterializedColumnNameChangesWithExpression()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, program, DUMMY_EXPRESSION,
+            "" );
+
+        assertThat( subject.getMaterializedColumnName( pi ), is( nullValue() ) );
+
+        pi.setMaterializedInAnalytics( true );
+
+        when( programIndicatorService.getAnalyticsSql( any(), eq( pi ), any(), any(), eq( "subax" ) ) )
+            .thenAnswer( invocation -> "subax." + invocation.getArgument( 0 ) );
+
+        String column = subject.getMaterializedColumnName( pi );
+
+        pi.setExpression( "#{changed}" );
+
+        String changedColumn = subject.getMaterializedColumnName( pi );
+
+        assertThat( column, startsWith( pi.getUid() + "_" ) );
+        assertThat( changedColumn, startsWith( pi.getUid() + "_" ) );
+        assertThat( column, not( changedColumn ) );
+    }
+
+    @Test
+    void verifyMaterializedProgramIndicatorReadsGivenTable()
+    {
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, program, DUMMY_EXPRESSION,
+            "" );
+
+        when( programIndicatorService.getAnalyticsSql( eq( DUMMY_EXPRESSION ), eq( pi ), any(), any(),
+            eq( "subax" ) ) ).thenReturn( "subax.value" );
+
+        String sql = subject.getAggregateClauseForMaterializedProgramIndicator( pi, "analytics_enrollment_temp_a" );
+
+        assertThat( sql,
+            is( "(SELECT avg (subax.value) FROM analytics_enrollment_temp_a as subax WHERE pi = ax.pi)" ) );
+    }
+}
@@ -31,7 +31,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
@@ -42,6 +45,7 @@ import org.hisp.dhis.analytics.AnalyticsTable;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTableManager;
 import org.hisp.dhis.analytics.AnalyticsTablePartition;
+import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryService;
@@ -57,6 +61,7 @@ import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -82,6 +87,9 @@ class JdbcAnalyticsTableManagerTest
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private PartitionManager partitionManager;
+
     private AnalyticsTableManager subject;
 
     @BeforeEach
@@ -91,7 +99,7 @@ class JdbcAnalyticsTableManagerTest
             mock( OrganisationUnitService.class ),
             mock( CategoryService.class ), systemSettingManager, mock( DataApprovalLevelService.class ),
             mock( ResourceTableService.class ), mock( AnalyticsTableHookService.class ), mock( StatementBuilder.class ),
-            mock( PartitionManager.class ), mock( DatabaseInfo.class ), jdbcTemplate );
+            partitionManager, mock( DatabaseInfo.class ), jdbcTemplate );
     }
 
     @Test
@@ -170,6 +178,102 @@ class JdbcAnalyticsTableManagerTest
         assertEquals( startTime, partition.getEndDate() );
     }
 
+    @Test
+    void testGetLatestAnalyticsTableAfterCompaction()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 2, 0 ).toDate();
+        Date lastCompaction = new DateTime( 2019, 3, 1, 6, 0 ).toDate();
+        Date startTime = new DateTime( 2019, 3, 1, 10, 0 ).toDate();
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( startTime )
+            .withLatestPartition()
+            .build();
+
+        List<Map<String, Object>> queryResp = Lists.newArrayList();
+        queryResp.add( ImmutableMap.of( "dataelementid", 1 ) );
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_COMPACTION ) )
+            .thenReturn( lastCompaction );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) ).thenReturn( queryResp );
+
+        AnalyticsTablePartition partition = subject.getAnalyticsTables( params ).get( 0 ).getLatestPartition();
+
+        assertNotNull( partition );
+        assertEquals( lastCompaction, partition.getStartDate() );
+        assertEquals( startTime, partition.getEndDate() );
+    }
+
+    @Test
+    void testGetLatestAnalyticsTableCompactWithoutUpdatedData()
+    {
+        Date lastFullTableUpdate = new DateTime( 2019, 3, 1, 2, 0 ).toDate();
+        Date startTime = new DateTime( 2019, 3, 1, 10, 0 ).toDate();
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder()
+            .withStartTime( startTime )
+            .withLatestPartition()
+            .withCompactLatestPartition( true )
+            .build();
+
+        when( systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE ) )
+            .thenReturn( lastFullTableUpdate );
+        when( jdbcTemplate.queryForList( Mockito.anyString() ) ).thenReturn( Lists.newArrayList() );
+
+        AnalyticsTablePartition partition = subject.getAnalyticsTables( params ).get( 0 ).getLatestPartition();
+
+        assertNotNull( partition );
+        assertEquals( lastFullTableUpdate, partition.getStartDate() );
+    }
+
+    @Test
+    void testCompactLatestPartition()
+    {
+        AnalyticsTable table = new AnalyticsTable( AnalyticsTableType.DATA_VALUE, Lists.newArrayList(),
+            Lists.newArrayList() );
+        table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION,
+            new DateTime( 2019, 3, 1, 2, 0 ).toDate(), new DateTime( 2019, 3, 1, 10, 0 ).toDate() );
+
+        when( partitionManager.tableExists( "analytics_0" ) ).thenReturn( true );
+        when( jdbcTemplate.queryForList( Mockito.contains( "select distinct" ), Mockito.eq( Integer.class ) ) )
+            .thenReturn( Lists.newArrayList( 2018, 2019 ) );
+        when( jdbcTemplate.queryForList( Mockito.contains( "information_schema.columns" ),
+            Mockito.eq( String.class ) ) ).thenReturn( Lists.newArrayList( "year", "value" ) );
+
+        subject.compactLatestPartition( table );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate, atLeastOnce() ).execute( sql.capture() );
+
+        assertTrue( sql.getAllValues().contains(
+            "create table if not exists analytics_2019 partition of analytics for values in (2019)" ) );
+        assertTrue( sql.getAllValues().contains(
+            "insert into analytics_2018 (\"year\",\"value\") select \"year\",\"value\" from analytics_0 " +
+                "where \"year\" = '2018';" +
+                "insert into analytics_2019 (\"year\",\"value\") select \"year\",\"value\" from analytics_0 " +
+                "where \"year\" = '2019';" +
+                "truncate table analytics_0;" ) );
+        assertTrue( sql.getAllValues().contains( "reindex table analytics_2018" ) );
+        assertTrue( sql.getAllValues().contains( "reindex table analytics_2019" ) );
+    }
+
+    @Test
+    void testCompactLatestPartitionNoLatestTable()
+    {
+        AnalyticsTable table = new AnalyticsTable( AnalyticsTableType.DATA_VALUE, Lists.newArrayList(),
+            Lists.newArrayList() );
+        table.addPartitionTable( AnalyticsTablePartition.LATEST_PARTITION,
+            new DateTime( 2019, 3, 1, 2, 0 ).toDate(), new DateTime( 2019, 3, 1, 10, 0 ).toDate() );
+
+        when( partitionManager.tableExists( "analytics_0" ) ).thenReturn( false );
+
+        subject.compactLatestPartition( table );
+
+        verify( jdbcTemplate, never() ).execute( Mockito.anyString() );
+    }
+
     @Test
     void testGetLatestAnalyticsTableNoFullTableUpdate()
     {
@@ -28,18 +28,24 @@
 package org.hisp.dhis.analytics.table;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hisp.dhis.DhisConvenienceTest.createProgram;
+import static org.hisp.dhis.DhisConvenienceTest.createProgramIndicator;
 import static org.hisp.dhis.DhisConvenienceTest.createProgramTrackedEntityAttribute;
 import static org.hisp.dhis.DhisConvenienceTest.createTrackedEntityAttribute;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.List;
 
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
+import org.hisp.dhis.analytics.event.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectManager;
@@ -47,7 +53,9 @@ import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataapproval.DataApprovalLevelService;
 import org.hisp.dhis.jdbc.statementbuilder.PostgreSQLStatementBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.program.AnalyticsType;
 import org.hisp.dhis.program.Program;
+import org.hisp.dhis.program.ProgramIndicator;
 import org.hisp.dhis.program.ProgramTrackedEntityAttribute;
 import org.hisp.dhis.resourcetable.ResourceTableService;
 import org.hisp.dhis.setting.SystemSettingManager;
@@ -80,6 +88,12 @@ class JdbcEnrollmentAnalyticsTableManagerTest
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private ProgramIndicatorSubqueryBuilder programIndicatorSubqueryBuilder;
+
+    @Mock
+    private PartitionManager partitionManager;
+
     private JdbcEnrollmentAnalyticsTableManager subject;
 
     private static final Date START_TIME = new DateTime( 2019, 8, 1, 0, 0 ).toDate();
@@ -90,7 +104,8 @@ class JdbcEnrollmentAnalyticsTableManagerTest
         subject = new JdbcEnrollmentAnalyticsTableManager( idObjectManager, mock( OrganisationUnitService.class ),
             mock( CategoryService.class ), mock( SystemSettingManager.class ), mock( DataApprovalLevelService.class ),
             mock( ResourceTableService.class ), mock( AnalyticsTableHookService.class ),
-            new PostgreSQLStatementBuilder(), mock( PartitionManager.class ), databaseInfo, jdbcTemplate );
+            new PostgreSQLStatementBuilder(), partitionManager, databaseInfo, jdbcTemplate,
+            programIndicatorSubqueryBuilder );
     }
 
     @Test
@@ -124,4 +139,97 @@ class JdbcEnrollmentAnalyticsTableManagerTest
 
         assertThat( sql.getValue(), containsString( String.format( ouQuery, "uid" ) ) );
     }
+
+    @Test
+    void verifyMaterializedProgramIndicatorColumnIsPopulated()
+    {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        Program p1 = createProgram( 'A' );
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, p1, "#{1234567}", null );
+        pi.setMaterializedInAnalytics( true );
+        p1.getProgramIndicators().add( pi );
+
+        String tableName = "analytics_enrollment_temp_" + p1.getUid().toLowerCase();
+        String column = pi.getUid() + "_0123456789";
+
+        when( idObjectManager.getAllNoAcl( Program.class ) ).thenReturn( Lists.newArrayList( p1 ) );
+        when( programIndicatorSubqueryBuilder.isMaterializable( pi ) ).thenReturn( true );
+        when( programIndicatorSubqueryBuilder.getMaterializedColumnName( pi ) ).thenReturn( column );
+        when( programIndicatorSubqueryBuilder.getAggregateClauseForMaterializedProgramIndicator( pi, tableName ) )
+            .thenReturn( "(SELECT avg (subax.value) FROM " + tableName + " as subax WHERE pi = ax.pi)" );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder().withLastYears( 2 )
+            .withStartTime( START_TIME ).build();
+
+        subject.populateTable( params,
+            PartitionUtils.getTablePartitions( subject.getAnalyticsTables( params ) ).get( 0 ) );
+
+        verify( jdbcTemplate, times( 4 ) ).execute( sql.capture() );
+
+        List<String> statements = sql.getAllValues();
+
+        assertThat( statements.get( 0 ),
+            containsString( "cast(null as double precision) as \"" + column + "\"" ) );
+        assertThat( statements.get( 1 ), is( "create index \"in_pi_" + tableName + "\" on " + tableName +
+            " (\"pi\")" ) );
+        assertThat( statements.get( 2 ), is( "update " + tableName + " as ax set \"" + column + "\" = " +
+            "(SELECT avg (subax.value) FROM " + tableName + " as subax WHERE pi = ax.pi)" ) );
+        assertThat( statements.get( 3 ), is( "drop index if exists \"in_pi_" + tableName + "\"" ) );
+    }
+
+    @Test
+    void verifyProgramIndicatorFromEventDataIsMaterializedWhenEventTableExists()
+    {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        Program p1 = createProgram( 'A' );
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, p1, "#{1234567.abc}", null );
+        pi.setMaterializedInAnalytics( true );
+        p1.getProgramIndicators().add( pi );
+
+        String eventTableName = "analytics_event_" + p1.getUid().toLowerCase();
+        String tableName = "analytics_enrollment_temp_" + p1.getUid().toLowerCase();
+        String column = pi.getUid() + "_0123456789";
+
+        when( idObjectManager.getAllNoAcl( Program.class ) ).thenReturn( Lists.newArrayList( p1 ) );
+        when( partitionManager.tableExists( eventTableName ) ).thenReturn( true );
+        when( programIndicatorSubqueryBuilder.isMaterializable( pi ) ).thenReturn( true );
+        when( programIndicatorSubqueryBuilder.getMaterializedColumnName( pi ) ).thenReturn( column );
+        when( programIndicatorSubqueryBuilder.getAggregateClauseForMaterializedProgramIndicator( pi, tableName ) )
+            .thenReturn( "(SELECT avg (subax.value) FROM " + eventTableName + " as subax WHERE pi = ax.pi)" );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder().withLastYears( 2 )
+            .withStartTime( START_TIME ).build();
+
+        subject.populateTable( params,
+            PartitionUtils.getTablePartitions( subject.getAnalyticsTables( params ) ).get( 0 ) );
+
+        verify( jdbcTemplate, times( 4 ) ).execute( sql.capture() );
+
+        assertThat( sql.getAllValues().get( 2 ), is( "update " + tableName + " as ax set \"" + column + "\" = " +
+            "(SELECT avg (subax.value) FROM " + eventTableName + " as subax WHERE pi = ax.pi)" ) );
+    }
+
+    @Test
+    void verifyProgramIndicatorFromEventDataIsNotMaterializedWithoutEventTable()
+    {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        Program p1 = createProgram( 'A' );
+        ProgramIndicator pi = createProgramIndicator( 'A', AnalyticsType.ENROLLMENT, p1, "#{1234567.abc}", null );
+        pi.setMaterializedInAnalytics( true );
+        p1.getProgramIndicators().add( pi );
+
+        when( idObjectManager.getAllNoAcl( Program.class ) ).thenReturn( Lists.newArrayList( p1 ) );
+        when( programIndicatorSubqueryBuilder.isMaterializable( pi ) ).thenReturn( true );
+        when( programIndicatorSubqueryBuilder.isMaterializedFromEventData( pi ) ).thenReturn( true );
+
+        AnalyticsTableUpdateParams params = AnalyticsTableUpdateParams.newBuilder().withLastYears( 2 )
+            .withStartTime( START_TIME ).build();
+
+        subject.populateTable( params,
+            PartitionUtils.getTablePartitions( subject.getAnalyticsTables( params ) ).get( 0 ) );
+
+        verify( jdbcTemplate ).execute( sql.capture() );
+
+        assertThat( sql.getValue(), not( containsString( pi.getUid() ) ) );
+    }
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves consumed audits to the database in batches, using a single writer
+ * thread.
+ * <p>
+ * By default ({@link ConfigurationKey#AUDIT_DATABASE_BATCH_ASYNC} enabled)
+ * {@link #add(Audit)} returns as soon as the audit is buffered, so that the
+ * audit message is acknowledged before it is saved. Audits are saved once the
+ * batch size is reached or the oldest buffered audit has waited for the
+ * configured time. The buffer holds at most ten batches; when the database
+ * falls behind, {@link #add(Audit)} blocks, which slows down the consumers
+ * instead of letting the buffer grow. Buffered audits are lost if the JVM
+ * stops without shutting down the writer, which makes delivery at-most-once.
+ * <p>
+ * When asynchronous batching is disabled, {@link #add(Audit)} returns once
+ * the audit has been saved, so that the audit message is only acknowledged
+ * after it has been persisted. As each topic has a single consumer, a batch
+ * then only combines the audits consumed concurrently from different topics.
+ */
+@Slf4j
+@Component
+public class AuditBatchWriter
+{
+    private final AuditService auditService;
+
+    private final int batchSize;
+
+    private final long batchWaitMillis;
+
+    private final boolean async;
+
+    private final BlockingQueue<PendingAudit> queue;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    @Autowired
+    public AuditBatchWriter( AuditService auditService, DhisConfigurationProvider dhisConfig )
+    {
+        this( auditService,
+            Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_SIZE ) ),
+            Long.parseLong( dhisConfig.getProperty( ConfigurationKey.AUDIT_DATABASE_BATCH_WAIT ) ),
+            dhisConfig.isEnabled( ConfigurationKey.AUDIT_DATABASE_BATCH_ASYNC ) );
+    }
+
+    AuditBatchWriter( AuditService auditService, int batchSize, long batchWaitMillis, boolean async )
+    {
+        this.auditService = auditService;
+        this.batchSize = Math.max( 1, batchSize );
+        this.batchWaitMillis = batchWaitMillis;
+        this.async = async;
+        this.queue = new LinkedBlockingQueue<>( this.batchSize * 10 );
+    }
+
+    /**
+     * Adds an audit to be saved with the next batch. Unless the writer is
+     * asynchronous, waits until the audit has been saved.
+     *
+     * @param audit the audit.
+     * @throws InterruptedException if interrupted while waiting for the
+     *         buffer to have room or for the audit to be saved.
+     */
+    public void add( Audit audit )
+        throws InterruptedException
+    {
+        start();
+
+        PendingAudit pending = new PendingAudit( audit );
+
+        queue.put( pending );
+
+        if ( !async )
+        {
+            pending.saved.await();
+        }
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        Thread thread;
+
+        synchronized ( this )
+        {
+            running = false;
+            thread = writer;
+            writer = null;
+        }
+
+        if ( thread != null )
+        {
+            thread.interrupt();
+
+            try
+            {
+                thread.join( TimeUnit.SECONDS.toMillis( 10 ) );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<PendingAudit> remaining = new ArrayList<>();
+        queue.drainTo( remaining );
+        save( remaining );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private synchronized void start()
+    {
+        if ( writer == null )
+        {
+            running = true;
+            writer = new Thread( this::write, "audit-batch-writer" );
+            writer.setDaemon( true );
+            writer.start();
+        }
+    }
+
+    private void write()
+    {
+        while ( running )
+        {
+            List<PendingAudit> batch = new ArrayList<>( batchSize );
+
+            try
+            {
+                nextBatch( batch );
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            save( batch );
+        }
+    }
+
+    /**
+     * Waits for the first audit, and then collects the audits already
+     * buffered. When asynchronous, keeps collecting audits until the batch is
+     * full or the first audit has waited for the configured time.
+     */
+    private void nextBatch( List<PendingAudit> batch )
+        throws InterruptedException
+    {
+        batch.add( queue.take() );
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( batchWaitMillis );
+
+        while ( batch.size() < batchSize )
+        {
+            if ( queue.drainTo( batch, batchSize - batch.size() ) > 0 )
+            {
+                continue;
+            }
+
+            if ( !async )
+            {
+                return;
+            }
+
+            PendingAudit audit = queue.poll( deadline - System.nanoTime(), TimeUnit.NANOSECONDS );
+
+            if ( audit == null )
+            {
+                return;
+            }
+
+            batch.add( audit );
+        }
+    }
+
+    /**
+     * Saves the audits in one batch. If the batch fails, the audits are saved
+     * one by one so that a single invalid audit does not discard the others.
+     */
+    private void save( List<PendingAudit> batch )
+    {
+        if ( batch.isEmpty() )
+        {
+            return;
+        }
+
+        List<Audit> audits = batch.stream().map( pending -> pending.audit ).collect( Collectors.toList() );
+
+        try
+        {
+            auditService.addAudits( audits );
+        }
+        catch ( Exception ex )
+        {
+            log.warn( "Failed to save batch of {} audits, saving them one by one: {}", audits.size(),
+                ex.getMessage() );
+
+            for ( Audit audit : audits )
+            {
+                try
+                {
+                    auditService.addAudit( audit );
+                }
+                catch ( Exception e )
+                {
+                    log.error( "An error occurred persisting an Audit message", e );
+                }
+            }
+        }
+        finally
+        {
+            batch.forEach( pending -> pending.saved.countDown() );
+        }
+    }
+
+    private static final class PendingAudit
+    {
+        private final Audit audit;
+
+        private final CountDownLatch saved = new CountDownLatch( 1 );
+
+        PendingAudit( Audit audit )
+        {
+            this.audit = audit;
+        }
+    }
+}
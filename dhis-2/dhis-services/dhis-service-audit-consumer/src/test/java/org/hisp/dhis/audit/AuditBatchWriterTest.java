@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith( MockitoExtension.class )
+class AuditBatchWriterTest
+{
+    private static final long HOUR = TimeUnit.HOURS.toMillis( 1 );
+
+    @Mock
+    private AuditService auditService;
+
+    private final List<Integer> batchSizes = Collections.synchronizedList( new ArrayList<>() );
+
+    private final List<Audit> saved = Collections.synchronizedList( new ArrayList<>() );
+
+    private final CountDownLatch release = new CountDownLatch( 1 );
+
+    private volatile boolean blockSave;
+
+    private AuditBatchWriter writer;
+
+    @BeforeEach
+    void setUp()
+    {
+        doAnswer( invocation -> {
+            List<Audit> audits = invocation.getArgument( 0 );
+            if ( blockSave )
+            {
+                release.await();
+            }
+            batchSizes.add( audits.size() );
+            saved.addAll( audits );
+            return null;
+        } ).when( auditService ).addAudits( anyList() );
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        release.countDown();
+
+        if ( writer != null )
+        {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void testDefaultsSaveManyAuditsInOneBatch()
+        throws InterruptedException
+    {
+        DhisConfigurationProvider config = mock( DhisConfigurationProvider.class );
+        when( config.getProperty( any() ) )
+            .thenAnswer( invocation -> invocation.<ConfigurationKey> getArgument( 0 ).getDefaultValue() );
+        when( config.isEnabled( any() ) ).thenAnswer( invocation -> DhisConfigurationProvider
+            .isOn( invocation.<ConfigurationKey> getArgument( 0 ).getDefaultValue() ) );
+
+        writer = new AuditBatchWriter( auditService, config );
+
+        // a single consumer, like the one listener per audit topic
+        for ( int i = 0; i < 100; i++ )
+        {
+            writer.add( createAudit() );
+        }
+
+        verify( auditService, timeout( 5000 ) ).addAudits( anyList() );
+        assertEquals( List.of( 100 ), batchSizes );
+    }
+
+    @Test
+    void testFlushOnBatchSize()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 3, HOUR, true );
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            writer.add( createAudit() );
+        }
+
+        verify( auditService, timeout( 5000 ) ).addAudits( anyList() );
+        assertEquals( List.of( 3 ), batchSizes );
+    }
+
+    @Test
+    void testFlushOnWaitTime()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 100, 100, true );
+
+        writer.add( createAudit() );
+
+        verify( auditService, timeout( 5000 ) ).addAudits( anyList() );
+        assertEquals( List.of( 1 ), batchSizes );
+    }
+
+    @Test
+    void testAddBlocksWhenBufferIsFull()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 1, 0, true );
+        blockSave = true;
+
+        writer.add( createAudit() );
+        verify( auditService, timeout( 5000 ) ).addAudits( anyList() );
+
+        // the writer is busy saving the first audit, fill the buffer
+        for ( int i = 0; i < 10; i++ )
+        {
+            writer.add( createAudit() );
+        }
+
+        Thread producer = startThread( () -> writer.add( createAudit() ) );
+        producer.join( 200 );
+        assertTrue( producer.isAlive() );
+
+        release.countDown();
+        producer.join( 5000 );
+        assertFalse( producer.isAlive() );
+
+        verify( auditService, timeout( 5000 ).times( 12 ) ).addAudits( anyList() );
+        assertEquals( 12, saved.size() );
+    }
+
+    @Test
+    void testStopSavesBufferedAudits()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 100, HOUR, true );
+
+        for ( int i = 0; i < 5; i++ )
+        {
+            writer.add( createAudit() );
+        }
+
+        assertTrue( saved.isEmpty() );
+
+        writer.stop();
+
+        assertEquals( 5, saved.size() );
+    }
+
+    @Test
+    void testAddWaitsUntilSaved()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 100, HOUR, false );
+        blockSave = true;
+
+        Thread producer = startThread( () -> writer.add( createAudit() ) );
+        verify( auditService, timeout( 5000 ) ).addAudits( anyList() );
+        producer.join( 200 );
+        assertTrue( producer.isAlive() );
+
+        release.countDown();
+        producer.join( 5000 );
+        assertFalse( producer.isAlive() );
+        assertEquals( 1, saved.size() );
+    }
+
+    @Test
+    void testAddDoesNotWaitForBatchWhenSynchronous()
+        throws InterruptedException
+    {
+        writer = new AuditBatchWriter( auditService, 100, HOUR, false );
+
+        writer.add( createAudit() );
+        writer.add( createAudit() );
+
+        assertEquals( 2, saved.size() );
+    }
+
+    private static Audit createAudit()
+    {
+        return Audit.builder()
+            .auditType( AuditType.CREATE )
+            .auditScope( AuditScope.AGGREGATE )
+            .createdBy( "admin" )
+            .build();
+    }
+
+    private static Thread startThread( InterruptibleRunnable runnable )
+    {
+        Thread thread = new Thread( () -> {
+            try
+            {
+                runnable.run();
+            }
+            catch ( InterruptedException ex )
+            {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        thread.start();
+        return thread;
+    }
+
+    @FunctionalInterface
+    private interface InterruptibleRunnable
+    {
+        void run()
+            throws InterruptedException;
+    }
+}
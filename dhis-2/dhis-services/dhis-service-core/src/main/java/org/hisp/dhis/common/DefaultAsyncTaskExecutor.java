@@ -29,6 +29,8 @@ package org.hisp.dhis.common;
 
 import java.util.concurrent.Future;
 
+import org.hisp.dhis.scheduling.FairShareJobQueue;
+import org.hisp.dhis.scheduling.JobConfiguration;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.stereotype.Service;
@@ -43,9 +45,13 @@ public class DefaultAsyncTaskExecutor implements AsyncTaskExecutor
 {
     private final AsyncListenableTaskExecutor jobExecutor;
 
-    public DefaultAsyncTaskExecutor( @Qualifier( "taskScheduler" ) AsyncListenableTaskExecutor jobExecutor )
+    private final FairShareJobQueue jobQueue;
+
+    public DefaultAsyncTaskExecutor( @Qualifier( "taskScheduler" ) AsyncListenableTaskExecutor jobExecutor,
+        FairShareJobQueue jobQueue )
     {
         this.jobExecutor = jobExecutor;
+        this.jobQueue = jobQueue;
     }
 
     @Override
@@ -59,4 +65,10 @@ public class DefaultAsyncTaskExecutor implements AsyncTaskExecutor
     {
         return jobExecutor.submitListenable( task );
     }
+
+    @Override
+    public Future<?> executeJob( Runnable task, JobConfiguration configuration )
+    {
+        return jobQueue.submit( task, configuration );
+    }
 }
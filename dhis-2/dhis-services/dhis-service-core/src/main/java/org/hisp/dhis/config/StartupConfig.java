@@ -66,6 +66,7 @@ public class StartupConfig
         PeriodTypePopulator populator = new PeriodTypePopulator( periodStore, sessionFactory );
         populator.setName( "PeriodTypePopulator" );
         populator.setRunlevel( 3 );
+        populator.setDependencies();
         return populator;
     }
 
@@ -98,6 +99,7 @@ public class StartupConfig
             dhisConfigurationProvider );
         populator.setName( "ConfigurationPopulator" );
         populator.setRunlevel( 12 );
+        populator.setDependencies();
         populator.setSkipInTests( true );
         return populator;
     }
@@ -108,6 +110,7 @@ public class StartupConfig
         I18nLocalePopulator populator = new I18nLocalePopulator( i18nLocaleService );
         populator.setName( "I18nLocalePopulator" );
         populator.setRunlevel( 13 );
+        populator.setDependencies();
         populator.setSkipInTests( true );
         return populator;
     }
@@ -129,6 +132,7 @@ public class StartupConfig
         SettingUpgrader upgrader = new SettingUpgrader( systemSettingManager );
         upgrader.setRunlevel( 14 );
         upgrader.setName( "SettingUpgrader" );
+        upgrader.setDependencies();
         upgrader.setSkipInTests( true );
         return upgrader;
     }
@@ -461,6 +461,14 @@ public class DefaultDataApprovalService
         return da != null && dataApprovalStore.dataApprovalExists( da );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public DataApprovalLookup getDataApprovalLookup( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo )
+    {
+        return dataApprovalStore.getDataApprovalLookup( workflow, period, attributeOptionCombo );
+    }
+
     @Override
     @Transactional
     public Map<DataApproval, DataApprovalStatus> getDataApprovalStatuses( List<DataApproval> dataApprovalList )
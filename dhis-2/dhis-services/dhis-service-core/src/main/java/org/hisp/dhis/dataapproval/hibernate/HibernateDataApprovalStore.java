@@ -58,6 +58,7 @@ import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.dataapproval.DataApproval;
 import org.hisp.dhis.dataapproval.DataApprovalLevel;
+import org.hisp.dhis.dataapproval.DataApprovalLookup;
 import org.hisp.dhis.dataapproval.DataApprovalState;
 import org.hisp.dhis.dataapproval.DataApprovalStatus;
 import org.hisp.dhis.dataapproval.DataApprovalStore;
@@ -249,6 +250,24 @@ public class HibernateDataApprovalStore
         return jdbcTemplate.queryForList( sql ).size() > 0;
     }
 
+    @Override
+    public DataApprovalLookup getDataApprovalLookup( DataApprovalWorkflow workflow, Period period,
+        CategoryOptionCombo attributeOptionCombo )
+    {
+        Period storedPeriod = periodService.reloadPeriod( period );
+
+        String sql = "select dataapprovallevelid, organisationunitid " +
+            "from dataapproval " +
+            "where workflowid = " + workflow.getId() + " " +
+            "and periodid = " + storedPeriod.getId() + " " +
+            "and attributeoptioncomboid = " + attributeOptionCombo.getId();
+
+        List<long[]> approvals = jdbcTemplate.query( sql,
+            ( rs, rowNum ) -> new long[] { rs.getLong( 1 ), rs.getLong( 2 ) } );
+
+        return DataApprovalLookup.of( workflow, period, attributeOptionCombo, approvals );
+    }
+
     @Override
     public List<DataApprovalStatus> getDataApprovalStatuses( DataApprovalWorkflow workflow,
         Period period, Collection<OrganisationUnit> orgUnits, int orgUnitLevel,
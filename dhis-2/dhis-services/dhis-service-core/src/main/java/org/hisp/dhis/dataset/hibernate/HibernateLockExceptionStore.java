@@ -32,7 +32,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.persistence.criteria.CriteriaBuilder;
 
@@ -192,6 +194,18 @@ public class HibernateLockExceptionStore
             .addPredicate( root -> builder.equal( root.get( "dataSet" ), dataSet ) ) );
     }
 
+    @Override
+    public Set<Long> getOrganisationUnitIds( DataSet dataSet, Period period )
+    {
+        final String hql = "select le.organisationUnit.id from LockException le "
+            + "where le.dataSet=:dataSet and le.period=:period";
+
+        return new HashSet<>( this.<Long> getTypedQuery( hql )
+            .setParameter( "dataSet", dataSet )
+            .setParameter( "period", periodService.reloadPeriod( period ) )
+            .getResultList() );
+    }
+
     @Override
     public boolean anyExists()
     {
@@ -525,7 +525,7 @@ public class DefaultPreheatService implements PreheatService
                         if ( !codeMap.containsKey( itemKlass ) )
                             codeMap.put( itemKlass, new HashSet<>() );
 
-                        Object reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+                        Object reference = p.getValue( object );
 
                         if ( reference != null )
                         {
@@ -535,8 +535,7 @@ public class DefaultPreheatService implements PreheatService
                     }
                     else
                     {
-                        Collection<IdentifiableObject> reference = ReflectionUtils.invokeMethod( object,
-                            p.getGetterMethod() );
+                        Collection<IdentifiableObject> reference = p.getValue( object );
                         reference.forEach( identifiableObject -> addIdentifiers( map, identifiableObject ) );
 
                         if ( DataElementOperand.class.isAssignableFrom( p.getItemKlass() ) )
@@ -708,7 +707,7 @@ public class DefaultPreheatService implements PreheatService
                 properties.forEach( p -> {
                     if ( !p.isCollection() )
                     {
-                        IdentifiableObject reference = ReflectionUtils.invokeMethod( object, p.getGetterMethod() );
+                        IdentifiableObject reference = p.getValue( object );
 
                         if ( reference != null )
                         {
@@ -727,8 +726,7 @@ public class DefaultPreheatService implements PreheatService
                     {
                         Collection<IdentifiableObject> refObjects = ReflectionUtils
                             .newCollectionInstance( p.getKlass() );
-                        Collection<IdentifiableObject> references = ReflectionUtils.invokeMethod( object,
-                            p.getGetterMethod() );
+                        Collection<IdentifiableObject> references = p.getValue( object );
 
                         if ( references != null )
                         {
@@ -805,7 +803,7 @@ public class DefaultPreheatService implements PreheatService
                     }
 
                     objects
-                        .forEach( o -> list.addAll( ReflectionUtils.invokeMethod( o, property.getGetterMethod() ) ) );
+                        .forEach( o -> list.addAll( property.getValue( o ) ) );
                     targets.put( property.getItemKlass(), list );
                 }
                 else
@@ -817,7 +815,7 @@ public class DefaultPreheatService implements PreheatService
                         list.addAll( targets.get( property.getKlass() ) );
                     }
 
-                    objects.forEach( o -> list.add( ReflectionUtils.invokeMethod( o, property.getGetterMethod() ) ) );
+                    objects.forEach( o -> list.add( property.getValue( o ) ) );
                     targets.put( property.getKlass(), list );
                 }
             }
@@ -870,25 +868,24 @@ public class DefaultPreheatService implements PreheatService
 
             if ( !property.isCollection() )
             {
-                IdentifiableObject refObject = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+                IdentifiableObject refObject = property.getValue( object );
                 IdentifiableObject ref = getPersistedObject( preheat, identifier, refObject );
 
                 ref = connectDefaults( preheat, property, object, refObject, ref );
 
                 if ( ref != null && ref.getId() == 0 )
                 {
-                    ReflectionUtils.invokeMethod( object, property.getSetterMethod(), (Object) null );
+                    property.setValue( object, null );
                 }
                 else
                 {
-                    ReflectionUtils.invokeMethod( object, property.getSetterMethod(), ref );
+                    property.setValue( object, ref );
                 }
             }
             else
             {
                 Collection<IdentifiableObject> objects = ReflectionUtils.newCollectionInstance( property.getKlass() );
-                Collection<IdentifiableObject> refObjects = ReflectionUtils.invokeMethod( object,
-                    property.getGetterMethod() );
+                Collection<IdentifiableObject> refObjects = property.getValue( object );
 
                 for ( IdentifiableObject refObject : refObjects )
                 {
@@ -897,7 +894,7 @@ public class DefaultPreheatService implements PreheatService
                         objects.add( ref );
                 }
 
-                ReflectionUtils.invokeMethod( object, property.getSetterMethod(), objects );
+                property.setValue( object, objects );
             }
         }
     }
@@ -985,7 +982,7 @@ public class DefaultPreheatService implements PreheatService
             uniqueProperties.forEach( property -> {
                 if ( !map.containsKey( property.getName() ) )
                     map.put( property.getName(), new HashMap<>() );
-                Object value = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+                Object value = property.getValue( object );
                 if ( value != null )
                     map.get( property.getName() ).put( value, identifier.getIdentifier( object ) );
             } );
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.reservedvalue;
 
+import static org.hisp.dhis.util.Constants.RANDOM_GENERATION_CHUNK;
 import static org.hisp.dhis.util.Constants.RESERVED_VALUE_GENERATION_ATTEMPT;
 import static org.hisp.dhis.util.Constants.RESERVED_VALUE_GENERATION_TIMEOUT;
 
@@ -72,6 +73,8 @@ public class DefaultReservedValueService
 
     private final ValueGeneratorService valueGeneratorService;
 
+    private final ReservedValuePoolStore reservedValuePoolStore;
+
     @Override
     @Transactional
     public List<ReservedValue> reserve( TrackedEntityAttribute trackedEntityAttribute, int numberOfReservations,
@@ -126,6 +129,13 @@ public class DefaultReservedValueService
 
             reservedValue.setTrackedEntityAttributeId( trackedEntityAttribute.getId() );
 
+            if ( isPersistable )
+            {
+                claimPooledValues( numberOfReservations, resultList, textPattern, reservedValue );
+
+                numberOfValuesLeftToGenerate = numberOfReservations - resultList.size();
+            }
+
             try
             {
                 List<String> generatedValues = new ArrayList<>();
@@ -141,8 +151,8 @@ public class DefaultReservedValueService
                     List<String> resolvedPatterns = getResolvedPatterns( values, textPattern,
                         generatedSegment, generatedValues );
 
-                    saveGeneratedValues( numberOfReservations, resultList, textPattern, reservedValue, isPersistable,
-                        resolvedPatterns );
+                    saveGeneratedValues( numberOfValuesLeftToGenerate, resultList, textPattern, reservedValue,
+                        isPersistable, resolvedPatterns );
 
                     numberOfValuesLeftToGenerate = numberOfReservations - resultList.size();
 
@@ -174,6 +184,106 @@ public class DefaultReservedValueService
         return resultList;
     }
 
+    @Override
+    @Transactional
+    public int refillValuePool( TrackedEntityAttribute trackedEntityAttribute, int lowWatermark, int highWatermark )
+        throws ReserveValueException,
+        TextPatternGenerationException
+    {
+        TextPattern textPattern = trackedEntityAttribute.getTextPattern();
+
+        if ( textPattern == null || !Boolean.TRUE.equals( trackedEntityAttribute.isGenerated() ) ||
+            !textPatternService.getRequiredValues( textPattern ).get( "REQUIRED" ).isEmpty() )
+        {
+            return 0;
+        }
+
+        TextPatternSegment generatedSegment = textPattern.getSegments().stream()
+            .filter( segment -> segment.getMethod().isPersistable() )
+            .findFirst()
+            .orElse( null );
+
+        if ( generatedSegment == null )
+        {
+            return 0;
+        }
+
+        String ownerObject = textPattern.getOwnerObject().name();
+        String ownerUid = textPattern.getOwnerUid();
+        String key = textPatternService.resolvePattern( textPattern, ImmutableMap.of() );
+
+        reservedValuePoolStore.deleteOutdatedPools( ownerUid, key );
+
+        int poolSize = reservedValuePoolStore.getPoolSize( ownerObject, ownerUid, key );
+
+        if ( poolSize >= lowWatermark )
+        {
+            return 0;
+        }
+
+        ReservedValue reservedValue = ReservedValue.builder().ownerObject( ownerObject ).ownerUid( ownerUid )
+            .key( key ).value( key.replaceAll( Pattern.quote( generatedSegment.getRawSegment() ), "%" ) )
+            .trackedEntityAttributeId( trackedEntityAttribute.getId() ).build();
+
+        long valuesLeft = TextPatternValidationUtils.getTotalValuesPotential( generatedSegment )
+            - reservedValueStore.getNumberOfUsedValues( reservedValue ) - poolSize;
+
+        int numberOfValues = (int) Math.min( highWatermark - poolSize, valuesLeft );
+        int attemptsLeft = RESERVED_VALUE_GENERATION_ATTEMPT;
+        int added = 0;
+
+        try
+        {
+            while ( attemptsLeft-- > 0 && added < numberOfValues )
+            {
+                int chunks = (numberOfValues - added) / RANDOM_GENERATION_CHUNK + 1;
+
+                List<String> generatedValues = valueGeneratorService.generateValues( generatedSegment, textPattern,
+                    key, chunks );
+
+                List<String> availableValues = reservedValueStore.getAvailableValues( reservedValue,
+                    getResolvedPatterns( ImmutableMap.of(), textPattern, generatedSegment, generatedValues ).stream()
+                        .distinct().collect( Collectors.toList() ),
+                    ownerObject ).stream().map( ReservedValue::getValue ).collect( Collectors.toList() );
+
+                reservedValuePoolStore.addValues( ownerObject, ownerUid, key,
+                    availableValues.subList( 0, Math.min( availableValues.size(), numberOfValues - added ) ) );
+
+                added = reservedValuePoolStore.getPoolSize( ownerObject, ownerUid, key ) - poolSize;
+            }
+        }
+        catch ( ExecutionException e )
+        {
+            log.error( String.format( "Generation of values for value pool error %s : ", e.getMessage() ) );
+        }
+        catch ( InterruptedException e )
+        {
+            log.error( String.format( "Generation of values for value pool error %s : ", e.getMessage() ) );
+
+            Thread.currentThread().interrupt();
+        }
+
+        return added;
+    }
+
+    /**
+     * Claims up to the number of reservations from the pool of pre-generated
+     * values of the text pattern. Values reserved or used since they were
+     * added to the pool are discarded.
+     */
+    private void claimPooledValues( int numberOfReservations, List<ReservedValue> resultList,
+        TextPattern textPattern, ReservedValue reservedValue )
+    {
+        List<String> pooledValues = reservedValuePoolStore.claimValues( textPattern.getOwnerObject().name(),
+            reservedValue.getOwnerUid(), reservedValue.getKey(), numberOfReservations );
+
+        if ( !pooledValues.isEmpty() )
+        {
+            saveGeneratedValues( numberOfReservations, resultList, textPattern, reservedValue, true,
+                new ArrayList<>( pooledValues ) );
+        }
+    }
+
     private void checkTimeout( long startTime )
         throws TimeoutException
     {
@@ -265,6 +375,7 @@ public class DefaultReservedValueService
     public void deleteReservedValueByUid( String uid )
     {
         reservedValueStore.deleteReservedValueByUid( uid );
+        reservedValuePoolStore.deletePools( uid );
     }
 
     @Override
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.scheduling.Job;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.textpattern.TextPatternGenerationException;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job which refills the pools of pre-generated values of generated attributes
+ * which hold fewer values than the low watermark, up to the high watermark.
+ */
+@Component( "reservedValuePoolRefillJob" )
+@RequiredArgsConstructor
+public class ReservedValuePoolRefillJob implements Job
+{
+    private final ReservedValueService reservedValueService;
+
+    private final TrackedEntityAttributeService trackedEntityAttributeService;
+
+    private final DhisConfigurationProvider config;
+
+    @Override
+    public JobType getJobType()
+    {
+        return JobType.RESERVED_VALUE_POOL_REFILL;
+    }
+
+    @Override
+    public void execute( JobConfiguration jobConfiguration, JobProgress progress )
+    {
+        int lowWatermark = Integer.parseInt( config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_LOW_WATERMARK ) );
+        int highWatermark = Integer.parseInt(
+            config.getProperty( ConfigurationKey.RESERVED_VALUE_POOL_HIGH_WATERMARK ) );
+
+        progress.startingProcess( "Refill reserved value pools" );
+
+        if ( highWatermark <= 0 )
+        {
+            progress.completedProcess( "Reserved value pools are disabled" );
+            return;
+        }
+
+        List<TrackedEntityAttribute> attributes = trackedEntityAttributeService.getAllTrackedEntityAttributes()
+            .stream()
+            .filter( attribute -> Boolean.TRUE.equals( attribute.isGenerated() ) && attribute.getTextPattern() != null )
+            .collect( Collectors.toList() );
+
+        AtomicInteger added = new AtomicInteger();
+
+        progress.startingStage( "Refilling value pools of " + attributes.size() + " generated attributes",
+            attributes.size() );
+        progress.runStage( attributes, TrackedEntityAttribute::getName, attribute -> {
+            try
+            {
+                added.addAndGet( reservedValueService.refillValuePool( attribute, lowWatermark, highWatermark ) );
+            }
+            catch ( ReserveValueException | TextPatternGenerationException ex )
+            {
+                throw new IllegalStateException( ex.getMessage(), ex );
+            }
+        } );
+
+        progress.completedProcess( "Added " + added.get() + " values to reserved value pools" );
+    }
+}
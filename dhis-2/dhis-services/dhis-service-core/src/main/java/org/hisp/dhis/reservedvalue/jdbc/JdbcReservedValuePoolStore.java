@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue.jdbc;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hisp.dhis.reservedvalue.ReservedValuePoolStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository( "org.hisp.dhis.reservedvalue.ReservedValuePoolStore" )
+@RequiredArgsConstructor
+public class JdbcReservedValuePoolStore
+    implements ReservedValuePoolStore
+{
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<String> claimValues( String ownerObject, String ownerUid, String key, int numberOfValues )
+    {
+        // @formatter:off
+        final String sql =
+            "delete from reservedvaluepool where ctid in (" +
+                "select ctid from reservedvaluepool " +
+                "where ownerobject = ? and owneruid = ? and key = ? " +
+                "limit ? for update skip locked) " +
+            "returning value";
+        // @formatter:on
+
+        return jdbcTemplate.queryForList( sql, String.class, ownerObject, ownerUid, key, numberOfValues );
+    }
+
+    @Override
+    public void addValues( String ownerObject, String ownerUid, String key, List<String> values )
+    {
+        final String sql = "insert into reservedvaluepool (ownerobject, owneruid, key, value, created) " +
+            "values (?, ?, ?, ?, ?) on conflict do nothing";
+
+        Timestamp created = new Timestamp( System.currentTimeMillis() );
+
+        jdbcTemplate.batchUpdate( sql, values, 1000, ( ps, value ) -> {
+            ps.setString( 1, ownerObject );
+            ps.setString( 2, ownerUid );
+            ps.setString( 3, key );
+            ps.setString( 4, value );
+            ps.setTimestamp( 5, created );
+        } );
+    }
+
+    @Override
+    public int getPoolSize( String ownerObject, String ownerUid, String key )
+    {
+        final String sql = "select count(*) from reservedvaluepool " +
+            "where ownerobject = ? and owneruid = ? and key = ?";
+
+        Integer size = jdbcTemplate.queryForObject( sql, Integer.class, ownerObject, ownerUid, key );
+
+        return size != null ? size : 0;
+    }
+
+    @Override
+    public void deleteOutdatedPools( String ownerUid, String key )
+    {
+        jdbcTemplate.update( "delete from reservedvaluepool where owneruid = ? and key <> ?", ownerUid, key );
+    }
+
+    @Override
+    public void deletePools( String ownerUid )
+    {
+        jdbcTemplate.update( "delete from reservedvaluepool where owneruid = ?", ownerUid );
+    }
+}
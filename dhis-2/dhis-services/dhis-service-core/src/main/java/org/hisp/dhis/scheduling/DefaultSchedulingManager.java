@@ -75,6 +75,12 @@ public class DefaultSchedulingManager extends AbstractSchedulingManager
 
     private final Map<JobType, Future<?>> running = new ConcurrentHashMap<>();
 
+    /**
+     * Jobs started with {@link #executeNow(JobConfiguration)} which wait for a
+     * worker of the job queue.
+     */
+    private final Map<Future<?>, JobType> queued = new ConcurrentHashMap<>();
+
     private final TaskScheduler jobScheduler;
 
     private final AsyncTaskExecutor taskExecutor;
@@ -161,7 +167,19 @@ public class DefaultSchedulingManager extends AbstractSchedulingManager
     public void stop( JobConfiguration configuration )
     {
         JobType type = configuration.getJobType();
-        if ( type != null && isRunningLocally( type ) )
+        if ( type == null )
+        {
+            return;
+        }
+        for ( Map.Entry<Future<?>, JobType> entry : queued.entrySet() )
+        {
+            if ( entry.getValue() == type && queued.remove( entry.getKey(), type ) )
+            {
+                entry.getKey().cancel( false );
+                log.info( "Removed waiting job of type: '{}' from the job queue", type );
+            }
+        }
+        if ( isRunningLocally( type ) )
         {
             stoppedSuccessful( type );
         }
@@ -182,7 +200,9 @@ public class DefaultSchedulingManager extends AbstractSchedulingManager
         log.info( String.format( "Scheduler initiated execution of job: %s", configuration ) );
         CompletableFuture<Future<?>> cancellation = new CompletableFuture<>();
         Runnable task = runIfPossible( configuration, cancellation, () -> execute( configuration ) );
-        cancellation.complete( taskExecutor.executeTaskWithCancelation( task ) );
+        Future<?> cancelable = taskExecutor.executeJob( task, configuration );
+        queued.put( cancelable, type );
+        cancellation.complete( cancelable );
         return true;
     }
 
@@ -202,6 +222,7 @@ public class DefaultSchedulingManager extends AbstractSchedulingManager
                 return;
             }
             scheduled.remove( type, cancelable );
+            queued.remove( cancelable );
             if ( type == null || isRunningLocally( type ) && !stoppedSuccessful( type ) || isRunningRemotely( type ) )
             {
                 return;
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Queue in front of the shared job executor which limits the number of
+ * concurrently running jobs, in total, per user and per {@link JobType}.
+ * <p>
+ * When a worker becomes available the next job is picked by
+ * {@link JobPriority} of its job type first, then by the number of jobs its
+ * user already runs, and then by the time it was queued. Hence a user who
+ * queues many jobs does not hold back the jobs of other users, and bulk
+ * imports do not hold back short interactive jobs. Jobs whose user or job type
+ * is at its limit are skipped until one of their running jobs completes.
+ * <p>
+ * The position of a waiting job is exposed through
+ * {@link JobConfiguration#getQueuePosition()}.
+ */
+@Slf4j
+@Component
+public class FairShareJobQueue
+    implements MeterBinder
+{
+    private static final String SYSTEM_USER = "";
+
+    private final Executor executor;
+
+    private final Notifier notifier;
+
+    private final int maxRunning;
+
+    private final int maxRunningPerUser;
+
+    private final int maxRunningPerType;
+
+    /**
+     * Jobs waiting for a worker, guarded by this.
+     */
+    private final List<QueuedJob> queued = new ArrayList<>();
+
+    private final Map<String, Integer> runningByUser = new HashMap<>();
+
+    private final Map<JobType, Integer> runningByType = new HashMap<>();
+
+    private int running;
+
+    private long sequence;
+
+    private volatile MeterRegistry registry;
+
+    public FairShareJobQueue( @Qualifier( "taskScheduler" ) Executor executor, Notifier notifier,
+        DhisConfigurationProvider config )
+    {
+        this( executor, notifier,
+            Integer.parseInt( config.getProperty( ConfigurationKey.JOB_QUEUE_MAX_RUNNING ) ),
+            Integer.parseInt( config.getProperty( ConfigurationKey.JOB_QUEUE_MAX_RUNNING_PER_USER ) ),
+            Integer.parseInt( config.getProperty( ConfigurationKey.JOB_QUEUE_MAX_RUNNING_PER_TYPE ) ) );
+    }
+
+    FairShareJobQueue( Executor executor, Notifier notifier, int maxRunning, int maxRunningPerUser,
+        int maxRunningPerType )
+    {
+        this.executor = executor;
+        this.notifier = notifier;
+        this.maxRunning = Math.max( 1, maxRunning );
+        this.maxRunningPerUser = Math.max( 1, maxRunningPerUser );
+        this.maxRunningPerType = Math.max( 1, maxRunningPerType );
+    }
+
+    /**
+     * Queues the task of a job. The task starts right away if the limits
+     * allow, otherwise once the queue picks it.
+     *
+     * @param task the task to run.
+     * @param configuration the configuration of the job.
+     * @return a {@link Future} to cancel the waiting or running task.
+     */
+    public Future<?> submit( Runnable task, JobConfiguration configuration )
+    {
+        List<QueuedJob> starting;
+        QueuedJob job;
+
+        synchronized ( this )
+        {
+            job = new QueuedJob( task, configuration, sequence++ );
+            queued.add( job );
+            starting = dispatch();
+        }
+
+        start( starting );
+
+        Integer position = configuration.getQueuePosition();
+
+        if ( position != null )
+        {
+            log.info( "Job {} of user {} is waiting for a worker at position {}", configuration.getJobType(),
+                configuration.getUserUid(), position );
+
+            notifier.notify( configuration, "Waiting for a worker at position " + position );
+        }
+
+        return job;
+    }
+
+    public synchronized int getQueueSize( JobPriority priority )
+    {
+        return (int) queued.stream().filter( job -> job.priority == priority ).count();
+    }
+
+    public synchronized int getRunning()
+    {
+        return running;
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        for ( JobPriority priority : JobPriority.values() )
+        {
+            Gauge.builder( "jobs.queue.size", this, queue -> queue.getQueueSize( priority ) )
+                .tag( "priority", priority.name() )
+                .description( "Number of jobs waiting for a worker" )
+                .register( registry );
+        }
+
+        Gauge.builder( "jobs.running", this, FairShareJobQueue::getRunning )
+            .description( "Number of jobs started through the job queue which are running" )
+            .register( registry );
+
+        this.registry = registry;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Picks the jobs to start while the limits allow, and updates the position
+     * of the jobs still waiting. Must be called while holding the lock.
+     *
+     * @return the picked jobs, to be started outside of the lock.
+     */
+    private List<QueuedJob> dispatch()
+    {
+        List<QueuedJob> starting = new ArrayList<>();
+
+        while ( running < maxRunning )
+        {
+            QueuedJob next = queued.stream()
+                .filter( job -> runningByUser.getOrDefault( job.user, 0 ) < maxRunningPerUser )
+                .filter( job -> runningByType.getOrDefault( job.type, 0 ) < maxRunningPerType )
+                .min( queueOrder() )
+                .orElse( null );
+
+            if ( next == null )
+            {
+                break;
+            }
+
+            queued.remove( next );
+            running++;
+            runningByUser.merge( next.user, 1, Integer::sum );
+            runningByType.merge( next.type, 1, Integer::sum );
+            next.configuration.setQueuePosition( null );
+            starting.add( next );
+        }
+
+        queued.sort( queueOrder() );
+
+        for ( int i = 0; i < queued.size(); i++ )
+        {
+            queued.get( i ).configuration.setQueuePosition( i + 1 );
+        }
+
+        return starting;
+    }
+
+    private Comparator<QueuedJob> queueOrder()
+    {
+        return Comparator.<QueuedJob, JobPriority> comparing( job -> job.priority )
+            .thenComparingInt( job -> runningByUser.getOrDefault( job.user, 0 ) )
+            .thenComparingLong( job -> job.sequence );
+    }
+
+    private void start( List<QueuedJob> jobs )
+    {
+        for ( QueuedJob job : jobs )
+        {
+            job.startedNanos = System.nanoTime();
+            record( "jobs.queue.wait", job, job.startedNanos - job.queuedNanos );
+            executor.execute( job );
+        }
+    }
+
+    private void finished( QueuedJob job )
+    {
+        List<QueuedJob> starting;
+
+        synchronized ( this )
+        {
+            running--;
+            runningByUser.merge( job.user, -1, Integer::sum );
+            runningByType.merge( job.type, -1, Integer::sum );
+            starting = dispatch();
+        }
+
+        record( "jobs.execution", job, System.nanoTime() - job.startedNanos );
+        start( starting );
+    }
+
+    private void cancelled( QueuedJob job )
+    {
+        List<QueuedJob> starting;
+
+        synchronized ( this )
+        {
+            if ( !queued.remove( job ) )
+            {
+                return;
+            }
+
+            job.configuration.setQueuePosition( null );
+            starting = dispatch();
+        }
+
+        start( starting );
+    }
+
+    private void record( String name, QueuedJob job, long nanos )
+    {
+        MeterRegistry meterRegistry = registry;
+
+        if ( meterRegistry != null )
+        {
+            Timer.builder( name )
+                .tag( "type", String.valueOf( job.type ) )
+                .register( meterRegistry )
+                .record( nanos, TimeUnit.NANOSECONDS );
+        }
+    }
+
+    private final class QueuedJob
+        extends FutureTask<Void>
+    {
+        private final JobConfiguration configuration;
+
+        private final String user;
+
+        private final JobType type;
+
+        private final JobPriority priority;
+
+        private final long sequence;
+
+        private final long queuedNanos = System.nanoTime();
+
+        private volatile long startedNanos;
+
+        QueuedJob( Runnable task, JobConfiguration configuration, long sequence )
+        {
+            super( task, null );
+            this.configuration = configuration;
+            this.user = configuration.getUserUid() == null ? SYSTEM_USER : configuration.getUserUid();
+            this.type = configuration.getJobType();
+            this.priority = type == null ? JobPriority.NORMAL : type.getPriority();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run()
+        {
+            try
+            {
+                super.run();
+            }
+            finally
+            {
+                finished( this );
+            }
+        }
+
+        @Override
+        protected void done()
+        {
+            if ( isCancelled() )
+            {
+                cancelled( this );
+            }
+        }
+    }
+}
@@ -29,12 +29,19 @@ package org.hisp.dhis.sqlview.hibernate;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.hibernate.SessionFactory;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridWriter;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
 import org.hisp.dhis.jdbc.StatementBuilder;
 import org.hisp.dhis.security.acl.AclService;
@@ -49,6 +56,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Repository;
 
@@ -69,6 +77,8 @@ public class HibernateSqlViewStore
     private static final Map<SqlViewType, String> TYPE_DROP_PREFIX_MAP = ImmutableMap.of( SqlViewType.VIEW,
         "DROP VIEW ", SqlViewType.MATERIALIZED_VIEW, "DROP MATERIALIZED VIEW " );
 
+    private static final int FETCH_SIZE = 1000;
+
     private final StatementBuilder statementBuilder;
 
     private final JdbcTemplate readOnlyJdbcTemplate;
@@ -147,6 +157,54 @@ public class HibernateSqlViewStore
         grid.addRows( rs, maxLimit );
     }
 
+    @Override
+    public void writeSqlViewGrid( GridWriter writer, String sql )
+    {
+        int maxLimit = systemSettingManager.getIntSetting( SettingKey.SQL_VIEW_MAX_LIMIT );
+
+        log.debug( "Write view SQL: " + sql + ", max limit: " + maxLimit );
+
+        readOnlyJdbcTemplate.query( con -> {
+            PreparedStatement statement = con.prepareStatement( sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY );
+            statement.setFetchSize( FETCH_SIZE );
+            return statement;
+        }, (ResultSetExtractor<Void>) rs -> {
+            ResultSetMetaData rsmd = rs.getMetaData();
+            int cols = rsmd.getColumnCount();
+            List<GridHeader> headers = new ArrayList<>( cols );
+
+            for ( int i = 1; i <= cols; i++ )
+            {
+                headers.add( new GridHeader( rsmd.getColumnLabel( i ), false, false ) );
+            }
+
+            writer.writeHeaders( headers );
+
+            int rows = 0;
+
+            while ( rs.next() )
+            {
+                if ( maxLimit > 0 && ++rows > maxLimit )
+                {
+                    throw new IllegalStateException(
+                        "Number of rows produced by query is larger than the max limit: " + maxLimit );
+                }
+
+                List<Object> row = new ArrayList<>( cols );
+
+                for ( int i = 1; i <= cols; i++ )
+                {
+                    row.add( rs.getObject( i ) );
+                }
+
+                writer.writeRow( row );
+            }
+
+            return null;
+        } );
+    }
+
     @Override
     public String testSqlGrammar( String sql )
     {
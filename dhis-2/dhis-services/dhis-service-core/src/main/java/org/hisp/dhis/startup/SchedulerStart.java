@@ -75,6 +75,8 @@ public class SchedulerStart extends AbstractStartupRoutine
 
     private static final String CRON_DAILY_7AM = "0 0 7 ? * *";
 
+    private static final String CRON_EVERY_10_MIN = "0 0/10 * ? * *";
+
     private static final String LEADER_JOB_CRON_FORMAT = "0 0/%s * * * *";
 
     enum SystemJob
@@ -96,6 +98,8 @@ public class SchedulerStart extends AbstractStartupRoutine
             "Dataset notification" ),
         REMOVE_EXPIRED_OR_USED_RESERVED_VALUES( CRON_DAILY_2AM, "uwWCT2BMmlq", REMOVE_USED_OR_EXPIRED_RESERVED_VALUES,
             "Remove expired or used reserved values" ),
+        RESERVED_VALUE_POOL_REFILL( CRON_EVERY_10_MIN, "kTr3Qbw6VfP", JobType.RESERVED_VALUE_POOL_REFILL,
+            "Refill reserved value pools" ),
         LEADER_ELECTION( LEADER_JOB_CRON_FORMAT, "MoUd5BTQ3lY", JobType.LEADER_ELECTION,
             "Leader election in cluster" );
 
@@ -203,6 +207,7 @@ public class SchedulerStart extends AbstractStartupRoutine
         addDefaultJob( SystemJob.ACCOUNT_EXPIRY_ALERT, jobConfigurations );
         addDefaultJob( SystemJob.DATA_SET_NOTIFICATION, jobConfigurations );
         addDefaultJob( SystemJob.REMOVE_EXPIRED_OR_USED_RESERVED_VALUES, jobConfigurations );
+        addDefaultJob( SystemJob.RESERVED_VALUE_POOL_REFILL, jobConfigurations );
         addDefaultJob( SystemJob.SYSTEM_VERSION_UPDATE_CHECK, jobConfigurations );
 
         if ( redisEnabled && verifyNoJobExist( SystemJob.LEADER_ELECTION.name, jobConfigurations ) )
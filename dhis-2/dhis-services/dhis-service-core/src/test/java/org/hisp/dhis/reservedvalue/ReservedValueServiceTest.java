@@ -32,8 +32,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -76,6 +78,9 @@ class ReservedValueServiceTest
     @Mock
     private ValueGeneratorService valueGeneratorService;
 
+    @Mock
+    private ReservedValuePoolStore reservedValuePoolStore;
+
     @Captor
     private ArgumentCaptor<ReservedValue> reservedValue;
 
@@ -93,7 +98,7 @@ class ReservedValueServiceTest
     void setUpClass()
     {
         reservedValueService = new DefaultReservedValueService( textPatternService, reservedValueStore,
-            valueGeneratorService );
+            valueGeneratorService, reservedValuePoolStore );
         Calendar calendar = Calendar.getInstance();
         calendar.add( DATE, 1 );
         futureDate = calendar.getTime();
@@ -229,6 +234,99 @@ class ReservedValueServiceTest
                 .size() );
     }
 
+    @Test
+    void shouldReserveValuesRandomPatternFromPool()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException,
+        ExecutionException,
+        InterruptedException
+    {
+        when( reservedValuePoolStore.claimValues( Objects.TRACKEDENTITYATTRIBUTE.name(), ownerUid,
+            "TEST-RANDOM(XXX)", 2 ) ).thenReturn( Arrays.asList( "TEST-AAA", "TEST-BBB" ) );
+        when( reservedValueStore.getAvailableValues( any(), any(), any() ) ).thenReturn( Arrays.asList(
+            ReservedValue.builder().value( "TEST-AAA" ).build(),
+            ReservedValue.builder().value( "TEST-BBB" ).build() ) );
+        assertEquals( 2,
+            reservedValueService
+                .reserve( createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, randomText ), 2,
+                    new HashMap<>(), futureDate )
+                .size() );
+        verify( reservedValueStore, times( 1 ) ).bulkInsertReservedValues( argThat( list -> list.size() == 2 ) );
+        verify( valueGeneratorService, never() ).generateValues( any(), any(), any(), anyInt() );
+    }
+
+    @Test
+    void shouldGenerateValuesRandomPatternMissingFromPool()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException,
+        ExecutionException,
+        InterruptedException
+    {
+        when( reservedValuePoolStore.claimValues( any(), any(), any(), anyInt() ) )
+            .thenReturn( Arrays.asList( "TEST-AAA" ) );
+        when( reservedValueStore.getAvailableValues( any(), any(), any() ) )
+            .thenReturn( Arrays.asList( ReservedValue.builder().value( "TEST-AAA" ).build() ) )
+            .thenReturn( Arrays.asList( ReservedValue.builder().value( "TEST-BBB" ).build(),
+                ReservedValue.builder().value( "TEST-CCC" ).build() ) );
+        when( valueGeneratorService.generateValues( any(), any(), any(), anyInt() ) )
+            .thenReturn( Arrays.asList( "BBB", "CCC" ) );
+        assertEquals( 2,
+            reservedValueService
+                .reserve( createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, randomText ), 2,
+                    new HashMap<>(), futureDate )
+                .size() );
+        verify( valueGeneratorService, times( 1 ) ).generateValues( any(), any(), any(), eq( 1 ) );
+        verify( reservedValueStore, times( 2 ) ).bulkInsertReservedValues( argThat( list -> list.size() == 1 ) );
+    }
+
+    @Test
+    void shouldRefillValuePoolBelowLowWatermark()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException,
+        ExecutionException,
+        InterruptedException
+    {
+        String key = "TEST-RANDOM(XXX)";
+        String ownerObject = Objects.TRACKEDENTITYATTRIBUTE.name();
+        when( reservedValuePoolStore.getPoolSize( ownerObject, ownerUid, key ) ).thenReturn( 1, 3 );
+        when( valueGeneratorService.generateValues( any(), any(), any(), anyInt() ) )
+            .thenReturn( Arrays.asList( "AAA", "BBB", "CCC" ) );
+        when( reservedValueStore.getAvailableValues( any(), any(), any() ) ).thenReturn( Arrays.asList(
+            ReservedValue.builder().value( "TEST-AAA" ).build(), ReservedValue.builder().value( "TEST-BBB" ).build(),
+            ReservedValue.builder().value( "TEST-CCC" ).build() ) );
+        assertEquals( 2, reservedValueService.refillValuePool(
+            createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, randomText ), 2, 3 ) );
+        verify( reservedValuePoolStore ).deleteOutdatedPools( ownerUid, key );
+        verify( reservedValuePoolStore ).addValues( ownerObject, ownerUid, key,
+            Arrays.asList( "TEST-AAA", "TEST-BBB" ) );
+    }
+
+    @Test
+    void shouldNotRefillValuePoolAboveLowWatermark()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException
+    {
+        when( reservedValuePoolStore.getPoolSize( any(), any(), any() ) ).thenReturn( 2 );
+        assertEquals( 0, reservedValueService.refillValuePool(
+            createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, randomText ), 2, 3 ) );
+        verify( reservedValuePoolStore, never() ).addValues( any(), any(), any(), anyList() );
+    }
+
+    @Test
+    void shouldNotRefillValuePoolSequentialPattern()
+        throws TextPatternParser.TextPatternParsingException,
+        TextPatternGenerationException,
+        ReserveValueException
+    {
+        assertEquals( 0, reservedValueService.refillValuePool(
+            createTrackedEntityAttribute( Objects.TRACKEDENTITYATTRIBUTE, ownerUid, sequentialText ), 2, 3 ) );
+        verify( reservedValuePoolStore, never() ).getPoolSize( any(), any(), any() );
+    }
+
     private static TrackedEntityAttribute createTrackedEntityAttribute( Objects objects, String uid, String pattern )
         throws TextPatternParser.TextPatternParsingException
     {
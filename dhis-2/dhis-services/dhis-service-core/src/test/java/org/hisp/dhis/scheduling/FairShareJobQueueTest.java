@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.hisp.dhis.system.notification.Notifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link FairShareJobQueue} with an executor which only collects the
+ * started jobs, so that the test decides when they complete.
+ */
+class FairShareJobQueueTest
+{
+    private final List<Runnable> started = new ArrayList<>();
+
+    private final List<String> ran = new ArrayList<>();
+
+    private FairShareJobQueue queue;
+
+    @BeforeEach
+    void setUp()
+    {
+        queue = new FairShareJobQueue( started::add, mock( Notifier.class ), 3, 2, 2 );
+    }
+
+    @Test
+    void testJobsStartWithinLimits()
+    {
+        submit( "a", JobType.PREDICTOR );
+        submit( "b", JobType.MONITORING );
+
+        assertEquals( 2, started.size() );
+        assertEquals( 2, queue.getRunning() );
+    }
+
+    @Test
+    void testUserLimitLetsOtherUsersPass()
+    {
+        submit( "a", JobType.DATAVALUE_IMPORT );
+        submit( "a", JobType.EVENT_IMPORT );
+        JobConfiguration waiting = submit( "a", JobType.ENROLLMENT_IMPORT );
+        submit( "b", JobType.PREDICTOR );
+
+        assertEquals( 3, started.size() );
+        assertEquals( 1, waiting.getQueuePosition() );
+
+        complete( 0 );
+
+        assertEquals( List.of( "a:DATAVALUE_IMPORT" ), ran );
+        assertEquals( 3, started.size() );
+        assertNull( waiting.getQueuePosition() );
+    }
+
+    @Test
+    void testTypeLimit()
+    {
+        submit( "a", JobType.DATAVALUE_IMPORT );
+        submit( "b", JobType.DATAVALUE_IMPORT );
+        JobConfiguration waiting = submit( "c", JobType.DATAVALUE_IMPORT );
+
+        assertEquals( 2, started.size() );
+        assertEquals( 1, waiting.getQueuePosition() );
+        assertEquals( 1, queue.getQueueSize( JobPriority.LOW ) );
+    }
+
+    @Test
+    void testHigherPriorityAndLessBusyUserGoFirst()
+    {
+        queue = new FairShareJobQueue( started::add, mock( Notifier.class ), 2, 2, 2 );
+
+        submit( "a", JobType.PREDICTOR );
+        submit( "x", JobType.ANALYTICS_TABLE );
+        JobConfiguration bulk = submit( "b", JobType.DATAVALUE_IMPORT );
+        JobConfiguration busyUser = submit( "a", JobType.MONITORING );
+        JobConfiguration idleUser = submit( "c", JobType.PUSH_ANALYSIS );
+        JobConfiguration interactive = submit( "d", JobType.DATA_INTEGRITY );
+
+        assertEquals( 1, interactive.getQueuePosition() );
+        assertEquals( 2, idleUser.getQueuePosition() );
+        assertEquals( 3, busyUser.getQueuePosition() );
+        assertEquals( 4, bulk.getQueuePosition() );
+
+        // complete the most recently started job while user a stays busy
+        complete( 1 );
+        complete( 1 );
+        complete( 1 );
+        complete( 0 );
+        complete( 0 );
+        complete( 0 );
+
+        assertEquals( List.of( "x:ANALYTICS_TABLE", "d:DATA_INTEGRITY", "c:PUSH_ANALYSIS", "a:PREDICTOR",
+            "a:MONITORING", "b:DATAVALUE_IMPORT" ), ran );
+        assertTrue( started.isEmpty() );
+    }
+
+    @Test
+    void testCancelledJobLeavesQueue()
+    {
+        queue = new FairShareJobQueue( started::add, mock( Notifier.class ), 1, 2, 2 );
+
+        submit( "a", JobType.PREDICTOR );
+        JobConfiguration second = new JobConfiguration( "second", JobType.MONITORING, "b", true );
+        Future<?> cancelable = queue.submit( () -> ran.add( "second" ), second );
+        JobConfiguration third = submit( "c", JobType.PUSH_ANALYSIS );
+
+        assertEquals( 2, third.getQueuePosition() );
+        assertTrue( cancelable.cancel( true ) );
+        assertNull( second.getQueuePosition() );
+        assertEquals( 1, third.getQueuePosition() );
+
+        complete( 0 );
+        complete( 0 );
+
+        assertEquals( List.of( "a:PREDICTOR", "c:PUSH_ANALYSIS" ), ran );
+        assertEquals( 0, queue.getRunning() );
+    }
+
+    private JobConfiguration submit( String user, JobType type )
+    {
+        JobConfiguration configuration = new JobConfiguration( type.name(), type, user, true );
+        queue.submit( () -> ran.add( user + ":" + type ), configuration );
+        return configuration;
+    }
+
+    private void complete( int index )
+    {
+        started.remove( index ).run();
+    }
+}
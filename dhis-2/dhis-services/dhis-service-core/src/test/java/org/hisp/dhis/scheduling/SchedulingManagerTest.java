@@ -37,6 +37,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -92,12 +93,15 @@ class SchedulingManagerTest
 
     private final Job job = mock( Job.class );
 
+    private final AsyncTaskExecutor taskExecutor = mock( AsyncTaskExecutor.class );
+
     private DefaultSchedulingManager schedulingManager;
 
     @BeforeEach
     void setUp()
     {
         when( applicationContext.getBeansOfType( any() ) ).thenReturn( Collections.singletonMap( "test", job ) );
+        doAnswer( invocation -> new MockFuture<>() ).when( taskExecutor ).executeJob( any(), any() );
 
         CacheProvider cacheProvider = mock( CacheProvider.class );
         when( cacheProvider.createJobCancelRequestedCache() ).thenReturn( new TestCache<>() );
@@ -106,7 +110,7 @@ class SchedulingManagerTest
 
         schedulingManager = new DefaultSchedulingManager( new DefaultJobService( applicationContext ),
             jobConfigurationService, mock( MessageService.class ), mock( Notifier.class ),
-            mock( LeaderManager.class ), taskScheduler, mock( AsyncTaskExecutor.class ), cacheProvider );
+            mock( LeaderManager.class ), taskScheduler, taskExecutor, cacheProvider );
     }
 
     @Test
@@ -148,6 +152,33 @@ class SchedulingManagerTest
             startTimeTask.getValue() );
     }
 
+    @Test
+    void testStopRemovesQueuedJob()
+    {
+        JobConfiguration configuration = createStartTimeJobConfiguration();
+        MockFuture<Void> waiting = new MockFuture<>();
+        doReturn( waiting ).when( taskExecutor ).executeJob( any( Runnable.class ), any( JobConfiguration.class ) );
+
+        assertTrue( schedulingManager.executeNow( configuration ) );
+        assertFalse( waiting.isCancelled() );
+
+        schedulingManager.stop( configuration );
+        assertTrue( waiting.isCancelled() );
+    }
+
+    @Test
+    void testStopKeepsQueuedJobOfOtherType()
+    {
+        JobConfiguration configuration = createStartTimeJobConfiguration();
+        MockFuture<Void> waiting = new MockFuture<>();
+        doReturn( waiting ).when( taskExecutor ).executeJob( any( Runnable.class ), any( JobConfiguration.class ) );
+
+        assertTrue( schedulingManager.executeNow( configuration ) );
+
+        schedulingManager.stop( createCronJonConfiguration() );
+        assertFalse( waiting.isCancelled() );
+    }
+
     private static JobConfiguration createCronJonConfiguration()
     {
         JobConfiguration configuration = new JobConfiguration( "cron", JobType.ANALYTICS_TABLE,
@@ -114,6 +114,13 @@ public class ImportOptions
      */
     private boolean skipCache = false;
 
+    /**
+     * If true, aggregate data values are staged with PostgreSQL COPY and
+     * merged into the data value table with a single set based statement
+     * after all values have been validated.
+     */
+    private boolean bulkImport;
+
     // --------------------------------------------------------------------------
     // Constructors
     // --------------------------------------------------------------------------
@@ -138,6 +145,7 @@ public class ImportOptions
         options.importStrategy = this.importStrategy;
         options.mergeMode = this.mergeMode;
         options.skipExistingCheck = this.skipExistingCheck;
+        options.bulkImport = this.bulkImport;
         options.sharing = this.sharing;
         options.skipNotifications = this.skipNotifications;
         options.datasetAllowsPeriods = this.datasetAllowsPeriods;
@@ -282,6 +290,13 @@ public class ImportOptions
         return skipExistingCheck;
     }
 
+    @JsonProperty
+    @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
+    public boolean isBulkImport()
+    {
+        return bulkImport;
+    }
+
     @JsonProperty
     @JacksonXmlProperty( namespace = DxfNamespaces.DXF_2_0 )
     public boolean isSharing()
@@ -539,6 +554,12 @@ public class ImportOptions
         return this;
     }
 
+    public ImportOptions setBulkImport( boolean bulkImport )
+    {
+        this.bulkImport = bulkImport;
+        return this;
+    }
+
     public ImportOptions setSharing( boolean sharing )
     {
         this.sharing = sharing;
@@ -661,6 +682,7 @@ public class ImportOptions
             .add( "importStrategy", importStrategy )
             .add( "mergeMode", mergeMode )
             .add( "skipExistingCheck", skipExistingCheck )
+            .add( "bulkImport", bulkImport )
             .add( "ignoreEmptyCollection", ignoreEmptyCollection )
             .add( "sharing", sharing )
             .add( "skipNotifications", skipNotifications )
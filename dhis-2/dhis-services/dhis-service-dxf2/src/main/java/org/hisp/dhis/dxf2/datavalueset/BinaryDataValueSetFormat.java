@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitives of the columnar binary {@link DataValueSet} format
+ * written by {@link BinaryDataValueSetWriter} and read by
+ * {@link BinaryDataValueSetReader}.
+ * <p>
+ * A document starts with {@link #MAGIC}, the {@link #VERSION} and the four
+ * header strings data set, complete date, period and organisation unit. It is
+ * followed by blocks of at most {@link #DEFAULT_BLOCK_SIZE} values, and ends
+ * with a block of zero values. Each block contains:
+ * <ol>
+ * <li>the number of values in the block</li>
+ * <li>the strings added to the dictionary by this block</li>
+ * <li>one column of dictionary indexes for each of data element, period,
+ * organisation unit, category option combo, attribute option combo and stored
+ * by</li>
+ * <li>one column of strings for each of value, comment, created and last
+ * updated</li>
+ * <li>one column of flags for followup and deleted</li>
+ * </ol>
+ * The dictionary is shared by all dictionary columns and grows from block to
+ * block, so an identifier is only written once per document. Numbers are
+ * written as unsigned variable length integers. Strings are written as UTF-8
+ * prefixed by their length plus one, a length of zero denotes {@code null}.
+ * Dictionary index zero denotes {@code null}, and index {@code i} denotes the
+ * {@code i}-th dictionary entry.
+ * <p>
+ * As documents are uploaded by clients, sizes read from a document are
+ * checked against {@link #MAX_BLOCK_SIZE}, {@link #MAX_DICTIONARY_SIZE} and
+ * {@link #MAX_STRING_LENGTH} before anything is allocated for them. The writer
+ * fails instead of writing a document exceeding these limits.
+ */
+final class BinaryDataValueSetFormat
+{
+    static final int MAGIC = 0x44565342; // "DVSB"
+
+    static final int VERSION = 1;
+
+    static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    static final int MAX_BLOCK_SIZE = DEFAULT_BLOCK_SIZE * 4;
+
+    static final int MAX_DICTIONARY_SIZE = 1 << 22;
+
+    static final int MAX_STRING_LENGTH = 1 << 24;
+
+    static final int DICTIONARY_COLUMNS = 6;
+
+    static final int STRING_COLUMNS = 4;
+
+    static final int FLAG_FOLLOWUP = 1;
+
+    static final int FLAG_HAS_DELETED = 2;
+
+    static final int FLAG_DELETED = 4;
+
+    private BinaryDataValueSetFormat()
+    {
+        throw new UnsupportedOperationException( "util" );
+    }
+
+    static void writeVarInt( DataOutput out, int value )
+        throws IOException
+    {
+        while ( (value & ~0x7F) != 0 )
+        {
+            out.writeByte( (value & 0x7F) | 0x80 );
+            value >>>= 7;
+        }
+
+        out.writeByte( value );
+    }
+
+    static int readVarInt( DataInput in )
+        throws IOException
+    {
+        int value = 0;
+
+        for ( int shift = 0; shift < 32; shift += 7 )
+        {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if ( (b & 0x80) == 0 )
+            {
+                return value;
+            }
+        }
+
+        throw new IOException( "Malformed variable length integer" );
+    }
+
+    /**
+     * Reads a size written as variable length integer.
+     *
+     * @param in the input.
+     * @param max the maximum size.
+     * @param name the name of the size, for the error message.
+     * @return the size.
+     * @throws IllegalArgumentException if the size is negative or larger
+     *         than the maximum size.
+     */
+    static int readSize( DataInput in, int max, String name )
+        throws IOException
+    {
+        int size = readVarInt( in );
+
+        if ( size < 0 || size > max )
+        {
+            throw new IllegalArgumentException(
+                String.format( "Invalid %s in binary data value set: %d, maximum is %d", name, size, max ) );
+        }
+
+        return size;
+    }
+
+    static void writeString( DataOutput out, String value )
+        throws IOException
+    {
+        if ( value == null )
+        {
+            writeVarInt( out, 0 );
+            return;
+        }
+
+        byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+
+        if ( bytes.length > MAX_STRING_LENGTH )
+        {
+            throw new IllegalArgumentException( "String is too long for binary data value set: " + bytes.length );
+        }
+
+        writeVarInt( out, bytes.length + 1 );
+        out.write( bytes );
+    }
+
+    static String readString( DataInput in )
+        throws IOException
+    {
+        int length = readSize( in, MAX_STRING_LENGTH + 1, "string length" );
+
+        if ( length == 0 )
+        {
+            return null;
+        }
+
+        byte[] bytes = new byte[length - 1];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.DICTIONARY_COLUMNS;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_DELETED;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_FOLLOWUP;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_HAS_DELETED;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAGIC;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAX_BLOCK_SIZE;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAX_DICTIONARY_SIZE;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.STRING_COLUMNS;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.VERSION;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.readSize;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.readString;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.readVarInt;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link DataValueSet} from the columnar binary format described by
+ * {@link BinaryDataValueSetFormat}.
+ *
+ * Values are read one block at a time. Like the {@link CsvDataValueSetReader}
+ * the reader itself is the {@link DataValueEntry} returned by
+ * {@link #readNext()}, positioned at the current value of the block.
+ */
+final class BinaryDataValueSetReader implements DataValueSetReader, DataValueEntry
+{
+    private final DataInputStream in;
+
+    private final int maxDictionarySize;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private int[][] indexColumns = new int[DICTIONARY_COLUMNS][0];
+
+    private String[][] stringColumns = new String[STRING_COLUMNS][0];
+
+    private byte[] flags = new byte[0];
+
+    private int size;
+
+    private int row;
+
+    private boolean ended;
+
+    BinaryDataValueSetReader( InputStream in )
+    {
+        this( in, MAX_DICTIONARY_SIZE );
+    }
+
+    BinaryDataValueSetReader( InputStream in, int maxDictionarySize )
+    {
+        this.in = new DataInputStream( new BufferedInputStream( in ) );
+        this.maxDictionarySize = maxDictionarySize;
+        this.dictionary.add( null );
+    }
+
+    @Override
+    public DataValueSet readHeader()
+    {
+        try
+        {
+            if ( in.readInt() != MAGIC )
+            {
+                throw new IllegalArgumentException( "Input is not a binary data value set" );
+            }
+
+            int version = readVarInt( in );
+
+            if ( version != VERSION )
+            {
+                throw new IllegalArgumentException( "Unsupported binary data value set version: " + version );
+            }
+
+            DataValueSet header = new DataValueSet();
+            header.setDataSet( readString( in ) );
+            header.setCompleteDate( readString( in ) );
+            header.setPeriod( readString( in ) );
+            header.setOrgUnit( readString( in ) );
+            return header;
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to read binary data", ex );
+        }
+    }
+
+    @Override
+    public DataValueEntry readNext()
+    {
+        if ( ++row < size )
+        {
+            return this;
+        }
+
+        if ( ended || !readBlock() )
+        {
+            ended = true;
+            return null;
+        }
+
+        return this;
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            in.close();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to close binary data", ex );
+        }
+    }
+
+    /*
+     * When used as DataValueEntry
+     */
+
+    @Override
+    public String getDataElement()
+    {
+        return getEntry( 0 );
+    }
+
+    @Override
+    public String getPeriod()
+    {
+        return getEntry( 1 );
+    }
+
+    @Override
+    public String getOrgUnit()
+    {
+        return getEntry( 2 );
+    }
+
+    @Override
+    public String getCategoryOptionCombo()
+    {
+        return getEntry( 3 );
+    }
+
+    @Override
+    public String getAttributeOptionCombo()
+    {
+        return getEntry( 4 );
+    }
+
+    @Override
+    public String getStoredBy()
+    {
+        return getEntry( 5 );
+    }
+
+    @Override
+    public String getValue()
+    {
+        return stringColumns[0][row];
+    }
+
+    @Override
+    public String getComment()
+    {
+        return stringColumns[1][row];
+    }
+
+    @Override
+    public String getCreated()
+    {
+        return stringColumns[2][row];
+    }
+
+    @Override
+    public String getLastUpdated()
+    {
+        return stringColumns[3][row];
+    }
+
+    @Override
+    public boolean getFollowup()
+    {
+        return (flags[row] & FLAG_FOLLOWUP) != 0;
+    }
+
+    @Override
+    public Boolean getDeleted()
+    {
+        return (flags[row] & FLAG_HAS_DELETED) == 0 ? null : (flags[row] & FLAG_DELETED) != 0;
+    }
+
+    private String getEntry( int column )
+    {
+        return dictionary.get( indexColumns[column][row] );
+    }
+
+    /**
+     * Reads the next block of values.
+     *
+     * @return false if the end of the document was reached
+     */
+    private boolean readBlock()
+    {
+        try
+        {
+            int blockSize = readSize( in, MAX_BLOCK_SIZE, "block size" );
+
+            if ( blockSize == 0 )
+            {
+                return false;
+            }
+
+            int newEntries = readSize( in,
+                // the dictionary starts with null for index zero
+                Math.min( DICTIONARY_COLUMNS * blockSize, maxDictionarySize - (dictionary.size() - 1) ),
+                "number of dictionary entries" );
+
+            for ( int i = 0; i < newEntries; i++ )
+            {
+                dictionary.add( readString( in ) );
+            }
+
+            if ( flags.length < blockSize )
+            {
+                indexColumns = new int[DICTIONARY_COLUMNS][blockSize];
+                stringColumns = new String[STRING_COLUMNS][blockSize];
+                flags = new byte[blockSize];
+            }
+
+            for ( int[] column : indexColumns )
+            {
+                for ( int i = 0; i < blockSize; i++ )
+                {
+                    column[i] = readIndex();
+                }
+            }
+
+            for ( String[] column : stringColumns )
+            {
+                for ( int i = 0; i < blockSize; i++ )
+                {
+                    column[i] = readString( in );
+                }
+            }
+
+            in.readFully( flags, 0, blockSize );
+
+            size = blockSize;
+            row = 0;
+            return true;
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to read binary data", ex );
+        }
+    }
+
+    private int readIndex()
+        throws IOException
+    {
+        return readSize( in, dictionary.size() - 1, "dictionary index" );
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.DEFAULT_BLOCK_SIZE;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.DICTIONARY_COLUMNS;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_DELETED;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_FOLLOWUP;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.FLAG_HAS_DELETED;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAGIC;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAX_DICTIONARY_SIZE;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.STRING_COLUMNS;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.VERSION;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.writeString;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.writeVarInt;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write {@link DataValueSet}s in the columnar binary format described by
+ * {@link BinaryDataValueSetFormat}.
+ *
+ * Values are buffered until a block is full. Identifiers are replaced by
+ * indexes into a dictionary which is written incrementally, so each
+ * identifier is only written once per document.
+ */
+final class BinaryDataValueSetWriter implements DataValueSetWriter
+{
+    private final DataOutputStream out;
+
+    private final int blockSize;
+
+    private final int maxDictionarySize;
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+
+    private final List<String> newEntries = new ArrayList<>();
+
+    private final int[][] indexColumns;
+
+    private final String[][] stringColumns;
+
+    private final byte[] flags;
+
+    private int size;
+
+    BinaryDataValueSetWriter( OutputStream out )
+    {
+        this( out, DEFAULT_BLOCK_SIZE );
+    }
+
+    BinaryDataValueSetWriter( OutputStream out, int blockSize )
+    {
+        this( out, blockSize, MAX_DICTIONARY_SIZE );
+    }
+
+    BinaryDataValueSetWriter( OutputStream out, int blockSize, int maxDictionarySize )
+    {
+        this.out = new DataOutputStream( new BufferedOutputStream( out ) );
+        this.blockSize = blockSize;
+        this.maxDictionarySize = maxDictionarySize;
+        this.indexColumns = new int[DICTIONARY_COLUMNS][blockSize];
+        this.stringColumns = new String[STRING_COLUMNS][blockSize];
+        this.flags = new byte[blockSize];
+    }
+
+    @Override
+    public void writeHeader()
+    {
+        writeHeader( null, null, null, null );
+    }
+
+    @Override
+    public void writeHeader( String dataSetId, String completeDate, String isoPeriod, String orgUnitId )
+    {
+        try
+        {
+            out.writeInt( MAGIC );
+            writeVarInt( out, VERSION );
+            writeString( out, dataSetId );
+            writeString( out, completeDate );
+            writeString( out, isoPeriod );
+            writeString( out, orgUnitId );
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to write binary data", ex );
+        }
+    }
+
+    @Override
+    public void writeValue( DataValueEntry entry )
+    {
+        indexColumns[0][size] = getIndex( entry.getDataElement() );
+        indexColumns[1][size] = getIndex( entry.getPeriod() );
+        indexColumns[2][size] = getIndex( entry.getOrgUnit() );
+        indexColumns[3][size] = getIndex( entry.getCategoryOptionCombo() );
+        indexColumns[4][size] = getIndex( entry.getAttributeOptionCombo() );
+        indexColumns[5][size] = getIndex( entry.getStoredBy() );
+
+        stringColumns[0][size] = entry.getValue();
+        stringColumns[1][size] = entry.getComment();
+        stringColumns[2][size] = entry.getCreated();
+        stringColumns[3][size] = entry.getLastUpdated();
+
+        Boolean deleted = entry.getDeleted();
+        int flag = entry.getFollowup() ? FLAG_FOLLOWUP : 0;
+
+        if ( deleted != null )
+        {
+            flag |= deleted ? FLAG_HAS_DELETED | FLAG_DELETED : FLAG_HAS_DELETED;
+        }
+
+        flags[size] = (byte) flag;
+
+        if ( ++size == blockSize )
+        {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            if ( size > 0 )
+            {
+                writeBlock();
+            }
+
+            writeVarInt( out, 0 );
+            out.close();
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to write binary data", ex );
+        }
+    }
+
+    private int getIndex( String value )
+    {
+        if ( value == null )
+        {
+            return 0;
+        }
+
+        Integer index = dictionary.get( value );
+
+        if ( index == null )
+        {
+            if ( dictionary.size() >= maxDictionarySize )
+            {
+                throw new IllegalArgumentException(
+                    "Too many identifiers for binary data value set, maximum is " + maxDictionarySize );
+            }
+
+            index = dictionary.size() + 1;
+            dictionary.put( value, index );
+            newEntries.add( value );
+        }
+
+        return index;
+    }
+
+    private void writeBlock()
+    {
+        try
+        {
+            writeVarInt( out, size );
+            writeVarInt( out, newEntries.size() );
+
+            for ( String entry : newEntries )
+            {
+                writeString( out, entry );
+            }
+
+            for ( int[] column : indexColumns )
+            {
+                for ( int i = 0; i < size; i++ )
+                {
+                    writeVarInt( out, column[i] );
+                }
+            }
+
+            for ( String[] column : stringColumns )
+            {
+                for ( int i = 0; i < size; i++ )
+                {
+                    writeString( out, column[i] );
+                    column[i] = null;
+                }
+            }
+
+            out.write( flags, 0, size );
+        }
+        catch ( IOException ex )
+        {
+            throw new UncheckedIOException( "Failed to write binary data", ex );
+        }
+
+        newEntries.clear();
+        size = 0;
+    }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.util.DateUtils.getLongDateString;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.dxf2.importsummary.ImportCount;
+import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.system.util.Clock;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk loader for aggregate data values based on the PostgreSQL COPY command.
+ * Validated data values are copied in chunks into a temporary staging table
+ * and merged into the data value table with a single set based statement
+ * once the import is done. The same statement writes the data value audit
+ * rows, using the previous values of the data value table.
+ * <p>
+ * The staging table is a temporary table which is dropped on commit, which
+ * means that a batch must be used within a single transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataValueCopyImporter
+{
+    /**
+     * Number of data values to buffer before they are copied to the staging
+     * table.
+     */
+    static final int CHUNK_SIZE = 10_000;
+
+    static final String STAGING_TABLE = "datavalue_import_staging";
+
+    private static final String KEY_COLUMNS = "dataelementid, periodid, sourceid, " +
+        "categoryoptioncomboid, attributeoptioncomboid";
+
+    private static final String KEY_JOIN = "dv.dataelementid = s.dataelementid and dv.periodid = s.periodid " +
+        "and dv.sourceid = s.sourceid and dv.categoryoptioncomboid = s.categoryoptioncomboid " +
+        "and dv.attributeoptioncomboid = s.attributeoptioncomboid";
+
+    private static final String COPY_SQL = "copy " + STAGING_TABLE + " (rowindex, " + KEY_COLUMNS +
+        ", value, storedby, created, lastupdated, comment, followup, deleted) from stdin (format csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Outcome of merging a staged data value into the data value table.
+     */
+    enum Action
+    {
+        /**
+         * No data value exists for the key.
+         */
+        INSERT,
+
+        /**
+         * A soft deleted data value exists for the key.
+         */
+        REVIVE,
+
+        /**
+         * A data value exists for the key with a different value or comment.
+         */
+        UPDATE,
+
+        /**
+         * A data value exists for the key with the same value and comment.
+         */
+        UNCHANGED,
+
+        /**
+         * A data value exists for the key and the staged value is deleted.
+         */
+        DELETE,
+
+        /**
+         * The staged value is deleted and no data value exists for the key.
+         */
+        IGNORE
+    }
+
+    /**
+     * Creates the staging table and returns a batch which data values can be
+     * added to.
+     *
+     * @param strategy the import strategy.
+     * @param skipAudit whether to skip writing audit rows.
+     * @param now the import time, used as created date for new data values
+     *        and audit rows.
+     * @return a {@link Batch}.
+     */
+    public Batch begin( ImportStrategy strategy, boolean skipAudit, Date now )
+    {
+        jdbcTemplate.execute( "drop table if exists " + STAGING_TABLE );
+        jdbcTemplate.execute( "create temp table " + STAGING_TABLE + " (" +
+            "rowindex bigint not null, " +
+            "dataelementid bigint not null, " +
+            "periodid bigint not null, " +
+            "sourceid bigint not null, " +
+            "categoryoptioncomboid bigint not null, " +
+            "attributeoptioncomboid bigint not null, " +
+            "value text, " +
+            "storedby text, " +
+            "created timestamp, " +
+            "lastupdated timestamp, " +
+            "comment text, " +
+            "followup boolean, " +
+            "deleted boolean not null) on commit drop" );
+
+        return new Batch( getAppliedActions( strategy ), skipAudit, now );
+    }
+
+    /**
+     * Returns the actions which are applied to the data value table for the
+     * given import strategy, mirroring the row based import.
+     *
+     * @param strategy the import strategy.
+     * @return a set of {@link Action}.
+     */
+    static Set<Action> getAppliedActions( ImportStrategy strategy )
+    {
+        if ( strategy.isCreate() )
+        {
+            return EnumSet.of( Action.INSERT, Action.REVIVE );
+        }
+        else if ( strategy.isUpdate() )
+        {
+            return EnumSet.of( Action.UPDATE, Action.UNCHANGED, Action.DELETE );
+        }
+        else if ( strategy.isDelete() )
+        {
+            return EnumSet.of( Action.DELETE );
+        }
+
+        return EnumSet.of( Action.INSERT, Action.REVIVE, Action.UPDATE, Action.UNCHANGED, Action.DELETE );
+    }
+
+    /**
+     * Data values staged for a single import.
+     */
+    public final class Batch
+    {
+        private final Set<Action> actions;
+
+        private final boolean skipAudit;
+
+        private final Date now;
+
+        private final StringBuilder buffer = new StringBuilder();
+
+        private int bufferedRows = 0;
+
+        private long rows = 0;
+
+        private Batch( Set<Action> actions, boolean skipAudit, Date now )
+        {
+            this.actions = actions;
+            this.skipAudit = skipAudit;
+            this.now = now;
+        }
+
+        /**
+         * Adds a data value to the batch. Data values which are marked as
+         * deleted will only soft delete existing data values.
+         *
+         * @param value the data value.
+         * @param keepCreated whether to keep the created date of existing
+         *        data values.
+         */
+        public void add( DataValue value, boolean keepCreated )
+        {
+            appendRow( buffer, rows++, value, keepCreated );
+
+            if ( ++bufferedRows >= CHUNK_SIZE )
+            {
+                copyChunk();
+            }
+        }
+
+        /**
+         * Copies any remaining data values to the staging table and merges the
+         * staged data values into the data value table.
+         *
+         * @param importCount the import count to update.
+         */
+        public void merge( ImportCount importCount )
+        {
+            copyChunk();
+
+            if ( rows == 0 )
+            {
+                return;
+            }
+
+            Clock clock = new Clock( log ).startClock();
+
+            List<Object> args = new ArrayList<>();
+            String sql = getMergeSql( actions, skipAudit, args, new Timestamp( now.getTime() ) );
+
+            Map<Action, Integer> counts = new EnumMap<>( Action.class );
+
+            jdbcTemplate.query( sql, rs -> {
+                counts.put( Action.valueOf( rs.getString( "action" ) ), rs.getInt( "count" ) );
+            }, args.toArray() );
+
+            jdbcTemplate.execute( "drop table if exists " + STAGING_TABLE );
+
+            updateImportCount( importCount, counts );
+
+            clock.logTime( "Merged " + rows + " staged data values, counts: " + counts );
+        }
+
+        private void updateImportCount( ImportCount importCount, Map<Action, Integer> counts )
+        {
+            int imported = getCount( counts, Action.INSERT ) + getCount( counts, Action.REVIVE );
+            int updated = getCount( counts, Action.UPDATE ) + getCount( counts, Action.UNCHANGED );
+            int deleted = getCount( counts, Action.DELETE );
+
+            importCount.incrementImported( imported );
+            importCount.incrementUpdated( updated );
+            importCount.incrementDeleted( deleted );
+            importCount.incrementIgnored( (int) rows - imported - updated - deleted );
+        }
+
+        private int getCount( Map<Action, Integer> counts, Action action )
+        {
+            return actions.contains( action ) ? counts.getOrDefault( action, 0 ) : 0;
+        }
+
+        private void copyChunk()
+        {
+            if ( bufferedRows == 0 )
+            {
+                return;
+            }
+
+            String data = buffer.toString();
+
+            buffer.setLength( 0 );
+            bufferedRows = 0;
+
+            jdbcTemplate.execute( (ConnectionCallback<Long>) connection -> {
+                try
+                {
+                    return connection.unwrap( PGConnection.class ).getCopyAPI()
+                        .copyIn( COPY_SQL, new StringReader( data ) );
+                }
+                catch ( IOException ex )
+                {
+                    throw new SQLException( "Failed to copy data values to staging table", ex );
+                }
+            } );
+        }
+    }
+
+    /**
+     * Appends a data value as a CSV row to the given buffer.
+     *
+     * @param buffer the buffer.
+     * @param rowIndex the index of the row, later values take precedence for
+     *        duplicate keys.
+     * @param value the data value.
+     * @param keepCreated whether to keep the created date of existing data
+     *        values, in which case no created date is written.
+     */
+    static void appendRow( StringBuilder buffer, long rowIndex, DataValue value, boolean keepCreated )
+    {
+        buffer.append( rowIndex ).append( ',' )
+            .append( value.getDataElement().getId() ).append( ',' )
+            .append( value.getPeriod().getId() ).append( ',' )
+            .append( value.getSource().getId() ).append( ',' )
+            .append( value.getCategoryOptionCombo().getId() ).append( ',' )
+            .append( value.getAttributeOptionCombo().getId() ).append( ',' );
+        appendText( buffer, value.getValue() );
+        buffer.append( ',' );
+        appendText( buffer, value.getStoredBy() );
+        buffer.append( ',' );
+        appendText( buffer, keepCreated ? null : getLongDateString( value.getCreated() ) );
+        buffer.append( ',' );
+        appendText( buffer, getLongDateString( value.getLastUpdated() ) );
+        buffer.append( ',' );
+        appendText( buffer, value.getComment() );
+        buffer.append( ',' )
+            .append( value.isFollowup() ).append( ',' )
+            .append( value.isDeleted() ).append( '\n' );
+    }
+
+    /**
+     * Appends a quoted CSV value, or nothing if the value is null which COPY
+     * reads as null.
+     */
+    private static void appendText( StringBuilder buffer, String text )
+    {
+        if ( text != null )
+        {
+            buffer.append( '"' ).append( text.replace( "\"", "\"\"" ) ).append( '"' );
+        }
+    }
+
+    /**
+     * Returns the statement which merges the staging table into the data value
+     * table. The staged values are deduplicated and classified by comparing
+     * them with the current data values, after which the applicable inserts,
+     * updates and audit inserts are performed as data modifying common table
+     * expressions. As all expressions see the same snapshot the audit rows get
+     * the values as they were before the merge. The statement returns the
+     * number of staged values per {@link Action}.
+     *
+     * @param actions the actions to apply.
+     * @param skipAudit whether to skip writing audit rows.
+     * @param args the list to add statement arguments to.
+     * @param now the import time.
+     * @return the merge statement.
+     */
+    static String getMergeSql( Set<Action> actions, boolean skipAudit, List<Object> args, Timestamp now )
+    {
+        StringBuilder sql = new StringBuilder( "with source as (" +
+            "select distinct on (" + KEY_COLUMNS + ") * from " + STAGING_TABLE + " " +
+            "order by " + KEY_COLUMNS + ", rowindex desc), " +
+            "classified as (" +
+            "select s.*, dv.value as previousvalue, case " +
+            "when dv.dataelementid is null then case when s.deleted then 'IGNORE' else 'INSERT' end " +
+            "when dv.deleted then case when s.deleted then 'IGNORE' else 'REVIVE' end " +
+            "when s.deleted then 'DELETE' " +
+            "when dv.value is distinct from s.value or dv.comment is distinct from s.comment then 'UPDATE' " +
+            "else 'UNCHANGED' end as action " +
+            "from source s left join datavalue dv on " + KEY_JOIN + ")" );
+
+        Set<Action> audited = filter( actions, EnumSet.of( Action.UPDATE, Action.DELETE ) );
+
+        if ( !skipAudit && !audited.isEmpty() )
+        {
+            sql.append( ", audit as (" +
+                "insert into datavalueaudit (datavalueauditid, dataelementid, periodid, organisationunitid, " +
+                "categoryoptioncomboid, attributeoptioncomboid, value, modifiedby, created, audittype) " +
+                "select nextval('datavalueaudit_sequence'), " + KEY_COLUMNS + ", previousvalue, storedby, " +
+                "cast(? as timestamp), action from classified where action in (" + toSqlList( audited ) + "))" );
+            args.add( now );
+        }
+
+        Set<Action> updated = filter( actions, EnumSet.of( Action.REVIVE, Action.UPDATE, Action.DELETE ) );
+
+        if ( !updated.isEmpty() )
+        {
+            sql.append( ", updated as (" +
+                "update datavalue dv set value = s.value, storedby = s.storedby, " +
+                "created = coalesce(s.created, dv.created), lastupdated = s.lastupdated, comment = s.comment, " +
+                "followup = s.followup, deleted = s.deleted " +
+                "from classified s where " + KEY_JOIN + " and s.action in (" + toSqlList( updated ) + "))" );
+        }
+
+        if ( actions.contains( Action.INSERT ) )
+        {
+            sql.append( ", inserted as (" +
+                "insert into datavalue (" + KEY_COLUMNS + ", value, storedby, created, lastupdated, comment, " +
+                "followup, deleted) " +
+                "select " + KEY_COLUMNS + ", value, storedby, coalesce(created, cast(? as timestamp)), " +
+                "lastupdated, comment, followup, false from classified where action = 'INSERT' " +
+                "on conflict do nothing)" );
+            args.add( now );
+        }
+
+        return sql.append( " select action, count(*) as count from classified group by action" ).toString();
+    }
+
+    private static Set<Action> filter( Set<Action> actions, Set<Action> candidates )
+    {
+        candidates.retainAll( actions );
+        return candidates;
+    }
+
+    private static String toSqlList( Set<Action> actions )
+    {
+        return actions.stream().map( action -> "'" + action.name() + "'" ).collect( Collectors.joining( "," ) );
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Exposes the number of rows and bytes written and the duration of data value
+ * set exports by export format. The duration is tagged with the outcome of the
+ * export, so that failed and aborted exports are counted too. For CSV exports
+ * the size is counted in characters.
+ */
+@Component
+public class DataValueSetExportMetrics
+    implements MeterBinder
+{
+    static final String OUTCOME_SUCCESS = "success";
+
+    static final String OUTCOME_FAILURE = "failure";
+
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Records a finished export. Does nothing unless bound to a registry.
+     *
+     * @param format the export format.
+     * @param rows the number of rows written.
+     * @param bytes the number of bytes written.
+     * @param nanos the duration of the export in nanoseconds.
+     * @param success whether the export completed successfully.
+     */
+    void record( String format, long rows, long bytes, long nanos, boolean success )
+    {
+        MeterRegistry meterRegistry = registry;
+
+        if ( meterRegistry == null )
+        {
+            return;
+        }
+
+        Counter.builder( "datavalueset.export.rows" )
+            .tag( "format", format )
+            .description( "Number of data values written by data value set exports" )
+            .register( meterRegistry )
+            .increment( rows );
+
+        Counter.builder( "datavalueset.export.bytes" )
+            .tag( "format", format )
+            .description( "Number of bytes written by data value set exports" )
+            .register( meterRegistry )
+            .increment( bytes );
+
+        Timer.builder( "datavalueset.export.duration" )
+            .tag( "format", format )
+            .tag( "outcome", success ? OUTCOME_SUCCESS : OUTCOME_FAILURE )
+            .description( "Duration of data value set exports" )
+            .register( meterRegistry )
+            .record( nanos, TimeUnit.NANOSECONDS );
+    }
+}
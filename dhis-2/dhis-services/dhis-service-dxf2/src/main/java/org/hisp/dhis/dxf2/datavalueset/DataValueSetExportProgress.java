@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.function.LongSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.ProxyWriter;
+import org.hisp.dhis.system.util.Clock;
+
+/**
+ * Keeps track of the number of rows and bytes written and the time spent
+ * during a data value set export. Progress is logged at a fixed row interval
+ * and once more when the export finishes, which makes it possible to follow
+ * long running exports without holding any of the exported data in memory.
+ * When the export finishes, successfully or not, the totals are recorded in
+ * the {@link DataValueSetExportMetrics}.
+ */
+@Slf4j
+class DataValueSetExportProgress
+{
+    /**
+     * Number of rows between each progress log statement.
+     */
+    static final long LOG_INTERVAL = 100_000;
+
+    private final String format;
+
+    private final LongSupplier bytes;
+
+    private final DataValueSetExportMetrics metrics;
+
+    private final Clock clock = new Clock().startClock();
+
+    private long rows = 0;
+
+    private DataValueSetExportProgress( String format, LongSupplier bytes, DataValueSetExportMetrics metrics )
+    {
+        this.format = format;
+        this.bytes = bytes;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates a progress tracker for an export written to the given output
+     * stream. The stream is wrapped so that the number of bytes written can
+     * be reported, the wrapped stream must be used for writing.
+     *
+     * @param format the export format, used for logging and metrics.
+     * @param out the output stream.
+     * @param metrics the metrics to record the export in.
+     * @return the wrapped output stream and progress tracker.
+     */
+    static Tracked<OutputStream> of( String format, OutputStream out, DataValueSetExportMetrics metrics )
+    {
+        CountingOutputStream counting = new CountingOutputStream( out );
+
+        return new Tracked<>( counting, new DataValueSetExportProgress( format, counting::getByteCount, metrics ) );
+    }
+
+    /**
+     * Creates a progress tracker for an export written to the given writer.
+     * The writer is wrapped so that the number of characters written can be
+     * reported, the wrapped writer must be used for writing.
+     *
+     * @param format the export format, used for logging and metrics.
+     * @param out the writer.
+     * @param metrics the metrics to record the export in.
+     * @return the wrapped writer and progress tracker.
+     */
+    static Tracked<Writer> of( String format, Writer out, DataValueSetExportMetrics metrics )
+    {
+        CountingWriter counting = new CountingWriter( out );
+
+        return new Tracked<>( counting, new DataValueSetExportProgress( format, counting::getCount, metrics ) );
+    }
+
+    /**
+     * Registers that a row has been written.
+     */
+    void rowWritten()
+    {
+        rows++;
+
+        if ( rows % LOG_INTERVAL == 0 )
+        {
+            log.info( "Data value set {} export in progress, rows: {}, size: {}, time: {}",
+                format, rows, getDisplaySize(), clock.time() );
+        }
+    }
+
+    /**
+     * Registers that the export has finished and records it in the metrics.
+     * Must be invoked also when the export fails so that failed and aborted
+     * exports are reported.
+     *
+     * @param success whether the export completed successfully.
+     */
+    void finished( boolean success )
+    {
+        if ( success )
+        {
+            log.info( "Data value set {} export completed, rows: {}, size: {}, time: {}",
+                format, rows, getDisplaySize(), clock.time() );
+        }
+        else
+        {
+            log.warn( "Data value set {} export failed, rows: {}, size: {}, time: {}",
+                format, rows, getDisplaySize(), clock.time() );
+        }
+
+        metrics.record( format, rows, bytes.getAsLong(), clock.getNanoTime(), success );
+    }
+
+    long getRows()
+    {
+        return rows;
+    }
+
+    long getBytes()
+    {
+        return bytes.getAsLong();
+    }
+
+    private String getDisplaySize()
+    {
+        return FileUtils.byteCountToDisplaySize( bytes.getAsLong() );
+    }
+
+    /**
+     * Output target wrapped for counting together with its progress tracker.
+     */
+    static final class Tracked<T>
+    {
+        private final T target;
+
+        private final DataValueSetExportProgress progress;
+
+        Tracked( T target, DataValueSetExportProgress progress )
+        {
+            this.target = target;
+            this.progress = progress;
+        }
+
+        T getTarget()
+        {
+            return target;
+        }
+
+        DataValueSetExportProgress getProgress()
+        {
+            return progress;
+        }
+    }
+
+    /**
+     * Writer which counts the number of characters written.
+     */
+    private static final class CountingWriter
+        extends ProxyWriter
+    {
+        private long count = 0;
+
+        CountingWriter( Writer out )
+        {
+            super( out );
+        }
+
+        @Override
+        protected void afterWrite( int n )
+            throws IOException
+        {
+            count += n;
+        }
+
+        long getCount()
+        {
+            return count;
+        }
+    }
+}
@@ -43,7 +43,6 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.DateRange;
-import org.hisp.dhis.dataapproval.DataApproval;
 import org.hisp.dhis.dataapproval.DataApprovalService;
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.dataset.DataSet;
@@ -59,7 +58,6 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.system.util.ValidationUtils;
-import org.hisp.dhis.user.User;
 import org.springframework.stereotype.Component;
 
 /**
@@ -581,8 +579,7 @@ public class DataValueSetImportValidator
             String key = approvalDataSet.getUid() + valueContext.getPeriod().getUid()
                 + valueContext.getOrgUnit().getUid();
             if ( context.getDataSetLockedMap().get( key,
-                () -> isLocked( context.getCurrentUser(), approvalDataSet, valueContext.getPeriod(),
-                    valueContext.getOrgUnit(), context.isSkipLockExceptionCheck() ) ) )
+                () -> isLocked( context, approvalDataSet, valueContext.getPeriod(), valueContext.getOrgUnit() ) ) )
             {
                 context.addConflict( valueContext.getIndex(),
                     DataValueImportConflict.PERIOD_EXPIRED, dataValue.getPeriod(), approvalDataSet.getUid() );
@@ -626,16 +623,11 @@ public class DataValueSetImportValidator
                 final String workflowPeriodAoc = workflow.getUid() + valueContext.getPeriod().getUid()
                     + valueContext.getAttrOptionCombo().getUid();
 
-                if ( context.getApprovalMap().get( valueContext.getOrgUnit().getUid() + workflowPeriodAoc, () -> {
-                    DataApproval lowestApproval = DataApproval
-                        .getLowestApproval( new DataApproval( null, workflow, valueContext.getPeriod(),
-                            valueContext.getOrgUnit(), valueContext.getAttrOptionCombo() ) );
-
-                    return lowestApproval != null && context.getLowestApprovalLevelMap().get(
-                        lowestApproval.getDataApprovalLevel().getUid()
-                            + lowestApproval.getOrganisationUnit().getUid() + workflowPeriodAoc,
-                        () -> approvalService.getDataApproval( lowestApproval ) != null );
-                } ) )
+                if ( context.getApprovalMap().get( valueContext.getOrgUnit().getUid() + workflowPeriodAoc,
+                    () -> context.getApprovalLookupMap().get( workflowPeriodAoc,
+                        () -> approvalService.getDataApprovalLookup( workflow, valueContext.getPeriod(),
+                            valueContext.getAttrOptionCombo() ) )
+                        .isApproved( valueContext.getOrgUnit() ) ) )
                 {
                     context.addConflict( valueContext.getIndex(),
                         DataValueImportConflict.VALUE_ALREADY_APPROVED,
@@ -686,17 +678,30 @@ public class DataValueSetImportValidator
     }
 
     /**
-     * Checks whether the given data set is locked.
+     * Checks whether the given data set is locked. The lock exceptions of a
+     * data set and period are loaded once for all organisation units.
      *
+     * @param context the import context.
      * @param dataSet the data set.
      * @param period the period.
      * @param organisationUnit the organisation unit.
-     * @param skipLockExceptionCheck whether to skip lock exception check.
      */
-    private boolean isLocked( User user, DataSet dataSet, Period period, OrganisationUnit organisationUnit,
-        boolean skipLockExceptionCheck )
+    private boolean isLocked( ImportContext context, DataSet dataSet, Period period,
+        OrganisationUnit organisationUnit )
     {
-        return dataSet.isLocked( user, period, null )
-            && (skipLockExceptionCheck || lockExceptionStore.getCount( dataSet, period, organisationUnit ) == 0L);
+        if ( !dataSet.isLocked( context.getCurrentUser(), period, null ) )
+        {
+            return false;
+        }
+
+        if ( context.isSkipLockExceptionCheck() )
+        {
+            return true;
+        }
+
+        Set<Long> lockExceptionOrgUnitIds = context.getLockExceptionOrgUnitIdsMap().get(
+            dataSet.getUid() + period.getUid(), () -> lockExceptionStore.getOrganisationUnitIds( dataSet, period ) );
+
+        return !lockExceptionOrgUnitIds.contains( organisationUnit.getId() );
     }
 }
@@ -56,6 +56,7 @@ package org.hisp.dhis.dxf2.datavalueset;
  * @see CsvDataValueSetReader
  * @see PdfDataValueSetReader
  * @see JsonDataValueSetReader
+ * @see BinaryDataValueSetReader
  */
 public interface DataValueSetReader extends AutoCloseable
 {
@@ -85,6 +85,16 @@ public interface DataValueSetService
 
     void exportDataValueSetCsv( DataExportParams params, Writer writer );
 
+    /**
+     * Writes data values in a compact columnar binary format, in which
+     * identifiers are only written once, intended for transfer of large
+     * numbers of data values between instances.
+     *
+     * @param params the data export parameters.
+     * @param out the stream to write to.
+     */
+    void exportDataValueSetBinary( DataExportParams params, OutputStream out );
+
     RootNode getDataValueSetTemplate( DataSet dataSet, Period period, List<String> orgUnits, boolean writeComments,
         String ouScheme, String deScheme );
 
@@ -100,6 +110,8 @@ public interface DataValueSetService
 
     ImportSummary importDataValueSetPdf( InputStream in, ImportOptions importOptions );
 
+    ImportSummary importDataValueSetBinary( InputStream in, ImportOptions importOptions );
+
     ImportSummary importDataValueSetXml( InputStream in, ImportOptions importOptions, JobConfiguration jobId );
 
     ImportSummary importDataValueSetJson( InputStream in, ImportOptions importOptions, JobConfiguration jobId );
@@ -107,4 +119,6 @@ public interface DataValueSetService
     ImportSummary importDataValueSetCsv( InputStream in, ImportOptions importOptions, JobConfiguration id );
 
     ImportSummary importDataValueSetPdf( InputStream in, ImportOptions importOptions, JobConfiguration id );
+
+    ImportSummary importDataValueSetBinary( InputStream in, ImportOptions importOptions, JobConfiguration id );
 }
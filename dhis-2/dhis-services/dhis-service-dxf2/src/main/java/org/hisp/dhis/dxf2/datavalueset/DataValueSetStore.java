@@ -45,6 +45,16 @@ public interface DataValueSetStore
 
     void exportDataValueSetCsv( DataExportParams params, Date completeDate, Writer writer );
 
+    /**
+     * Writes data values in the columnar binary format of
+     * {@link BinaryDataValueSetWriter}.
+     *
+     * @param params the data export parameters.
+     * @param completeDate the complete date of the data set, if any.
+     * @param out the stream to write to.
+     */
+    void exportDataValueSetBinary( DataExportParams params, Date completeDate, OutputStream out );
+
     /**
      * Query for {@link DataValueSet DataValueSets} and write result as JSON.
      *
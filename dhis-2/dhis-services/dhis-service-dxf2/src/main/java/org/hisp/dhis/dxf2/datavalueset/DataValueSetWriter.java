@@ -46,6 +46,7 @@ package org.hisp.dhis.dxf2.datavalueset;
  * @see XmlDataValueSetWriter
  * @see JsonDataValueSetWriter
  * @see CsvDataValueSetWriter
+ * @see BinaryDataValueSetWriter
  */
 public interface DataValueSetWriter extends AutoCloseable
 {
@@ -181,6 +181,8 @@ public class DefaultDataValueSetService
 
     private final SchemaService schemaService;
 
+    private final DataValueCopyImporter copyImporter;
+
     @Override
     public void setCurrentUserService( CurrentUserService currentUserService )
     {
@@ -370,7 +372,7 @@ public class DefaultDataValueSetService
     // -------------------------------------------------------------------------
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetXml( DataExportParams params, OutputStream out )
     {
         decideAccess( params );
@@ -380,7 +382,7 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( DataExportParams params, OutputStream out )
     {
         decideAccess( params );
@@ -390,14 +392,14 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes )
     {
         dataValueSetStore.exportDataValueSetJson( lastUpdated, outputStream, idSchemes );
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetJson( Date lastUpdated, OutputStream outputStream, IdSchemes idSchemes, int pageSize,
         int page )
     {
@@ -405,7 +407,7 @@ public class DefaultDataValueSetService
     }
 
     @Override
-    @Transactional
+    @Transactional( readOnly = true )
     public void exportDataValueSetCsv( DataExportParams params, Writer writer )
     {
         decideAccess( params );
@@ -414,6 +416,16 @@ public class DefaultDataValueSetService
         dataValueSetStore.exportDataValueSetCsv( params, getCompleteDate( params ), writer );
     }
 
+    @Override
+    @Transactional( readOnly = true )
+    public void exportDataValueSetBinary( DataExportParams params, OutputStream out )
+    {
+        decideAccess( params );
+        validate( params );
+
+        dataValueSetStore.exportDataValueSetBinary( params, getCompleteDate( params ), out );
+    }
+
     private Date getCompleteDate( DataExportParams params )
     {
         if ( params.isSingleDataValueSet() )
@@ -618,6 +630,21 @@ public class DefaultDataValueSetService
         return importDataValueSetPdf( in, options, null );
     }
 
+    @Override
+    @Transactional
+    public ImportSummary importDataValueSetBinary( InputStream in, ImportOptions options, JobConfiguration id )
+    {
+        return importDataValueSet( options, id,
+            () -> new BinaryDataValueSetReader( wrapAndCheckCompressionFormat( in ) ) );
+    }
+
+    @Override
+    @Transactional
+    public ImportSummary importDataValueSetBinary( InputStream in, ImportOptions options )
+    {
+        return importDataValueSetBinary( in, options, null );
+    }
+
     private ImportSummary importDataValueSet( ImportOptions options, JobConfiguration id,
         Callable<DataValueSetReader> createReader )
     {
@@ -724,6 +751,12 @@ public class DefaultDataValueSetService
             dataValue = reader.readNext();
         }
 
+        if ( context.isBulkImport() )
+        {
+            notifier.notify( id, notificationLevel, "Merging staged data values" );
+            context.getCopyBatch().merge( importCount );
+        }
+
         context.getDataValueBatchHandler().flush();
 
         if ( !context.isSkipAudit() )
@@ -772,6 +805,12 @@ public class DefaultDataValueSetService
         // -----------------------------------------------------------------
         DataValue internalValue = createDataValue( dataValue, context, valueContext, now );
 
+        if ( context.isBulkImport() )
+        {
+            stageDataValue( context, dataValue, valueContext, internalValue );
+            return;
+        }
+
         // -----------------------------------------------------------------
         // Save, update or delete data value
         // -----------------------------------------------------------------
@@ -955,6 +994,32 @@ public class DefaultDataValueSetService
         }
     }
 
+    /**
+     * Stages a data value for the set based merge of a bulk import. Values
+     * which would delete existing values in the row based import are staged as
+     * deleted, the merge decides whether to insert, update or delete based on
+     * the existing values and the import strategy.
+     */
+    private void stageDataValue( ImportContext context, DataValueEntry dataValue,
+        ImportContext.DataValueContext valueContext, DataValue internalValue )
+    {
+        boolean deleted = context.getStrategy().isDelete() || internalValue.isNullValue() || internalValue.isDeleted()
+            || dataValueIsZeroAndInsignificant( dataValue.getValue(), valueContext.getDataElement() );
+
+        internalValue.setDeleted( deleted );
+
+        context.getCopyBatch().add( internalValue, !dataValue.hasCreated() );
+
+        if ( !deleted && valueContext.getDataElement().isFileType() )
+        {
+            FileResource fr = fileResourceService.getFileResource( internalValue.getValue() );
+
+            fr.setAssigned( true );
+
+            fileResourceService.updateFileResource( fr );
+        }
+    }
+
     private void preheatCaches( ImportContext context )
     {
         if ( context.getImportOptions().isPreheatCacheDefaultFalse() )
@@ -1031,6 +1096,11 @@ public class DefaultDataValueSetService
             IdSchemes::getCategoryOptionComboIdScheme );
         IdScheme dataSetIdScheme = createIdScheme( data.getDataSetIdSchemeProperty(), options,
             IdSchemes::getDataSetIdScheme );
+        ImportStrategy strategy = data.getStrategy() != null
+            ? ImportStrategy.valueOf( data.getStrategy() )
+            : options.getImportStrategy();
+        boolean dryRun = data.getDryRun() != null ? data.getDryRun() : options.isDryRun();
+        boolean bulkImport = options.isBulkImport() && !dryRun && !strategy.isSync();
         return ImportContext.builder()
             .importOptions( options )
             .summary( new ImportSummary().setImportOptions( options ) )
@@ -1046,10 +1116,8 @@ public class DefaultDataValueSetService
             .orgUnitIdScheme( orgUnitIdScheme )
             .categoryOptComboIdScheme( categoryOptComboIdScheme )
             .dataSetIdScheme( dataSetIdScheme )
-            .strategy( data.getStrategy() != null
-                ? ImportStrategy.valueOf( data.getStrategy() )
-                : options.getImportStrategy() )
-            .dryRun( data.getDryRun() != null ? data.getDryRun() : options.isDryRun() )
+            .strategy( strategy )
+            .dryRun( dryRun )
             .skipExistingCheck( options.isSkipExistingCheck() )
             .strictPeriods( options.isStrictPeriods()
                 || settings.getBoolSetting( SettingKey.DATA_IMPORT_STRICT_PERIODS ) )
@@ -1085,6 +1153,7 @@ public class DefaultDataValueSetService
                 .createBatchHandler( DataValueBatchHandler.class ).init() )
             .auditBatchHandler( skipAudit ? null
                 : batchHandlerFactory.createBatchHandler( DataValueAuditBatchHandler.class ).init() )
+            .copyBatch( bulkImport ? copyImporter.begin( strategy, skipAudit, new Date() ) : null )
             .singularNameForType( klass -> schemaService.getDynamicSchema( klass ).getSingular() )
             .build();
     }
@@ -1095,6 +1164,7 @@ public class DefaultDataValueSetService
             context.isIso8601(), context.isSkipLockExceptionCheck() ) );
         log.info( String.format( "Skip audit: %b, has authority to skip: %b",
             context.isSkipAudit(), context.isHasSkipAuditAuth() ) );
+        log.info( String.format( "Bulk import: %b", context.isBulkImport() ) );
         log.info( "Import options: " + context.getImportOptions() );
         log.info( String.format(
             "Identifier scheme: %s, data element: %s, org unit: %s, category option combo: %s, data set: %s",
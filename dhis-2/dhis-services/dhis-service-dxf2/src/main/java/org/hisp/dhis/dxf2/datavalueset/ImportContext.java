@@ -45,6 +45,7 @@ import org.hisp.dhis.common.DateRange;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.commons.collection.CachingMap;
+import org.hisp.dhis.dataapproval.DataApprovalLookup;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValueAudit;
@@ -166,7 +167,9 @@ public final class ImportContext
 
     private final CachingMap<String, Boolean> approvalMap = new CachingMap<>();
 
-    private final CachingMap<String, Boolean> lowestApprovalLevelMap = new CachingMap<>();
+    private final CachingMap<String, DataApprovalLookup> approvalLookupMap = new CachingMap<>();
+
+    private final CachingMap<String, Set<Long>> lockExceptionOrgUnitIdsMap = new CachingMap<>();
 
     private final CachingMap<String, Boolean> periodOpenForDataElement = new CachingMap<>();
 
@@ -188,8 +191,19 @@ public final class ImportContext
 
     private final BatchHandler<DataValueAudit> auditBatchHandler;
 
+    /**
+     * Batch of staged data values for bulk imports, null if the import is not
+     * a bulk import.
+     */
+    private final DataValueCopyImporter.Batch copyBatch;
+
     private final Function<Class<? extends IdentifiableObject>, String> singularNameForType;
 
+    public boolean isBulkImport()
+    {
+        return copyBatch != null;
+    }
+
     public String getCurrentUserName()
     {
         return currentUser.getUsername();
@@ -35,10 +35,12 @@ import static org.hisp.dhis.util.DateUtils.getMediumDateString;
 
 import java.io.OutputStream;
 import java.io.Writer;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.Date;
+import java.util.function.Function;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,6 +50,8 @@ import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdSchemes;
 import org.hisp.dhis.commons.util.TextUtils;
 import org.hisp.dhis.datavalue.DataExportParams;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.PeriodType;
 import org.hisp.dhis.query.JpaQueryUtils;
@@ -60,6 +64,7 @@ import org.hisp.dhis.util.DateUtils;
 import org.hisp.staxwax.factory.XMLFactory;
 import org.springframework.jdbc.UncategorizedSQLException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.stereotype.Repository;
 
 import com.google.common.base.Preconditions;
@@ -76,13 +81,22 @@ public class SpringDataValueSetStore
 
     private final JdbcTemplate jdbcTemplate;
 
-    public SpringDataValueSetStore( CurrentUserService currentUserService, JdbcTemplate jdbcTemplate )
+    private final DhisConfigurationProvider config;
+
+    private final DataValueSetExportMetrics exportMetrics;
+
+    public SpringDataValueSetStore( CurrentUserService currentUserService, JdbcTemplate jdbcTemplate,
+        DhisConfigurationProvider config, DataValueSetExportMetrics exportMetrics )
     {
         checkNotNull( currentUserService );
         checkNotNull( jdbcTemplate );
+        checkNotNull( config );
+        checkNotNull( exportMetrics );
 
         this.currentUserService = currentUserService;
         this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.exportMetrics = exportMetrics;
     }
 
     @Override
@@ -98,52 +112,50 @@ public class SpringDataValueSetStore
     @Override
     public void exportDataValueSetXml( DataExportParams params, Date completeDate, OutputStream out )
     {
-        try ( DataValueSetWriter writer = new XmlDataValueSetWriter( XMLFactory.getXMLWriter( out ) ) )
-        {
-            exportDataValueSet( getDataValueSql( params ), params, completeDate, writer );
-        }
+        exportDataValueSet( getDataValueSql( params ), params, completeDate,
+            DataValueSetExportProgress.of( "XML", out, exportMetrics ),
+            target -> new XmlDataValueSetWriter( XMLFactory.getXMLWriter( target ) ) );
     }
 
     @Override
     public void exportDataValueSetJson( DataExportParams params, Date completeDate, OutputStream out )
     {
-
-        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
-        {
-            exportDataValueSet( getDataValueSql( params ), params, completeDate, writer );
-        }
+        exportDataValueSet( getDataValueSql( params ), params, completeDate,
+            DataValueSetExportProgress.of( "JSON", out, exportMetrics ), JsonDataValueSetWriter::new );
     }
 
     @Override
     public void exportDataValueSetCsv( DataExportParams params, Date completeDate, Writer out )
     {
-        try ( DataValueSetWriter writer = new CsvDataValueSetWriter( CsvUtils.getWriter( out ) ) )
-        {
-            exportDataValueSet( getDataValueSql( params ), params, completeDate, writer );
-        }
+        exportDataValueSet( getDataValueSql( params ), params, completeDate,
+            DataValueSetExportProgress.of( "CSV", out, exportMetrics ),
+            target -> new CsvDataValueSetWriter( CsvUtils.getWriter( target ) ) );
+    }
+
+    @Override
+    public void exportDataValueSetBinary( DataExportParams params, Date completeDate, OutputStream out )
+    {
+        exportDataValueSet( getDataValueSql( params ), params, completeDate,
+            DataValueSetExportProgress.of( "binary", out, exportMetrics ), BinaryDataValueSetWriter::new );
     }
 
     @Override
     public void exportDataValueSetJson( Date lastUpdated, OutputStream out, IdSchemes idSchemes )
     {
-        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
-        {
-            exportDataValueSet( buildDataValueSql( lastUpdated, idSchemes ), new DataExportParams(), null, writer );
-        }
+        exportDataValueSet( buildDataValueSql( lastUpdated, idSchemes ), new DataExportParams(), null,
+            DataValueSetExportProgress.of( "JSON", out, exportMetrics ), JsonDataValueSetWriter::new );
     }
 
     @Override
     public void exportDataValueSetJson( Date lastUpdated, OutputStream out, IdSchemes idSchemes, int pageSize,
         int page )
     {
-        try ( DataValueSetWriter writer = new JsonDataValueSetWriter( out ) )
-        {
-            final int offset = (page - 1) * pageSize;
-            final String sql = buildDataValueSql( lastUpdated, idSchemes )
-                + "order by pe.startdate asc, dv.created asc, deid asc limit " + pageSize + " offset " + offset;
+        final int offset = (page - 1) * pageSize;
+        final String sql = buildDataValueSql( lastUpdated, idSchemes )
+            + "order by pe.startdate asc, dv.created asc, deid asc limit " + pageSize + " offset " + offset;
 
-            exportDataValueSet( sql, new DataExportParams(), null, writer );
-        }
+        exportDataValueSet( sql, new DataExportParams(), null,
+            DataValueSetExportProgress.of( "JSON", out, exportMetrics ), JsonDataValueSetWriter::new );
     }
 
     private String buildDataValueSql( Date lastUpdated, IdSchemes idSchemes )
@@ -169,8 +181,35 @@ public class SpringDataValueSetStore
         return sql;
     }
 
+    /**
+     * Exports the data value set to the tracked target using a writer created
+     * by the given function. The export is reported to its progress tracker
+     * when finished, also when it fails, so that failed exports are recorded
+     * in the export metrics.
+     */
+    private <T> void exportDataValueSet( String sql, DataExportParams params, Date completeDate,
+        DataValueSetExportProgress.Tracked<T> tracked, Function<T, DataValueSetWriter> writerFactory )
+    {
+        DataValueSetExportProgress progress = tracked.getProgress();
+        boolean success = false;
+
+        try
+        {
+            try ( DataValueSetWriter writer = writerFactory.apply( tracked.getTarget() ) )
+            {
+                exportDataValueSet( sql, params, completeDate, writer, progress );
+            }
+
+            success = true;
+        }
+        finally
+        {
+            progress.finished( success );
+        }
+    }
+
     private void exportDataValueSet( String sql, DataExportParams params, Date completeDate,
-        final DataValueSetWriter writer )
+        final DataValueSetWriter writer, final DataValueSetExportProgress progress )
     {
         if ( params.isSingleDataValueSet() )
         {
@@ -189,7 +228,40 @@ public class SpringDataValueSetStore
         }
 
         final Calendar calendar = PeriodType.getCalendar();
-        jdbcTemplate.query( sql, ( ResultSet rs ) -> writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) ) );
+
+        jdbcTemplate.query( getStatementCreator( sql ), ( ResultSet rs ) -> {
+            writer.writeValue( new ResultSetDataValueEntry( rs, calendar ) );
+            progress.rowWritten();
+        } );
+    }
+
+    /**
+     * Returns a statement creator for the given SQL. When cursor based export
+     * is enabled the statement is forward-only and read-only with the
+     * configured fetch size, which makes the Postgres driver stream rows
+     * through a server-side cursor instead of buffering the full result in
+     * memory. Note that the driver only uses a cursor when auto-commit is
+     * disabled, hence exports must run within a (read-only) transaction.
+     *
+     * @param sql the SQL query.
+     * @return a {@link PreparedStatementCreator}.
+     */
+    private PreparedStatementCreator getStatementCreator( String sql )
+    {
+        if ( !config.isEnabled( ConfigurationKey.DATA_VALUE_SET_EXPORT_CURSOR_ENABLED ) )
+        {
+            return connection -> connection.prepareStatement( sql );
+        }
+
+        final int fetchSize = Integer.parseInt(
+            config.getProperty( ConfigurationKey.DATA_VALUE_SET_EXPORT_FETCH_SIZE ) );
+
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement( sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY );
+            statement.setFetchSize( fetchSize );
+            return statement;
+        };
     }
 
     // --------------------------------------------------------------------------
@@ -53,6 +53,8 @@ public class ImportDataValueTask
 
     public static final String FORMAT_ADX = "adx";
 
+    public static final String FORMAT_BINARY = "binary";
+
     private DataValueSetService dataValueSetService;
 
     private AdxDataService adxDataService;
@@ -97,6 +99,10 @@ public class ImportDataValueTask
         {
             dataValueSetService.importDataValueSetPdf( inputStream, importOptions, jobId );
         }
+        else if ( FORMAT_BINARY.equals( format ) )
+        {
+            dataValueSetService.importDataValueSetBinary( inputStream, importOptions, jobId );
+        }
         else if ( FORMAT_ADX.equals( format ) )
         {
             adxDataService.saveDataValueSet( inputStream, importOptions, jobId );
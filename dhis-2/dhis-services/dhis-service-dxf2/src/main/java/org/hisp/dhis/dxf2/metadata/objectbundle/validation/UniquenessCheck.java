@@ -49,7 +49,6 @@ import org.hisp.dhis.preheat.Preheat;
 import org.hisp.dhis.preheat.PreheatIdentifier;
 import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.Schema;
-import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserCredentials;
 import org.springframework.stereotype.Component;
@@ -127,7 +126,7 @@ public class UniquenessCheck implements ObjectValidationCheck
     {
         List<ErrorReport> errorReports = new ArrayList<>();
         uniqueProperties.forEach( property -> {
-            Object value = ReflectionUtils.invokeMethod( object, property.getGetterMethod() );
+            Object value = property.getValue( object );
 
             if ( value != null )
             {
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.DICTIONARY_COLUMNS;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.MAX_BLOCK_SIZE;
+import static org.hisp.dhis.dxf2.datavalueset.BinaryDataValueSetFormat.writeVarInt;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hisp.dhis.dxf2.datavalue.DataValue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the round trip of {@link BinaryDataValueSetWriter} and
+ * {@link BinaryDataValueSetReader}.
+ */
+class BinaryDataValueSetReaderTest
+{
+    @Test
+    void testReadHeader()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out ) )
+        {
+            writer.writeHeader( "dataSetUid1", "2022-01-01T00:00:00.000+0000", "202201", "orgUnitUid1" );
+        }
+
+        try ( DataValueSetReader reader = read( out ) )
+        {
+            DataValueSet header = reader.readHeader();
+
+            assertEquals( "dataSetUid1", header.getDataSet() );
+            assertEquals( "2022-01-01T00:00:00.000+0000", header.getCompleteDate() );
+            assertEquals( "202201", header.getPeriod() );
+            assertEquals( "orgUnitUid1", header.getOrgUnit() );
+            assertNull( reader.readNext() );
+        }
+    }
+
+    @Test
+    void testReadValuesAcrossBlocks()
+    {
+        List<DataValue> values = new ArrayList<>();
+
+        for ( int i = 0; i < 7; i++ )
+        {
+            DataValue value = new DataValue();
+            value.setDataElement( "de" + (i % 2) );
+            value.setPeriod( "20220" + (i % 3 + 1) );
+            value.setOrgUnit( "ou" + i );
+            value.setCategoryOptionCombo( "coc" );
+            value.setAttributeOptionCombo( "coc" );
+            value.setValue( i == 3 ? null : String.valueOf( i * 10 ) );
+            value.setStoredBy( "admin" );
+            value.setComment( i == 4 ? "Åpen kommentar" : null );
+            value.setCreated( "2022-02-0" + (i + 1) );
+            value.setFollowup( i == 5 );
+            value.setDeleted( i == 6 ? Boolean.TRUE : i == 0 ? null : Boolean.FALSE );
+            values.add( value );
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out, 3 ) )
+        {
+            writer.writeHeader();
+            values.forEach( writer::writeValue );
+        }
+
+        try ( DataValueSetReader reader = read( out ) )
+        {
+            assertNull( reader.readHeader().getDataSet() );
+
+            for ( DataValue expected : values )
+            {
+                DataValueEntry actual = reader.readNext();
+
+                assertNotNull( actual );
+                assertEquals( expected.getDataElement(), actual.getDataElement() );
+                assertEquals( expected.getPeriod(), actual.getPeriod() );
+                assertEquals( expected.getOrgUnit(), actual.getOrgUnit() );
+                assertEquals( expected.getCategoryOptionCombo(), actual.getCategoryOptionCombo() );
+                assertEquals( expected.getAttributeOptionCombo(), actual.getAttributeOptionCombo() );
+                assertEquals( expected.getValue(), actual.getValue() );
+                assertEquals( expected.getStoredBy(), actual.getStoredBy() );
+                assertEquals( expected.getComment(), actual.getComment() );
+                assertEquals( expected.getCreated(), actual.getCreated() );
+                assertNull( actual.getLastUpdated() );
+                assertEquals( expected.getFollowup(), actual.getFollowup() );
+                assertEquals( expected.getDeleted(), actual.getDeleted() );
+            }
+
+            assertNull( reader.readNext() );
+            assertNull( reader.readNext() );
+        }
+    }
+
+    @Test
+    void testWriteIdentifiersOnce()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out, 2 ) )
+        {
+            writer.writeHeader();
+
+            for ( int i = 0; i < 5; i++ )
+            {
+                DataValue value = new DataValue();
+                value.setDataElement( "dataElementUid" );
+                value.setOrgUnit( "orgUnitUid" );
+                writer.writeValue( value );
+            }
+        }
+
+        String content = new String( out.toByteArray(), StandardCharsets.ISO_8859_1 );
+
+        assertEquals( content.indexOf( "dataElementUid" ), content.lastIndexOf( "dataElementUid" ) );
+        assertEquals( content.indexOf( "orgUnitUid" ), content.lastIndexOf( "orgUnitUid" ) );
+        assertTrue( content.contains( "orgUnitUid" ) );
+        assertFalse( content.contains( "null" ) );
+    }
+
+    @Test
+    void testReadDictionaryOfMaximumSize()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out, 2, 8 ) )
+        {
+            writer.writeHeader();
+            writeOrgUnits( writer, 8 );
+        }
+
+        try ( DataValueSetReader reader = new BinaryDataValueSetReader(
+            new ByteArrayInputStream( out.toByteArray() ), 8 ) )
+        {
+            reader.readHeader();
+
+            for ( int i = 0; i < 8; i++ )
+            {
+                assertEquals( "ou" + i, reader.readNext().getOrgUnit() );
+            }
+
+            assertNull( reader.readNext() );
+        }
+    }
+
+    @Test
+    void testRejectWritingTooLargeDictionary()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataValueSetWriter writer = new BinaryDataValueSetWriter( out, 2, 8 );
+        writer.writeHeader();
+
+        IllegalArgumentException ex = assertThrows( IllegalArgumentException.class,
+            () -> writeOrgUnits( writer, 9 ) );
+        assertEquals( "Too many identifiers for binary data value set, maximum is 8", ex.getMessage() );
+    }
+
+    @Test
+    void testRejectReadingTooLargeDictionary()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out, 2, 9 ) )
+        {
+            writer.writeHeader();
+            writeOrgUnits( writer, 9 );
+        }
+
+        try ( DataValueSetReader reader = new BinaryDataValueSetReader(
+            new ByteArrayInputStream( out.toByteArray() ), 8 ) )
+        {
+            reader.readHeader();
+
+            assertThrows( IllegalArgumentException.class, () -> {
+                while ( reader.readNext() != null )
+                {
+                    // read all values
+                }
+            } );
+        }
+    }
+
+    @Test
+    void testRejectOtherInput()
+    {
+        DataValueSetReader reader = new BinaryDataValueSetReader(
+            new ByteArrayInputStream( "{\"dataValues\":[]}".getBytes( StandardCharsets.UTF_8 ) ) );
+
+        assertThrows( IllegalArgumentException.class, reader::readHeader );
+    }
+
+    @Test
+    void testRejectTooLargeBlockSize()
+        throws IOException
+    {
+        ByteArrayOutputStream out = createHeader();
+        writeVarInt( new DataOutputStream( out ), MAX_BLOCK_SIZE + 1 );
+
+        assertInvalid( "Invalid block size in binary data value set: 16385, maximum is 16384", out );
+    }
+
+    @Test
+    void testRejectNegativeBlockSize()
+        throws IOException
+    {
+        ByteArrayOutputStream out = createHeader();
+        writeVarInt( new DataOutputStream( out ), -1 );
+
+        assertInvalid( "Invalid block size in binary data value set: -1, maximum is 16384", out );
+    }
+
+    @Test
+    void testRejectTooManyDictionaryEntries()
+        throws IOException
+    {
+        ByteArrayOutputStream out = createHeader();
+        DataOutputStream data = new DataOutputStream( out );
+        writeVarInt( data, 1 );
+        writeVarInt( data, DICTIONARY_COLUMNS + 1 );
+
+        assertInvalid( "Invalid number of dictionary entries in binary data value set: 7, maximum is 6", out );
+    }
+
+    @Test
+    void testRejectTooLongString()
+        throws IOException
+    {
+        ByteArrayOutputStream out = createHeader();
+        DataOutputStream data = new DataOutputStream( out );
+        writeVarInt( data, 1 );
+        writeVarInt( data, 1 );
+        writeVarInt( data, Integer.MAX_VALUE );
+
+        assertInvalid( "Invalid string length in binary data value set: 2147483647, maximum is 16777217", out );
+    }
+
+    @Test
+    void testRejectDictionaryIndexOutOfRange()
+        throws IOException
+    {
+        ByteArrayOutputStream out = createHeader();
+        DataOutputStream data = new DataOutputStream( out );
+        writeVarInt( data, 1 );
+        writeVarInt( data, 0 );
+        writeVarInt( data, 1 );
+
+        assertInvalid( "Invalid dictionary index in binary data value set: 1, maximum is 0", out );
+    }
+
+    private static void writeOrgUnits( DataValueSetWriter writer, int count )
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            DataValue value = new DataValue();
+            value.setOrgUnit( "ou" + i );
+            writer.writeValue( value );
+        }
+    }
+
+    private static ByteArrayOutputStream createHeader()
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( DataValueSetWriter writer = new BinaryDataValueSetWriter( out ) )
+        {
+            writer.writeHeader();
+        }
+
+        // the writer ends the document with an empty block, remove it
+        byte[] header = out.toByteArray();
+        out.reset();
+        out.write( header, 0, header.length - 1 );
+        return out;
+    }
+
+    private static void assertInvalid( String expectedMessage, ByteArrayOutputStream out )
+    {
+        try ( DataValueSetReader reader = read( out ) )
+        {
+            reader.readHeader();
+
+            IllegalArgumentException ex = assertThrows( IllegalArgumentException.class, reader::readNext );
+            assertEquals( expectedMessage, ex.getMessage() );
+        }
+    }
+
+    private static DataValueSetReader read( ByteArrayOutputStream out )
+    {
+        return new BinaryDataValueSetReader( new ByteArrayInputStream( out.toByteArray() ) );
+    }
+}
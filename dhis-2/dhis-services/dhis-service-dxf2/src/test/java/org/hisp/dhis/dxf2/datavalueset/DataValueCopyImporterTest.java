@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.datavalue.DataValue;
+import org.hisp.dhis.dxf2.datavalueset.DataValueCopyImporter.Action;
+import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.util.DateUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DataValueCopyImporter}.
+ */
+class DataValueCopyImporterTest
+{
+    @Test
+    void testAppendRow()
+    {
+        DataValue value = createDataValue( "Say \"hello\", world", null );
+
+        StringBuilder buffer = new StringBuilder();
+        DataValueCopyImporter.appendRow( buffer, 7, value, false );
+
+        assertEquals( "7,1,2,3,4,5,\"Say \"\"hello\"\", world\",\"admin\",\"2021-03-04T05:06:07\"," +
+            "\"2021-03-04T05:06:07\",,false,false\n", buffer.toString() );
+    }
+
+    @Test
+    void testAppendRowKeepCreated()
+    {
+        DataValue value = createDataValue( "10", "Comment" );
+        value.setDeleted( true );
+
+        StringBuilder buffer = new StringBuilder();
+        DataValueCopyImporter.appendRow( buffer, 0, value, true );
+
+        assertEquals( "0,1,2,3,4,5,\"10\",\"admin\",,\"2021-03-04T05:06:07\",\"Comment\",false,true\n",
+            buffer.toString() );
+    }
+
+    @Test
+    void testGetAppliedActions()
+    {
+        assertEquals( EnumSet.of( Action.INSERT, Action.REVIVE ),
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.CREATE ) );
+        assertEquals( EnumSet.of( Action.UPDATE, Action.UNCHANGED, Action.DELETE ),
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.UPDATES ) );
+        assertEquals( EnumSet.of( Action.DELETE ),
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.DELETE ) );
+        assertEquals( EnumSet.of( Action.INSERT, Action.REVIVE, Action.UPDATE, Action.UNCHANGED, Action.DELETE ),
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.NEW_AND_UPDATES ) );
+    }
+
+    @Test
+    void testGetMergeSqlCreateAndUpdate()
+    {
+        List<Object> args = new ArrayList<>();
+        String sql = DataValueCopyImporter.getMergeSql(
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.CREATE_AND_UPDATE ), false, args,
+            new Timestamp( 0 ) );
+
+        assertTrue( sql.contains( "audit as (insert into datavalueaudit" ) );
+        assertTrue( sql.contains( "where action in ('UPDATE','DELETE')" ) );
+        assertTrue( sql.contains( "updated as (update datavalue" ) );
+        assertTrue( sql.contains( "s.action in ('REVIVE','UPDATE','DELETE')" ) );
+        assertTrue( sql.contains( "inserted as (insert into datavalue" ) );
+        assertTrue( sql.endsWith( "select action, count(*) as count from classified group by action" ) );
+        assertEquals( 2, args.size() );
+    }
+
+    @Test
+    void testGetMergeSqlCreateSkipAudit()
+    {
+        List<Object> args = new ArrayList<>();
+        String sql = DataValueCopyImporter.getMergeSql(
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.CREATE ), true, args, new Timestamp( 0 ) );
+
+        assertFalse( sql.contains( "datavalueaudit" ) );
+        assertTrue( sql.contains( "s.action in ('REVIVE')" ) );
+        assertTrue( sql.contains( "inserted as (insert into datavalue" ) );
+        assertEquals( 1, args.size() );
+    }
+
+    @Test
+    void testGetMergeSqlDelete()
+    {
+        List<Object> args = new ArrayList<>();
+        String sql = DataValueCopyImporter.getMergeSql(
+            DataValueCopyImporter.getAppliedActions( ImportStrategy.DELETE ), false, args, new Timestamp( 0 ) );
+
+        assertTrue( sql.contains( "where action in ('DELETE')" ) );
+        assertTrue( sql.contains( "s.action in ('DELETE')" ) );
+        assertFalse( sql.contains( "inserted as" ) );
+        assertEquals( 1, args.size() );
+    }
+
+    private DataValue createDataValue( String value, String comment )
+    {
+        DataElement dataElement = new DataElement();
+        dataElement.setId( 1 );
+        Period period = new MonthlyPeriodType().createPeriod( DateUtils.parseDate( "2021-03-01" ) );
+        period.setId( 2 );
+        OrganisationUnit orgUnit = new OrganisationUnit();
+        orgUnit.setId( 3 );
+        CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
+        categoryOptionCombo.setId( 4 );
+        CategoryOptionCombo attributeOptionCombo = new CategoryOptionCombo();
+        attributeOptionCombo.setId( 5 );
+
+        DataValue dataValue = new DataValue( dataElement, period, orgUnit, categoryOptionCombo,
+            attributeOptionCombo, value, "admin", DateUtils.parseDate( "2021-03-04T05:06:07" ), comment );
+        dataValue.setCreated( DateUtils.parseDate( "2021-03-04T05:06:07" ) );
+        return dataValue;
+    }
+}
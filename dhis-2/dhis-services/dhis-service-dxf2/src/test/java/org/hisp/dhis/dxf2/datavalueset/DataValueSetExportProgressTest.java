@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tests the {@link DataValueSetExportProgress}.
+ */
+class DataValueSetExportProgressTest
+{
+    private MeterRegistry registry;
+
+    private DataValueSetExportMetrics metrics;
+
+    @BeforeEach
+    void setUp()
+    {
+        registry = new SimpleMeterRegistry();
+        metrics = new DataValueSetExportMetrics();
+        metrics.bindTo( registry );
+    }
+
+    @Test
+    void testOutputStreamProgress()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        DataValueSetExportProgress.Tracked<OutputStream> tracked = DataValueSetExportProgress.of( "JSON", out,
+            metrics );
+        DataValueSetExportProgress progress = tracked.getProgress();
+
+        tracked.getTarget().write( "{\"dataValues\":[]}".getBytes( StandardCharsets.UTF_8 ) );
+        progress.rowWritten();
+        progress.rowWritten();
+        progress.finished( true );
+
+        assertEquals( 2, progress.getRows() );
+        assertEquals( 17, progress.getBytes() );
+        assertEquals( 17, out.size() );
+    }
+
+    @Test
+    void testWriterProgress()
+        throws IOException
+    {
+        StringWriter out = new StringWriter();
+
+        DataValueSetExportProgress.Tracked<Writer> tracked = DataValueSetExportProgress.of( "CSV", out, metrics );
+        DataValueSetExportProgress progress = tracked.getProgress();
+
+        tracked.getTarget().write( "dataelement,period\n" );
+        tracked.getTarget().write( 'x' );
+        progress.rowWritten();
+
+        assertEquals( 1, progress.getRows() );
+        assertEquals( 20, progress.getBytes() );
+        assertEquals( "dataelement,period\nx", out.toString() );
+    }
+
+    @Test
+    void testCompletedExportIsRecorded()
+        throws IOException
+    {
+        DataValueSetExportProgress.Tracked<OutputStream> tracked = DataValueSetExportProgress.of( "JSON",
+            new ByteArrayOutputStream(), metrics );
+        DataValueSetExportProgress progress = tracked.getProgress();
+
+        tracked.getTarget().write( new byte[10] );
+        progress.rowWritten();
+        progress.rowWritten();
+        progress.finished( true );
+
+        assertEquals( 2.0, registry.get( "datavalueset.export.rows" ).tag( "format", "JSON" ).counter().count() );
+        assertEquals( 10.0, registry.get( "datavalueset.export.bytes" ).tag( "format", "JSON" ).counter().count() );
+        assertEquals( 1, getDuration( "JSON", "success" ).count() );
+        assertNull( registry.find( "datavalueset.export.duration" ).tag( "outcome", "failure" ).timer() );
+    }
+
+    @Test
+    void testFailedExportIsRecorded()
+        throws IOException
+    {
+        DataValueSetExportProgress.Tracked<Writer> tracked = DataValueSetExportProgress.of( "CSV",
+            new StringWriter(), metrics );
+        DataValueSetExportProgress progress = tracked.getProgress();
+
+        tracked.getTarget().write( "abc" );
+        progress.rowWritten();
+        progress.finished( false );
+
+        assertEquals( 1.0, registry.get( "datavalueset.export.rows" ).tag( "format", "CSV" ).counter().count() );
+        assertEquals( 3.0, registry.get( "datavalueset.export.bytes" ).tag( "format", "CSV" ).counter().count() );
+        assertEquals( 1, getDuration( "CSV", "failure" ).count() );
+        assertNull( registry.find( "datavalueset.export.duration" ).tag( "outcome", "success" ).timer() );
+    }
+
+    @Test
+    void testExportsAreAccumulatedByFormat()
+    {
+        DataValueSetExportProgress first = DataValueSetExportProgress.of( "JSON", new ByteArrayOutputStream(),
+            metrics ).getProgress();
+        first.rowWritten();
+        first.finished( true );
+
+        DataValueSetExportProgress second = DataValueSetExportProgress.of( "JSON", new ByteArrayOutputStream(),
+            metrics ).getProgress();
+        second.rowWritten();
+        second.rowWritten();
+        second.finished( true );
+
+        assertEquals( 3.0, registry.get( "datavalueset.export.rows" ).tag( "format", "JSON" ).counter().count() );
+        assertEquals( 2, getDuration( "JSON", "success" ).count() );
+    }
+
+    @Test
+    void testUnboundMetricsAreNotRecorded()
+    {
+        DataValueSetExportProgress progress = DataValueSetExportProgress.of( "XML", new ByteArrayOutputStream(),
+            new DataValueSetExportMetrics() ).getProgress();
+        progress.rowWritten();
+        progress.finished( true );
+
+        assertEquals( 1, progress.getRows() );
+        assertNull( registry.find( "datavalueset.export.rows" ).counter() );
+    }
+
+    private Timer getDuration( String format, String outcome )
+    {
+        return registry.get( "datavalueset.export.duration" )
+            .tag( "format", format )
+            .tag( "outcome", outcome )
+            .timer();
+    }
+}
@@ -30,10 +30,13 @@ package org.hisp.dhis.dxf2.datavalueset;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -48,6 +51,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DateRange;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataapproval.DataApprovalLookup;
 import org.hisp.dhis.dataapproval.DataApprovalService;
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.dataelement.DataElement;
@@ -498,6 +502,28 @@ class DataValueSetImportValidatorTest
             dataValue.getPeriod(), dataSetContext.getDataSet().getUid() );
     }
 
+    @Test
+    void testCheckDataValueTodayNotPastPeriodExpiryLoadsLockExceptionsOnce()
+    {
+        DataValue dataValue = createRandomDataValue();
+        DataValueContext valueContext = createDataValueContext( dataValue ).build();
+        OrganisationUnit otherOrgUnit = new OrganisationUnit();
+        otherOrgUnit.setUid( CodeGenerator.generateUid() );
+        otherOrgUnit.setId( 42L );
+        DataValueContext otherValueContext = createDataValueContext( dataValue ).orgUnit( otherOrgUnit ).build();
+        DataSetContext dataSetContext = createMinimalDataSetContext( createEmptyDataValueSet() ).build();
+        dataSetContext.getDataSet().setExpiryDays( 1 );
+        ImportContext context = createMinimalImportContext( valueContext ).forceDataInput( false ).build();
+        context.getOrgUnitInHierarchyMap().put( otherOrgUnit.getUid(), true );
+        when( lockExceptionStore.getOrganisationUnitIds( any(), any() ) ).thenReturn( singleton( 42L ) );
+        assertTrue( validator.skipDataValue( dataValue, context, dataSetContext, valueContext ) );
+        assertConflict( ErrorCode.E7640,
+            "Current date is past expiry days for period: `<object1>`  and data set: `<object2>`", context,
+            dataValue.getPeriod(), dataSetContext.getDataSet().getUid() );
+        assertFalse( validator.skipDataValue( dataValue, context, dataSetContext, otherValueContext ) );
+        verify( lockExceptionStore, times( 1 ) ).getOrganisationUnitIds( any(), any() );
+    }
+
     @Test
     void testCheckDataValueNotAfterLatestOpenFuturePeriod()
     {
@@ -536,6 +562,29 @@ class DataValueSetImportValidatorTest
             dataSetContext.getDataSet().getUid() );
     }
 
+    @Test
+    void testCheckDataValueNotAlreadyApprovedLoadsApprovalsOnce()
+    {
+        DataValue dataValue = createRandomDataValue();
+        DataValueContext valueContext = createDataValueContext( dataValue ).build();
+        OrganisationUnit otherOrgUnit = new OrganisationUnit();
+        otherOrgUnit.setUid( CodeGenerator.generateUid() );
+        DataValueContext otherValueContext = createDataValueContext( dataValue ).orgUnit( otherOrgUnit ).build();
+        DataSetContext dataSetContext = createMinimalDataSetContext( createEmptyDataValueSet() ).build();
+        DataApprovalWorkflow workflow = new DataApprovalWorkflow();
+        workflow.setUid( CodeGenerator.generateUid() );
+        dataSetContext.getDataSet().setWorkflow( workflow );
+        ImportContext context = createMinimalImportContext( valueContext ).forceDataInput( false ).build();
+        context.getOrgUnitInHierarchyMap().put( otherOrgUnit.getUid(), true );
+        DataApprovalLookup lookup = mock( DataApprovalLookup.class );
+        when( lookup.isApproved( valueContext.getOrgUnit() ) ).thenReturn( true );
+        when( approvalService.getDataApprovalLookup( any(), any(), any() ) ).thenReturn( lookup );
+        assertTrue( validator.skipDataValue( dataValue, context, dataSetContext, valueContext ) );
+        assertFalse( validator.skipDataValue( dataValue, context, dataSetContext, otherValueContext ) );
+        verify( approvalService, times( 1 ) ).getDataApprovalLookup( workflow, valueContext.getPeriod(),
+            valueContext.getAttrOptionCombo() );
+    }
+
     @Test
     void testCheckDataValuePeriodIsOpenNow()
     {
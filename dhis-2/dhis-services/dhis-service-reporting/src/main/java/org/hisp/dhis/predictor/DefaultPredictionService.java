@@ -44,13 +44,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 import org.hisp.dhis.analytics.AnalyticsService;
 import org.hisp.dhis.analytics.AnalyticsServiceTarget;
 import org.hisp.dhis.analytics.DataType;
@@ -58,6 +66,7 @@ import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.DimensionalItemId;
 import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.FoundDimensionItemValue;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.ListMap;
 import org.hisp.dhis.common.MapMap;
@@ -70,6 +79,8 @@ import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
 import org.hisp.dhis.organisationunit.OrganisationUnitGroupService;
@@ -103,6 +114,12 @@ import com.google.common.collect.Sets;
 public class DefaultPredictionService
     implements PredictionService, AnalyticsServiceTarget, CurrentUserServiceTarget
 {
+    /**
+     * Number of organisation units for which predictions are evaluated before
+     * they are written.
+     */
+    private static final int EVALUATION_CHUNK_SIZE = 500;
+
     private final PredictorService predictorService;
 
     private final ConstantService constantService;
@@ -125,6 +142,8 @@ public class DefaultPredictionService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DhisConfigurationProvider config;
+
     private AnalyticsService analyticsService;
 
     private CurrentUserService currentUserService;
@@ -215,11 +234,19 @@ public class DefaultPredictionService
         log.info( "Running " + predictorList.size() + " predictors from " + startDate.toString() + " to "
             + endDate.toString() );
 
+        List<PredictionPlan> plans = new ArrayList<>();
+
         for ( Predictor predictor : predictorList )
         {
-            predict( predictor, startDate, endDate, predictionSummary );
+            plans.add( plan( predictor, startDate, endDate ) );
         }
 
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches( plans );
+
+        log.debug( "Running " + plans.size() + " predictors in " + batches.size() + " batches" );
+
+        predict( batches, predictionSummary );
+
         log.info( "Finished predictors from " + startDate.toString() + " to " + endDate.toString() + ": "
             + predictionSummary.toString() );
 
@@ -228,6 +255,20 @@ public class DefaultPredictionService
 
     @Override
     public void predict( Predictor predictor, Date startDate, Date endDate, PredictionSummary predictionSummary )
+    {
+        PredictionPlan plan = plan( predictor, startDate, endDate );
+
+        predict( Lists.<List<PredictionPlan>> newArrayList( Lists.newArrayList( plan ) ), predictionSummary );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive Methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Resolves the items, periods and output of a predictor.
+     */
+    private PredictionPlan plan( Predictor predictor, Date startDate, Date endDate )
     {
         Expression generator = predictor.getGenerator();
         Expression skipTest = predictor.getSampleSkipTest();
@@ -256,7 +297,6 @@ public class DefaultPredictionService
         Set<DimensionalItemObject> outputPeriodItems = new HashSet<>( outputPeriodItemMap.values() );
         Set<DimensionalItemObject> sampledItems = new HashSet<>( sampledItemMap.values() );
         Set<DimensionalItemObject> items = new HashSet<>( itemMap.values() );
-        Map<String, Constant> constantMap = constantService.getConstantMap();
         List<Period> outputPeriods = getPeriodsBetweenDates( predictor.getPeriodType(), startDate, endDate );
         Set<Period> existingOutputPeriods = getExistingPeriods( outputPeriods );
         ListMap<Period, Period> samplePeriodsMap = getSamplePeriodsMap( outputPeriods, predictor );
@@ -265,16 +305,91 @@ public class DefaultPredictionService
             outputPeriodItems, existingOutputPeriods );
         Set<Period> dataValueQueryPeriods = getDataValueQueryPeriods( analyticsQueryPeriods, existingOutputPeriods );
         outputPeriods = periodService.reloadPeriods( outputPeriods );
-        CategoryOptionCombo defaultCategoryOptionCombo = categoryService.getDefaultCategoryOptionCombo();
         CategoryOptionCombo outputOptionCombo = predictor.getOutputCombo() == null
-            ? defaultCategoryOptionCombo
+            ? categoryService.getDefaultCategoryOptionCombo()
             : predictor.getOutputCombo();
         DataElementOperand outputDataElementOperand = new DataElementOperand( outputDataElement, outputOptionCombo );
-        Date now = new Date();
 
         boolean requireData = generator.getMissingValueStrategy() != NEVER_SKIP && (!items.isEmpty());
         DimensionalItemObject forwardReference = addOuputToItems( outputDataElementOperand, items );
 
+        return PredictionPlan.builder()
+            .predictor( predictor )
+            .expressionDataType( expressionDataType )
+            .itemMap( itemMap )
+            .items( items )
+            .outputPeriodItems( outputPeriodItems )
+            .sampledItems( sampledItems )
+            .orgUnitGroupMap( orgUnitGroupMap )
+            .outputPeriods( outputPeriods )
+            .existingOutputPeriods( existingOutputPeriods )
+            .samplePeriodsMap( samplePeriodsMap )
+            .allSamplePeriods( allSamplePeriods )
+            .analyticsQueryPeriods( analyticsQueryPeriods )
+            .dataValueQueryPeriods( dataValueQueryPeriods )
+            .outputDataElementOperand( outputDataElementOperand )
+            .forwardReference( forwardReference )
+            .requireData( requireData )
+            .build();
+    }
+
+    /**
+     * Runs batches of predictors one after another. Within a batch, the
+     * predictions for different organisation units are evaluated in parallel.
+     */
+    private void predict( List<List<PredictionPlan>> batches, PredictionSummary predictionSummary )
+    {
+        int parallelism = Math.min( Runtime.getRuntime().availableProcessors(),
+            Integer.parseInt( config.getProperty( ConfigurationKey.PREDICTOR_PARALLELISM ) ) );
+
+        ExecutorService executor = parallelism > 1 ? newEvaluationExecutor( parallelism ) : null;
+
+        try
+        {
+            for ( List<PredictionPlan> batch : batches )
+            {
+                predictBatch( batch, predictionSummary, executor );
+            }
+        }
+        finally
+        {
+            if ( executor != null )
+            {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Runs a batch of predictors with one scan of the data for all of them.
+     */
+    private void predictBatch( List<PredictionPlan> batch, PredictionSummary predictionSummary,
+        ExecutorService executor )
+    {
+        Predictor predictor = batch.get( 0 ).getPredictor();
+
+        Set<DimensionalItemObject> items = new HashSet<>();
+        Set<Period> dataValueQueryPeriods = new HashSet<>();
+        Set<Period> analyticsQueryPeriods = new HashSet<>();
+        Set<Period> existingOutputPeriods = new HashSet<>();
+        Set<Period> existingOutputPeriodsOfAll = new HashSet<>( batch.get( 0 ).getExistingOutputPeriods() );
+        Set<DataElementOperand> outputDataElementOperands = new HashSet<>();
+
+        for ( PredictionPlan plan : batch )
+        {
+            items.addAll( plan.getItems() );
+            dataValueQueryPeriods.addAll( plan.getDataValueQueryPeriods() );
+            analyticsQueryPeriods.addAll( plan.getAnalyticsQueryPeriods() );
+            existingOutputPeriods.addAll( plan.getExistingOutputPeriods() );
+            existingOutputPeriodsOfAll.retainAll( plan.getExistingOutputPeriods() );
+            outputDataElementOperands.add( plan.getOutputDataElementOperand() );
+
+            // Load group members here, as Hibernate sessions are not thread
+            // safe
+
+            plan.getOrgUnitGroupMap().values().forEach( g -> Hibernate.initialize( g.getMembers() ) );
+        }
+
         Set<OrganisationUnit> currentUserOrgUnits = new HashSet<>();
         String storedBy = "system-process";
         User currentUser = currentUserService.getCurrentUser();
@@ -285,6 +400,9 @@ public class DefaultPredictionService
             storedBy = currentUser.getUsername();
         }
 
+        PredictionEvaluator evaluator = new PredictionEvaluator( constantService.getConstantMap(),
+            categoryService.getDefaultCategoryOptionCombo(), storedBy, new Date() );
+
         PredictionDataConsolidator consolidator = new PredictionDataConsolidator( items,
             predictor.getOrganisationUnitDescendants().equals( DESCENDANTS ),
             new PredictionDataValueFetcher( dataValueService, categoryService ),
@@ -292,9 +410,12 @@ public class DefaultPredictionService
 
         PredictionWriter predictionWriter = new PredictionWriter( dataValueService, batchHandlerFactory );
 
-        predictionWriter.init( existingOutputPeriods, predictionSummary );
+        // The batch handler may only insert into periods which existed before
+        // any predictor of the batch added periods within this transaction
 
-        predictionSummary.incrementPredictors();
+        predictionWriter.init( existingOutputPeriodsOfAll, predictionSummary );
+
+        batch.forEach( plan -> predictionSummary.incrementPredictors() );
 
         for ( OrganisationUnitLevel orgUnitLevel : predictor.getOrganisationUnitLevels() )
         {
@@ -302,62 +423,101 @@ public class DefaultPredictionService
                 .getOrganisationUnitsAtOrgUnitLevels( Lists.newArrayList( orgUnitLevel ), currentUserOrgUnits );
 
             consolidator.init( currentUserOrgUnits, orgUnitLevel.getLevel(), orgUnits,
-                dataValueQueryPeriods, analyticsQueryPeriods, existingOutputPeriods, outputDataElementOperand );
+                dataValueQueryPeriods, analyticsQueryPeriods, existingOutputPeriods, outputDataElementOperands );
 
+            List<PredictionData> dataChunk = new ArrayList<>();
             PredictionData data;
 
             while ( (data = consolidator.getData()) != null )
             {
-                List<DataValue> predictions = new ArrayList<>();
-
-                List<PredictionContext> contexts = PredictionContextGenerator.getContexts(
-                    outputPeriods, data.getValues(), defaultCategoryOptionCombo );
+                dataChunk.add( data );
 
-                for ( PredictionContext c : contexts )
+                if ( dataChunk.size() == EVALUATION_CHUNK_SIZE )
                 {
-                    List<Period> samplePeriods = new ArrayList<>( samplePeriodsMap.get( c.getOutputPeriod() ) );
+                    evaluateAndWrite( batch, dataChunk, evaluator, predictionWriter, executor );
 
-                    samplePeriods.removeAll( getSkippedPeriods( allSamplePeriods, itemMap, c.getPeriodValueMap(),
-                        skipTest, constantMap, orgUnitGroupMap, data.getOrgUnit() ) );
+                    dataChunk = new ArrayList<>();
+                }
+            }
 
-                    if ( requireData && !dataIsPresent( outputPeriodItems, c.getValueMap(), sampledItems,
-                        samplePeriods, c.getPeriodValueMap() ) )
-                    {
-                        continue;
-                    }
+            evaluateAndWrite( batch, dataChunk, evaluator, predictionWriter, executor );
+        }
 
-                    Object value = expressionService.getExpressionValue( predictor.getGenerator().getExpression(),
-                        PREDICTOR_EXPRESSION, itemMap, c.getValueMap(), constantMap, null, orgUnitGroupMap,
-                        c.getOutputPeriod().getDaysInPeriod(), generator.getMissingValueStrategy(), data.getOrgUnit(),
-                        samplePeriods, c.getPeriodValueMap(), expressionDataType );
+        predictionWriter.flush();
+    }
 
-                    if ( value != null || generator.getMissingValueStrategy() == NEVER_SKIP )
-                    {
-                        String valueString = formatPrediction( value, outputDataElement );
+    /**
+     * Evaluates the predictions for a chunk of organisation units, in parallel
+     * if an executor is given, and writes them in the order of the
+     * organisation units.
+     */
+    private void evaluateAndWrite( List<PredictionPlan> batch, List<PredictionData> dataChunk,
+        PredictionEvaluator evaluator, PredictionWriter predictionWriter, ExecutorService executor )
+    {
+        List<List<DataValue>> predictions;
+
+        if ( executor == null || dataChunk.size() < 2 )
+        {
+            predictions = dataChunk.stream()
+                .map( data -> evaluator.evaluate( batch, data ) )
+                .collect( Collectors.toList() );
+        }
+        else
+        {
+            predictions = evaluateInParallel( batch, dataChunk, evaluator, executor );
+        }
 
-                        if ( valueString != null )
-                        {
-                            DataValue prediction = new DataValue( outputDataElement,
-                                c.getOutputPeriod(), data.getOrgUnit(), outputOptionCombo,
-                                c.getAttributeOptionCombo(), valueString, storedBy, now, null );
+        for ( int i = 0; i < dataChunk.size(); i++ )
+        {
+            predictionWriter.write( predictions.get( i ), dataChunk.get( i ).getOldPredictions() );
+        }
+    }
 
-                            carryPredictionForward( prediction, contexts, forwardReference );
+    private List<List<DataValue>> evaluateInParallel( List<PredictionPlan> batch, List<PredictionData> dataChunk,
+        PredictionEvaluator evaluator, ExecutorService executor )
+    {
+        List<Callable<List<DataValue>>> tasks = dataChunk.stream()
+            .map( data -> (Callable<List<DataValue>>) () -> evaluator.evaluate( batch, data ) )
+            .collect( Collectors.toList() );
 
-                            predictions.add( prediction );
-                        }
-                    }
-                }
+        try
+        {
+            List<List<DataValue>> predictions = new ArrayList<>();
 
-                predictionWriter.write( predictions, data.getOldPredictions() );
+            for ( Future<List<DataValue>> future : executor.invokeAll( tasks ) )
+            {
+                predictions.add( future.get() );
             }
+
+            return predictions;
         }
+        catch ( ExecutionException ex )
+        {
+            if ( ex.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) ex.getCause();
+            }
 
-        predictionWriter.flush();
+            throw new IllegalStateException( "could not evaluate predictions", ex.getCause() );
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException( "interrupted while evaluating predictions" );
+        }
     }
 
-    // -------------------------------------------------------------------------
-    // Supportive Methods
-    // -------------------------------------------------------------------------
+    private ExecutorService newEvaluationExecutor( int parallelism )
+    {
+        AtomicInteger threads = new AtomicInteger();
+
+        return Executors.newFixedThreadPool( parallelism, runnable -> {
+            Thread thread = new Thread( runnable, "prediction-" + threads.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+    }
 
     /**
      * Returns any existing periods to be used for querying analytics items (if
@@ -616,4 +776,93 @@ public class DefaultPredictionService
     {
         return !Sets.intersection( items, valueMap.keySet() ).isEmpty();
     }
+
+    // -------------------------------------------------------------------------
+    // Supportive Classes
+    // -------------------------------------------------------------------------
+
+    /**
+     * Evaluates the predictors of a batch for one organisation unit. Only
+     * reads the prediction data and the plans, so that organisation units can
+     * be evaluated in parallel.
+     */
+    @RequiredArgsConstructor
+    private class PredictionEvaluator
+    {
+        private final Map<String, Constant> constantMap;
+
+        private final CategoryOptionCombo defaultCategoryOptionCombo;
+
+        private final String storedBy;
+
+        private final Date now;
+
+        List<DataValue> evaluate( List<PredictionPlan> batch, PredictionData data )
+        {
+            List<DataValue> predictions = new ArrayList<>();
+
+            for ( PredictionPlan plan : batch )
+            {
+                List<FoundDimensionItemValue> values = batch.size() == 1
+                    ? data.getValues()
+                    : plan.getOwnValues( data.getValues() );
+
+                predictions.addAll( evaluate( plan, data.getOrgUnit(), values ) );
+            }
+
+            return predictions;
+        }
+
+        private List<DataValue> evaluate( PredictionPlan plan, OrganisationUnit orgUnit,
+            List<FoundDimensionItemValue> values )
+        {
+            Predictor predictor = plan.getPredictor();
+            Expression generator = predictor.getGenerator();
+            DataElementOperand output = plan.getOutputDataElementOperand();
+
+            List<DataValue> predictions = new ArrayList<>();
+
+            List<PredictionContext> contexts = PredictionContextGenerator.getContexts(
+                plan.getOutputPeriods(), values, defaultCategoryOptionCombo );
+
+            for ( PredictionContext c : contexts )
+            {
+                List<Period> samplePeriods = new ArrayList<>( plan.getSamplePeriodsMap().get( c.getOutputPeriod() ) );
+
+                samplePeriods.removeAll( getSkippedPeriods( plan.getAllSamplePeriods(), plan.getItemMap(),
+                    c.getPeriodValueMap(), predictor.getSampleSkipTest(), constantMap, plan.getOrgUnitGroupMap(),
+                    orgUnit ) );
+
+                if ( plan.isRequireData() && !dataIsPresent( plan.getOutputPeriodItems(), c.getValueMap(),
+                    plan.getSampledItems(), samplePeriods, c.getPeriodValueMap() ) )
+                {
+                    continue;
+                }
+
+                Object value = expressionService.getExpressionValue( generator.getExpression(),
+                    PREDICTOR_EXPRESSION, plan.getItemMap(), c.getValueMap(), constantMap, null,
+                    plan.getOrgUnitGroupMap(), c.getOutputPeriod().getDaysInPeriod(),
+                    generator.getMissingValueStrategy(), orgUnit, samplePeriods, c.getPeriodValueMap(),
+                    plan.getExpressionDataType() );
+
+                if ( value != null || generator.getMissingValueStrategy() == NEVER_SKIP )
+                {
+                    String valueString = formatPrediction( value, output.getDataElement() );
+
+                    if ( valueString != null )
+                    {
+                        DataValue prediction = new DataValue( output.getDataElement(),
+                            c.getOutputPeriod(), orgUnit, output.getCategoryOptionCombo(),
+                            c.getAttributeOptionCombo(), valueString, storedBy, now, null );
+
+                        carryPredictionForward( prediction, contexts, plan.getForwardReference() );
+
+                        predictions.add( prediction );
+                    }
+                }
+            }
+
+            return predictions;
+        }
+    }
 }
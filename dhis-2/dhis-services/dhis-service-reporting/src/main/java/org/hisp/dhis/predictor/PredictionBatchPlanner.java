@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static com.google.common.base.MoreObjects.firstNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Groups predictor plans into batches which are run with a single scan of the
+ * data.
+ * <p>
+ * Predictors are batched when they predict the same periods from the same
+ * sample periods, for the same organisation unit levels. Only consecutive
+ * predictors are batched, so that the order in which predictors are run (for
+ * instance the order of predictors within a predictor group) is kept.
+ * <p>
+ * A predictor is not added to a batch if it refers to the output data element
+ * of a predictor already in the batch, or the other way around. When run one
+ * after another, such a predictor would see the values written by the earlier
+ * predictor, which is not possible when their data is fetched together.
+ */
+public class PredictionBatchPlanner
+{
+    private PredictionBatchPlanner()
+    {
+    }
+
+    /**
+     * Groups predictor plans into batches.
+     *
+     * @param plans the predictor plans, in the order to run them.
+     * @return the batches, in the order to run them.
+     */
+    public static List<List<PredictionPlan>> getBatches( List<PredictionPlan> plans )
+    {
+        List<List<PredictionPlan>> batches = new ArrayList<>();
+
+        List<PredictionPlan> batch = new ArrayList<>();
+
+        for ( PredictionPlan plan : plans )
+        {
+            if ( !batch.isEmpty() && !canJoin( batch, plan ) )
+            {
+                batches.add( batch );
+
+                batch = new ArrayList<>();
+            }
+
+            batch.add( plan );
+        }
+
+        if ( !batch.isEmpty() )
+        {
+            batches.add( batch );
+        }
+
+        return batches;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive Methods
+    // -------------------------------------------------------------------------
+
+    private static boolean canJoin( List<PredictionPlan> batch, PredictionPlan plan )
+    {
+        if ( !haveSameScan( batch.get( 0 ).getPredictor(), plan.getPredictor() ) )
+        {
+            return false;
+        }
+
+        for ( PredictionPlan member : batch )
+        {
+            if ( plan.refersTo( member.getPredictor().getOutput() )
+                || member.refersTo( plan.getPredictor().getOutput() ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean haveSameScan( Predictor a, Predictor b )
+    {
+        return Objects.equals( a.getPeriodType(), b.getPeriodType() )
+            && Objects.equals( a.getSequentialSampleCount(), b.getSequentialSampleCount() )
+            && Objects.equals( a.getAnnualSampleCount(), b.getAnnualSampleCount() )
+            && firstNonNull( a.getSequentialSkipCount(), 0 ).equals( firstNonNull( b.getSequentialSkipCount(), 0 ) )
+            && Objects.equals( a.getOrganisationUnitDescendants(), b.getOrganisationUnitDescendants() )
+            && Objects.equals( a.getOrganisationUnitLevels(), b.getOrganisationUnitLevels() );
+    }
+}
@@ -102,13 +102,32 @@ public class PredictionDataConsolidator
     public void init( Set<OrganisationUnit> currentUserOrgUnits, int orgUnitLevel, List<OrganisationUnit> orgUnits,
         Set<Period> dataValueQueryPeriods, Set<Period> analyticsQueryPeriods, Set<Period> existingOutputPeriods,
         DataElementOperand outputDataElementOperand )
+    {
+        init( currentUserOrgUnits, orgUnitLevel, orgUnits, dataValueQueryPeriods, analyticsQueryPeriods,
+            existingOutputPeriods, Collections.singleton( outputDataElementOperand ) );
+    }
+
+    /**
+     * Initializes for data retrieval for several predictors which share one
+     * scan of the data.
+     *
+     * @param orgUnits organisation units to fetch
+     * @param orgUnitLevel level of organisation units to fetch
+     * @param dataValueQueryPeriods existing periods for data value queries
+     * @param analyticsQueryPeriods existing periods for analytics queries
+     * @param outputDataElementOperands output data element operands of the
+     *        predictors
+     */
+    public void init( Set<OrganisationUnit> currentUserOrgUnits, int orgUnitLevel, List<OrganisationUnit> orgUnits,
+        Set<Period> dataValueQueryPeriods, Set<Period> analyticsQueryPeriods, Set<Period> existingOutputPeriods,
+        Set<DataElementOperand> outputDataElementOperands )
     {
         orgUnitsRemaining = new ArrayDeque<>( orgUnits );
 
         readyPredictionData = new ArrayDeque<>();
 
         dataValueFetcher.init( currentUserOrgUnits, orgUnitLevel, orgUnits, dataValueQueryPeriods,
-            existingOutputPeriods, dataElements, dataElementOperands, outputDataElementOperand );
+            existingOutputPeriods, dataElements, dataElementOperands, outputDataElementOperands );
 
         analyticsFetcher.init( analyticsQueryPeriods, analyticsItems );
     }
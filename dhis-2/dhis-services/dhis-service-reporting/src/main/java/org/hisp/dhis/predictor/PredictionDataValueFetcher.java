@@ -36,6 +36,7 @@ import static org.hisp.dhis.system.util.MathUtils.addDoubleObjects;
 import static org.hisp.dhis.system.util.ValidationUtils.getObjectValue;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -113,7 +114,7 @@ public class PredictionDataValueFetcher
 
     private Set<DataElementOperand> dataElementOperands;
 
-    private DataElementOperand outputDataElementOperand;
+    private Set<DataElementOperand> outputDataElementOperands;
 
     private boolean includeDescendants = false;
 
@@ -155,11 +156,34 @@ public class PredictionDataValueFetcher
      * @param outputPeriods predictor output periods.
      * @param dataElements data elements to fetch.
      * @param dataElementOperands data element operands to fetch.
+     * @param outputDataElementOperand predictor output.
      */
     public void init(
         Set<OrganisationUnit> currentUserOrgUnits, int orgUnitLevel, List<OrganisationUnit> orgUnits,
         Set<Period> queryPeriods, Set<Period> outputPeriods, Set<DataElement> dataElements,
         Set<DataElementOperand> dataElementOperands, DataElementOperand outputDataElementOperand )
+    {
+        init( currentUserOrgUnits, orgUnitLevel, orgUnits, queryPeriods, outputPeriods, dataElements,
+            dataElementOperands, Collections.singleton( outputDataElementOperand ) );
+    }
+
+    /**
+     * Initializes for datavalue retrieval for several predictors at once.
+     * Existing values of any of the outputs are returned as old predictions.
+     *
+     * @param currentUserOrgUnits orgUnits assigned to current user.
+     * @param orgUnitLevel level of organisation units to fetch.
+     * @param orgUnits organisation units to fetch.
+     * @param queryPeriods periods to fetch.
+     * @param outputPeriods predictor output periods.
+     * @param dataElements data elements to fetch.
+     * @param dataElementOperands data element operands to fetch.
+     * @param outputDataElementOperands outputs of the predictors.
+     */
+    public void init(
+        Set<OrganisationUnit> currentUserOrgUnits, int orgUnitLevel, List<OrganisationUnit> orgUnits,
+        Set<Period> queryPeriods, Set<Period> outputPeriods, Set<DataElement> dataElements,
+        Set<DataElementOperand> dataElementOperands, Set<DataElementOperand> outputDataElementOperands )
     {
         this.currentUserOrgUnits = currentUserOrgUnits;
         this.orgUnitLevel = orgUnitLevel;
@@ -167,7 +191,7 @@ public class PredictionDataValueFetcher
         this.outputPeriods = outputPeriods;
         this.dataElements = dataElements;
         this.dataElementOperands = dataElementOperands;
-        this.outputDataElementOperand = outputDataElementOperand;
+        this.outputDataElementOperands = outputDataElementOperands;
 
         orgUnitLookup = orgUnits.stream().collect( Collectors.toMap( OrganisationUnit::getPath, ou -> ou ) );
         dataElementLookup = dataElements.stream().collect( Collectors.toMap( DataElement::getId, de -> de ) );
@@ -353,8 +377,7 @@ public class PredictionDataValueFetcher
             }
 
             if ( ddv.getSourcePath().equals( dv.getSource().getPath() )
-                && ddv.getDataElementId() == outputDataElementOperand.getDataElement().getId()
-                && ddv.getCategoryOptionComboId() == (outputDataElementOperand.getCategoryOptionCombo().getId())
+                && isOutput( ddv )
                 && outputPeriods.contains( dv.getPeriod() ) )
             {
                 oldPredictions.add( dv );
@@ -364,6 +387,23 @@ public class PredictionDataValueFetcher
         return new PredictionData( orgUnit, mapToValues( orgUnit, map ), oldPredictions );
     }
 
+    /**
+     * Checks whether a deflated data value is for one of the predictor outputs.
+     */
+    private boolean isOutput( DeflatedDataValue ddv )
+    {
+        for ( DataElementOperand output : outputDataElementOperands )
+        {
+            if ( ddv.getDataElementId() == output.getDataElement().getId()
+                && ddv.getCategoryOptionComboId() == output.getCategoryOptionCombo().getId() )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * "Inflates" a deflated data value, using our caches.
      */
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import org.hisp.dhis.analytics.DataType;
+import org.hisp.dhis.common.DimensionalItemId;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.FoundDimensionItemValue;
+import org.hisp.dhis.common.ListMap;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementOperand;
+import org.hisp.dhis.organisationunit.OrganisationUnitGroup;
+import org.hisp.dhis.period.Period;
+
+/**
+ * Everything needed to run one predictor for a date range, resolved before
+ * any data is fetched. Plans of predictors which can share one scan of the
+ * data are run together, see {@link PredictionBatchPlanner}.
+ */
+@Getter
+@Builder
+public class PredictionPlan
+{
+    private final Predictor predictor;
+
+    private final DataType expressionDataType;
+
+    private final Map<DimensionalItemId, DimensionalItemObject> itemMap;
+
+    /**
+     * All items to fetch for this predictor, including the output.
+     */
+    private final Set<DimensionalItemObject> items;
+
+    private final Set<DimensionalItemObject> outputPeriodItems;
+
+    private final Set<DimensionalItemObject> sampledItems;
+
+    private final Map<String, OrganisationUnitGroup> orgUnitGroupMap;
+
+    private final List<Period> outputPeriods;
+
+    private final Set<Period> existingOutputPeriods;
+
+    private final ListMap<Period, Period> samplePeriodsMap;
+
+    private final Set<Period> allSamplePeriods;
+
+    private final Set<Period> analyticsQueryPeriods;
+
+    private final Set<Period> dataValueQueryPeriods;
+
+    private final DataElementOperand outputDataElementOperand;
+
+    private final DimensionalItemObject forwardReference;
+
+    private final boolean requireData;
+
+    /**
+     * Selects the values this predictor would have fetched on its own from
+     * values fetched for several predictors.
+     *
+     * @param values values fetched for a batch of predictors.
+     * @return the values of items and periods of this predictor.
+     */
+    public List<FoundDimensionItemValue> getOwnValues( List<FoundDimensionItemValue> values )
+    {
+        return values.stream()
+            .filter( this::isOwnValue )
+            .collect( Collectors.toList() );
+    }
+
+    /**
+     * Indicates whether this predictor reads or writes the given data
+     * element.
+     *
+     * @param dataElement the data element.
+     * @return true if any item of this predictor refers to the data element.
+     */
+    public boolean refersTo( DataElement dataElement )
+    {
+        for ( DimensionalItemObject item : items )
+        {
+            if ( dataElement.equals( item ) || (item instanceof DataElementOperand
+                && dataElement.equals( ((DataElementOperand) item).getDataElement() )) )
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive Methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Values of data elements and data element operands come from the data
+     * value table, and other values come from analytics, each for their own
+     * query periods.
+     */
+    private boolean isOwnValue( FoundDimensionItemValue value )
+    {
+        DimensionalItemObject item = value.getDimensionalItemObject();
+
+        if ( !items.contains( item ) )
+        {
+            return false;
+        }
+
+        Set<Period> queryPeriods = item instanceof DataElement || item instanceof DataElementOperand
+            ? dataValueQueryPeriods
+            : analyticsQueryPeriods;
+
+        return queryPeriods.contains( value.getPeriod() );
+    }
+}
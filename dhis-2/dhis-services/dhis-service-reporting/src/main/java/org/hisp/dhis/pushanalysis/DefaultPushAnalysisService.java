@@ -28,19 +28,34 @@
 package org.hisp.dhis.pushanalysis;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import javax.imageio.ImageIO;
@@ -48,8 +63,12 @@ import javax.imageio.ImageIO;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.velocity.VelocityContext;
+import org.hisp.dhis.common.BaseAnalyticalObject;
+import org.hisp.dhis.common.DataDimensionItem;
+import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 import org.hisp.dhis.commons.util.Encoder;
+import org.hisp.dhis.dashboard.Dashboard;
 import org.hisp.dhis.dashboard.DashboardItem;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
@@ -75,20 +94,27 @@ import org.hisp.dhis.system.util.ChartUtils;
 import org.hisp.dhis.system.velocity.VelocityManager;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserCredentials;
 import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserService;
+import org.hisp.dhis.user.sharing.Sharing;
 import org.hisp.dhis.visualization.ChartService;
 import org.hisp.dhis.visualization.PlotData;
 import org.hisp.dhis.visualization.Visualization;
 import org.hisp.dhis.visualization.VisualizationGridService;
 import org.jfree.chart.JFreeChart;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.MimeTypeUtils;
 
 import com.google.common.collect.Sets;
 import com.google.common.hash.Hashing;
-import com.google.common.io.ByteSource;
 
 /**
  * @author Stian Sandvold
@@ -125,13 +151,18 @@ public class DefaultPushAnalysisService
 
     private final IdentifiableObjectStore<PushAnalysis> pushAnalysisStore;
 
+    private final UserService userService;
+
+    private final PlatformTransactionManager transactionManager;
+
     public DefaultPushAnalysisService( Notifier notifier, SystemSettingManager systemSettingManager,
         DhisConfigurationProvider dhisConfigurationProvider, ExternalFileResourceService externalFileResourceService,
         FileResourceService fileResourceService, CurrentUserService currentUserService,
         MapGenerationService mapGenerationService, VisualizationGridService visualizationGridService,
         ChartService chartService, I18nManager i18nManager,
         @Qualifier( "emailMessageSender" ) MessageSender messageSender,
-        @Qualifier( "org.hisp.dhis.pushanalysis.PushAnalysisStore" ) IdentifiableObjectStore<PushAnalysis> pushAnalysisStore )
+        @Qualifier( "org.hisp.dhis.pushanalysis.PushAnalysisStore" ) IdentifiableObjectStore<PushAnalysis> pushAnalysisStore,
+        UserService userService, PlatformTransactionManager transactionManager )
     {
         checkNotNull( notifier );
         checkNotNull( systemSettingManager );
@@ -145,6 +176,8 @@ public class DefaultPushAnalysisService
         checkNotNull( i18nManager );
         checkNotNull( messageSender );
         checkNotNull( pushAnalysisStore );
+        checkNotNull( userService );
+        checkNotNull( transactionManager );
 
         this.notifier = notifier;
         this.systemSettingManager = systemSettingManager;
@@ -158,6 +191,8 @@ public class DefaultPushAnalysisService
         this.i18nManager = i18nManager;
         this.messageSender = messageSender;
         this.pushAnalysisStore = pushAnalysisStore;
+        this.userService = userService;
+        this.transactionManager = transactionManager;
     }
 
     // ----------------------------------------------------------------------
@@ -250,45 +285,275 @@ public class DefaultPushAnalysisService
         log( jobId, NotificationLevel.INFO, "List composed. " + receivingUsers.size() + " eligible users found.",
             false, null );
 
+        // ----------------------------------------------------------------------
+        // Group users with equal data access, which receive identical reports
+        // ----------------------------------------------------------------------
+
+        Set<String> usersWithDirectAccess = getUsersWithDirectAccess( pushAnalysis.getDashboard() );
+
+        List<List<User>> userGroups = new ArrayList<>( receivingUsers.stream()
+            .sorted( Comparator.comparing( User::getUid ) )
+            .collect( groupingBy( user -> getDataAccessFingerprint( user, usersWithDirectAccess ),
+                LinkedHashMap::new, toList() ) )
+            .values() );
+
+        log( jobId, NotificationLevel.INFO, "Users grouped. " + userGroups.size() + " distinct reports to generate.",
+            false, null );
+
         // ----------------------------------------------------------------------
         // Generating reports
         // ----------------------------------------------------------------------
 
         log( jobId, NotificationLevel.INFO, "Generating and sending reports", false, null );
 
-        for ( User user : receivingUsers )
+        List<Future<String>> reports = generateHtmlReports( uid, userGroups, jobId );
+
+        try
         {
-            try
+            for ( int i = 0; i < userGroups.size(); i++ )
+            {
+                sendHtmlReports( pushAnalysis, userGroups.get( i ), reports.get( i ), jobId );
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            reports.forEach( report -> report.cancel( true ) );
+
+            log( jobId, NotificationLevel.ERROR,
+                "PushAnalysis '" + pushAnalysis.getName() + "' was interrupted. Terminating PushAnalysis.", true, e );
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void runPushAnalysis( List<String> uids, JobConfiguration jobId )
+    {
+        uids.forEach( uid -> runPushAnalysis( uid, jobId ) );
+    }
+
+    @Override
+    public String generateHtmlReport( PushAnalysis pushAnalysis, User user, JobConfiguration jobId )
+        throws IOException
+    {
+        return generateHtmlReport( pushAnalysis, user, jobId, new ConcurrentHashMap<>() );
+    }
+
+    // --------------------------------------------------------------------------
+    // Supportive methods
+    // --------------------------------------------------------------------------
+
+    /**
+     * Returns a fingerprint of the data access of the given user. The data
+     * shown in a report depends on the organisation units, data view
+     * organisation units, user groups, user roles and dimension constraints of
+     * the user, so users with equal fingerprints receive identical reports.
+     * Users which are granted access directly to the objects shown in the
+     * report get a fingerprint of their own.
+     *
+     * @param user the user.
+     * @param usersWithDirectAccess the uids of the users with direct access to
+     *        the objects shown in the report, see
+     *        {@link #getUsersWithDirectAccess(Dashboard)}.
+     * @return the fingerprint of the data access of the user.
+     */
+    static String getDataAccessFingerprint( User user, Set<String> usersWithDirectAccess )
+    {
+        UserCredentials credentials = user.getUserCredentials();
+
+        String fingerprint = String.join( "|",
+            usersWithDirectAccess.contains( user.getUid() ) ? user.getUid() : "",
+            getSortedUids( user.getOrganisationUnits() ),
+            getSortedUids( user.getDataViewOrganisationUnits() ),
+            getSortedUids( user.getGroups() ),
+            credentials != null ? getSortedUids( credentials.getUserAuthorityGroups() ) : "",
+            credentials != null ? getSortedUids( credentials.getCatDimensionConstraints() ) : "",
+            credentials != null ? getSortedUids( credentials.getCogsDimensionConstraints() ) : "" );
+
+        return Hashing.sha256().hashString( fingerprint, StandardCharsets.UTF_8 ).toString();
+    }
+
+    /**
+     * Returns the uids of the users which own or are granted access directly,
+     * rather than through their user groups, to the dashboard, its items, or
+     * the favourites and dimension items shown by them.
+     *
+     * @param dashboard the dashboard of the push analysis.
+     * @return the uids of the users with direct access.
+     */
+    static Set<String> getUsersWithDirectAccess( Dashboard dashboard )
+    {
+        List<IdentifiableObject> objects = new ArrayList<>();
+        objects.add( dashboard );
+
+        for ( DashboardItem item : dashboard.getItems() )
+        {
+            objects.add( item );
+
+            if ( item.getMap() != null )
+            {
+                objects.add( item.getMap() );
+                item.getMap().getMapViews().forEach( mapView -> addAnalyticalObject( objects, mapView ) );
+            }
+
+            if ( item.getVisualization() != null )
+            {
+                addAnalyticalObject( objects, item.getVisualization() );
+            }
+        }
+
+        Set<String> users = new HashSet<>();
+
+        for ( IdentifiableObject object : objects )
+        {
+            Sharing sharing = object.getSharing();
+
+            if ( sharing != null )
+            {
+                if ( sharing.getOwner() != null )
+                {
+                    users.add( sharing.getOwner() );
+                }
+
+                users.addAll( sharing.getUsers().keySet() );
+            }
+        }
+
+        return users;
+    }
+
+    private static void addAnalyticalObject( List<IdentifiableObject> objects, BaseAnalyticalObject object )
+    {
+        objects.add( object );
+
+        object.getDataDimensionItems().stream()
+            .map( DataDimensionItem::getDimensionalItemObject )
+            .filter( Objects::nonNull )
+            .forEach( objects::add );
+
+        object.getCategoryDimensions().forEach( dimension -> objects.addAll( dimension.getItems() ) );
+    }
+
+    private static String getSortedUids( Collection<? extends IdentifiableObject> objects )
+    {
+        return objects == null ? ""
+            : objects.stream().map( IdentifiableObject::getUid ).sorted().collect( joining( "," ) );
+    }
+
+    /**
+     * Generates one report per group of users on a bounded thread pool. Each
+     * report is generated for the first user of the group in a new
+     * transaction, in which the push analysis and the user are reloaded, as
+     * entities can not be shared between sessions. Images with equal content
+     * are uploaded once and shared between the reports.
+     *
+     * @param uid the uid of the push analysis.
+     * @param userGroups the groups of users with equal data access.
+     * @param jobId for logging.
+     * @return the reports, in the order of the groups of users.
+     */
+    private List<Future<String>> generateHtmlReports( String uid, List<List<User>> userGroups,
+        JobConfiguration jobId )
+    {
+        int parallelism = Integer.parseInt(
+            dhisConfigurationProvider.getProperty( ConfigurationKey.PUSH_ANALYSIS_PARALLELISM ) );
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate( transactionManager );
+        transactionTemplate.setPropagationBehavior( TransactionDefinition.PROPAGATION_REQUIRES_NEW );
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        ConcurrentMap<String, String> imageUrls = new ConcurrentHashMap<>();
+
+        ExecutorService executor = Executors
+            .newFixedThreadPool( Math.max( 1, Math.min( parallelism, userGroups.size() ) ) );
+
+        try
+        {
+            return userGroups.stream()
+                .map( users -> users.get( 0 ).getUid() )
+                .map( userUid -> executor.submit( () -> {
+                    SecurityContextHolder.setContext( securityContext );
+                    try
+                    {
+                        return transactionTemplate.execute( status -> generateHtmlReport(
+                            pushAnalysisStore.getByUid( uid ), userService.getUser( userUid ), jobId, imageUrls ) );
+                    }
+                    finally
+                    {
+                        SecurityContextHolder.clearContext();
+                    }
+                } ) )
+                .collect( toList() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Sends the given report to each of the given users once it has been
+     * generated.
+     *
+     * @param pushAnalysis the push analysis.
+     * @param users the users to send the report to.
+     * @param report the report generated for the users.
+     * @param jobId for logging.
+     */
+    private void sendHtmlReports( PushAnalysis pushAnalysis, List<User> users, Future<String> report,
+        JobConfiguration jobId )
+        throws InterruptedException
+    {
+        String html;
+
+        try
+        {
+            html = report.get();
+        }
+        catch ( ExecutionException e )
+        {
+            for ( User user : users )
             {
-                String title = pushAnalysis.getTitle();
-                String html = generateHtmlReport( pushAnalysis, user, jobId );
+                log( jobId, NotificationLevel.ERROR,
+                    "Could not create report for PushAnalysis '" + pushAnalysis.getName() + "' and User '" +
+                        user.getUsername() + "': " + e.getCause().getMessage(),
+                    false, e.getCause() );
+            }
+
+            return;
+        }
 
+        for ( User user : users )
+        {
+            try
+            {
                 // TODO: Better handling of messageStatus; Might require
                 // refactoring of EmailMessageSender
                 @SuppressWarnings( "unused" )
                 Future<OutboundMessageResponse> status = messageSender
-                    .sendMessageAsync( title, html, "", null, Sets.newHashSet( user ), true );
-
+                    .sendMessageAsync( pushAnalysis.getTitle(), html, "", null, Sets.newHashSet( user ), true );
             }
             catch ( Exception e )
             {
                 log( jobId, NotificationLevel.ERROR,
-                    "Could not create or send report for PushAnalysis '" + pushAnalysis.getName() + "' and User '" +
+                    "Could not send report for PushAnalysis '" + pushAnalysis.getName() + "' and User '" +
                         user.getUsername() + "': " + e.getMessage(),
                     false, e );
             }
         }
     }
 
-    @Override
-    public void runPushAnalysis( List<String> uids, JobConfiguration jobId )
-    {
-        uids.forEach( uid -> runPushAnalysis( uid, jobId ) );
-    }
-
-    @Override
-    public String generateHtmlReport( PushAnalysis pushAnalysis, User user, JobConfiguration jobId )
-        throws IOException
+    /**
+     * Generates the report for the given user.
+     *
+     * @param pushAnalysis the push analysis.
+     * @param user the user to generate the report for, the current user if
+     *        null.
+     * @param jobId for logging, null to log to a new in-memory job.
+     * @param imageUrls the URLs of already uploaded images by content hash.
+     */
+    private String generateHtmlReport( PushAnalysis pushAnalysis, User user, JobConfiguration jobId,
+        ConcurrentMap<String, String> imageUrls )
     {
         if ( jobId == null )
         {
@@ -314,7 +579,7 @@ public class DefaultPushAnalysisService
             // In normal conditions all DashboardItem has a type.
             if ( item.getType() != null )
             {
-                itemHtml.put( item.getUid(), getItemHtml( item, user, jobId ) );
+                itemHtml.put( item.getUid(), getItemHtml( item, user, jobId, imageUrls ) );
                 itemLink.put( item.getUid(), getItemLink( item ) );
             }
         }
@@ -351,10 +616,6 @@ public class DefaultPushAnalysisService
 
     }
 
-    // --------------------------------------------------------------------------
-    // Supportive methods
-    // --------------------------------------------------------------------------
-
     /**
      * Finds the dashboardItem's type and calls the associated method for
      * generating the resource (either URL or HTML)
@@ -362,16 +623,17 @@ public class DefaultPushAnalysisService
      * @param item to generate resource
      * @param user to generate for
      * @param jobId for logging
+     * @param imageUrls the URLs of already uploaded images by content hash
      */
-    private String getItemHtml( DashboardItem item, User user, JobConfiguration jobId )
-        throws IOException
+    private String getItemHtml( DashboardItem item, User user, JobConfiguration jobId,
+        ConcurrentMap<String, String> imageUrls )
     {
         switch ( item.getType() )
         {
         case MAP:
-            return generateMapHtml( item.getMap(), user );
+            return generateMapHtml( item.getMap(), user, imageUrls );
         case VISUALIZATION:
-            return generateVisualizationHtml( item.getVisualization(), user );
+            return generateVisualizationHtml( item.getVisualization(), user, imageUrls );
         case EVENT_CHART:
             // TODO: Add support for EventCharts
             return "";
@@ -409,10 +671,10 @@ public class DefaultPushAnalysisService
      *
      * @param map map to render and upload
      * @param user user to generate chart for
+     * @param imageUrls the URLs of already uploaded images by content hash
      * @return absolute URL to uploaded image
      */
-    private String generateMapHtml( Map map, User user )
-        throws IOException
+    private String generateMapHtml( Map map, User user, ConcurrentMap<String, String> imageUrls )
     {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
 
@@ -423,9 +685,16 @@ public class DefaultPushAnalysisService
             image = MapUtils.createErrorImage( "No data" );
         }
 
-        ImageIO.write( image, "PNG", baos );
+        try
+        {
+            ImageIO.write( image, "PNG", baos );
+        }
+        catch ( IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
 
-        return uploadImage( map.getUid(), baos.toByteArray() );
+        return uploadImage( map.getUid(), baos.toByteArray(), imageUrls );
     }
 
     /**
@@ -433,17 +702,18 @@ public class DefaultPushAnalysisService
      *
      * @param visualization the visualization to be rendered and uploaded.
      * @param user the user generate the Visualization.
+     * @param imageUrls the URLs of already uploaded images by content hash.
      * @return absolute URL to the uploaded image.
      */
-    private String generateVisualizationHtml( final Visualization visualization, final User user )
-        throws IOException
+    private String generateVisualizationHtml( final Visualization visualization, final User user,
+        ConcurrentMap<String, String> imageUrls )
     {
         switch ( visualization.getType() )
         {
         case PIVOT_TABLE:
             return generateReportTableHtml( visualization, user );
         default:
-            return generateChartHtml( visualization, user );
+            return generateChartHtml( visualization, user, imageUrls );
         }
     }
 
@@ -452,15 +722,17 @@ public class DefaultPushAnalysisService
      *
      * @param visualization chart to render and upload
      * @param user user to generate chart for
+     * @param imageUrls the URLs of already uploaded images by content hash
      * @return absolute URL to uploaded image
      */
-    private String generateChartHtml( final Visualization visualization, User user )
-        throws IOException
+    private String generateChartHtml( final Visualization visualization, User user,
+        ConcurrentMap<String, String> imageUrls )
     {
         JFreeChart jFreechart = chartService
             .getJFreeChart( new PlotData( visualization ), new Date(), null, i18nManager.getI18nFormat(), user );
 
-        return uploadImage( visualization.getUid(), ChartUtils.getChartAsPngByteArray( jFreechart, 578, 440 ) );
+        return uploadImage( visualization.getUid(), ChartUtils.getChartAsPngByteArray( jFreechart, 578, 440 ),
+            imageUrls );
     }
 
     /**
@@ -482,27 +754,39 @@ public class DefaultPushAnalysisService
     }
 
     /**
-     * Uploads a byte array using FileResource and ExternalFileResource
+     * Uploads a byte array using FileResource and ExternalFileResource, unless
+     * a file with equal content has already been uploaded.
      *
      * @param name name of the file to be stored
      * @param bytes the byte array representing the file to be stored
+     * @param imageUrls the URLs of already uploaded images by content hash
      * @return url pointing to the uploaded resource
      */
-    private String uploadImage( String name, byte[] bytes )
-        throws IOException
+    private String uploadImage( String name, byte[] bytes, ConcurrentMap<String, String> imageUrls )
     {
+        String contentMd5 = Hashing.md5().hashBytes( bytes ).toString();
+        String url = imageUrls.get( contentMd5 );
+
+        if ( url != null )
+        {
+            return url;
+        }
+
         FileResource fileResource = new FileResource(
             name,
             MimeTypeUtils.IMAGE_PNG.toString(), // All files uploaded from
                                                 // PushAnalysis is PNG.
             bytes.length,
-            ByteSource.wrap( bytes ).hash( Hashing.md5() ).toString(),
+            contentMd5,
             FileResourceDomain.PUSH_ANALYSIS );
 
         String accessToken = saveFileResource( fileResource, bytes );
 
-        return dhisConfigurationProvider.getServerBaseUrl() + "/api/externalFileResources/" + accessToken;
+        url = dhisConfigurationProvider.getServerBaseUrl() + "/api/externalFileResources/" + accessToken;
+
+        String uploadedUrl = imageUrls.putIfAbsent( contentMd5, url );
 
+        return uploadedUrl != null ? uploadedUrl : url;
     }
 
     /**
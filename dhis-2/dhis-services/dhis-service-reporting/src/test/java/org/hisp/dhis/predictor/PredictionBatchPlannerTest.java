@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.predictor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.hisp.dhis.DhisConvenienceTest;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.DimensionalItemObject;
+import org.hisp.dhis.common.FoundDimensionItemValue;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementOperand;
+import org.hisp.dhis.expression.Expression;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.organisationunit.OrganisationUnitLevel;
+import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.period.QuarterlyPeriodType;
+import org.hisp.dhis.program.ProgramIndicator;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Tests {@link PredictionBatchPlanner}.
+ */
+class PredictionBatchPlannerTest
+    extends DhisConvenienceTest
+{
+    private final OrganisationUnitLevel level = new OrganisationUnitLevel( 1, "Level 1" );
+
+    private final CategoryOptionCombo coc = createCategoryOptionCombo( 'A' );
+
+    private final DataElement deA = createDataElement( 'A' );
+
+    private final DataElement deB = createDataElement( 'B' );
+
+    private final DataElement deC = createDataElement( 'C' );
+
+    private final DataElement deX = createDataElement( 'X' );
+
+    private final DataElement deY = createDataElement( 'Y' );
+
+    private final DataElement deZ = createDataElement( 'Z' );
+
+    private final Expression expression = new Expression( "1", "Description" );
+
+    @Test
+    void testIndependentPredictorsAreBatched()
+    {
+        PredictionPlan planA = plan( deX, new MonthlyPeriodType(), 2, deA );
+        PredictionPlan planB = plan( deY, new MonthlyPeriodType(), 2, deB );
+        PredictionPlan planC = plan( deZ, new MonthlyPeriodType(), 2, deA, deC );
+
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches(
+            Lists.newArrayList( planA, planB, planC ) );
+
+        assertEquals( Collections.singletonList( Lists.newArrayList( planA, planB, planC ) ), batches );
+    }
+
+    @Test
+    void testPredictorsWithDifferentSamplesAreNotBatched()
+    {
+        PredictionPlan planA = plan( deX, new MonthlyPeriodType(), 2, deA );
+        PredictionPlan planB = plan( deY, new QuarterlyPeriodType(), 2, deA );
+        PredictionPlan planC = plan( deZ, new QuarterlyPeriodType(), 3, deA );
+
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches(
+            Lists.newArrayList( planA, planB, planC ) );
+
+        assertEquals( Lists.newArrayList( Lists.newArrayList( planA ), Lists.newArrayList( planB ),
+            Lists.newArrayList( planC ) ), batches );
+    }
+
+    @Test
+    void testPredictorReadingEarlierOutputIsNotBatched()
+    {
+        PredictionPlan planA = plan( deX, new MonthlyPeriodType(), 2, deA );
+        PredictionPlan planB = plan( deY, new MonthlyPeriodType(), 2, new DataElementOperand( deX, coc ) );
+        PredictionPlan planC = plan( deZ, new MonthlyPeriodType(), 2, deB );
+
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches(
+            Lists.newArrayList( planA, planB, planC ) );
+
+        assertEquals( Lists.newArrayList( Lists.newArrayList( planA ), Lists.newArrayList( planB, planC ) ),
+            batches );
+    }
+
+    @Test
+    void testPredictorWithLaterReaderIsNotBatched()
+    {
+        PredictionPlan planA = plan( deX, new MonthlyPeriodType(), 2, deY );
+        PredictionPlan planB = plan( deY, new MonthlyPeriodType(), 2, deA );
+
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches(
+            Lists.newArrayList( planA, planB ) );
+
+        assertEquals( Lists.newArrayList( Lists.newArrayList( planA ), Lists.newArrayList( planB ) ), batches );
+    }
+
+    @Test
+    void testPredictorsWithSameOutputAreNotBatched()
+    {
+        PredictionPlan planA = plan( deX, new MonthlyPeriodType(), 2, deA );
+        PredictionPlan planB = plan( deX, new MonthlyPeriodType(), 2, deB );
+
+        List<List<PredictionPlan>> batches = PredictionBatchPlanner.getBatches(
+            Lists.newArrayList( planA, planB ) );
+
+        assertEquals( 2, batches.size() );
+    }
+
+    @Test
+    void testGetOwnValues()
+    {
+        OrganisationUnit ou = createOrganisationUnit( 'A' );
+        Period periodA = createPeriod( "202201" );
+        Period periodB = createPeriod( "202202" );
+        ProgramIndicator piA = createProgramIndicator( 'A', createProgram( 'A' ), "Expression", "Filter" );
+
+        PredictionPlan plan = PredictionPlan.builder()
+            .items( Sets.newHashSet( deA, piA ) )
+            .dataValueQueryPeriods( Sets.newHashSet( periodA, periodB ) )
+            .analyticsQueryPeriods( Sets.newHashSet( periodA ) )
+            .build();
+
+        FoundDimensionItemValue valueA = new FoundDimensionItemValue( ou, periodB, coc, deA, 1.0 );
+        FoundDimensionItemValue valueB = new FoundDimensionItemValue( ou, periodB, coc, deB, 2.0 );
+        FoundDimensionItemValue valueC = new FoundDimensionItemValue( ou, periodA, coc, piA, 3.0 );
+        FoundDimensionItemValue valueD = new FoundDimensionItemValue( ou, periodB, coc, piA, 4.0 );
+
+        assertEquals( Lists.newArrayList( valueA, valueC ),
+            plan.getOwnValues( Lists.newArrayList( valueA, valueB, valueC, valueD ) ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private PredictionPlan plan( DataElement output, PeriodType periodType, int sequentialSampleCount,
+        DimensionalItemObject... inputs )
+    {
+        Predictor predictor = createPredictor( output, coc, output.getName(), expression, null, periodType,
+            level, sequentialSampleCount, 0, 0 );
+
+        DataElementOperand outputOperand = new DataElementOperand( output, coc );
+
+        Set<DimensionalItemObject> items = Sets.newHashSet( inputs );
+        items.add( outputOperand );
+
+        return PredictionPlan.builder()
+            .predictor( predictor )
+            .items( items )
+            .outputDataElementOperand( outputOperand )
+            .build();
+    }
+}
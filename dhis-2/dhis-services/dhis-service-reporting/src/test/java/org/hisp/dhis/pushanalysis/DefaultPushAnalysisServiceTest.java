@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.pushanalysis;
+
+import static org.hisp.dhis.DhisConvenienceTest.createCategory;
+import static org.hisp.dhis.DhisConvenienceTest.createDataElement;
+import static org.hisp.dhis.DhisConvenienceTest.createOrganisationUnit;
+import static org.hisp.dhis.DhisConvenienceTest.createUser;
+import static org.hisp.dhis.DhisConvenienceTest.createUserGroup;
+import static org.hisp.dhis.DhisConvenienceTest.createVisualization;
+import static org.hisp.dhis.pushanalysis.DefaultPushAnalysisService.getDataAccessFingerprint;
+import static org.hisp.dhis.pushanalysis.DefaultPushAnalysisService.getUsersWithDirectAccess;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hisp.dhis.dashboard.Dashboard;
+import org.hisp.dhis.dashboard.DashboardItem;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.sharing.UserAccess;
+import org.hisp.dhis.visualization.Visualization;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DefaultPushAnalysisServiceTest
+{
+    private OrganisationUnit ouA;
+
+    private OrganisationUnit ouB;
+
+    private UserGroup userGroupA;
+
+    private User userA;
+
+    private User userB;
+
+    @BeforeEach
+    void setUp()
+    {
+        ouA = createOrganisationUnit( 'A' );
+        ouB = createOrganisationUnit( 'B' );
+        userGroupA = createUserGroup( 'A', new HashSet<>() );
+
+        userA = createUser( 'A' );
+        userB = createUser( 'B' );
+
+        for ( User user : new User[] { userA, userB } )
+        {
+            user.getOrganisationUnits().add( ouA );
+            user.getOrganisationUnits().add( ouB );
+            user.getDataViewOrganisationUnits().add( ouA );
+            user.getGroups().add( userGroupA );
+        }
+    }
+
+    @Test
+    void testGetDataAccessFingerprintEqualForEqualDataAccess()
+    {
+        assertEquals( getDataAccessFingerprint( userA, Set.of() ), getDataAccessFingerprint( userB, Set.of() ) );
+    }
+
+    @Test
+    void testGetDataAccessFingerprintDiffersForDataViewOrgUnits()
+    {
+        userB.getDataViewOrganisationUnits().add( ouB );
+
+        assertNotEquals( getDataAccessFingerprint( userA, Set.of() ), getDataAccessFingerprint( userB, Set.of() ) );
+    }
+
+    @Test
+    void testGetDataAccessFingerprintDiffersForUserGroups()
+    {
+        userB.getGroups().clear();
+
+        assertNotEquals( getDataAccessFingerprint( userA, Set.of() ), getDataAccessFingerprint( userB, Set.of() ) );
+    }
+
+    @Test
+    void testGetDataAccessFingerprintDiffersForDimensionConstraints()
+    {
+        userB.getUserCredentials().getCatDimensionConstraints().add( createCategory( 'A' ) );
+
+        assertNotEquals( getDataAccessFingerprint( userA, Set.of() ), getDataAccessFingerprint( userB, Set.of() ) );
+    }
+
+    @Test
+    void testGetDataAccessFingerprintDiffersForDirectAccess()
+    {
+        Set<String> usersWithDirectAccess = Set.of( userB.getUid() );
+
+        assertNotEquals( getDataAccessFingerprint( userA, usersWithDirectAccess ),
+            getDataAccessFingerprint( userB, usersWithDirectAccess ) );
+    }
+
+    @Test
+    void testGetUsersWithDirectAccess()
+    {
+        DataElement dataElement = createDataElement( 'A' );
+
+        Visualization visualization = createVisualization( 'A' );
+        visualization.addDataDimensionItem( dataElement );
+
+        DashboardItem item = new DashboardItem();
+        item.setVisualization( visualization );
+
+        Dashboard dashboard = new Dashboard( "dashboardA" );
+        dashboard.getItems().add( item );
+
+        assertEquals( Set.of(), getUsersWithDirectAccess( dashboard ) );
+
+        dataElement.getSharing().addUserAccess( new UserAccess( userB, "r-r-----" ) );
+
+        assertEquals( Set.of( userB.getUid() ), getUsersWithDirectAccess( dashboard ) );
+
+        dashboard.getSharing().setOwner( userA );
+
+        assertEquals( Set.of( userA.getUid(), userB.getUid() ), getUsersWithDirectAccess( dashboard ) );
+    }
+}
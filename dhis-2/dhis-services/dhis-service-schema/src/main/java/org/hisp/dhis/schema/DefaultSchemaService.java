@@ -28,6 +28,7 @@
 package org.hisp.dhis.schema;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import java.util.Collection;
@@ -36,6 +37,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -247,10 +253,14 @@ public class DefaultSchemaService
     @EventListener
     public void handleContextRefresh( ContextRefreshedEvent contextRefreshedEvent )
     {
-        for ( SchemaDescriptor descriptor : descriptors.values() )
-        {
-            Schema schema = descriptor.getSchema();
+        List<Schema> schemas = descriptors.values().stream()
+            .map( SchemaDescriptor::getSchema )
+            .collect( toList() );
+
+        introspectProperties( schemas );
 
+        for ( Schema schema : schemas )
+        {
             MetamodelImplementor metamodelImplementor = (MetamodelImplementor) sessionFactory.getMetamodel();
 
             try
@@ -291,6 +301,48 @@ public class DefaultSchemaService
         }
     }
 
+    /**
+     * Introspects the properties of the given schemas in parallel. The
+     * properties of each class are introspected independently and cached by
+     * the {@link PropertyIntrospectorService}, which makes this the most time
+     * consuming part of initializing the schemas.
+     */
+    private void introspectProperties( List<Schema> schemas )
+    {
+        long start = System.nanoTime();
+        int threads = Math.max( 1, Math.min( Runtime.getRuntime().availableProcessors(), 8 ) );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+
+        try
+        {
+            List<Future<?>> futures = schemas.stream()
+                .filter( schema -> schema.getProperties().isEmpty() )
+                .map( schema -> executor.submit( () -> propertyIntrospectorService
+                    .getPropertiesMap( schema.getKlass() ) ) )
+                .collect( toList() );
+
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch ( ExecutionException ex )
+        {
+            throw new IllegalStateException( "Failed to introspect schema properties", ex.getCause() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        log.info( "Introspected properties of " + schemas.size() + " schemas in "
+            + TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) + " ms" );
+    }
+
     @Override
     public Schema getSchema( Class<?> klass )
     {
@@ -32,8 +32,6 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.hibernate.MappingException;
 import org.hibernate.SessionFactory;
@@ -73,24 +71,38 @@ public class HibernatePropertyIntrospector implements PropertyIntrospector
 {
     private final SessionFactory sessionFactory;
 
-    private final Map<String, String> roleToRole = new ConcurrentHashMap<>();
-
-    private final AtomicBoolean roleToRoleComputing = new AtomicBoolean( false );
+    /**
+     * Maps each role of a many-to-many collection to the role on the other side
+     * of its join table. Computed once on first use, introspection of different
+     * classes may run in parallel.
+     */
+    private volatile Map<String, String> roleToRole;
 
     public HibernatePropertyIntrospector( SessionFactory sessionFactory )
     {
         this.sessionFactory = sessionFactory;
     }
 
-    private void updateJoinTables()
+    private Map<String, String> getRoleToRole()
     {
-        if ( !roleToRoleComputing.compareAndSet( false, true ) )
+        Map<String, String> map = roleToRole;
+        if ( map == null )
         {
-            // when we already started the below computation we do not want to
-            // do it again
-            return;
+            synchronized ( this )
+            {
+                map = roleToRole;
+                if ( map == null )
+                {
+                    map = computeRoleToRole();
+                    roleToRole = map;
+                }
+            }
         }
+        return map;
+    }
 
+    private Map<String, String> computeRoleToRole()
+    {
         Map<String, List<String>> joinTableToRoles = new HashMap<>();
 
         SessionFactoryImplementor sessionFactoryImplementor = (SessionFactoryImplementor) sessionFactory;
@@ -120,17 +132,20 @@ public class HibernatePropertyIntrospector implements PropertyIntrospector
 
         joinTableToRoles.entrySet().removeIf( entry -> entry.getValue().size() < 2 );
 
+        Map<String, String> map = new HashMap<>();
+
         for ( Map.Entry<String, List<String>> entry : joinTableToRoles.entrySet() )
         {
-            roleToRole.put( entry.getValue().get( 0 ), entry.getValue().get( 1 ) );
-            roleToRole.put( entry.getValue().get( 1 ), entry.getValue().get( 0 ) );
+            map.put( entry.getValue().get( 0 ), entry.getValue().get( 1 ) );
+            map.put( entry.getValue().get( 1 ), entry.getValue().get( 0 ) );
         }
+
+        return map;
     }
 
     @Override
     public void introspect( Class<?> klass, Map<String, Property> properties )
     {
-        updateJoinTables();
         MetamodelImplementor metamodelImplementor = getMetamodelImplementor();
 
         try
@@ -267,11 +282,11 @@ public class HibernatePropertyIntrospector implements PropertyIntrospector
         if ( property.isOwner() )
         {
             property.setOwningRole( type.getRole() );
-            property.setInverseRole( roleToRole.get( type.getRole() ) );
+            property.setInverseRole( getRoleToRole().get( type.getRole() ) );
         }
         else
         {
-            property.setOwningRole( roleToRole.get( type.getRole() ) );
+            property.setOwningRole( getRoleToRole().get( type.getRole() ) );
             property.setInverseRole( type.getRole() );
         }
     }
@@ -27,14 +27,28 @@
  */
 package org.hisp.dhis.schema;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
 import org.hisp.dhis.DhisSpringTest;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementGroup;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.program.Program;
 import org.hisp.dhis.program.ProgramTrackedEntityAttribute;
+import org.hisp.dhis.schema.introspection.HibernatePropertyIntrospector;
+import org.hisp.dhis.schema.introspection.PropertyIntrospector;
 import org.hisp.dhis.sqlview.SqlView;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -45,9 +59,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 class SchemaServiceTest extends DhisSpringTest
 {
 
+    private static final String GROUP_MEMBERS_ROLE = DataElementGroup.class.getName() + ".members";
+
+    private static final String DATA_ELEMENT_GROUPS_ROLE = DataElement.class.getName() + ".groups";
+
     @Autowired
     private SchemaService schemaService;
 
+    @Autowired
+    private SessionFactory sessionFactory;
+
     @Test
     void testHaveSchemas()
     {
@@ -90,4 +111,55 @@ class SchemaServiceTest extends DhisSpringTest
         assertTrue( schema.isDataWriteShareable() );
         assertTrue( schema.isDataReadShareable() );
     }
+
+    @Test
+    void testManyToManyRoles()
+    {
+        Property members = schemaService.getSchema( DataElementGroup.class ).getProperty( "dataElements" );
+        assertTrue( members.isOwner() );
+        assertEquals( GROUP_MEMBERS_ROLE, members.getOwningRole() );
+        assertEquals( DATA_ELEMENT_GROUPS_ROLE, members.getInverseRole() );
+
+        Property groups = schemaService.getSchema( DataElement.class ).getProperty( "dataElementGroups" );
+        assertFalse( groups.isOwner() );
+        assertEquals( GROUP_MEMBERS_ROLE, groups.getOwningRole() );
+        assertEquals( DATA_ELEMENT_GROUPS_ROLE, groups.getInverseRole() );
+    }
+
+    @Test
+    void testManyToManyRolesIntrospectedInParallel()
+        throws Exception
+    {
+        PropertyIntrospector introspector = new HibernatePropertyIntrospector( sessionFactory );
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+
+        try
+        {
+            List<Future<Map<String, Property>>> futures = new ArrayList<>();
+
+            for ( int i = 0; i < 16; i++ )
+            {
+                Class<?> klass = i % 2 == 0 ? DataElementGroup.class : DataElement.class;
+                futures.add( executor.submit( () -> {
+                    Map<String, Property> properties = new HashMap<>();
+                    introspector.introspect( klass, properties );
+                    return properties;
+                } ) );
+            }
+
+            for ( Future<Map<String, Property>> future : futures )
+            {
+                Map<String, Property> properties = future.get();
+                Property property = properties.containsKey( "members" )
+                    ? properties.get( "members" )
+                    : properties.get( "groups" );
+                assertEquals( GROUP_MEMBERS_ROLE, property.getOwningRole() );
+                assertEquals( DATA_ELEMENT_GROUPS_ROLE, property.getInverseRole() );
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
 }
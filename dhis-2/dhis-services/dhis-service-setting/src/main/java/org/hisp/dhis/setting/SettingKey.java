@@ -125,6 +125,8 @@ public enum SettingKey
     SKIP_SYNCHRONIZATION_FOR_DATA_CHANGED_BEFORE( "syncSkipSyncForDataChangedBefore", new Date( 0 ), Date.class ),
     LAST_SUCCESSFUL_ANALYTICS_TABLES_UPDATE( "keyLastSuccessfulAnalyticsTablesUpdate", Date.class ),
     LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_UPDATE( "keyLastSuccessfulLatestAnalyticsPartitionUpdate", Date.class ),
+    LAST_SUCCESSFUL_LATEST_ANALYTICS_PARTITION_COMPACTION( "keyLastSuccessfulLatestAnalyticsPartitionCompaction",
+        Date.class ),
     LAST_SUCCESSFUL_RESOURCE_TABLES_UPDATE( "keyLastSuccessfulResourceTablesUpdate", Date.class ),
     LAST_SUCCESSFUL_SYSTEM_MONITORING_PUSH( "keyLastSuccessfulSystemMonitoringPush", Date.class ),
     LAST_SUCCESSFUL_MONITORING( "keyLastSuccessfulMonitoring", Date.class ),
@@ -179,6 +181,7 @@ public enum SettingKey
     DELAY_BETWEEN_REMOTE_SERVER_AVAILABILITY_CHECK_ATTEMPTS( "syncDelayBetweenRemoteServerAvailabilityCheckAttempts",
         500, Integer.class ),
     LAST_SUCCESSFUL_DATA_STATISTICS( "lastSuccessfulDataStatistics", Date.class ),
+    LAST_SUCCESSFUL_OUTLIER_STATISTICS_UPDATE( "keyLastSuccessfulOutlierStatisticsUpdate", Date.class ),
     ANALYTICS_HIDE_DAILY_PERIODS( "keyHideDailyPeriods", Boolean.FALSE, Boolean.class ),
     ANALYTICS_HIDE_WEEKLY_PERIODS( "keyHideWeeklyPeriods", Boolean.FALSE, Boolean.class ),
     ANALYTICS_HIDE_BIWEEKLY_PERIODS( "keyHideBiWeeklyPeriods", Boolean.FALSE, Boolean.class ),
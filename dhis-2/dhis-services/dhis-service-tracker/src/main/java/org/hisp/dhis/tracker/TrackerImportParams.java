@@ -51,7 +51,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Data
-@Builder
+@Builder( toBuilder = true )
 @NoArgsConstructor
 @AllArgsConstructor
 public class TrackerImportParams
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.tracker.TrackerType;
+import org.hisp.dhis.tracker.domain.TrackerDto;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Stores the payload of an asynchronous tracker import on disk so that only a
+ * reference to it has to be sent through the message broker, and so that the
+ * import can read and commit the payload in chunks of bounded size.
+ *
+ * The payload of a job is stored in its own directory, with one file per
+ * {@link TrackerType} containing one JSON object per line. Objects are read
+ * back type by type in order of {@link TrackerType#getPriority()}, so tracked
+ * entities are always imported before the enrollments, events and
+ * relationships which reference them.
+ */
+@Slf4j
+@Component
+public class TrackerImportSpool
+{
+    private static final String SPOOL_DIR = "dhis2-tracker-spool";
+
+    private static final String FILE_SUFFIX = ".ndjson";
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final Path spoolDir;
+
+    @Getter
+    private final int chunkSize;
+
+    public TrackerImportSpool( ObjectMapper objectMapper, DhisConfigurationProvider config )
+    {
+        this( objectMapper, getSpoolDir( config ),
+            Integer.parseInt( config.getProperty( ConfigurationKey.TRACKER_IMPORT_SPOOL_CHUNK_SIZE ) ) );
+    }
+
+    TrackerImportSpool( ObjectMapper objectMapper, Path spoolDir, int chunkSize )
+    {
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer().without( SerializationFeature.INDENT_OUTPUT );
+        this.spoolDir = spoolDir;
+        this.chunkSize = Math.max( 1, chunkSize );
+    }
+
+    /**
+     * Opens a writer for the payload of the given job. The payload is removed
+     * again if the writer is closed without being committed.
+     *
+     * @param jobId the UID of the import job.
+     * @return a {@link Writer}.
+     * @throws IOException if the spool directory can not be created.
+     */
+    public Writer openWriter( String jobId )
+        throws IOException
+    {
+        return new Writer( jobId, Files.createDirectories( getJobDir( jobId ) ) );
+    }
+
+    /**
+     * Indicates whether a payload is spooled for the given job.
+     *
+     * @param jobId the UID of the import job.
+     * @return true if a payload exists.
+     */
+    public boolean exists( String jobId )
+    {
+        return Files.isDirectory( getJobDir( jobId ) );
+    }
+
+    /**
+     * Reads the spooled objects of the given type in chunks of at most
+     * {@link #getChunkSize()} objects and passes each chunk to the given
+     * consumer before reading the next one.
+     *
+     * @param jobId the UID of the import job.
+     * @param type the type of objects to read.
+     * @param klass the class of objects to read.
+     * @param consumer the consumer of chunks.
+     * @throws IOException if the payload can not be read.
+     */
+    public <T extends TrackerDto> void readChunks( String jobId, TrackerType type, Class<T> klass,
+        Consumer<List<T>> consumer )
+        throws IOException
+    {
+        Path file = getFile( getJobDir( jobId ), type );
+
+        if ( !Files.exists( file ) )
+        {
+            return;
+        }
+
+        ObjectReader reader = objectMapper.readerFor( klass );
+
+        try ( BufferedReader in = Files.newBufferedReader( file, StandardCharsets.UTF_8 ) )
+        {
+            List<T> chunk = new ArrayList<>( chunkSize );
+            String line;
+
+            while ( (line = in.readLine()) != null )
+            {
+                if ( line.isEmpty() )
+                {
+                    continue;
+                }
+
+                chunk.add( reader.readValue( line ) );
+
+                if ( chunk.size() == chunkSize )
+                {
+                    consumer.accept( chunk );
+                    chunk = new ArrayList<>( chunkSize );
+                }
+            }
+
+            if ( !chunk.isEmpty() )
+            {
+                consumer.accept( chunk );
+            }
+        }
+    }
+
+    /**
+     * Removes the spooled payload of the given job, if any.
+     *
+     * @param jobId the UID of the import job.
+     */
+    public void delete( String jobId )
+    {
+        Path jobDir = getJobDir( jobId );
+
+        if ( !Files.exists( jobDir ) )
+        {
+            return;
+        }
+
+        try ( Stream<Path> files = Files.walk( jobDir ) )
+        {
+            files.sorted( Comparator.reverseOrder() ).forEach( file -> {
+                try
+                {
+                    Files.deleteIfExists( file );
+                }
+                catch ( IOException ex )
+                {
+                    log.warn( "Could not delete spooled tracker import file: " + file, ex );
+                }
+            } );
+        }
+        catch ( IOException ex )
+        {
+            log.warn( "Could not delete spooled tracker import: " + jobDir, ex );
+        }
+    }
+
+    private Path getJobDir( String jobId )
+    {
+        if ( !CodeGenerator.isValidUid( jobId ) )
+        {
+            throw new IllegalArgumentException( "Invalid tracker import job id: " + jobId );
+        }
+
+        return spoolDir.resolve( jobId );
+    }
+
+    private static Path getFile( Path jobDir, TrackerType type )
+    {
+        return jobDir.resolve( type.getName() + FILE_SUFFIX );
+    }
+
+    private static Path getSpoolDir( DhisConfigurationProvider config )
+    {
+        String dir = config.getProperty( ConfigurationKey.TRACKER_IMPORT_SPOOL_DIR );
+
+        return StringUtils.isBlank( dir )
+            ? Paths.get( System.getProperty( "java.io.tmpdir" ), SPOOL_DIR )
+            : Paths.get( dir );
+    }
+
+    /**
+     * Appends tracker objects to the spooled payload of a job. Objects of each
+     * type keep the order in which they were written.
+     */
+    public class Writer
+        implements Closeable
+    {
+        private final String jobId;
+
+        private final Path jobDir;
+
+        private final Map<TrackerType, BufferedWriter> writers = new EnumMap<>( TrackerType.class );
+
+        private boolean committed;
+
+        private Writer( String jobId, Path jobDir )
+        {
+            this.jobId = jobId;
+            this.jobDir = jobDir;
+        }
+
+        public Writer write( Collection<? extends TrackerDto> dtos )
+            throws IOException
+        {
+            for ( TrackerDto dto : dtos )
+            {
+                BufferedWriter out = getWriter( dto.getTrackerType() );
+                out.write( objectWriter.writeValueAsString( dto ) );
+                out.newLine();
+            }
+
+            return this;
+        }
+
+        /**
+         * Marks the payload as complete, so that it is kept when the writer is
+         * closed.
+         */
+        public void commit()
+            throws IOException
+        {
+            for ( BufferedWriter out : writers.values() )
+            {
+                out.flush();
+            }
+
+            committed = true;
+        }
+
+        @Override
+        public void close()
+            throws IOException
+        {
+            try
+            {
+                for ( BufferedWriter out : writers.values() )
+                {
+                    out.close();
+                }
+            }
+            finally
+            {
+                if ( !committed )
+                {
+                    delete( jobId );
+                }
+            }
+        }
+
+        private BufferedWriter getWriter( TrackerType type )
+            throws IOException
+        {
+            BufferedWriter out = writers.get( type );
+
+            if ( out == null )
+            {
+                out = Files.newBufferedWriter( getFile( jobDir, type ), StandardCharsets.UTF_8 );
+                writers.put( type, out );
+            }
+
+            return out;
+        }
+    }
+}
@@ -27,9 +27,37 @@
  */
 package org.hisp.dhis.tracker.job;
 
+import static org.hisp.dhis.tracker.report.TrackerTimingsStats.TOTAL_OPS;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.commons.timer.SystemTimer;
+import org.hisp.dhis.commons.timer.Timer;
+import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.security.SecurityContextRunnable;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.tracker.TrackerImportParams;
 import org.hisp.dhis.tracker.TrackerImportService;
+import org.hisp.dhis.tracker.TrackerType;
+import org.hisp.dhis.tracker.domain.Enrollment;
+import org.hisp.dhis.tracker.domain.Event;
+import org.hisp.dhis.tracker.domain.Relationship;
+import org.hisp.dhis.tracker.domain.TrackedEntity;
+import org.hisp.dhis.tracker.domain.TrackerDto;
+import org.hisp.dhis.tracker.report.TrackerBundleReport;
+import org.hisp.dhis.tracker.report.TrackerImportReport;
+import org.hisp.dhis.tracker.report.TrackerStats;
+import org.hisp.dhis.tracker.report.TrackerStatus;
+import org.hisp.dhis.tracker.report.TrackerTimingsStats;
+import org.hisp.dhis.tracker.report.TrackerTypeReport;
+import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
@@ -38,6 +66,7 @@ import org.springframework.util.Assert;
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
+@Slf4j
 @Component
 @Scope( BeanDefinition.SCOPE_PROTOTYPE )
 public class TrackerImportThread
@@ -45,11 +74,20 @@ public class TrackerImportThread
 {
     private final TrackerImportService trackerImportService;
 
+    private final TrackerImportSpool trackerImportSpool;
+
+    private final Notifier notifier;
+
     private TrackerImportParams trackerImportParams;
 
-    public TrackerImportThread( TrackerImportService trackerImportService )
+    private boolean spooled;
+
+    public TrackerImportThread( TrackerImportService trackerImportService, TrackerImportSpool trackerImportSpool,
+        Notifier notifier )
     {
         this.trackerImportService = trackerImportService;
+        this.trackerImportSpool = trackerImportSpool;
+        this.notifier = notifier;
     }
 
     @Override
@@ -57,6 +95,12 @@ public class TrackerImportThread
     {
         Assert.notNull( trackerImportParams, "Field trackerImportParams can not be null. " );
 
+        if ( spooled )
+        {
+            importSpooled();
+            return;
+        }
+
         trackerImportService
             .importTracker( trackerImportParams ); // discard returned report,
                                                    // it has been put on the
@@ -67,4 +111,178 @@ public class TrackerImportThread
     {
         this.trackerImportParams = trackerImportParams;
     }
+
+    public void setSpooled( boolean spooled )
+    {
+        this.spooled = spooled;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Imports the objects stored in the {@link TrackerImportSpool} for the
+     * job, one chunk at a time. Every chunk is imported and committed on its
+     * own, so memory use is bounded by the chunk size rather than by the size
+     * of the payload. Progress is reported after each chunk, and the reports
+     * of all chunks are combined into the job summary.
+     */
+    private void importSpooled()
+    {
+        JobConfiguration jobConfiguration = trackerImportParams.getJobConfiguration();
+        String jobId = jobConfiguration.getUid();
+        ChunkedImportReport chunkedReport = new ChunkedImportReport();
+        Timer timer = new SystemTimer().start();
+
+        notifier.notify( jobConfiguration, trackerImportParams.userStartInfo() + " Import:Start" );
+
+        try
+        {
+            importChunks( TrackerType.TRACKED_ENTITY, TrackedEntity.class, chunkedReport,
+                chunk -> trackerImportParams.toBuilder().trackedEntities( chunk ) );
+            importChunks( TrackerType.ENROLLMENT, Enrollment.class, chunkedReport,
+                chunk -> trackerImportParams.toBuilder().enrollments( chunk ) );
+            importChunks( TrackerType.EVENT, Event.class, chunkedReport,
+                chunk -> trackerImportParams.toBuilder().events( chunk ) );
+            importChunks( TrackerType.RELATIONSHIP, Relationship.class, chunkedReport,
+                chunk -> trackerImportParams.toBuilder().relationships( chunk ) );
+
+            TrackerImportReport importReport = chunkedReport.build( timer.stop().toString() );
+
+            notifier.update( jobConfiguration,
+                trackerImportParams + " finished in " + timer + " Import:Done", true );
+            notifier.addJobSummary( jobConfiguration, importReport, TrackerImportReport.class );
+        }
+        catch ( IOException | RuntimeException ex )
+        {
+            log.error( "Exception thrown during spooled import.", ex );
+
+            TrackerImportReport importReport = TrackerImportReport.withError( "Exception:" + ex.getMessage(),
+                chunkedReport.validationReport, null );
+
+            notifier.update( jobConfiguration, NotificationLevel.ERROR,
+                trackerImportParams + " failed with exception: " + ex.getMessage() + " Import:Error", true );
+            notifier.addJobSummary( jobConfiguration, importReport, TrackerImportReport.class );
+        }
+        finally
+        {
+            trackerImportSpool.delete( jobId );
+        }
+    }
+
+    private <T extends TrackerDto> void importChunks( TrackerType type, Class<T> klass,
+        ChunkedImportReport chunkedReport,
+        Function<List<T>, TrackerImportParams.TrackerImportParamsBuilder> paramsBuilder )
+        throws IOException
+    {
+        JobConfiguration jobConfiguration = trackerImportParams.getJobConfiguration();
+
+        trackerImportSpool.readChunks( jobConfiguration.getUid(), type, klass, chunk -> {
+            TrackerImportParams params = paramsBuilder.apply( chunk )
+                .jobConfiguration( null )
+                .build();
+
+            TrackerImportReport report = trackerImportService.importTracker( params );
+
+            chunkedReport.add( type, chunk.size(), report );
+
+            notifier.update( jobConfiguration, NotificationLevel.INFO,
+                String.format( "%s chunk %d: %d %s objects imported with status %s, %d objects done",
+                    trackerImportParams, chunkedReport.chunks, chunk.size(), type.getName(), report.getStatus(),
+                    chunkedReport.objects ) );
+        } );
+    }
+
+    /**
+     * Combines the import reports of the chunks of a spooled import. Indexes
+     * of object reports are made relative to all objects of the same type
+     * rather than to the chunk.
+     */
+    private static class ChunkedImportReport
+    {
+        private final TrackerValidationReport validationReport = new TrackerValidationReport();
+
+        private final TrackerBundleReport bundleReport = new TrackerBundleReport();
+
+        private final TrackerStats stats = new TrackerStats();
+
+        private final Map<TrackerType, Integer> offsets = new EnumMap<>( TrackerType.class );
+
+        private TrackerStatus status = TrackerStatus.OK;
+
+        private String message;
+
+        private int chunks;
+
+        private int objects;
+
+        void add( TrackerType type, int size, TrackerImportReport report )
+        {
+            int offset = offsets.getOrDefault( type, 0 );
+
+            if ( report.getValidationReport() != null )
+            {
+                validationReport.addValidationReport( report.getValidationReport() );
+            }
+
+            if ( report.getStats() != null )
+            {
+                stats.merge( report.getStats() );
+            }
+
+            if ( report.getBundleReport() != null )
+            {
+                report.getBundleReport().getTypeReportMap().forEach( ( t, r ) -> addTypeReport( t, r, offset ) );
+            }
+
+            if ( report.getStatus() != null && report.getStatus().ordinal() > status.ordinal() )
+            {
+                status = report.getStatus();
+            }
+
+            if ( report.getMessage() != null && message == null )
+            {
+                message = report.getMessage();
+            }
+
+            offsets.put( type, offset + size );
+            chunks++;
+            objects += size;
+        }
+
+        TrackerImportReport build( String elapsed )
+        {
+            TrackerTimingsStats timingsStats = new TrackerTimingsStats();
+            timingsStats.set( TOTAL_OPS, elapsed );
+
+            bundleReport.setStatus( status );
+
+            return TrackerImportReport.builder()
+                .status( status )
+                .validationReport( validationReport )
+                .stats( stats )
+                .timingsStats( timingsStats )
+                .bundleReport( bundleReport )
+                .message( message )
+                .build();
+        }
+
+        private void addTypeReport( TrackerType type, TrackerTypeReport typeReport, int offset )
+        {
+            TrackerTypeReport combined = bundleReport.getTypeReportMap()
+                .computeIfAbsent( type, TrackerTypeReport::new );
+
+            combined.getStats().merge( typeReport.getStats() );
+
+            typeReport.getObjectReportMap().values().forEach( objectReport -> {
+                if ( objectReport.getIndex() != null )
+                {
+                    objectReport.setIndex( objectReport.getIndex() + offset );
+                }
+
+                combined.addObjectReport( objectReport );
+            } );
+        }
+    }
 }
@@ -58,6 +58,13 @@ public class TrackerMessage implements SerializableMessage
     @JsonProperty
     private final TrackerImportParams trackerImportParams;
 
+    /**
+     * Indicates that the objects to import are not part of the message but
+     * have been stored in the {@link TrackerImportSpool} under the job UID.
+     */
+    @JsonProperty
+    private final boolean spooled;
+
     @Override
     public MessageType getMessageType()
     {
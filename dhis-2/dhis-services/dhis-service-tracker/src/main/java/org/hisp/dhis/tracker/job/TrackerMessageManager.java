@@ -87,6 +87,7 @@ public class TrackerMessageManager
 
         TrackerImportThread trackerImportThread = trackerImportThreadFactory.getObject();
         trackerImportThread.setTrackerImportParams( trackerImportParams );
+        trackerImportThread.setSpooled( trackerMessage.isSpooled() );
 
         SecurityContextHolder.getContext()
             .setAuthentication( AuthenticationSerializer.deserialize( trackerMessage.getAuthentication() ) );
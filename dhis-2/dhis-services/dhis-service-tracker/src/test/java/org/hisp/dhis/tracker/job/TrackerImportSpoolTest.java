@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.job;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hisp.dhis.common.CodeGenerator;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.hisp.dhis.tracker.TrackerType;
+import org.hisp.dhis.tracker.domain.Event;
+import org.hisp.dhis.tracker.domain.TrackedEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrackerImportSpoolTest
+{
+    @TempDir
+    Path spoolDir;
+
+    private TrackerImportSpool spool;
+
+    private String jobId;
+
+    @BeforeEach
+    void setUp()
+    {
+        spool = new TrackerImportSpool( JacksonObjectMapperConfig.jsonMapper, spoolDir, 2 );
+        jobId = CodeGenerator.generateUid();
+    }
+
+    @Test
+    void shouldReadSpooledObjectsInChunksByType()
+        throws IOException
+    {
+        try ( TrackerImportSpool.Writer writer = spool.openWriter( jobId ) )
+        {
+            writer.write( Arrays.asList( trackedEntity( "te1" ), trackedEntity( "te2" ), trackedEntity( "te3" ) ) )
+                .write( Arrays.asList( event( "ev1" ) ) );
+            writer.commit();
+        }
+
+        assertTrue( spool.exists( jobId ) );
+
+        List<List<String>> trackedEntityChunks = new ArrayList<>();
+        spool.readChunks( jobId, TrackerType.TRACKED_ENTITY, TrackedEntity.class,
+            chunk -> trackedEntityChunks.add( chunk.stream().map( TrackedEntity::getUid ).collect( toList() ) ) );
+
+        List<List<String>> eventChunks = new ArrayList<>();
+        spool.readChunks( jobId, TrackerType.EVENT, Event.class,
+            chunk -> eventChunks.add( chunk.stream().map( Event::getUid ).collect( toList() ) ) );
+
+        assertEquals( Arrays.asList( Arrays.asList( "te1", "te2" ), Arrays.asList( "te3" ) ), trackedEntityChunks );
+        assertEquals( Arrays.asList( Arrays.asList( "ev1" ) ), eventChunks );
+    }
+
+    @Test
+    void shouldReadNothingForMissingType()
+        throws IOException
+    {
+        try ( TrackerImportSpool.Writer writer = spool.openWriter( jobId ) )
+        {
+            writer.write( Arrays.asList( trackedEntity( "te1" ) ) );
+            writer.commit();
+        }
+
+        List<Event> events = new ArrayList<>();
+        spool.readChunks( jobId, TrackerType.EVENT, Event.class, events::addAll );
+
+        assertTrue( events.isEmpty() );
+    }
+
+    @Test
+    void shouldDiscardPayloadWhenWriterIsNotCommitted()
+        throws IOException
+    {
+        try ( TrackerImportSpool.Writer writer = spool.openWriter( jobId ) )
+        {
+            writer.write( Arrays.asList( trackedEntity( "te1" ) ) );
+        }
+
+        assertFalse( spool.exists( jobId ) );
+    }
+
+    @Test
+    void shouldDeletePayload()
+        throws IOException
+    {
+        try ( TrackerImportSpool.Writer writer = spool.openWriter( jobId ) )
+        {
+            writer.write( Arrays.asList( trackedEntity( "te1" ) ) );
+            writer.commit();
+        }
+
+        spool.delete( jobId );
+
+        assertFalse( spool.exists( jobId ) );
+    }
+
+    @Test
+    void shouldRejectInvalidJobId()
+    {
+        assertThrows( IllegalArgumentException.class, () -> spool.openWriter( "../etc" ) );
+    }
+
+    private static TrackedEntity trackedEntity( String uid )
+    {
+        return TrackedEntity.builder().trackedEntity( uid ).trackedEntityType( "type" ).build();
+    }
+
+    private static Event event( String uid )
+    {
+        return Event.builder().event( uid ).build();
+    }
+}
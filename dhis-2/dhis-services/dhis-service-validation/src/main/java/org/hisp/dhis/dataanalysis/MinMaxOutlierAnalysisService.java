@@ -30,19 +30,31 @@ package org.hisp.dhis.dataanalysis;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.datavalue.DeflatedDataValue;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.jdbc.batchhandler.MinMaxDataElementBatchHandler;
 import org.hisp.dhis.minmax.MinMaxDataElement;
 import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.NoopJobProgress;
 import org.hisp.dhis.system.util.MathUtils;
 import org.hisp.quick.BatchHandler;
 import org.hisp.quick.BatchHandlerFactory;
@@ -50,6 +62,7 @@ import org.joda.time.DateTime;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * @author Lars Helge Overland
@@ -69,16 +82,21 @@ public class MinMaxOutlierAnalysisService
 
     private final BatchHandlerFactory batchHandlerFactory;
 
+    private final DhisConfigurationProvider config;
+
     public MinMaxOutlierAnalysisService( DataAnalysisStore dataAnalysisStore,
-        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory )
+        MinMaxDataElementService minMaxDataElementService, BatchHandlerFactory batchHandlerFactory,
+        DhisConfigurationProvider config )
     {
         checkNotNull( dataAnalysisStore );
         checkNotNull( minMaxDataElementService );
         checkNotNull( batchHandlerFactory );
+        checkNotNull( config );
 
         this.dataAnalysisStore = dataAnalysisStore;
         this.minMaxDataElementService = minMaxDataElementService;
         this.batchHandlerFactory = batchHandlerFactory;
+        this.config = config;
     }
 
     // -------------------------------------------------------------------------
@@ -108,62 +126,222 @@ public class MinMaxOutlierAnalysisService
     @Override
     public void generateMinMaxValues( OrganisationUnit parent, Collection<DataElement> dataElements,
         Double stdDevFactor )
+    {
+        generateMinMaxValues( parent, dataElements, stdDevFactor, NoopJobProgress.INSTANCE );
+    }
+
+    @Override
+    public void generateMinMaxValues( OrganisationUnit parent, Collection<DataElement> dataElements,
+        Double stdDevFactor, JobProgress progress )
     {
         log.info( "Starting min-max value generation, no of data elements: " + dataElements.size() + ", parent: "
             + parent.getUid() );
 
         Date from = new DateTime( 1, 1, 1, 1, 1 ).toDate();
 
+        progress.startingProcess( "Min-max value generation" );
+        progress.startingStage( "Deleting existing min-max values" );
         minMaxDataElementService.removeMinMaxDataElements( dataElements, parent );
-
-        log.debug( "Deleted existing min-max values" );
+        progress.completedStage( null );
 
         List<String> parentPaths = Lists.newArrayList( parent.getPath() );
 
-        BatchHandler<MinMaxDataElement> batchHandler = batchHandlerFactory
-            .createBatchHandler( MinMaxDataElementBatchHandler.class ).init();
+        List<DataElement> numericDataElements = dataElements.stream()
+            .filter( de -> de.getValueType().isNumeric() )
+            .collect( Collectors.toList() );
+
+        int partitionSize = Math.max( 1,
+            Integer.parseInt( config.getProperty( ConfigurationKey.MINMAX_GENERATION_PARTITION_SIZE ) ) );
+        int parallelism = Integer.parseInt( config.getProperty( ConfigurationKey.MINMAX_GENERATION_PARALLELISM ) );
 
-        for ( DataElement dataElement : dataElements )
+        List<MinMaxPartition> partitions = Lists.partition( numericDataElements, partitionSize ).stream()
+            .map( MinMaxPartition::new )
+            .collect( Collectors.toList() );
+
+        progress.startingStage( "Generating min-max values for " + numericDataElements.size() + " data elements",
+            partitions.size() );
+
+        RuntimeException failure = generateMinMaxValues( partitions, parallelism, progress,
+            partition -> generateMinMaxValues( partition, parentPaths, from, stdDevFactor ) );
+
+        if ( failure != null )
         {
-            if ( dataElement.getValueType().isNumeric() )
-            {
-                Set<CategoryOptionCombo> categoryOptionCombos = dataElement.getCategoryOptionCombos();
+            progress.failedStage( failure );
+            progress.failedProcess( failure );
+            throw failure;
+        }
 
-                List<DataAnalysisMeasures> measuresList = dataAnalysisStore.getDataAnalysisMeasures( dataElement,
-                    categoryOptionCombos, parentPaths, from );
+        progress.completedStage( null );
+        progress.completedProcess( null );
 
-                for ( DataAnalysisMeasures measures : measuresList )
-                {
-                    int min = (int) Math.round(
-                        MathUtils.getLowBound( measures.getStandardDeviation(), stdDevFactor, measures.getAverage() ) );
-                    int max = (int) Math.round( MathUtils.getHighBound( measures.getStandardDeviation(), stdDevFactor,
-                        measures.getAverage() ) );
+        log.info( "Min-max value generation done" );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Generates the min-max values of the given partitions on a pool of the
+     * given number of threads, reporting each partition as a work item of the
+     * current stage. No further partitions are started once a partition failed
+     * or cancellation was requested.
+     *
+     * @return the first failure, or null if all partitions were generated.
+     */
+    private RuntimeException generateMinMaxValues( List<MinMaxPartition> partitions, int parallelism,
+        JobProgress progress, Consumer<MinMaxPartition> generate )
+    {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
 
-                    switch ( dataElement.getValueType() )
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max( 1, Math.min( parallelism, partitions.size() ) ),
+            new ThreadFactoryBuilder().setNameFormat( "minmax-generation-%d" ).setDaemon( true ).build() );
+
+        try
+        {
+            List<Future<?>> futures = partitions.stream()
+                .map( partition -> executor.submit( () -> {
+                    if ( failure.get() != null || progress.isCancellationRequested() )
                     {
-                    case INTEGER_POSITIVE:
-                    case INTEGER_ZERO_OR_POSITIVE:
-                        min = Math.max( 0, min ); // Cannot be < 0
-                        break;
-                    case INTEGER_NEGATIVE:
-                        max = Math.min( 0, max ); // Cannot be > 0
-                        break;
+                        return;
                     }
 
-                    OrganisationUnit orgUnit = new OrganisationUnit();
-                    orgUnit.setId( measures.getOrgUnitId() );
+                    progress.startingWorkItem( partition.getDescription() );
+
+                    try
+                    {
+                        generate.accept( partition );
+                        progress.completedWorkItem( null );
+                    }
+                    catch ( RuntimeException ex )
+                    {
+                        failure.compareAndSet( null, ex );
+                        progress.failedWorkItem( ex );
+                    }
+                } ) )
+                .collect( Collectors.toList() );
 
-                    CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
-                    categoryOptionCombo.setId( measures.getCategoryOptionComboId() );
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet( null, new CancellationException( "Min-max value generation was interrupted" ) );
+        }
+        catch ( ExecutionException ex )
+        {
+            failure.compareAndSet( null, new IllegalStateException( ex.getCause() ) );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
 
-                    batchHandler.addObject(
-                        new MinMaxDataElement( dataElement, orgUnit, categoryOptionCombo, min, max, true ) );
+        return failure.get();
+    }
+
+    /**
+     * Calculates the measures of all data elements of the given partition
+     * with a single statement and writes the resulting min-max values through
+     * a batch handler of its own, so that partitions can be processed in
+     * parallel.
+     */
+    private void generateMinMaxValues( MinMaxPartition partition, List<String> parentPaths, Date from,
+        Double stdDevFactor )
+    {
+        List<DataAnalysisMeasures> measuresList = dataAnalysisStore.getDataAnalysisMeasures(
+            partition.getDataElements().values(), partition.getCategoryOptionCombos(), parentPaths, from );
+
+        BatchHandler<MinMaxDataElement> batchHandler = batchHandlerFactory
+            .createBatchHandler( MinMaxDataElementBatchHandler.class ).init();
+
+        try
+        {
+            for ( DataAnalysisMeasures measures : measuresList )
+            {
+                DataElement dataElement = partition.getDataElements().get( measures.getDataElementId() );
+
+                if ( dataElement != null && partition.hasCategoryOptionCombo( measures ) )
+                {
+                    batchHandler.addObject( getMinMaxDataElement( dataElement, measures, stdDevFactor ) );
                 }
             }
         }
+        finally
+        {
+            batchHandler.flush();
+        }
+    }
 
-        log.info( "Min-max value generation done" );
+    private MinMaxDataElement getMinMaxDataElement( DataElement dataElement, DataAnalysisMeasures measures,
+        Double stdDevFactor )
+    {
+        int min = (int) Math.round(
+            MathUtils.getLowBound( measures.getStandardDeviation(), stdDevFactor, measures.getAverage() ) );
+        int max = (int) Math.round( MathUtils.getHighBound( measures.getStandardDeviation(), stdDevFactor,
+            measures.getAverage() ) );
+
+        switch ( dataElement.getValueType() )
+        {
+        case INTEGER_POSITIVE:
+        case INTEGER_ZERO_OR_POSITIVE:
+            min = Math.max( 0, min ); // Cannot be < 0
+            break;
+        case INTEGER_NEGATIVE:
+            max = Math.min( 0, max ); // Cannot be > 0
+            break;
+        }
 
-        batchHandler.flush();
+        OrganisationUnit orgUnit = new OrganisationUnit();
+        orgUnit.setId( measures.getOrgUnitId() );
+
+        CategoryOptionCombo categoryOptionCombo = new CategoryOptionCombo();
+        categoryOptionCombo.setId( measures.getCategoryOptionComboId() );
+
+        return new MinMaxDataElement( dataElement, orgUnit, categoryOptionCombo, min, max, true );
+    }
+
+    /**
+     * A partition of data elements for which min-max values are calculated
+     * together. The category option combos of the data elements are resolved
+     * when the partition is created, as partitions may be processed outside of
+     * the Hibernate session of the caller.
+     */
+    @Getter
+    private static final class MinMaxPartition
+    {
+        private final Map<Long, DataElement> dataElements = new LinkedHashMap<>();
+
+        private final Set<CategoryOptionCombo> categoryOptionCombos = new HashSet<>();
+
+        private final Map<Long, Set<Long>> categoryOptionComboIds = new HashMap<>();
+
+        MinMaxPartition( List<DataElement> dataElements )
+        {
+            for ( DataElement dataElement : dataElements )
+            {
+                Set<CategoryOptionCombo> cocs = dataElement.getCategoryOptionCombos();
+
+                this.dataElements.put( dataElement.getId(), dataElement );
+                this.categoryOptionCombos.addAll( cocs );
+                this.categoryOptionComboIds.put( dataElement.getId(),
+                    cocs.stream().map( CategoryOptionCombo::getId ).collect( Collectors.toSet() ) );
+            }
+        }
+
+        boolean hasCategoryOptionCombo( DataAnalysisMeasures measures )
+        {
+            return categoryOptionComboIds.get( measures.getDataElementId() )
+                .contains( measures.getCategoryOptionComboId() );
+        }
+
+        String getDescription()
+        {
+            return "Data elements: " + dataElements.size();
+        }
     }
 }
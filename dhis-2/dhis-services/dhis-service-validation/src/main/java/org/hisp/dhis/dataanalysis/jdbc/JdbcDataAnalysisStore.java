@@ -95,13 +95,6 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         String catOptionComboIds = TextUtils.getCommaDelimitedString( getIdentifiers( categoryOptionCombos ) );
 
-        String matchPaths = "(";
-        for ( String path : parentPaths )
-        {
-            matchPaths += "ou.path like '" + path + "%' or ";
-        }
-        matchPaths = TextUtils.removeLastOr( matchPaths ) + ") ";
-
         String sql = "select dv.sourceid, dv.categoryoptioncomboid, " +
             "avg(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as average, " +
             "stddev_pop(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as standarddeviation " +
@@ -111,7 +104,7 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
             "where dv.dataelementid = " + dataElement.getId() + " " +
             "and dv.categoryoptioncomboid in (" + catOptionComboIds + ") " +
             "and pe.startdate >= '" + DateUtils.getMediumDateString( from ) + "' " +
-            "and " + matchPaths +
+            "and " + getPathMatch( parentPaths ) +
             "and dv.deleted is false " +
             "group by dv.sourceid, dv.categoryoptioncomboid";
 
@@ -134,6 +127,46 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
         return measures;
     }
 
+    @Override
+    public List<DataAnalysisMeasures> getDataAnalysisMeasures( Collection<DataElement> dataElements,
+        Collection<CategoryOptionCombo> categoryOptionCombos, Collection<String> parentPaths, Date from )
+    {
+        List<DataAnalysisMeasures> measures = new ArrayList<>();
+
+        if ( dataElements.isEmpty() || categoryOptionCombos.isEmpty() || parentPaths.isEmpty() )
+        {
+            return measures;
+        }
+
+        String dataElementIds = getCommaDelimitedString( getIdentifiers( dataElements ) );
+        String catOptionComboIds = getCommaDelimitedString( getIdentifiers( categoryOptionCombos ) );
+
+        String sql = "select dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, " +
+            "avg(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as average, " +
+            "stddev_pop(cast(dv.value as " + statementBuilder.getDoubleColumnType() + ")) as standarddeviation " +
+            "from datavalue dv " +
+            "inner join organisationunit ou on ou.organisationunitid = dv.sourceid " +
+            "inner join period pe on dv.periodid = pe.periodid " +
+            "where dv.dataelementid in (" + dataElementIds + ") " +
+            "and dv.categoryoptioncomboid in (" + catOptionComboIds + ") " +
+            "and pe.startdate >= '" + DateUtils.getMediumDateString( from ) + "' " +
+            "and " + getPathMatch( parentPaths ) +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid";
+
+        jdbcTemplate.query( sql, rs -> {
+            double stdDev = rs.getDouble( 5 );
+
+            if ( stdDev != 0.0 )
+            {
+                measures.add( new DataAnalysisMeasures( rs.getLong( 1 ), rs.getLong( 2 ), rs.getLong( 3 ),
+                    rs.getDouble( 4 ), stdDev ) );
+            }
+        } );
+
+        return measures;
+    }
+
     @Override
     public List<DeflatedDataValue> getMinMaxViolations( Collection<DataElement> dataElements,
         Collection<CategoryOptionCombo> categoryOptionCombos, Collection<Period> periods,
@@ -298,4 +331,18 @@ public class JdbcDataAnalysisStore implements DataAnalysisStore
 
         return jdbcTemplate.query( sql, new DeflatedDataValueNameMinMaxRowMapper( null, null ) );
     }
+
+    /**
+     * Returns a condition matching organisation units which are equal or
+     * subordinate to any of the given parent paths.
+     */
+    private String getPathMatch( Collection<String> parentPaths )
+    {
+        String matchPaths = "(";
+        for ( String path : parentPaths )
+        {
+            matchPaths += "ou.path like '" + path + "%' or ";
+        }
+        return TextUtils.removeLastOr( matchPaths ) + ") ";
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.outlierdetection.jobs;
+
+import java.util.Date;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.outlierdetection.service.OutlierStatisticsManager;
+import org.hisp.dhis.scheduling.Job;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.util.Clock;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job which updates the data value statistics used by z-score outlier
+ * detection. Only the statistics of data values created or updated since the
+ * last successful run are recomputed. The first run builds all statistics.
+ * <p>
+ * After data synchronization, hard deletes or database maintenance, remove the
+ * {@link SettingKey#LAST_SUCCESSFUL_OUTLIER_STATISTICS_UPDATE} system setting
+ * to rebuild all statistics on the next run.
+ */
+@Slf4j
+@Component( "outlierStatisticsJob" )
+@RequiredArgsConstructor
+public class OutlierStatisticsJob implements Job
+{
+    private final OutlierStatisticsManager outlierStatisticsManager;
+
+    private final SystemSettingManager systemSettingManager;
+
+    @Override
+    public JobType getJobType()
+    {
+        return JobType.OUTLIER_STATISTICS;
+    }
+
+    @Override
+    public void execute( JobConfiguration jobConfiguration, JobProgress progress )
+    {
+        final Clock clock = new Clock( log ).startClock();
+        final Date startTime = new Date( clock.getStartTime() );
+        final Date lastUpdate = systemSettingManager
+            .getDateSetting( SettingKey.LAST_SUCCESSFUL_OUTLIER_STATISTICS_UPDATE );
+
+        progress.startingProcess( "Update outlier statistics" );
+        progress.startingStage( lastUpdate == null
+            ? "Building all outlier statistics"
+            : "Updating outlier statistics of data values updated since " + lastUpdate );
+        Integer rows = progress.runStage( null, () -> outlierStatisticsManager.updateStatistics( lastUpdate ) );
+
+        if ( rows != null )
+        {
+            systemSettingManager.saveSystemSetting( SettingKey.LAST_SUCCESSFUL_OUTLIER_STATISTICS_UPDATE, startTime );
+
+            progress.completedProcess( "Updated " + rows + " outlier statistics: " + clock.time() );
+        }
+        else
+        {
+            progress.failedProcess( "Outlier statistics update failed" );
+        }
+    }
+}
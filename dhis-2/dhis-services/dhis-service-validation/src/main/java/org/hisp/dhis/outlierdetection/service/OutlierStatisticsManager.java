@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.outlierdetection.service;
+
+import java.util.Date;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.util.TextUtils;
+import org.hisp.dhis.system.util.MathUtils;
+import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Manager for the {@code datavaluestatistics} table, which holds the count,
+ * sum, population standard deviation and median of the numeric data values per
+ * data element, organisation unit, category option combo and attribute option
+ * combo. The mean used by z-score outlier detection is derived from count and
+ * sum.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OutlierStatisticsManager
+{
+    private static final String TABLE_NAME = "datavaluestatistics";
+
+    private static final String CHANGED_TABLE_NAME = "datavaluestatistics_changed";
+
+    private static final String KEY_COLUMNS = "dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Updates the statistics. If a last updated date is given, only the
+     * statistics of the combinations with data values created or updated
+     * since that date are recomputed. Combinations whose data values have all
+     * been deleted since are removed. Otherwise all statistics are rebuilt.
+     * <p>
+     * The changed combinations are collected once into a temporary table,
+     * using the indexes on the created and last updated columns of data
+     * values, and then used to delete and recompute their statistics.
+     * <p>
+     * An incremental update cannot see data values which were hard deleted,
+     * nor data values written with both created and last updated dates before
+     * the given date, for instance by data synchronization or direct database
+     * maintenance. A full rebuild is required after such changes.
+     *
+     * @param since the date of the last update, or null to rebuild all
+     *        statistics.
+     * @return the number of statistics rows written.
+     */
+    @Transactional
+    public int updateStatistics( Date since )
+    {
+        if ( since == null )
+        {
+            jdbcTemplate.update( "delete from " + TABLE_NAME );
+
+            return jdbcTemplate.update( getInsertSql( false ) );
+        }
+
+        int changed = jdbcTemplate.update( "create temporary table " + CHANGED_TABLE_NAME + " as " +
+            "select " + KEY_COLUMNS + " from datavalue where lastupdated >= ? " +
+            "union " +
+            "select " + KEY_COLUMNS + " from datavalue where created >= ?", since, since );
+
+        log.debug( "Found {} changed outlier statistics", changed );
+
+        try
+        {
+            jdbcTemplate.execute( "analyze " + CHANGED_TABLE_NAME );
+
+            int deleted = jdbcTemplate.update( "delete from " + TABLE_NAME + " s " +
+                "using " + CHANGED_TABLE_NAME + " c " +
+                "where s.dataelementid = c.dataelementid " +
+                "and s.sourceid = c.sourceid " +
+                "and s.categoryoptioncomboid = c.categoryoptioncomboid " +
+                "and s.attributeoptioncomboid = c.attributeoptioncomboid" );
+
+            log.debug( "Deleted {} outdated outlier statistics", deleted );
+
+            return jdbcTemplate.update( getInsertSql( true ) );
+        }
+        finally
+        {
+            jdbcTemplate.execute( "drop table if exists " + CHANGED_TABLE_NAME );
+        }
+    }
+
+    /**
+     * Returns SQL computing and inserting statistics from data values.
+     *
+     * @param changedOnly whether to only compute statistics for the keys in
+     *        the temporary table of changed keys.
+     */
+    private String getInsertSql( boolean changedOnly )
+    {
+        final String value = "cast(dv.value as double precision)";
+        final String valueTypes = TextUtils.getQuotedCommaDelimitedString(
+            ObjectUtils.asStringList( ValueType.NUMERIC_TYPES ) );
+
+        // @formatter:off
+        return "insert into " + TABLE_NAME + " (" + KEY_COLUMNS + ", " +
+                "count, sum, stddev, median, lastupdated) " +
+            "select dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid, " +
+                "count(*), sum(" + value + "), stddev_pop(" + value + "), " +
+                "percentile_cont(0.5) within group(order by " + value + "), now() " +
+            "from datavalue dv " +
+            "inner join dataelement de on dv.dataelementid = de.dataelementid " +
+            (changedOnly ? "inner join " + CHANGED_TABLE_NAME + " c " +
+                "on dv.dataelementid = c.dataelementid " +
+                "and dv.sourceid = c.sourceid " +
+                "and dv.categoryoptioncomboid = c.categoryoptioncomboid " +
+                "and dv.attributeoptioncomboid = c.attributeoptioncomboid " : "") +
+            "where de.valuetype in (" + valueTypes + ") " +
+            "and dv.value ~* '" + MathUtils.NUMERIC_LENIENT_REGEXP + "' " +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+        // @formatter:on
+    }
+}
@@ -38,12 +38,16 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.hisp.dhis.calendar.Calendar;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.outlierdetection.Order;
 import org.hisp.dhis.outlierdetection.OutlierDetectionAlgorithm;
 import org.hisp.dhis.outlierdetection.OutlierDetectionRequest;
 import org.hisp.dhis.outlierdetection.OutlierValue;
 import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.setting.SettingKey;
+import org.hisp.dhis.setting.SystemSettingManager;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -69,9 +73,16 @@ public class ZScoreOutlierDetectionManager
 {
     private final NamedParameterJdbcTemplate jdbcTemplate;
 
-    public ZScoreOutlierDetectionManager( NamedParameterJdbcTemplate jdbcTemplate )
+    private final DhisConfigurationProvider config;
+
+    private final SystemSettingManager systemSettingManager;
+
+    public ZScoreOutlierDetectionManager( NamedParameterJdbcTemplate jdbcTemplate, DhisConfigurationProvider config,
+        SystemSettingManager systemSettingManager )
     {
         this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.systemSettingManager = systemSettingManager;
     }
 
     /**
@@ -96,6 +107,10 @@ public class ZScoreOutlierDetectionManager
             ? "middle_value_abs_dev"
             : request.getOrderBy().getKey();
 
+        final String statsSql = isUseStatistics( request )
+            ? getStatisticsSql( modifiedZ )
+            : getComputeStatisticsSql( middle_stats_calc, ouPathClause, dataStartDateClause, dataEndDateClause );
+
         // @formatter:off
         final String sql =
             "select dvs.de_uid, dvs.ou_uid, dvs.coc_uid, dvs.aoc_uid, " +
@@ -129,22 +144,7 @@ public class ZScoreOutlierDetectionManager
                 "and dv.deleted is false" +
             ") as dvs " +
             // Mean or Median and std dev mapping query
-            "inner join (" +
-                "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
-                "dv.categoryoptioncomboid as categoryoptioncomboid, " +
-                "dv.attributeoptioncomboid as attributeoptioncomboid, " +
-                middle_stats_calc +" as middle_value, "+
-                "stddev_pop(dv.value::double precision) as std_dev " +
-                "from datavalue dv " +
-                "inner join period pe on dv.periodid = pe.periodid " +
-                "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
-                "where dv.dataelementid in (:data_element_ids) " +
-                dataStartDateClause +
-                dataEndDateClause +
-                "and " + ouPathClause + " " +
-                "and dv.deleted is false " +
-                "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid" +
-            ") as stats " +
+            "inner join (" + statsSql + ") as stats " +
             // Query join
             "on dvs.dataelementid = stats.dataelementid " +
             "and dvs.sourceid = stats.sourceid " +
@@ -184,6 +184,61 @@ public class ZScoreOutlierDetectionManager
         }
     }
 
+    /**
+     * Indicates whether to read statistics from the statistics table, which
+     * covers all data values, instead of computing them for the request.
+     *
+     * @param request the {@link OutlierDetectionRequest}.
+     * @return true if the precomputed statistics should be used.
+     */
+    private boolean isUseStatistics( OutlierDetectionRequest request )
+    {
+        return config.isEnabled( ConfigurationKey.OUTLIER_DETECTION_STATISTICS_ENABLED )
+            && request.getDataStartDate() == null && request.getDataEndDate() == null
+            && systemSettingManager.getDateSetting( SettingKey.LAST_SUCCESSFUL_OUTLIER_STATISTICS_UPDATE ) != null;
+    }
+
+    /**
+     * Returns SQL which computes the mean or median and the standard deviation
+     * from the data values matching the request.
+     */
+    private String getComputeStatisticsSql( String middleStatsCalc, String ouPathClause, String dataStartDateClause,
+        String dataEndDateClause )
+    {
+        // @formatter:off
+        return "select dv.dataelementid as dataelementid, dv.sourceid as sourceid, " +
+            "dv.categoryoptioncomboid as categoryoptioncomboid, " +
+            "dv.attributeoptioncomboid as attributeoptioncomboid, " +
+            middleStatsCalc + " as middle_value, " +
+            "stddev_pop(dv.value::double precision) as std_dev " +
+            "from datavalue dv " +
+            "inner join period pe on dv.periodid = pe.periodid " +
+            "inner join organisationunit ou on dv.sourceid = ou.organisationunitid " +
+            "where dv.dataelementid in (:data_element_ids) " +
+            dataStartDateClause +
+            dataEndDateClause +
+            "and " + ouPathClause + " " +
+            "and dv.deleted is false " +
+            "group by dv.dataelementid, dv.sourceid, dv.categoryoptioncomboid, dv.attributeoptioncomboid";
+        // @formatter:on
+    }
+
+    /**
+     * Returns SQL which reads the mean or median and the population standard
+     * deviation from the statistics maintained by the
+     * {@link OutlierStatisticsManager}.
+     */
+    private String getStatisticsSql( boolean modifiedZ )
+    {
+        // @formatter:off
+        return "select s.dataelementid, s.sourceid, s.categoryoptioncomboid, s.attributeoptioncomboid, " +
+            (modifiedZ ? "s.median" : "s.sum / s.count") + " as middle_value, " +
+            "s.stddev as std_dev " +
+            "from datavaluestatistics s " +
+            "where s.dataelementid in (:data_element_ids)";
+        // @formatter:on
+    }
+
     /**
      * Returns a {@link RowMapper} for {@link OutlierValue}.
      *
@@ -28,6 +28,13 @@
 package org.hisp.dhis.dataanalysis;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -50,6 +57,7 @@ import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.period.MonthlyPeriodType;
 import org.hisp.dhis.period.Period;
+import org.hisp.dhis.scheduling.JobProgress;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -202,4 +210,58 @@ class MinMaxOutlierAnalysisServiceTest extends DhisTest
             dataElementsA, periods, null, from );
         assertEquals( 2, result.size() );
     }
+
+    @Test
+    void testGenerateMinMaxValues()
+    {
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodA, organisationUnitA, "5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodB, organisationUnitA, "-5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodA, organisationUnitA, "10", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementB, periodB, organisationUnitA, "20", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementC, periodA, organisationUnitA, "7", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementC, periodB, organisationUnitA, "7", categoryOptionCombo ) );
+
+        Set<DataElement> dataElements = new HashSet<>( dataElementsA );
+        dataElements.add( dataElementC );
+
+        minMaxOutlierAnalysisService.generateMinMaxValues( organisationUnitA, dataElements, 2.0 );
+
+        MinMaxDataElement minMaxA = minMaxDataElementService.getMinMaxDataElement( organisationUnitA, dataElementA,
+            categoryOptionCombo );
+        MinMaxDataElement minMaxB = minMaxDataElementService.getMinMaxDataElement( organisationUnitA, dataElementB,
+            categoryOptionCombo );
+
+        assertNotNull( minMaxA );
+        assertEquals( -10, minMaxA.getMin() );
+        assertEquals( 10, minMaxA.getMax() );
+        assertNotNull( minMaxB );
+        assertEquals( 5, minMaxB.getMin() );
+        assertEquals( 25, minMaxB.getMax() );
+        assertNull( minMaxDataElementService.getMinMaxDataElement( organisationUnitA, dataElementC,
+            categoryOptionCombo ) );
+    }
+
+    @Test
+    void testGenerateMinMaxValuesReportsProgress()
+    {
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodA, organisationUnitA, "5", categoryOptionCombo ) );
+        dataValueService
+            .addDataValue( createDataValue( dataElementA, periodB, organisationUnitA, "-5", categoryOptionCombo ) );
+
+        JobProgress progress = mock( JobProgress.class );
+
+        minMaxOutlierAnalysisService.generateMinMaxValues( organisationUnitA, dataElementsA, 2.0, progress );
+
+        verify( progress ).startingWorkItem( anyString() );
+        verify( progress ).completedWorkItem( null );
+        verify( progress, never() ).failedWorkItem( any( Exception.class ) );
+        verify( progress ).completedProcess( null );
+    }
 }
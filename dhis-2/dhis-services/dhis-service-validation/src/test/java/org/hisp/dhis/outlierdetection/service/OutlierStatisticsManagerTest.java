@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.outlierdetection.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests the {@link OutlierStatisticsManager}.
+ */
+@ExtendWith( MockitoExtension.class )
+class OutlierStatisticsManagerTest
+{
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private OutlierStatisticsManager subject;
+
+    @BeforeEach
+    void setUp()
+    {
+        subject = new OutlierStatisticsManager( jdbcTemplate );
+    }
+
+    @Test
+    void testUpdateAllStatistics()
+    {
+        when( jdbcTemplate.update( anyString() ) ).thenReturn( 3, 5 );
+
+        assertEquals( 5, subject.updateStatistics( null ) );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate, times( 2 ) ).update( sql.capture() );
+        List<String> statements = sql.getAllValues();
+        assertEquals( "delete from datavaluestatistics", statements.get( 0 ) );
+        assertTrue( statements.get( 1 ).startsWith( "insert into datavaluestatistics" ) );
+        assertTrue( statements.get( 1 ).contains( "percentile_cont(0.5)" ) );
+        assertFalse( statements.get( 1 ).contains( "lastupdated >= ?" ) );
+    }
+
+    @Test
+    void testUpdateChangedStatistics()
+    {
+        Date since = new Date();
+        when( jdbcTemplate.update( anyString(), eq( since ), eq( since ) ) ).thenReturn( 2 );
+        when( jdbcTemplate.update( anyString() ) ).thenReturn( 2, 4 );
+
+        assertEquals( 4, subject.updateStatistics( since ) );
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate ).update( sql.capture(), eq( since ), eq( since ) );
+        assertTrue( sql.getValue().startsWith( "create temporary table datavaluestatistics_changed as select" ) );
+        assertTrue( sql.getValue().contains( "from datavalue where lastupdated >= ? union select" ) );
+        assertTrue( sql.getValue().endsWith( "from datavalue where created >= ?" ) );
+
+        sql = ArgumentCaptor.forClass( String.class );
+        verify( jdbcTemplate, times( 2 ) ).update( sql.capture() );
+        List<String> statements = sql.getAllValues();
+        assertTrue(
+            statements.get( 0 ).startsWith( "delete from datavaluestatistics s using datavaluestatistics_changed" ) );
+        assertTrue( statements.get( 1 ).startsWith( "insert into datavaluestatistics" ) );
+        assertTrue( statements.get( 1 ).contains( "inner join datavaluestatistics_changed c" ) );
+        assertTrue( statements.get( 1 ).contains( "stddev_pop(" ) );
+        assertFalse( statements.get( 1 ).contains( "lastupdated >= ?" ) );
+        statements.forEach( statement -> assertFalse( statement.contains( "not exists" ) ) );
+
+        verify( jdbcTemplate ).execute( "drop table if exists datavaluestatistics_changed" );
+    }
+
+    @Test
+    void testUpdateChangedStatisticsDropsChangedKeysOnFailure()
+    {
+        Date since = new Date();
+        when( jdbcTemplate.update( anyString(), eq( since ), eq( since ) ) ).thenReturn( 2 );
+        when( jdbcTemplate.update( anyString() ) ).thenThrow( new QueryTimeoutException( "timeout" ) );
+
+        assertThrows( QueryTimeoutException.class, () -> subject.updateStatistics( since ) );
+
+        verify( jdbcTemplate ).execute( "drop table if exists datavaluestatistics_changed" );
+    }
+}
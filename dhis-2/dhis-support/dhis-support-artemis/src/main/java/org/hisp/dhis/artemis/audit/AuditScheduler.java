@@ -28,9 +28,10 @@
 package org.hisp.dhis.artemis.audit;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.DelayQueue;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -43,8 +44,10 @@ import org.springframework.stereotype.Component;
  * and should be used only in very high-traffic environments. Note that upon a
  * JVM crash, the Audit messages in this queue will be lost.
  *
- * The buffer is based on a {@link DelayQueue} where messages are buffered for 5
- * seconds, before being de-queued to the Artemis broker.
+ * Messages are buffered for 5 seconds, before being de-queued to the Artemis
+ * broker. The buffer is a {@link LinkedHashMap} keyed by message, which
+ * de-duplicates messages in constant time and keeps them in the order they
+ * were added, hence in the order they expire.
  *
  * To avoid excessive memory pressure, max 200 messages can stay in the queue:
  * in-excess messages are processed immediately.
@@ -61,7 +64,10 @@ public class AuditScheduler
 
     private final AuditProducerSupplier auditProducerSupplier;
 
-    private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
+    /**
+     * Buffered messages mapped to the time in milliseconds they were added.
+     */
+    private final Map<Audit, Long> delayed = new LinkedHashMap<>();
 
     public AuditScheduler( AuditProducerSupplier auditProducerSupplier )
     {
@@ -75,28 +81,53 @@ public class AuditScheduler
             log.debug( String.format( "add Audit object with content %s to delayed queue", auditItem.toLog() ) );
         }
 
-        final QueuedAudit postponed = new QueuedAudit( auditItem, DELAY );
+        boolean publish;
 
-        if ( delayed.size() >= MAX_SIZE )
+        synchronized ( delayed )
         {
-            auditProducerSupplier.publish( auditItem );
-        }
-        else
-        {
-            if ( !delayed.contains( postponed ) )
+            if ( delayed.containsKey( auditItem ) )
             {
-                delayed.offer( postponed );
+                return;
             }
+
+            publish = delayed.size() >= MAX_SIZE;
+
+            if ( !publish )
+            {
+                delayed.put( auditItem, System.currentTimeMillis() );
+            }
+        }
+
+        if ( publish )
+        {
+            auditProducerSupplier.publish( auditItem );
         }
     }
 
     @Scheduled( fixedDelay = 5_000 )
     public void process()
     {
-        final Collection<QueuedAudit> expired = new ArrayList<>();
+        final List<Audit> expired = new ArrayList<>();
+        final long expiredBefore = System.currentTimeMillis() - DELAY;
 
-        delayed.drainTo( expired );
+        synchronized ( delayed )
+        {
+            Iterator<Map.Entry<Audit, Long>> iterator = delayed.entrySet().iterator();
+
+            while ( iterator.hasNext() )
+            {
+                Map.Entry<Audit, Long> entry = iterator.next();
+
+                if ( entry.getValue() > expiredBefore )
+                {
+                    break;
+                }
+
+                expired.add( entry.getKey() );
+                iterator.remove();
+            }
+        }
 
-        expired.stream().map( QueuedAudit::getAuditItem ).forEach( auditProducerSupplier::publish );
+        expired.forEach( auditProducerSupplier::publish );
     }
 }
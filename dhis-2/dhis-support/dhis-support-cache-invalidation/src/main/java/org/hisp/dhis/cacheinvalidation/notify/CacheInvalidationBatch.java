@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.notify;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Changes of a single transaction which require cache eviction on other
+ * instances, encoded as notification payloads. A payload starts with a line
+ * holding the id of the publishing instance, followed by one line per
+ * operation and entity name or collection role in the form
+ * {@code operation|name|id,id,...}.
+ * <p>
+ * Identifiers which are not numbers, and identifiers beyond
+ * {@link #MAX_IDS} per operation and name, are replaced by {@link #ALL} which
+ * evicts all cached data of the entity or collection.
+ */
+public class CacheInvalidationBatch
+{
+    public static final char INSERT = 'I';
+
+    public static final char UPDATE = 'U';
+
+    public static final char DELETE = 'D';
+
+    public static final char COLLECTION = 'C';
+
+    public static final String ALL = "*";
+
+    static final int MAX_IDS = 100;
+
+    /**
+     * Maximum payload length in bytes, below the PostgreSQL limit of 8000.
+     */
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId;
+
+    private final Map<String, Set<String>> changes = new LinkedHashMap<>();
+
+    public CacheInvalidationBatch( String nodeId )
+    {
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeId()
+    {
+        return nodeId;
+    }
+
+    public boolean isEmpty()
+    {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Adds a change.
+     *
+     * @param operation the operation, one of {@link #INSERT},
+     *        {@link #UPDATE}, {@link #DELETE} or {@link #COLLECTION}.
+     * @param name the entity name, or the role of a collection.
+     * @param id the entity id, or the id of the collection owner.
+     */
+    public void add( char operation, String name, Serializable id )
+    {
+        Set<String> ids = changes.computeIfAbsent( operation + SEPARATOR + name, key -> new LinkedHashSet<>() );
+
+        if ( ids.contains( ALL ) )
+        {
+            return;
+        }
+
+        if ( !(id instanceof Long || id instanceof Integer) || ids.size() >= MAX_IDS )
+        {
+            ids.clear();
+            ids.add( ALL );
+        }
+        else
+        {
+            ids.add( id.toString() );
+        }
+    }
+
+    /**
+     * Returns the changes by operation and name in the form
+     * {@code operation|name}.
+     */
+    public Map<String, Set<String>> getChanges()
+    {
+        return Collections.unmodifiableMap( changes );
+    }
+
+    /**
+     * Encodes the changes as notification payloads, each within
+     * {@link #MAX_PAYLOAD_LENGTH}.
+     */
+    public List<String> toPayloads()
+    {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder( nodeId );
+
+        for ( Map.Entry<String, Set<String>> change : changes.entrySet() )
+        {
+            String line = "\n" + change.getKey() + SEPARATOR + String.join( ",", change.getValue() );
+
+            if ( length( payload ) + length( line ) > MAX_PAYLOAD_LENGTH && payload.length() > nodeId.length() )
+            {
+                payloads.add( payload.toString() );
+                payload = new StringBuilder( nodeId );
+            }
+
+            payload.append( line );
+        }
+
+        if ( payload.length() > nodeId.length() )
+        {
+            payloads.add( payload.toString() );
+        }
+
+        return payloads;
+    }
+
+    /**
+     * Decodes a notification payload.
+     *
+     * @param payload the payload.
+     * @return the batch of changes.
+     */
+    public static CacheInvalidationBatch parse( String payload )
+    {
+        String[] lines = payload.split( "\n" );
+        CacheInvalidationBatch batch = new CacheInvalidationBatch( lines[0] );
+
+        for ( int i = 1; i < lines.length; i++ )
+        {
+            int idsStart = lines[i].lastIndexOf( SEPARATOR );
+
+            if ( idsStart > 0 )
+            {
+                Set<String> ids = batch.changes.computeIfAbsent( lines[i].substring( 0, idsStart ),
+                    key -> new LinkedHashSet<>() );
+
+                Collections.addAll( ids, lines[i].substring( idsStart + 1 ).split( "," ) );
+            }
+        }
+
+        return batch;
+    }
+
+    private static int length( CharSequence text )
+    {
+        return text.toString().getBytes( StandardCharsets.UTF_8 ).length;
+    }
+}
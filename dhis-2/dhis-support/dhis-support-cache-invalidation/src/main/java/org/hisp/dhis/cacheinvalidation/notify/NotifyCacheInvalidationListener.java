@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.notify;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.metamodel.spi.MetamodelImplementor;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.cache.PaginationCacheManager;
+import org.hisp.dhis.cache.QueryCacheManager;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens for cache invalidation notifications published by other instances
+ * through {@link NotifyCacheInvalidationPublisher} and evicts the affected
+ * Hibernate second level cache regions, query caches and pagination caches.
+ * <p>
+ * Notifications are received on a dedicated database connection outside the
+ * connection pool. Notifications sent while the connection is down are lost,
+ * hence all caches are evicted when the connection is re-established.
+ */
+@Slf4j
+@Profile( { "!test", "!test-h2" } )
+@Conditional( value = NotifyCacheInvalidationEnabledCondition.class )
+@Component
+public class NotifyCacheInvalidationListener
+{
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    @Autowired
+    private PaginationCacheManager paginationCacheManager;
+
+    @Autowired
+    private QueryCacheManager queryCacheManager;
+
+    @Autowired
+    private NotifyCacheInvalidationPublisher publisher;
+
+    @Autowired
+    private DhisConfigurationProvider dhisConfig;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public synchronized void start()
+    {
+        if ( thread == null )
+        {
+            running = true;
+            thread = new Thread( this::listen, "cache-invalidation-listener" );
+            thread.setDaemon( true );
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop()
+    {
+        running = false;
+
+        if ( thread != null )
+        {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void listen()
+    {
+        boolean reconnect = false;
+
+        while ( running )
+        {
+            try ( Connection connection = DriverManager.getConnection(
+                dhisConfig.getProperty( ConfigurationKey.CONNECTION_URL ),
+                dhisConfig.getProperty( ConfigurationKey.CONNECTION_USERNAME ),
+                dhisConfig.getProperty( ConfigurationKey.CONNECTION_PASSWORD ) ) )
+            {
+                try ( Statement statement = connection.createStatement() )
+                {
+                    statement.execute( "listen " + NotifyCacheInvalidationPublisher.CHANNEL );
+                }
+
+                if ( reconnect )
+                {
+                    evictAll();
+                }
+
+                log.info( "Listening for cache invalidation notifications" );
+
+                PGConnection pgConnection = connection.unwrap( PGConnection.class );
+
+                while ( running )
+                {
+                    PGNotification[] notifications = pgConnection.getNotifications( POLL_TIMEOUT_MILLIS );
+
+                    if ( notifications != null )
+                    {
+                        for ( PGNotification notification : notifications )
+                        {
+                            handle( notification.getParameter() );
+                        }
+                    }
+                }
+            }
+            catch ( SQLException ex )
+            {
+                log.warn( "Cache invalidation listener connection failed: {}", ex.getMessage() );
+            }
+
+            reconnect = true;
+
+            if ( running )
+            {
+                try
+                {
+                    Thread.sleep( RECONNECT_DELAY_MILLIS );
+                }
+                catch ( InterruptedException ex )
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void handle( String payload )
+    {
+        try
+        {
+            CacheInvalidationBatch batch = CacheInvalidationBatch.parse( payload );
+
+            if ( publisher.getNodeId().equals( batch.getNodeId() ) )
+            {
+                return;
+            }
+
+            for ( Map.Entry<String, Set<String>> change : batch.getChanges().entrySet() )
+            {
+                char operation = change.getKey().charAt( 0 );
+                String name = change.getKey().substring( 2 );
+
+                if ( operation == CacheInvalidationBatch.COLLECTION )
+                {
+                    evictCollection( name, change.getValue() );
+                }
+                else
+                {
+                    evictEntity( operation, name, change.getValue() );
+                }
+            }
+        }
+        catch ( Exception ex )
+        {
+            log.error( "Failed to handle cache invalidation notification", ex );
+        }
+    }
+
+    private void evictEntity( char operation, String entityName, Set<String> ids )
+    {
+        EntityPersister persister = getMetamodel().entityPersister( entityName );
+        Class<?> entityClass = persister.getMappedClass();
+        Cache cache = sessionFactory.getCache();
+
+        if ( operation == CacheInvalidationBatch.INSERT )
+        {
+            queryCacheManager.evictQueryCache( cache, entityClass );
+            paginationCacheManager.evictCache( entityClass.getName() );
+        }
+        else if ( ids.contains( CacheInvalidationBatch.ALL ) )
+        {
+            cache.evictEntityData( entityName );
+        }
+        else
+        {
+            Class<?> idClass = persister.getIdentifierType().getReturnedClass();
+
+            ids.forEach( id -> cache.evictEntityData( entityName, toId( idClass, id ) ) );
+        }
+    }
+
+    private void evictCollection( String role, Set<String> ownerIds )
+    {
+        CollectionPersister persister = getMetamodel().collectionPersister( role );
+        Cache cache = sessionFactory.getCache();
+
+        if ( ownerIds.contains( CacheInvalidationBatch.ALL ) )
+        {
+            cache.evictCollectionData( role );
+        }
+        else
+        {
+            Class<?> idClass = persister.getKeyType().getReturnedClass();
+
+            ownerIds.forEach( id -> cache.evictCollectionData( role, toId( idClass, id ) ) );
+        }
+    }
+
+    private void evictAll()
+    {
+        log.info( "Evicting all caches after reconnecting cache invalidation listener" );
+
+        sessionFactory.getCache().evictAllRegions();
+        paginationCacheManager.evictAllCaches();
+    }
+
+    private MetamodelImplementor getMetamodel()
+    {
+        return (MetamodelImplementor) sessionFactory.getMetamodel();
+    }
+
+    private static Serializable toId( Class<?> idClass, String id )
+    {
+        return Integer.class == idClass || int.class == idClass ? Integer.valueOf( id ) : Long.valueOf( id );
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.notify;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate event listener which collects the entities and collections changed
+ * within a transaction and publishes them through PostgreSQL
+ * {@code pg_notify} right before the transaction commits. PostgreSQL delivers
+ * the notifications to listeners only once the transaction has committed, and
+ * drops them if it rolls back.
+ * <p>
+ * Failures to publish are logged and never fail the transaction.
+ */
+@Slf4j
+@Profile( { "!test", "!test-h2" } )
+@Conditional( value = NotifyCacheInvalidationEnabledCondition.class )
+@Component
+public class NotifyCacheInvalidationPublisher
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+    PostCollectionRecreateEventListener, PostCollectionUpdateEventListener, PostCollectionRemoveEventListener
+{
+    public static final String CHANNEL = "dhis2_cache_invalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<SessionImplementor, CacheInvalidationBatch> batches = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the id of this instance, which is the first line of all
+     * notifications it publishes.
+     */
+    public String getNodeId()
+    {
+        return nodeId;
+    }
+
+    @Override
+    public void onPostInsert( PostInsertEvent event )
+    {
+        add( event.getSession(), CacheInvalidationBatch.INSERT, event.getPersister().getEntityName(), event.getId() );
+    }
+
+    @Override
+    public void onPostUpdate( PostUpdateEvent event )
+    {
+        add( event.getSession(), CacheInvalidationBatch.UPDATE, event.getPersister().getEntityName(), event.getId() );
+    }
+
+    @Override
+    public void onPostDelete( PostDeleteEvent event )
+    {
+        add( event.getSession(), CacheInvalidationBatch.DELETE, event.getPersister().getEntityName(), event.getId() );
+    }
+
+    @Override
+    public void onPostRecreateCollection( PostCollectionRecreateEvent event )
+    {
+        addCollection( event );
+    }
+
+    @Override
+    public void onPostUpdateCollection( PostCollectionUpdateEvent event )
+    {
+        addCollection( event );
+    }
+
+    @Override
+    public void onPostRemoveCollection( PostCollectionRemoveEvent event )
+    {
+        addCollection( event );
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding( EntityPersister persister )
+    {
+        return false;
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void addCollection( AbstractCollectionEvent event )
+    {
+        if ( event.getCollection().getRole() != null )
+        {
+            add( event.getSession(), CacheInvalidationBatch.COLLECTION, event.getCollection().getRole(),
+                event.getAffectedOwnerIdOrNull() );
+        }
+    }
+
+    /**
+     * Adds a change to the batch of the transaction of the given session. The
+     * first change of a transaction registers the processes which publish and
+     * discard the batch when the transaction completes.
+     */
+    private void add( EventSource session, char operation, String name, Serializable id )
+    {
+        batches.computeIfAbsent( session, key -> {
+            session.getActionQueue().registerProcess( (BeforeTransactionCompletionProcess) this::publish );
+            session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) ( success, completed ) -> batches.remove( completed ) );
+
+            return new CacheInvalidationBatch( nodeId );
+        } ).add( operation, name, id );
+    }
+
+    private void publish( SessionImplementor session )
+    {
+        CacheInvalidationBatch batch = batches.remove( session );
+
+        if ( batch == null || batch.isEmpty() )
+        {
+            return;
+        }
+
+        try
+        {
+            session.doWork( connection -> {
+                try ( PreparedStatement statement = connection.prepareStatement( "select pg_notify(?, ?)" ) )
+                {
+                    for ( String payload : batch.toPayloads() )
+                    {
+                        statement.setString( 1, CHANNEL );
+                        statement.setString( 2, payload );
+                        statement.execute();
+                    }
+                }
+            } );
+        }
+        catch ( Exception ex )
+        {
+            log.error( "Failed to publish cache invalidation notification", ex );
+        }
+    }
+}
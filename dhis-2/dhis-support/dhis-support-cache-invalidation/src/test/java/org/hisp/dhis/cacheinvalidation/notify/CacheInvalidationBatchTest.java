@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.notify;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CacheInvalidationBatchTest
+{
+    private static final String NODE = "node1";
+
+    @Test
+    void testPayloadRoundtrip()
+    {
+        CacheInvalidationBatch batch = new CacheInvalidationBatch( NODE );
+        batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.dataelement.DataElement", 1L );
+        batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.dataelement.DataElement", 2L );
+        batch.add( CacheInvalidationBatch.COLLECTION, "org.hisp.dhis.dataelement.DataElement.groups", 1L );
+
+        List<String> payloads = batch.toPayloads();
+
+        assertEquals( 1, payloads.size() );
+
+        CacheInvalidationBatch parsed = CacheInvalidationBatch.parse( payloads.get( 0 ) );
+
+        assertEquals( NODE, parsed.getNodeId() );
+        assertEquals( batch.getChanges(), parsed.getChanges() );
+        assertThat( parsed.getChanges().get( "U|org.hisp.dhis.dataelement.DataElement" ), contains( "1", "2" ) );
+    }
+
+    @Test
+    void testNonNumericIdEvictsAll()
+    {
+        CacheInvalidationBatch batch = new CacheInvalidationBatch( NODE );
+        batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.datavalue.DataValue", 1L );
+        batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.datavalue.DataValue", "composite" );
+        batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.datavalue.DataValue", 2L );
+
+        assertThat( batch.getChanges().get( "U|org.hisp.dhis.datavalue.DataValue" ),
+            contains( CacheInvalidationBatch.ALL ) );
+    }
+
+    @Test
+    void testTooManyIdsEvictsAll()
+    {
+        CacheInvalidationBatch batch = new CacheInvalidationBatch( NODE );
+
+        for ( long id = 0; id <= CacheInvalidationBatch.MAX_IDS; id++ )
+        {
+            batch.add( CacheInvalidationBatch.DELETE, "org.hisp.dhis.user.User", id );
+        }
+
+        assertThat( batch.getChanges().get( "D|org.hisp.dhis.user.User" ), contains( CacheInvalidationBatch.ALL ) );
+    }
+
+    @Test
+    void testPayloadsAreSplit()
+    {
+        CacheInvalidationBatch batch = new CacheInvalidationBatch( NODE );
+
+        for ( int i = 0; i < 200; i++ )
+        {
+            for ( long id = 0; id < 50; id++ )
+            {
+                batch.add( CacheInvalidationBatch.UPDATE, "org.hisp.dhis.Entity" + i, 1_000_000L + id );
+            }
+        }
+
+        List<String> payloads = batch.toPayloads();
+
+        assertTrue( payloads.size() > 1 );
+
+        int changes = 0;
+
+        for ( String payload : payloads )
+        {
+            assertTrue(
+                payload.getBytes( StandardCharsets.UTF_8 ).length <= CacheInvalidationBatch.MAX_PAYLOAD_LENGTH );
+
+            CacheInvalidationBatch parsed = CacheInvalidationBatch.parse( payload );
+            assertEquals( NODE, parsed.getNodeId() );
+            changes += parsed.getChanges().size();
+        }
+
+        assertEquals( 200, changes );
+    }
+
+    @Test
+    void testEmptyBatchHasNoPayloads()
+    {
+        assertTrue( new CacheInvalidationBatch( NODE ).toPayloads().isEmpty() );
+    }
+}
@@ -0,0 +1,14 @@
+-- Statistics of numeric data values per data element, org unit, category option
+-- combo and attribute option combo, maintained by the outlier statistics job
+create table if not exists datavaluestatistics (
+    dataelementid bigint not null,
+    sourceid bigint not null,
+    categoryoptioncomboid bigint not null,
+    attributeoptioncomboid bigint not null,
+    count bigint not null,
+    sum double precision not null,
+    sumofsquares double precision not null,
+    median double precision,
+    lastupdated timestamp without time zone not null,
+    constraint pk_datavaluestatistics primary key (dataelementid, sourceid, categoryoptioncomboid, attributeoptioncomboid)
+);
@@ -0,0 +1,7 @@
+-- Adds a new column "materializedinanalytics" into the ProgramIndicator table,
+-- indicating whether program indicator values are stored as columns in the
+-- enrollment analytics tables
+
+alter table programindicator add column if not exists "materializedinanalytics" boolean;
+update programindicator set materializedinanalytics = false where materializedinanalytics is null;
+alter table programindicator alter column materializedinanalytics set not null;
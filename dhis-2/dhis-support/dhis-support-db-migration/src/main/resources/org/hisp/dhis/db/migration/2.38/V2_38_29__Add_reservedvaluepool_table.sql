@@ -0,0 +1,10 @@
+-- Pre-generated values per text pattern owner and key, claimed by value
+-- reservations and refilled by the reserved value pool refill job
+create table if not exists reservedvaluepool (
+    ownerobject character varying(255) not null,
+    owneruid character varying(11) not null,
+    key character varying(255) not null,
+    value character varying(255) not null,
+    created timestamp without time zone not null,
+    constraint pk_reservedvaluepool primary key (ownerobject, owneruid, key, value)
+);
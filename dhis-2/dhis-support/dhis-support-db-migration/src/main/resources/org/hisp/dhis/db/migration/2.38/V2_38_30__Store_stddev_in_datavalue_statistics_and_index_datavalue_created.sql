@@ -0,0 +1,10 @@
+-- Store the population standard deviation in the data value statistics instead
+-- of the sum of squares. The statistics are rebuilt by the next run of the
+-- outlier statistics job.
+delete from datavaluestatistics;
+alter table datavaluestatistics drop column if exists sumofsquares;
+alter table datavaluestatistics add column if not exists stddev double precision not null;
+delete from systemsetting where name = 'keyLastSuccessfulOutlierStatisticsUpdate';
+
+-- Index used to find data values created since the last statistics update
+create index if not exists in_datavalue_created on datavalue(created);
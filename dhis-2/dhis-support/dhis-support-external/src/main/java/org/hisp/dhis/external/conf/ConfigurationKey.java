@@ -339,6 +339,21 @@ public enum ConfigurationKey
      */
     ANALYTICS_CACHE_EXPIRATION( "analytics.cache.expiration", "0" ),
 
+    /**
+     * Estimated number of rows in the latest analytics partitions at which the
+     * continuous analytics table update moves the rows into the yearly
+     * partitions, 0 to disable. (default: 1000000)
+     */
+    ANALYTICS_LATEST_PARTITION_COMPACTION_MAX_ROWS( "analytics.latest_partition.compaction.max_rows", "1000000" ),
+
+    /**
+     * Number of hours since the last full analytics table update or latest
+     * partition compaction after which the continuous analytics table update
+     * moves the rows of the latest partitions into the yearly partitions, 0 to
+     * disable. (default: 24)
+     */
+    ANALYTICS_LATEST_PARTITION_COMPACTION_MAX_AGE( "analytics.latest_partition.compaction.max_age_hours", "24" ),
+
     /**
      * Artemis support mode, 2 modes supported: EMBEDDED (starts up an embedded
      * Artemis which lives in the same process as your DHIS2 instance), NATIVE
@@ -425,6 +440,28 @@ public enum ConfigurationKey
      */
     SERVER_HTTPS( "server.https", Constants.OFF ),
 
+    /**
+     * Maximum number of threads processing asynchronous web API requests, such
+     * as analytics queries, outside of the request threads of the servlet
+     * container. The default matches the default request thread pool size of
+     * Jetty and Tomcat. (default: 200)
+     */
+    SERVER_ASYNC_REQUEST_THREADS( "server.async_request.threads", "200", false ),
+
+    /**
+     * Number of asynchronous web API requests which may wait for a thread when
+     * all threads are busy. Further requests are rejected with status 503.
+     * (default: 1000)
+     */
+    SERVER_ASYNC_REQUEST_QUEUE_CAPACITY( "server.async_request.queue_capacity", "1000", false ),
+
+    /**
+     * Timeout in seconds of asynchronous web API requests, including the time
+     * waiting for a thread, 0 for no timeout. Requests timing out are answered
+     * with status 503. (default: 0)
+     */
+    SERVER_ASYNC_REQUEST_TIMEOUT( "server.async_request.timeout", "0", false ),
+
     /**
      * DHIS2 API monitoring.
      */
@@ -455,6 +492,21 @@ public enum ConfigurationKey
      */
     MONITORING_CPU_ENABLED( "monitoring.cpu.enabled", Constants.OFF, false ),
 
+    /**
+     * Job queue monitoring. (default: off)
+     */
+    MONITORING_JOBS_ENABLED( "monitoring.jobs.enabled", Constants.OFF, false ),
+
+    /**
+     * Startup routine execution time monitoring. (default: off)
+     */
+    MONITORING_STARTUP_ENABLED( "monitoring.startup.enabled", Constants.OFF, false ),
+
+    /**
+     * Data value set export monitoring. (default: off)
+     */
+    MONITORING_DATA_VALUE_EXPORT_ENABLED( "monitoring.data_value_export.enabled", Constants.OFF, false ),
+
     /**
      * AppHub base URL. (default: https://apps.dhis2.org).
      */
@@ -494,6 +546,30 @@ public enum ConfigurationKey
      */
     AUDIT_DATABASE( "audit.database", Constants.OFF, false ),
 
+    /**
+     * Maximum number of audits consumed from the audit topics before they are
+     * saved to the database in one batch. (default: 500).
+     */
+    AUDIT_DATABASE_BATCH_SIZE( "audit.database.batch_size", "500", false ),
+
+    /**
+     * Maximum time in milliseconds consumed audits wait before they are saved
+     * to the database. Only applies when audit.database.batch_async is
+     * enabled. (default: 1000).
+     */
+    AUDIT_DATABASE_BATCH_WAIT( "audit.database.batch_wait", "1000", false ),
+
+    /**
+     * Acknowledge consumed audits before they are saved to the database, so
+     * that audits are saved in batches of audit.database.batch_size or after
+     * audit.database.batch_wait. Audits buffered but not yet saved, up to ten
+     * batches, are lost if the server stops abruptly (at-most-once). When
+     * disabled, each consumer waits until its audit has been saved
+     * (at-least-once), so batches hold at most one audit per audit topic.
+     * (default: on).
+     */
+    AUDIT_DATABASE_BATCH_ASYNC( "audit.database.batch_async", Constants.ON, false ),
+
     /**
      * Sets the audit matrix for metadata. (default: none).
      */
@@ -676,6 +752,13 @@ public enum ConfigurationKey
      */
     DEBEZIUM_SHUTDOWN_ON_CONNECTOR_STOP( "debezium.shutdown_on.connector_stop", Constants.OFF, false ),
 
+    /**
+     * Cache invalidation feature. Enable or disable cache invalidation through
+     * PostgreSQL LISTEN/NOTIFY, which unlike Debezium requires no logical
+     * replication.
+     */
+    CACHE_INVALIDATION_NOTIFY_ENABLED( "cache.invalidation.notify.enabled", Constants.OFF, false ),
+
     /**
      * API authentication feature. Enable or disable personal access tokens.
      */
@@ -686,7 +769,147 @@ public enum ConfigurationKey
      */
     SYSTEM_UPDATE_NOTIFICATIONS_ENABLED( "system.update_notifications_enabled", Constants.ON, false ),
 
-    MAX_SESSIONS_PER_USER( "max.sessions.per_user", "10", false );
+    MAX_SESSIONS_PER_USER( "max.sessions.per_user", "10", false ),
+
+    /**
+     * Data value set export. Stream rows through a server-side database cursor
+     * instead of buffering the full result in the driver. (default: on)
+     */
+    DATA_VALUE_SET_EXPORT_CURSOR_ENABLED( "datavalueset.export.cursor.enabled", Constants.ON, false ),
+
+    /**
+     * Data value set export. Number of rows fetched from the database cursor
+     * per round trip. (default: 5000)
+     */
+    DATA_VALUE_SET_EXPORT_FETCH_SIZE( "datavalueset.export.fetch_size", "5000", false ),
+
+    /**
+     * Resource tables. Only regenerate resource tables when the database
+     * tables they are derived from have changed since the last generation.
+     * Requires PostgreSQL. (default: off)
+     */
+    RESOURCE_TABLES_INCREMENTAL( "resourcetables.incremental", Constants.OFF, false ),
+
+    /**
+     * Data integrity. Number of data integrity checks to run in parallel, each
+     * in its own read-only transaction. (default: 1)
+     */
+    DATA_INTEGRITY_PARALLELISM( "dataintegrity.parallelism", "1", false ),
+
+    /**
+     * Data integrity. Timeout in seconds of a single data integrity check, 0
+     * for no timeout. (default: 0)
+     */
+    DATA_INTEGRITY_CHECK_TIMEOUT( "dataintegrity.check.timeout", "0", false ),
+
+    /**
+     * Data integrity. Time in seconds for which data integrity summary results
+     * are cached, 0 to disable caching. (default: 60)
+     */
+    DATA_INTEGRITY_SUMMARY_CACHE_TTL( "dataintegrity.summary.cache.ttl", "60", false ),
+
+    /**
+     * Push analysis. Number of reports to render in parallel, where one report
+     * is rendered per group of recipients with equal data access, each in its
+     * own transaction. (default: 2)
+     */
+    PUSH_ANALYSIS_PARALLELISM( "push_analysis.parallelism", "2", false ),
+
+    /**
+     * Reserved values. Pool size of pre-generated values of a generated
+     * attribute below which the pool is refilled by the reserved value pool
+     * refill job. (default: 100)
+     */
+    RESERVED_VALUE_POOL_LOW_WATERMARK( "reservedvalue.pool.low_watermark", "100", false ),
+
+    /**
+     * Reserved values. Pool size of pre-generated values of a generated
+     * attribute up to which the pool is refilled, 0 to disable pools.
+     * (default: 1000)
+     */
+    RESERVED_VALUE_POOL_HIGH_WATERMARK( "reservedvalue.pool.high_watermark", "1000", false ),
+
+    /**
+     * Outlier detection. Read z-score statistics from the statistics table
+     * maintained by the outlier statistics job instead of computing them from
+     * all data values, for requests without data start and end dates.
+     * Requires PostgreSQL. (default: off)
+     */
+    OUTLIER_DETECTION_STATISTICS_ENABLED( "outlierdetection.statistics.enabled", Constants.OFF, false ),
+
+    /**
+     * Maximum replication lag in milliseconds of a read replica before reads
+     * are routed to other replicas or the primary database.
+     */
+    READ_REPLICA_MAX_LAG_MS( "read.replica.max_lag_ms", "5000", false ),
+
+    /**
+     * Interval in seconds between read replica replication lag checks.
+     */
+    READ_REPLICA_CHECK_INTERVAL( "read.replica.check_interval", "10", false ),
+
+    /**
+     * Route connections of read only Hibernate transactions to read replicas
+     * (on/off).
+     */
+    READ_REPLICA_HIBERNATE_ROUTING( "read.replica.hibernate_routing", Constants.OFF, false ),
+
+    /**
+     * Maximum number of manually started jobs and asynchronous imports running
+     * at the same time, further jobs wait in the job queue. (default: 10)
+     */
+    JOB_QUEUE_MAX_RUNNING( "job.queue.max_running", "10", false ),
+
+    /**
+     * Maximum number of jobs of a single user running at the same time.
+     * (default: 2)
+     */
+    JOB_QUEUE_MAX_RUNNING_PER_USER( "job.queue.max_running_per_user", "2", false ),
+
+    /**
+     * Maximum number of jobs of a single job type running at the same time.
+     * (default: 4)
+     */
+    JOB_QUEUE_MAX_RUNNING_PER_TYPE( "job.queue.max_running_per_type", "4", false ),
+
+    /**
+     * Directory where spooled asynchronous tracker import payloads are stored
+     * until imported. Must be shared by all instances when an external message
+     * broker is used. (default: system temp directory)
+     */
+    TRACKER_IMPORT_SPOOL_DIR( "tracker.import.spool.dir", "", false ),
+
+    /**
+     * Maximum number of tracker objects imported and committed together by a
+     * spooled tracker import. (default: 1000)
+     */
+    TRACKER_IMPORT_SPOOL_CHUNK_SIZE( "tracker.import.spool.chunk_size", "1000", false ),
+
+    /**
+     * Maximum number of startup routines executed at the same time. Startup
+     * routines are executed one after another if set to 1. (default: 4)
+     */
+    SYSTEM_STARTUP_PARALLELISM( "system.startup.parallelism", "4", false ),
+
+    /**
+     * Maximum number of threads used to evaluate predictor expressions for
+     * organisation units at the same time. Expressions are evaluated in the
+     * predictor thread if set to 1. (default: 4)
+     */
+    PREDICTOR_PARALLELISM( "predictor.parallelism", "4", false ),
+
+    /**
+     * Number of data elements for which min-max values are calculated by a
+     * single statement during min-max value generation. (default: 100)
+     */
+    MINMAX_GENERATION_PARTITION_SIZE( "minmax.generation.partition_size", "100", false ),
+
+    /**
+     * Maximum number of data element partitions for which min-max values are
+     * generated at the same time. Partitions are processed one after another
+     * if set to 1. (default: 2)
+     */
+    MINMAX_GENERATION_PARALLELISM( "minmax.generation.parallelism", "2", false );
 
     private final String key;
 
@@ -57,6 +57,11 @@ public class PaginationCacheManager
         }
     }
 
+    public void evictAllCaches()
+    {
+        cacheMap.values().forEach( Cache::clear );
+    }
+
     private Cache<String, Long> getPaginationCacheStrict( String key )
     {
         return cacheMap.get( key );
@@ -48,6 +48,8 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.datasource.DatabasePoolUtils;
 import org.hisp.dhis.datasource.DefaultReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.ReadOnlyTransactionRoutingDataSource;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.hibernate.HibernateConfigurationProvider;
@@ -59,6 +61,7 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import com.google.common.base.MoreObjects;
 
@@ -101,10 +104,9 @@ public class DataSourceConfig
 
     @Bean( "readOnlyJdbcTemplate" )
     @DependsOn( "dataSource" )
-    public JdbcTemplate readOnlyJdbcTemplate( @Qualifier( "dataSource" ) DataSource dataSource )
+    public JdbcTemplate readOnlyJdbcTemplate( @Qualifier( "dataSource" ) DataSource dataSource,
+        ReadOnlyDataSourceManager manager )
     {
-        DefaultReadOnlyDataSourceManager manager = new DefaultReadOnlyDataSourceManager( dhisConfig );
-
         JdbcTemplate jdbcTemplate = new JdbcTemplate(
             MoreObjects.firstNonNull( manager.getReadOnlyDataSource(), dataSource ) );
         jdbcTemplate.setFetchSize( 1000 );
@@ -140,16 +142,35 @@ public class DataSourceConfig
         }
     }
 
+    @Bean
+    public DefaultReadOnlyDataSourceManager readOnlyDataSourceManager(
+        @Qualifier( "actualDataSource" ) DataSource actualDataSource )
+    {
+        return new DefaultReadOnlyDataSourceManager( dhisConfig, actualDataSource );
+    }
+
     @Bean( "dataSource" )
     @DependsOn( "actualDataSource" )
     @Primary
-    public DataSource dataSource( @Qualifier( "actualDataSource" ) DataSource actualDataSource )
+    public DataSource dataSource( @Qualifier( "actualDataSource" ) DataSource actualDataSource,
+        ReadOnlyDataSourceManager readOnlyDataSourceManager )
     {
+        DataSource dataSource = actualDataSource;
+
+        if ( dhisConfig.isEnabled( ConfigurationKey.READ_REPLICA_HIBERNATE_ROUTING )
+            && readOnlyDataSourceManager.getReadReplicaCount() > 0 )
+        {
+            dataSource = new LazyConnectionDataSourceProxy( new ReadOnlyTransactionRoutingDataSource(
+                actualDataSource, readOnlyDataSourceManager.getReadOnlyDataSource() ) );
+
+            log.info( "Routing read only transactions to read replicas" );
+        }
+
         boolean enableQueryLogging = dhisConfig.isEnabled( ConfigurationKey.ENABLE_QUERY_LOGGING );
 
         if ( !enableQueryLogging )
         {
-            return actualDataSource;
+            return dataSource;
         }
 
         PrettyQueryEntryCreator creator = new PrettyQueryEntryCreator();
@@ -162,7 +183,7 @@ public class DataSourceConfig
 
         ProxyDataSourceBuilder b = ProxyDataSourceBuilder
 
-            .create( actualDataSource )
+            .create( dataSource )
             .name( "ProxyDS_DHIS2_" + dhisConfig.getProperty( ConfigurationKey.DB_POOL_TYPE ) +
                 "_" + CodeGenerator.generateCode( 5 ) )
 
@@ -47,6 +47,7 @@ import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 
 /**
@@ -54,7 +55,7 @@ import org.springframework.beans.factory.InitializingBean;
  */
 @Slf4j
 public class DefaultReadOnlyDataSourceManager
-    implements ReadOnlyDataSourceManager, InitializingBean
+    implements ReadOnlyDataSourceManager, InitializingBean, DisposableBean
 {
     private static final String FORMAT_READ_PREFIX = "read%d.";
 
@@ -72,16 +73,25 @@ public class DefaultReadOnlyDataSourceManager
 
     private final DhisConfigurationProvider config;
 
-    public DefaultReadOnlyDataSourceManager( DhisConfigurationProvider config )
+    private final DataSource primaryDataSource;
+
+    /**
+     * @param config the {@link DhisConfigurationProvider}.
+     * @param primaryDataSource the data source to use when no read replica is
+     *        available.
+     */
+    public DefaultReadOnlyDataSourceManager( DhisConfigurationProvider config, DataSource primaryDataSource )
     {
         checkNotNull( config );
+        checkNotNull( primaryDataSource );
         this.config = config;
+        this.primaryDataSource = primaryDataSource;
     }
 
     /**
      * State holder for the resolved read only data source.
      */
-    private DataSource internalReadOnlyDataSource;
+    private ReplicaRoutingDataSource internalReadOnlyDataSource;
 
     /**
      * State holder for explicitly defined read only data sources.
@@ -94,7 +104,24 @@ public class DefaultReadOnlyDataSourceManager
         List<DataSource> ds = getReadOnlyDataSources();
 
         this.internalReadOnlyInstanceList = ds;
-        this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource( ds ) : null;
+
+        if ( !ds.isEmpty() )
+        {
+            long maxLagMillis = Long.parseLong( config.getProperty( ConfigurationKey.READ_REPLICA_MAX_LAG_MS ) );
+            long checkInterval = Long.parseLong( config.getProperty( ConfigurationKey.READ_REPLICA_CHECK_INTERVAL ) );
+
+            this.internalReadOnlyDataSource = new ReplicaRoutingDataSource( ds, primaryDataSource, maxLagMillis );
+            this.internalReadOnlyDataSource.start( checkInterval );
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        if ( internalReadOnlyDataSource != null )
+        {
+            internalReadOnlyDataSource.close();
+        }
     }
 
     // -------------------------------------------------------------------------
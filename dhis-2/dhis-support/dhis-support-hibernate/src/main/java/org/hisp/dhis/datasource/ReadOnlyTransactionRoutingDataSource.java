@@ -27,62 +27,40 @@
  */
 package org.hisp.dhis.datasource;
 
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
-import org.springframework.jdbc.datasource.AbstractDataSource;
-
-import com.google.common.collect.Iterators;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
- * Data source implementation which routes to the configured target data sources
- * in a circular fashion.
- *
- * @author Lars Helge Overland
+ * Data source which routes connections of read only transactions to the read
+ * replicas and all other connections to the primary data source.
+ * <p>
+ * The transaction read only flag is only known after the transaction has been
+ * started, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * to defer obtaining the connection until the first statement is executed.
  */
-public class CircularRoutingDataSource
-    extends AbstractDataSource
+public class ReadOnlyTransactionRoutingDataSource
+    extends AbstractRoutingDataSource
 {
-    private Iterator<DataSource> dataSourceIterator;
+    private static final String KEY_PRIMARY = "primary";
 
-    public CircularRoutingDataSource()
-    {
-    }
+    private static final String KEY_READ_ONLY = "readOnly";
 
-    public CircularRoutingDataSource( List<DataSource> targetDataSources )
+    public ReadOnlyTransactionRoutingDataSource( DataSource primary, DataSource readOnly )
     {
-        this.dataSourceIterator = Iterators.cycle( Collections.synchronizedList( targetDataSources ) );
+        setTargetDataSources( Map.of( KEY_PRIMARY, primary, KEY_READ_ONLY, readOnly ) );
+        setDefaultTargetDataSource( primary );
+        afterPropertiesSet();
     }
 
-    // -------------------------------------------------------------------------
-    // AbstractDataSource implementation
-    // -------------------------------------------------------------------------
-
     @Override
-    public Connection getConnection()
-        throws SQLException
-    {
-        return getDataSource().getConnection();
-    }
-
-    @Override
-    public Connection getConnection( String username, String password )
-        throws SQLException
-    {
-        return getDataSource().getConnection( username, password );
-    }
-
-    // -------------------------------------------------------------------------
-    // Private methods
-    // -------------------------------------------------------------------------
-
-    private synchronized DataSource getDataSource()
+    protected Object determineCurrentLookupKey()
     {
-        return dataSourceIterator.next();
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? KEY_READ_ONLY : KEY_PRIMARY;
     }
 }
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Data source implementation which routes to the least loaded healthy read
+ * replica. A replica is healthy if its replication lag is within the
+ * configured maximum and neither the last lag check nor the last connection
+ * attempt failed. The load of a replica is the number of connections currently
+ * in use. If no replica is healthy, connections are obtained from the primary
+ * data source.
+ * <p>
+ * The replication lag is checked periodically once {@link #start(long)} has
+ * been called.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource
+    extends AbstractDataSource
+    implements Closeable
+{
+    /**
+     * Replication lag in milliseconds, 0 if the replica has replayed all
+     * received WAL.
+     */
+    private static final String LAG_SQL = "select case " +
+        "when not pg_is_in_recovery() or pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+        "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end";
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final DataSource primary;
+
+    private final long maxLagMillis;
+
+    /**
+     * Offset of the first replica to consider, rotated to spread connections
+     * over equally loaded replicas.
+     */
+    private final AtomicInteger offset = new AtomicInteger();
+
+    private ScheduledExecutorService monitor;
+
+    /**
+     * @param replicas the read replica data sources.
+     * @param primary the data source to fall back to if no replica is healthy.
+     * @param maxLagMillis the maximum replication lag in milliseconds of a
+     *        healthy replica.
+     */
+    public ReplicaRoutingDataSource( List<DataSource> replicas, DataSource primary, long maxLagMillis )
+    {
+        for ( int i = 0; i < replicas.size(); i++ )
+        {
+            this.replicas.add( new Replica( "read" + (i + 1), replicas.get( i ) ) );
+        }
+
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Starts checking the replication lag of the replicas.
+     *
+     * @param checkIntervalSeconds the interval between checks in seconds.
+     */
+    public synchronized void start( long checkIntervalSeconds )
+    {
+        if ( monitor == null )
+        {
+            monitor = Executors.newSingleThreadScheduledExecutor( runnable -> {
+                Thread thread = new Thread( runnable, "read-replica-monitor" );
+                thread.setDaemon( true );
+                return thread;
+            } );
+            monitor.scheduleWithFixedDelay( this::checkReplicas, 0, checkIntervalSeconds, TimeUnit.SECONDS );
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if ( monitor != null )
+        {
+            monitor.shutdownNow();
+            monitor = null;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // AbstractDataSource implementation
+    // -------------------------------------------------------------------------
+
+    @Override
+    public Connection getConnection()
+        throws SQLException
+    {
+        return getConnection( DataSource::getConnection );
+    }
+
+    @Override
+    public Connection getConnection( String username, String password )
+        throws SQLException
+    {
+        return getConnection( dataSource -> dataSource.getConnection( username, password ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Returns a connection of the least loaded healthy replica, or of the
+     * primary data source if no replica is healthy. A replica which fails to
+     * provide a connection is marked unhealthy and the next one is tried.
+     *
+     * @param connector obtains a connection from a data source.
+     */
+    private Connection getConnection( Connector connector )
+        throws SQLException
+    {
+        for ( Replica replica = selectReplica(); replica != null; replica = selectReplica() )
+        {
+            try
+            {
+                return replica.getConnection( connector );
+            }
+            catch ( SQLException ex )
+            {
+                replica.failed();
+
+                log.warn( "Failed to connect to read replica '{}': {}", replica.name, ex.getMessage() );
+            }
+        }
+
+        return connector.connect( primary );
+    }
+
+    /**
+     * Returns the healthy replica with the fewest connections in use, or null
+     * if no replica is healthy.
+     */
+    Replica selectReplica()
+    {
+        int size = replicas.size();
+        int start = Math.floorMod( offset.getAndIncrement(), size );
+
+        Replica selected = null;
+
+        for ( int i = 0; i < size; i++ )
+        {
+            Replica replica = replicas.get( (start + i) % size );
+
+            if ( replica.isHealthy( maxLagMillis )
+                && (selected == null || replica.inUse.get() < selected.inUse.get()) )
+            {
+                selected = replica;
+            }
+        }
+
+        return selected;
+    }
+
+    List<Replica> getReplicas()
+    {
+        return replicas;
+    }
+
+    /**
+     * Checks the replication lag of all replicas. A replica which cannot be
+     * checked is considered unhealthy until the next successful check.
+     */
+    void checkReplicas()
+    {
+        for ( Replica replica : replicas )
+        {
+            try ( Connection connection = replica.dataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery( LAG_SQL ) )
+            {
+                resultSet.next();
+                replica.checked( resultSet.getLong( 1 ) );
+
+                if ( replica.lagMillis > maxLagMillis )
+                {
+                    log.info( "Read replica '{}' lags {} ms behind, routing reads elsewhere", replica.name,
+                        replica.lagMillis );
+                }
+            }
+            catch ( SQLException ex )
+            {
+                replica.failed();
+
+                log.warn( "Failed to check read replica '{}': {}", replica.name, ex.getMessage() );
+            }
+        }
+    }
+
+    /**
+     * Obtains a connection from a data source.
+     */
+    @FunctionalInterface
+    interface Connector
+    {
+        Connection connect( DataSource dataSource )
+            throws SQLException;
+    }
+
+    /**
+     * State of a single read replica.
+     */
+    static final class Replica
+    {
+        private final String name;
+
+        private final DataSource dataSource;
+
+        /**
+         * Number of connections currently in use.
+         */
+        private final AtomicInteger inUse = new AtomicInteger();
+
+        private volatile long lagMillis;
+
+        private volatile boolean failed;
+
+        Replica( String name, DataSource dataSource )
+        {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        boolean isHealthy( long maxLagMillis )
+        {
+            return !failed && lagMillis <= maxLagMillis;
+        }
+
+        int getInUse()
+        {
+            return inUse.get();
+        }
+
+        void checked( long lagMillis )
+        {
+            this.lagMillis = lagMillis;
+            this.failed = false;
+        }
+
+        void failed()
+        {
+            this.failed = true;
+        }
+
+        /**
+         * Returns a connection which decrements the number of connections in
+         * use when closed.
+         *
+         * @param connector obtains the connection from the data source.
+         */
+        Connection getConnection( Connector connector )
+            throws SQLException
+        {
+            Connection connection = connector.connect( dataSource );
+            inUse.incrementAndGet();
+
+            AtomicBoolean closed = new AtomicBoolean();
+            InvocationHandler handler = ( proxy, method, args ) -> {
+                if ( "close".equals( method.getName() ) && closed.compareAndSet( false, true ) )
+                {
+                    inUse.decrementAndGet();
+                }
+                return invoke( connection, method, args );
+            };
+
+            return (Connection) Proxy.newProxyInstance( Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler );
+        }
+
+        private static Object invoke( Connection connection, Method method, Object[] args )
+            throws Throwable
+        {
+            try
+            {
+                return method.invoke( connection, args );
+            }
+            catch ( InvocationTargetException ex )
+            {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.hisp.dhis.datasource.ReplicaRoutingDataSource.Replica;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ReplicaRoutingDataSource}.
+ */
+class ReplicaRoutingDataSourceTest
+{
+    private ReplicaRoutingDataSource dataSource;
+
+    private Replica replicaA;
+
+    private Replica replicaB;
+
+    @BeforeEach
+    void setUp()
+    {
+        dataSource = new ReplicaRoutingDataSource(
+            List.of( createDataSource( "replicaA" ), createDataSource( "replicaB" ) ),
+            createDataSource( "primary" ), 1000 );
+
+        replicaA = dataSource.getReplicas().get( 0 );
+        replicaB = dataSource.getReplicas().get( 1 );
+    }
+
+    @Test
+    void testSelectLeastLoadedReplica()
+        throws SQLException
+    {
+        try ( Connection first = dataSource.getConnection();
+            Connection second = dataSource.getConnection() )
+        {
+            assertEquals( 1, replicaA.getInUse() );
+            assertEquals( 1, replicaB.getInUse() );
+            assertNotNull( dataSource.selectReplica() );
+        }
+
+        assertEquals( 0, replicaA.getInUse() );
+        assertEquals( 0, replicaB.getInUse() );
+    }
+
+    @Test
+    void testCloseTwiceReleasesOnce()
+        throws SQLException
+    {
+        replicaB.failed();
+
+        Connection connection = dataSource.getConnection();
+        assertEquals( 1, replicaA.getInUse() );
+
+        connection.close();
+        connection.close();
+        assertEquals( 0, replicaA.getInUse() );
+    }
+
+    @Test
+    void testGetConnectionWithCredentials()
+        throws SQLException
+    {
+        replicaB.failed();
+
+        try ( Connection connection = dataSource.getConnection( "sa", "" ) )
+        {
+            assertEquals( "jdbc:h2:mem:replicaA", connection.getMetaData().getURL() );
+            assertEquals( 1, replicaA.getInUse() );
+        }
+
+        assertEquals( 0, replicaA.getInUse() );
+    }
+
+    @Test
+    void testGetConnectionWithCredentialsFallsBackToPrimary()
+        throws SQLException
+    {
+        replicaA.failed();
+        replicaB.failed();
+
+        try ( Connection connection = dataSource.getConnection( "sa", "" ) )
+        {
+            assertEquals( "jdbc:h2:mem:primary", connection.getMetaData().getURL() );
+        }
+    }
+
+    @Test
+    void testSkipLaggingAndFailedReplicas()
+    {
+        replicaA.checked( 5000 );
+        assertSame( replicaB, dataSource.selectReplica() );
+        assertSame( replicaB, dataSource.selectReplica() );
+
+        replicaB.failed();
+        assertNull( dataSource.selectReplica() );
+
+        replicaA.checked( 0 );
+        assertSame( replicaA, dataSource.selectReplica() );
+    }
+
+    @Test
+    void testFallBackToPrimary()
+        throws SQLException
+    {
+        replicaA.failed();
+        replicaB.failed();
+
+        try ( Connection connection = dataSource.getConnection() )
+        {
+            assertEquals( "jdbc:h2:mem:primary", connection.getMetaData().getURL() );
+        }
+
+        assertEquals( 0, replicaA.getInUse() );
+        assertEquals( 0, replicaB.getInUse() );
+    }
+
+    @Test
+    void testFailedCheckMarksReplicaUnhealthy()
+    {
+        // H2 does not support the replication lag functions
+        dataSource.checkReplicas();
+
+        assertNull( dataSource.selectReplica() );
+    }
+
+    private static DataSource createDataSource( String name )
+    {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL( "jdbc:h2:mem:" + name );
+        return dataSource;
+    }
+}
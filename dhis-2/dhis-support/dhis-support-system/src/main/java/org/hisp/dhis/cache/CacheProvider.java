@@ -129,4 +129,6 @@ public interface CacheProvider
     <V> Cache<V> createCompletedJobsInfoCache();
 
     <V> Cache<V> createJobCancelRequestedCache();
+
+    <V> Cache<V> createDataIntegritySummaryCache( Duration expirationTime );
 }
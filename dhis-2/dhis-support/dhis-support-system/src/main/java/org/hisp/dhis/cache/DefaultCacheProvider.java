@@ -127,7 +127,8 @@ public class DefaultCacheProvider
         securityCache,
         runningJobsInfo,
         completedJobsInfo,
-        jobCancelRequested
+        jobCancelRequested,
+        dataIntegritySummary
     }
 
     private final Map<String, Cache<?>> allCaches = new ConcurrentHashMap<>();
@@ -598,4 +599,19 @@ public class DefaultCacheProvider
             .forRegion( Region.jobCancelRequested.name() )
             .expireAfterWrite( 60, SECONDS ) );
     }
+
+    /**
+     * Cache for data integrity summary results. A zero expiration time
+     * disables the cache.
+     */
+    @Override
+    public <V> Cache<V> createDataIntegritySummaryCache( Duration expirationTime )
+    {
+        CacheBuilder<V> builder = this.<V> newBuilder()
+            .forRegion( Region.dataIntegritySummary.name() )
+            .expireAfterWrite( expirationTime.toMillis(), MILLISECONDS )
+            .forceInMemory()
+            .withMaximumSize( orZeroInTestRun( getActualSize( SIZE_100 ) ) );
+        return registerCache( expirationTime.isZero() ? builder.disabled() : builder );
+    }
 }
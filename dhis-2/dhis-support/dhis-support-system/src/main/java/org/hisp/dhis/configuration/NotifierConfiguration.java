@@ -29,6 +29,7 @@ package org.hisp.dhis.configuration;
 
 import org.hisp.dhis.condition.RedisDisabledCondition;
 import org.hisp.dhis.condition.RedisEnabledCondition;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.system.notification.InMemoryNotifier;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.system.notification.RedisNotifier;
@@ -37,6 +38,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -55,9 +57,20 @@ public class NotifierConfiguration
     @SuppressWarnings( "unchecked" )
     @Bean( "notifier" )
     @Conditional( RedisEnabledCondition.class )
-    public Notifier redisNotifier( ObjectMapper objectMapper )
+    public Notifier redisNotifier( ObjectMapper objectMapper,
+        RedisMessageListenerContainer notifierListenerContainer, DhisConfigurationProvider dhisConfig )
     {
-        return new RedisNotifier( (RedisTemplate<String, String>) redisTemplate, objectMapper );
+        return new RedisNotifier( (RedisTemplate<String, String>) redisTemplate, objectMapper,
+            notifierListenerContainer, dhisConfig.isClusterEnabled() );
+    }
+
+    @Bean
+    @Conditional( RedisEnabledCondition.class )
+    public RedisMessageListenerContainer notifierListenerContainer()
+    {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory( redisTemplate.getConnectionFactory() );
+        return container;
     }
 
     @Bean( "notifier" )
@@ -0,0 +1,646 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+
+/**
+ * A {@link Grid} which stores its values column by column instead of row by
+ * row. Numeric columns are stored in primitive arrays and string columns are
+ * dictionary encoded, see {@link GridColumn}, which makes the grid
+ * considerably more compact than {@link ListGrid} for large results with many
+ * repeated identifiers and names.
+ * <p>
+ * Rows returned by {@link #getRow(int)} and {@link #getRows()} are views of
+ * the columns. Values written through a row view are written to the grid.
+ * Rows which are shorter than the widest row are padded with null values.
+ */
+public class ColumnarGrid
+    extends ListGrid
+{
+    /**
+     * The columns of the grid, all of which have a size equal to the height
+     * of the grid.
+     */
+    private final List<GridColumn> columns = new ArrayList<>();
+
+    /**
+     * The number of rows of the grid.
+     */
+    private int height;
+
+    /**
+     * The number of values written to the current row for writing data.
+     */
+    private int currentRowWidth;
+
+    /**
+     * Default constructor.
+     */
+    public ColumnarGrid()
+    {
+        super();
+    }
+
+    /**
+     * @param metaData meta data.
+     * @param internalMetaData internal meta data.
+     */
+    public ColumnarGrid( Map<String, Object> metaData, Map<String, Object> internalMetaData )
+    {
+        super( metaData, internalMetaData );
+    }
+
+    // ---------------------------------------------------------------------
+    // Public methods
+    // ---------------------------------------------------------------------
+
+    @Override
+    public int getHeight()
+    {
+        return height;
+    }
+
+    @Override
+    public int getWidth()
+    {
+        return height > 0 ? columns.size() : 0;
+    }
+
+    @Override
+    public int getVisibleWidth()
+    {
+        if ( height == 0 )
+        {
+            return 0;
+        }
+
+        List<GridHeader> headers = getHeaders();
+
+        int width = 0;
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            if ( !headers.get( i ).isHidden() )
+            {
+                width++;
+            }
+        }
+
+        return width;
+    }
+
+    @Override
+    public Grid addRow()
+    {
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            columns.set( i, columns.get( i ).add( null ) );
+        }
+
+        height++;
+        currentRowWidth = 0;
+
+        return this;
+    }
+
+    @Override
+    public Grid addRows( Grid grid )
+    {
+        for ( List<Object> row : grid.getRows() )
+        {
+            addRow();
+            addValues( row.toArray() );
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid addValue( Object value )
+    {
+        if ( height == 0 )
+        {
+            throw new IllegalStateException( "Grid has no row to add values to" );
+        }
+
+        setValue( height - 1, currentRowWidth++, value );
+
+        return this;
+    }
+
+    @Override
+    public Grid addValues( Object[] values )
+    {
+        for ( Object value : values )
+        {
+            addValue( value );
+        }
+
+        return this;
+    }
+
+    @Override
+    public List<Object> getRow( int rowIndex )
+    {
+        Objects.checkIndex( rowIndex, height );
+
+        return new Row( rowIndex );
+    }
+
+    @Override
+    public List<List<Object>> getRows()
+    {
+        return new Rows();
+    }
+
+    @Override
+    public List<List<Object>> getVisibleRows()
+    {
+        List<GridHeader> headers = getHeaders();
+
+        List<List<Object>> tempGrid = new ArrayList<>();
+
+        if ( headers != null && headers.size() > 0 )
+        {
+            for ( int rowIndex = 0; rowIndex < height; rowIndex++ )
+            {
+                List<Object> tempRow = new ArrayList<>();
+
+                for ( int i = 0; i < columns.size(); i++ )
+                {
+                    if ( !headers.get( i ).isHidden() )
+                    {
+                        tempRow.add( columns.get( i ).get( rowIndex ) );
+                    }
+                }
+
+                tempGrid.add( tempRow );
+            }
+        }
+
+        return tempGrid;
+    }
+
+    @Override
+    public List<Object> getColumn( int columnIndex )
+    {
+        return height > 0 ? columns.get( columnIndex ).toList() : new ArrayList<>();
+    }
+
+    @Override
+    public Object getValue( int rowIndex, int columnIndex )
+    {
+        if ( rowIndex >= height || columnIndex >= columns.size() )
+        {
+            throw new IllegalArgumentException( "Grid does not contain the requested row / column" );
+        }
+
+        return columns.get( columnIndex ).get( rowIndex );
+    }
+
+    @Override
+    public Grid addColumn( List<Object> columnValues )
+    {
+        verifyColumnSize( columnValues );
+
+        if ( height > 0 )
+        {
+            columns.add( GridColumn.of( columnValues ) );
+            currentRowWidth = columns.size();
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid addColumn( int columnIndex, List<Object> columnValues )
+    {
+        verifyColumnSize( columnValues );
+
+        if ( height > 0 )
+        {
+            columns.add( columnIndex, GridColumn.of( columnValues ) );
+            currentRowWidth++;
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid addAndPopulateColumnsBefore( int referenceColumnIndex, Map<Object, List<?>> valueMap, int newColumns )
+    {
+        Validate.inclusiveBetween( 0, getWidth() - 1, referenceColumnIndex );
+        Validate.notNull( valueMap );
+
+        GridColumn referenceColumn = columns.get( referenceColumnIndex );
+
+        List<GridColumn> populatedColumns = new ArrayList<>();
+
+        for ( int i = 0; i < newColumns; i++ )
+        {
+            populatedColumns.add( GridColumn.ofNulls( 0 ) );
+        }
+
+        for ( int rowIndex = 0; rowIndex < height; rowIndex++ )
+        {
+            List<?> list = valueMap.get( referenceColumn.get( rowIndex ) );
+
+            for ( int i = 0; i < newColumns; i++ )
+            {
+                Object value = list == null || i >= list.size() ? null : list.get( i );
+                populatedColumns.set( i, populatedColumns.get( i ).add( value ) );
+            }
+        }
+
+        columns.addAll( referenceColumnIndex, populatedColumns );
+        currentRowWidth += newColumns;
+
+        return this;
+    }
+
+    @Override
+    public boolean columnIsEmpty( int columnIndex )
+    {
+        return height == 0 || columns.get( columnIndex ).isEmpty();
+    }
+
+    @Override
+    public Grid removeColumn( int columnIndex )
+    {
+        if ( columnIndex < columns.size() )
+        {
+            columns.remove( columnIndex );
+
+            if ( columnIndex < currentRowWidth )
+            {
+                currentRowWidth--;
+            }
+        }
+
+        return super.removeColumn( columnIndex );
+    }
+
+    @Override
+    public Grid removeCurrentWriteRow()
+    {
+        removeRow( height - 1 );
+
+        currentRowWidth = columns.size();
+
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int limit )
+    {
+        if ( limit < 0 )
+        {
+            throw new IllegalStateException( "Illegal limit: " + limit );
+        }
+
+        if ( limit > 0 && limit <= height )
+        {
+            retainRows( 0, limit );
+        }
+
+        return this;
+    }
+
+    @Override
+    public Grid limitGrid( int startPos, int endPos )
+    {
+        if ( startPos < 0 || endPos < startPos || endPos > height )
+        {
+            throw new IllegalStateException(
+                "Illegal start / end pos: " + startPos + ", " + endPos + ", " + height );
+        }
+
+        retainRows( startPos, endPos );
+
+        return this;
+    }
+
+    @Override
+    public Grid sortGrid( int columnIndex, int order )
+    {
+        if ( order == 0 )
+        {
+            return this; // No sorting
+        }
+
+        columnIndex--;
+
+        if ( columnIndex < 0 || columnIndex >= getWidth() )
+        {
+            throw new IllegalArgumentException( "Column index out of bounds: " + columnIndex );
+        }
+
+        GridColumn column = columns.get( columnIndex );
+
+        sortRows( ( row1, row2 ) -> GridRowComparator.compareValues(
+            column.get( row1 ), column.get( row2 ), order ) );
+
+        return this;
+    }
+
+    @Override
+    public Grid substituteMetaData( int sourceColumnIndex, int targetColumnIndex,
+        Map<? extends Object, ? extends Object> metaDataMap )
+    {
+        if ( metaDataMap == null || height == 0 )
+        {
+            return this;
+        }
+
+        GridColumn sourceColumn = columns.get( sourceColumnIndex );
+
+        for ( int rowIndex = 0; rowIndex < height; rowIndex++ )
+        {
+            Object metaValue = metaDataMap.get( sourceColumn.get( rowIndex ) );
+
+            if ( metaValue != null )
+            {
+                setValue( rowIndex, targetColumnIndex, metaValue );
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings( "unchecked" )
+    public <T> Map<String, T> getAsMap( int valueIndex, String keySeparator )
+    {
+        Map<String, T> map = new HashMap<>();
+
+        for ( int rowIndex = 0; rowIndex < height; rowIndex++ )
+        {
+            List<Object> metaDataRow = new ArrayList<>( getRow( rowIndex ) );
+
+            T value = (T) metaDataRow.remove( valueIndex );
+
+            map.put( StringUtils.join( metaDataRow, keySeparator ), value );
+        }
+
+        return map;
+    }
+
+    @Override
+    public void repositionColumns( final Set<Integer> newColumnsIndexes )
+    {
+        if ( height == 0 )
+        {
+            return;
+        }
+
+        final List<Integer> newIndexes = new ArrayList<>( newColumnsIndexes );
+        final List<GridColumn> orderedColumns = new ArrayList<>();
+
+        for ( int i = 0; i < columns.size(); i++ )
+        {
+            orderedColumns.add( columns.get( newIndexes.get( i ) ) );
+        }
+
+        columns.clear();
+        columns.addAll( orderedColumns );
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    /**
+     * Sets the value of the given cell, adding columns padded with null values
+     * if the column does not exist yet.
+     */
+    private void setValue( int rowIndex, int columnIndex, Object value )
+    {
+        while ( columnIndex >= columns.size() )
+        {
+            columns.add( GridColumn.ofNulls( height ) );
+        }
+
+        columns.set( columnIndex, columns.get( columnIndex ).set( rowIndex, value ) );
+    }
+
+    private void removeRow( int rowIndex )
+    {
+        Objects.checkIndex( rowIndex, height );
+
+        columns.forEach( column -> column.remove( rowIndex ) );
+
+        height--;
+    }
+
+    private void retainRows( int startPos, int endPos )
+    {
+        columns.forEach( column -> column.retain( startPos, endPos ) );
+
+        height = endPos - startPos;
+    }
+
+    /**
+     * Sorts the rows of the grid by sorting the row indexes with the given
+     * comparator and reordering each column accordingly. The sort is stable.
+     */
+    private void sortRows( Comparator<Integer> comparator )
+    {
+        Integer[] indexes = new Integer[height];
+
+        Arrays.setAll( indexes, i -> i );
+        Arrays.sort( indexes, comparator );
+
+        int[] order = Arrays.stream( indexes ).mapToInt( Integer::intValue ).toArray();
+
+        columns.forEach( column -> column.reorder( order ) );
+    }
+
+    private void verifyColumnSize( List<Object> columnValues )
+    {
+        if ( height != columnValues.size() )
+        {
+            throw new IllegalStateException( "Number of column values (" + columnValues.size()
+                + ") is not equal to number of rows (" + height + ")" );
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // toString
+    // -------------------------------------------------------------------------
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder( "[\n" );
+
+        List<GridHeader> headers = getHeaders();
+
+        if ( headers != null && headers.size() > 0 )
+        {
+            List<String> headerNames = new ArrayList<>();
+
+            for ( GridHeader header : headers )
+            {
+                headerNames.add( header.getName() );
+            }
+
+            builder.append( headerNames ).append( "\n" );
+        }
+
+        for ( List<Object> row : getRows() )
+        {
+            builder.append( row ).append( "\n" );
+        }
+
+        return builder.append( "]" ).toString();
+    }
+
+    // -------------------------------------------------------------------------
+    // Row views
+    // -------------------------------------------------------------------------
+
+    /**
+     * View of a single row of the grid.
+     */
+    private final class Row
+        extends AbstractList<Object>
+        implements RandomAccess
+    {
+        private final int rowIndex;
+
+        private Row( int rowIndex )
+        {
+            this.rowIndex = rowIndex;
+        }
+
+        @Override
+        public Object get( int index )
+        {
+            return columns.get( index ).get( rowIndex );
+        }
+
+        @Override
+        public Object set( int index, Object element )
+        {
+            Object previous = get( index );
+            setValue( rowIndex, index, element );
+            return previous;
+        }
+
+        @Override
+        public int size()
+        {
+            return columns.size();
+        }
+    }
+
+    /**
+     * View of all rows of the grid. Rows can be replaced, appended and
+     * removed, replaced rows are copied into the grid.
+     */
+    private final class Rows
+        extends AbstractList<List<Object>>
+        implements RandomAccess
+    {
+        @Override
+        public List<Object> get( int index )
+        {
+            return getRow( index );
+        }
+
+        @Override
+        public List<Object> set( int index, List<Object> element )
+        {
+            List<Object> previous = new ArrayList<>( getRow( index ) );
+
+            for ( int i = 0; i < Math.max( element.size(), columns.size() ); i++ )
+            {
+                setValue( index, i, i < element.size() ? element.get( i ) : null );
+            }
+
+            return previous;
+        }
+
+        @Override
+        public void add( int index, List<Object> element )
+        {
+            if ( index != height )
+            {
+                throw new UnsupportedOperationException( "Rows can only be appended to the grid" );
+            }
+
+            addRow();
+            addValues( element.toArray() );
+            modCount++;
+        }
+
+        @Override
+        public List<Object> remove( int index )
+        {
+            List<Object> previous = new ArrayList<>( getRow( index ) );
+            removeRow( index );
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear()
+        {
+            retainRows( 0, 0 );
+            modCount++;
+        }
+
+        @Override
+        public void sort( Comparator<? super List<Object>> comparator )
+        {
+            sortRows( ( row1, row2 ) -> comparator.compare( getRow( row1 ), getRow( row2 ) ) );
+            modCount++;
+        }
+
+        @Override
+        public int size()
+        {
+            return height;
+        }
+    }
+}
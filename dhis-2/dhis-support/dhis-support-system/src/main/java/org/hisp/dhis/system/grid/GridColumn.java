@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A column of values of a {@link ColumnarGrid}.
+ * <p>
+ * The storage of a column is chosen by the first value which is not null.
+ * Double values are stored in a primitive double array, integer and long
+ * values in a primitive long array, and strings are dictionary encoded so that
+ * each distinct string is referenced once. When a value does not fit the
+ * storage of the column, or a string column turns out to have too many
+ * distinct values for a dictionary to pay off, the column is converted to
+ * plain object storage.
+ * <p>
+ * Methods which add or set values return the column which holds the value,
+ * which is a different column if the column had to be converted.
+ */
+abstract class GridColumn
+    implements Serializable
+{
+    /**
+     * Number of distinct strings up to which a string column is always
+     * dictionary encoded. Beyond this, at most every second value of a
+     * dictionary encoded column may be distinct.
+     */
+    static final int MIN_DICTIONARY_SIZE = 1024;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    protected int size;
+
+    /**
+     * Returns a column with the given number of null values.
+     *
+     * @param nulls the number of null values.
+     * @return a {@link GridColumn}.
+     */
+    static GridColumn ofNulls( int nulls )
+    {
+        NullColumn column = new NullColumn();
+        column.size = nulls;
+        return column;
+    }
+
+    /**
+     * Returns a column with the given values.
+     *
+     * @param values the values.
+     * @return a {@link GridColumn}.
+     */
+    static GridColumn of( List<?> values )
+    {
+        GridColumn column = ofNulls( 0 );
+
+        for ( Object value : values )
+        {
+            column = column.add( value );
+        }
+
+        return column;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    GridColumn add( Object value )
+    {
+        if ( value != null && !accepts( value ) )
+        {
+            return convert( value ).add( value );
+        }
+
+        ensureCapacity( size + 1 );
+        store( size++, value );
+        return this;
+    }
+
+    GridColumn set( int row, Object value )
+    {
+        Objects.checkIndex( row, size );
+
+        if ( value != null && !accepts( value ) )
+        {
+            return convert( value ).set( row, value );
+        }
+
+        store( row, value );
+        return this;
+    }
+
+    Object get( int row )
+    {
+        Objects.checkIndex( row, size );
+
+        return load( row );
+    }
+
+    boolean isEmpty()
+    {
+        for ( int i = 0; i < size; i++ )
+        {
+            if ( load( i ) != null )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    List<Object> toList()
+    {
+        List<Object> values = new ArrayList<>( size );
+
+        for ( int i = 0; i < size; i++ )
+        {
+            values.add( load( i ) );
+        }
+
+        return values;
+    }
+
+    /**
+     * Removes the value of the given row, subsequent rows are moved up.
+     */
+    abstract void remove( int row );
+
+    /**
+     * Keeps only the rows from the given start row inclusive to the given end
+     * row exclusive.
+     */
+    abstract void retain( int start, int end );
+
+    /**
+     * Reorders the rows of this column, so that row {@code i} holds the value
+     * previously held by row {@code order[i]}.
+     */
+    abstract void reorder( int[] order );
+
+    protected abstract boolean accepts( Object value );
+
+    protected abstract void ensureCapacity( int capacity );
+
+    protected abstract void store( int row, Object value );
+
+    protected abstract Object load( int row );
+
+    /**
+     * Returns a copy of this column which can hold the given value.
+     */
+    protected GridColumn convert( Object value )
+    {
+        ObjectColumn column = new ObjectColumn();
+        column.values.addAll( toList() );
+        column.size = size;
+        return column;
+    }
+
+    protected static int grow( int length, int capacity )
+    {
+        return Math.max( capacity, Math.max( INITIAL_CAPACITY, length + (length >> 1) ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Implementations
+    // -------------------------------------------------------------------------
+
+    /**
+     * A column which only holds null values so far.
+     */
+    static final class NullColumn
+        extends GridColumn
+    {
+        @Override
+        void remove( int row )
+        {
+            Objects.checkIndex( row, size );
+            size--;
+        }
+
+        @Override
+        void retain( int start, int end )
+        {
+            size = end - start;
+        }
+
+        @Override
+        void reorder( int[] order )
+        {
+            // All values are null
+        }
+
+        @Override
+        protected boolean accepts( Object value )
+        {
+            return false;
+        }
+
+        @Override
+        protected void ensureCapacity( int capacity )
+        {
+            // No storage
+        }
+
+        @Override
+        protected void store( int row, Object value )
+        {
+            // Only null values are accepted
+        }
+
+        @Override
+        protected Object load( int row )
+        {
+            return null;
+        }
+
+        @Override
+        protected GridColumn convert( Object value )
+        {
+            GridColumn column;
+
+            if ( value instanceof Double )
+            {
+                column = new DoubleColumn();
+            }
+            else if ( value instanceof Integer || value instanceof Long )
+            {
+                column = new LongColumn( value instanceof Integer );
+            }
+            else if ( value instanceof String )
+            {
+                column = new DictionaryColumn();
+            }
+            else
+            {
+                column = new ObjectColumn();
+            }
+
+            column.ensureCapacity( size );
+
+            for ( int i = 0; i < size; i++ )
+            {
+                column.store( i, null );
+            }
+
+            column.size = size;
+            return column;
+        }
+    }
+
+    /**
+     * A column holding any kind of value.
+     */
+    static final class ObjectColumn
+        extends GridColumn
+    {
+        private final ArrayList<Object> values = new ArrayList<>();
+
+        @Override
+        void remove( int row )
+        {
+            values.remove( row );
+            size--;
+        }
+
+        @Override
+        void retain( int start, int end )
+        {
+            values.subList( end, size ).clear();
+            values.subList( 0, start ).clear();
+            values.trimToSize();
+            size = end - start;
+        }
+
+        @Override
+        void reorder( int[] order )
+        {
+            Object[] old = values.toArray();
+
+            for ( int i = 0; i < order.length; i++ )
+            {
+                values.set( i, old[order[i]] );
+            }
+        }
+
+        @Override
+        protected boolean accepts( Object value )
+        {
+            return true;
+        }
+
+        @Override
+        protected void ensureCapacity( int capacity )
+        {
+            values.ensureCapacity( capacity );
+        }
+
+        @Override
+        protected void store( int row, Object value )
+        {
+            if ( row == values.size() )
+            {
+                values.add( value );
+            }
+            else
+            {
+                values.set( row, value );
+            }
+        }
+
+        @Override
+        protected Object load( int row )
+        {
+            return values.get( row );
+        }
+    }
+
+    /**
+     * A column holding double values in a primitive array.
+     */
+    static final class DoubleColumn
+        extends GridColumn
+    {
+        private double[] values = new double[0];
+
+        private BitSet nulls = new BitSet();
+
+        @Override
+        void remove( int row )
+        {
+            Objects.checkIndex( row, size );
+            System.arraycopy( values, row + 1, values, row, size - row - 1 );
+            nulls = removeBit( nulls, row, size );
+            size--;
+        }
+
+        @Override
+        void retain( int start, int end )
+        {
+            values = Arrays.copyOfRange( values, start, end );
+            nulls = nulls.get( start, end );
+            size = end - start;
+        }
+
+        @Override
+        void reorder( int[] order )
+        {
+            double[] reordered = new double[values.length];
+
+            for ( int i = 0; i < order.length; i++ )
+            {
+                reordered[i] = values[order[i]];
+            }
+
+            values = reordered;
+            nulls = reorderBits( nulls, order );
+        }
+
+        @Override
+        protected boolean accepts( Object value )
+        {
+            return value instanceof Double;
+        }
+
+        @Override
+        protected void ensureCapacity( int capacity )
+        {
+            if ( capacity > values.length )
+            {
+                values = Arrays.copyOf( values, grow( values.length, capacity ) );
+            }
+        }
+
+        @Override
+        protected void store( int row, Object value )
+        {
+            nulls.set( row, value == null );
+            values[row] = value == null ? 0d : (Double) value;
+        }
+
+        @Override
+        protected Object load( int row )
+        {
+            return nulls.get( row ) ? null : values[row];
+        }
+    }
+
+    /**
+     * A column holding integer or long values in a primitive array. Values are
+     * returned with the type of the first value of the column, a value of the
+     * other type converts the column to object storage.
+     */
+    static final class LongColumn
+        extends GridColumn
+    {
+        private final boolean integers;
+
+        private long[] values = new long[0];
+
+        private BitSet nulls = new BitSet();
+
+        LongColumn( boolean integers )
+        {
+            this.integers = integers;
+        }
+
+        @Override
+        void remove( int row )
+        {
+            Objects.checkIndex( row, size );
+            System.arraycopy( values, row + 1, values, row, size - row - 1 );
+            nulls = removeBit( nulls, row, size );
+            size--;
+        }
+
+        @Override
+        void retain( int start, int end )
+        {
+            values = Arrays.copyOfRange( values, start, end );
+            nulls = nulls.get( start, end );
+            size = end - start;
+        }
+
+        @Override
+        void reorder( int[] order )
+        {
+            long[] reordered = new long[values.length];
+
+            for ( int i = 0; i < order.length; i++ )
+            {
+                reordered[i] = values[order[i]];
+            }
+
+            values = reordered;
+            nulls = reorderBits( nulls, order );
+        }
+
+        @Override
+        protected boolean accepts( Object value )
+        {
+            return integers ? value instanceof Integer : value instanceof Long;
+        }
+
+        @Override
+        protected void ensureCapacity( int capacity )
+        {
+            if ( capacity > values.length )
+            {
+                values = Arrays.copyOf( values, grow( values.length, capacity ) );
+            }
+        }
+
+        @Override
+        protected void store( int row, Object value )
+        {
+            nulls.set( row, value == null );
+            values[row] = value == null ? 0L : ((Number) value).longValue();
+        }
+
+        @Override
+        protected Object load( int row )
+        {
+            if ( nulls.get( row ) )
+            {
+                return null;
+            }
+
+            if ( integers )
+            {
+                return (int) values[row];
+            }
+
+            return values[row];
+        }
+    }
+
+    /**
+     * A column holding strings as indexes into a dictionary of the distinct
+     * strings of the column.
+     */
+    static final class DictionaryColumn
+        extends GridColumn
+    {
+        private static final int NULL = -1;
+
+        private int[] codes = new int[0];
+
+        private final ArrayList<String> dictionary = new ArrayList<>();
+
+        private transient Map<String, Integer> lookup;
+
+        @Override
+        void remove( int row )
+        {
+            Objects.checkIndex( row, size );
+            System.arraycopy( codes, row + 1, codes, row, size - row - 1 );
+            size--;
+        }
+
+        @Override
+        void retain( int start, int end )
+        {
+            codes = Arrays.copyOfRange( codes, start, end );
+            size = end - start;
+        }
+
+        @Override
+        void reorder( int[] order )
+        {
+            int[] reordered = new int[codes.length];
+
+            for ( int i = 0; i < order.length; i++ )
+            {
+                reordered[i] = codes[order[i]];
+            }
+
+            codes = reordered;
+        }
+
+        @Override
+        protected boolean accepts( Object value )
+        {
+            if ( !(value instanceof String) )
+            {
+                return false;
+            }
+
+            return dictionary.size() < MIN_DICTIONARY_SIZE || dictionary.size() * 2 < size
+                || getLookup().containsKey( value );
+        }
+
+        @Override
+        protected void ensureCapacity( int capacity )
+        {
+            if ( capacity > codes.length )
+            {
+                codes = Arrays.copyOf( codes, grow( codes.length, capacity ) );
+            }
+        }
+
+        @Override
+        protected void store( int row, Object value )
+        {
+            codes[row] = value == null ? NULL : getLookup().computeIfAbsent( (String) value, this::addEntry );
+        }
+
+        @Override
+        protected Object load( int row )
+        {
+            return codes[row] == NULL ? null : dictionary.get( codes[row] );
+        }
+
+        private Integer addEntry( String value )
+        {
+            dictionary.add( value );
+            return dictionary.size() - 1;
+        }
+
+        private Map<String, Integer> getLookup()
+        {
+            if ( lookup == null )
+            {
+                lookup = new HashMap<>();
+
+                for ( int i = 0; i < dictionary.size(); i++ )
+                {
+                    lookup.put( dictionary.get( i ), i );
+                }
+            }
+
+            return lookup;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private static BitSet removeBit( BitSet bits, int row, int size )
+    {
+        BitSet result = bits.get( 0, row );
+
+        for ( int i = bits.nextSetBit( row + 1 ); i >= 0 && i < size; i = bits.nextSetBit( i + 1 ) )
+        {
+            result.set( i - 1 );
+        }
+
+        return result;
+    }
+
+    private static BitSet reorderBits( BitSet bits, int[] order )
+    {
+        BitSet result = new BitSet( order.length );
+
+        for ( int i = 0; i < order.length; i++ )
+        {
+            result.set( i, bits.get( order[i] ) );
+        }
+
+        return result;
+    }
+}
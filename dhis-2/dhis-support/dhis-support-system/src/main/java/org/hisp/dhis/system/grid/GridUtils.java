@@ -271,6 +271,39 @@ public class GridUtils
         workbook.close();
     }
 
+    /**
+     * Writes a XLSX (Excel 2007+ workbook) representation of the given list of
+     * Grids to the given OutputStream. Rows are streamed to the output, see
+     * {@link GridXlsxWriter}.
+     */
+    public static void toXlsx( List<Grid> grids, OutputStream out )
+        throws IOException
+    {
+        try ( GridXlsxWriter writer = new GridXlsxWriter( out ) )
+        {
+            for ( Grid grid : grids )
+            {
+                writer.writeGrid( grid );
+            }
+
+            writer.finish();
+        }
+    }
+
+    /**
+     * Writes a XLSX (Excel 2007+ workbook) representation of the given Grid to
+     * the given OutputStream. Rows are streamed to the output, see
+     * {@link GridXlsxWriter}.
+     */
+    public static void toXlsx( Grid grid, OutputStream out )
+        throws IOException
+    {
+        try ( GridXlsxWriter writer = new GridXlsxWriter( out ) )
+        {
+            writer.writeGrid( grid ).finish();
+        }
+    }
+
     private static void toXlsInternal( Grid grid, Sheet sheet, CellStyle headerCellStyle, CellStyle cellStyle )
     {
         if ( grid == null )
@@ -758,7 +791,7 @@ public class GridUtils
         return grid != null && grid.getVisibleWidth() > 0;
     }
 
-    private static CellStyle createHeaderCellStyle( Workbook workbook )
+    static CellStyle createHeaderCellStyle( Workbook workbook )
     {
         CellStyle headerCellStyle = workbook.createCellStyle();
         Font headerFont = workbook.createFont();
@@ -769,7 +802,7 @@ public class GridUtils
         return headerCellStyle;
     }
 
-    private static CellStyle createCellStyle( Workbook workbook )
+    static CellStyle createCellStyle( Workbook workbook )
     {
         CellStyle cellStyle = workbook.createCellStyle();
         Font cellFont = workbook.createFont();
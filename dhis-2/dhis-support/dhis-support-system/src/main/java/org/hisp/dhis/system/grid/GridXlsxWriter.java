@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridWriter;
+import org.hisp.dhis.commons.collection.ListUtils;
+import org.hisp.dhis.system.util.MathUtils;
+
+/**
+ * Writes grids as an XLSX (Excel 2007+) workbook while keeping only a window
+ * of rows in memory. Rows which move out of the window are flushed to a
+ * temporary file, which is removed again when the writer is closed.
+ * <p>
+ * Rows can be written straight from a query through the {@link GridWriter}
+ * methods, or from a {@link Grid} through {@link #writeGrid(Grid)}. When a
+ * sheet reaches the maximum number of rows of the format, the rows continue
+ * on a new sheet which repeats the headers.
+ * <p>
+ * The workbook is written to the output stream by {@link #finish()}.
+ */
+@Slf4j
+public class GridXlsxWriter
+    implements GridWriter, Closeable
+{
+    public static final int DEFAULT_ROW_WINDOW_SIZE = 100;
+
+    private static final String SHEET_PREFIX = "Sheet ";
+
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private static final int MAX_COLS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+
+    private final OutputStream out;
+
+    private final int maxRows;
+
+    private final SXSSFWorkbook workbook;
+
+    private final CellStyle headerCellStyle;
+
+    private final CellStyle cellStyle;
+
+    private Sheet sheet;
+
+    private String sheetName;
+
+    private int sheetCount;
+
+    private int rowNumber;
+
+    private List<GridHeader> headers;
+
+    public GridXlsxWriter( OutputStream out )
+    {
+        this( out, DEFAULT_ROW_WINDOW_SIZE );
+    }
+
+    /**
+     * @param out the output stream to write the workbook to.
+     * @param rowWindowSize the number of rows to keep in memory per sheet.
+     */
+    public GridXlsxWriter( OutputStream out, int rowWindowSize )
+    {
+        this( out, rowWindowSize, MAX_ROWS );
+    }
+
+    GridXlsxWriter( OutputStream out, int rowWindowSize, int maxRows )
+    {
+        this.out = out;
+        this.maxRows = maxRows;
+        this.workbook = new SXSSFWorkbook( rowWindowSize );
+        this.workbook.setCompressTempFiles( true );
+        this.headerCellStyle = GridUtils.createHeaderCellStyle( workbook );
+        this.cellStyle = GridUtils.createCellStyle( workbook );
+    }
+
+    /**
+     * Starts a new sheet with the given title and subtitle. If no sheet is
+     * started, the first row written starts a sheet without title.
+     *
+     * @param title the title, used as sheet name, can be null.
+     * @param subtitle the subtitle, can be null.
+     * @return this writer.
+     */
+    public GridXlsxWriter startSheet( String title, String subtitle )
+    {
+        sheetName = createSheetName( title );
+        sheet = workbook.createSheet( sheetName );
+        rowNumber = 0;
+        headers = null;
+
+        if ( StringUtils.isNotEmpty( title ) )
+        {
+            writeTextRow( title );
+        }
+
+        if ( StringUtils.isNotEmpty( subtitle ) )
+        {
+            writeTextRow( subtitle );
+        }
+
+        if ( rowNumber > 0 )
+        {
+            rowNumber++;
+        }
+
+        return this;
+    }
+
+    /**
+     * Writes the visible headers and rows of the given grid to a new sheet.
+     *
+     * @param grid the grid.
+     * @return this writer.
+     */
+    public GridXlsxWriter writeGrid( Grid grid )
+    {
+        startSheet( grid.getTitle(), grid.getSubtitle() );
+        writeHeaders( grid.getVisibleHeaders() );
+
+        for ( List<Object> row : grid.getVisibleRows() )
+        {
+            writeRow( row );
+        }
+
+        return this;
+    }
+
+    @Override
+    public void writeHeaders( List<GridHeader> headers )
+    {
+        if ( sheet == null )
+        {
+            startSheet( null, null );
+        }
+
+        if ( headers.size() > MAX_COLS )
+        {
+            log.warn( "Grid will be truncated, no of columns is greater than XLSX max limit: " + headers.size() + "/"
+                + MAX_COLS );
+        }
+
+        this.headers = ListUtils.subList( headers, 0, MAX_COLS );
+
+        writeHeaderRow();
+    }
+
+    @Override
+    public void writeRow( List<Object> row )
+    {
+        if ( sheet == null )
+        {
+            startSheet( null, null );
+        }
+
+        if ( rowNumber == maxRows )
+        {
+            continueSheet();
+        }
+
+        Row xlsRow = sheet.createRow( rowNumber++ );
+        xlsRow.setRowStyle( cellStyle );
+
+        int columnIndex = 0;
+
+        for ( Object column : ListUtils.subList( row, 0, MAX_COLS ) )
+        {
+            if ( column != null && MathUtils.isNumeric( String.valueOf( column ) ) )
+            {
+                xlsRow.createCell( columnIndex++, CellType.NUMERIC )
+                    .setCellValue( Double.parseDouble( String.valueOf( column ) ) );
+            }
+            else
+            {
+                xlsRow.createCell( columnIndex++, CellType.STRING )
+                    .setCellValue( column != null ? String.valueOf( column ) : StringUtils.EMPTY );
+            }
+        }
+    }
+
+    /**
+     * Writes the workbook to the output stream. The output stream is not
+     * closed.
+     *
+     * @throws IOException if the workbook can not be written.
+     */
+    public void finish()
+        throws IOException
+    {
+        if ( workbook.getNumberOfSheets() == 0 )
+        {
+            startSheet( null, null );
+        }
+
+        workbook.write( out );
+        out.flush();
+    }
+
+    /**
+     * Removes the temporary files. The workbook is only written to the output
+     * stream through {@link #finish()}, so that nothing is written when the
+     * rows could not be produced.
+     */
+    @Override
+    public void close()
+        throws IOException
+    {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    // -------------------------------------------------------------------------
+    // Supportive methods
+    // -------------------------------------------------------------------------
+
+    private void continueSheet()
+    {
+        sheet = workbook.createSheet( createSheetName( sheetName ) );
+        rowNumber = 0;
+
+        if ( headers != null )
+        {
+            writeHeaderRow();
+        }
+    }
+
+    private void writeHeaderRow()
+    {
+        Row headerRow = sheet.createRow( rowNumber++ );
+        int columnIndex = 0;
+
+        for ( GridHeader header : headers )
+        {
+            Cell cell = headerRow.createCell( columnIndex++, CellType.STRING );
+            cell.setCellStyle( headerCellStyle );
+            cell.setCellValue( header.getColumn() );
+        }
+    }
+
+    private void writeTextRow( String text )
+    {
+        Cell cell = sheet.createRow( rowNumber++ ).createCell( 0, CellType.STRING );
+        cell.setCellValue( text );
+        cell.setCellStyle( headerCellStyle );
+    }
+
+    /**
+     * Sheet names must be unique and at most 31 characters long. Names which
+     * are taken get a sequence number.
+     */
+    private String createSheetName( String title )
+    {
+        sheetCount++;
+
+        String name = WorkbookUtil.createSafeSheetName( StringUtils.defaultIfEmpty( title,
+            SHEET_PREFIX + sheetCount ) );
+
+        String uniqueName = name;
+
+        for ( int i = 2; workbook.getSheet( uniqueName ) != null; i++ )
+        {
+            String suffix = " (" + i + ")";
+            uniqueName = StringUtils.left( name, 31 - suffix.length() ) + suffix;
+        }
+
+        return uniqueName;
+    }
+}
@@ -1303,31 +1303,45 @@ public class ListGrid
         }
 
         @Override
-        @SuppressWarnings( "unchecked" )
         public int compare( List<Object> list1, List<Object> list2 )
         {
-            boolean list1Invalid = list1 == null || list1.get( columnIndex ) == null
-                || !(list1.get( columnIndex ) instanceof Comparable<?>);
-            boolean list2Invalid = list2 == null || list2.get( columnIndex ) == null
-                || !(list2.get( columnIndex ) instanceof Comparable<?>);
+            return compareValues( list1 != null ? list1.get( columnIndex ) : null,
+                list2 != null ? list2.get( columnIndex ) : null, order );
+        }
+
+        /**
+         * Compares two cell values. Values which are null or not comparable
+         * are sorted last.
+         *
+         * @param value1 the first value.
+         * @param value2 the second value.
+         * @param order the sort order, positive for descending and negative
+         *        for ascending.
+         * @return the comparison result.
+         */
+        @SuppressWarnings( "unchecked" )
+        static int compareValues( Object value1, Object value2, int order )
+        {
+            boolean value1Invalid = !(value1 instanceof Comparable<?>);
+            boolean value2Invalid = !(value2 instanceof Comparable<?>);
 
-            if ( list1Invalid && list2Invalid )
+            if ( value1Invalid && value2Invalid )
             {
                 return 0;
             }
-            else if ( list1Invalid )
+            else if ( value1Invalid )
             {
                 return order > 0 ? 1 : -1;
             }
-            else if ( list2Invalid )
+            else if ( value2Invalid )
             {
                 return order > 0 ? -1 : 1;
             }
 
-            final Comparable<Object> value1 = (Comparable<Object>) list1.get( columnIndex );
-            final Comparable<Object> value2 = (Comparable<Object>) list2.get( columnIndex );
+            final Comparable<Object> comparable1 = (Comparable<Object>) value1;
+            final Comparable<Object> comparable2 = (Comparable<Object>) value2;
 
-            return order > 0 ? value2.compareTo( value1 ) : value1.compareTo( value2 );
+            return order > 0 ? comparable2.compareTo( value1 ) : comparable1.compareTo( value2 );
         }
     }
 }
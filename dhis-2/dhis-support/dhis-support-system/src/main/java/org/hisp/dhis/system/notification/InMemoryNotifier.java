@@ -45,6 +45,8 @@ public class InMemoryNotifier implements Notifier
 {
     private final NotificationMap notificationMap = new NotificationMap();
 
+    private final NotificationSubscribers subscribers = new NotificationSubscribers();
+
     // -------------------------------------------------------------------------
     // Notifier implementation
     // -------------------------------------------------------------------------
@@ -75,6 +77,8 @@ public class InMemoryNotifier implements Notifier
 
             notificationMap.add( id, notification );
 
+            subscribers.publish( NotificationEvent.notification( id.getJobType(), id.getUid(), notification ) );
+
             NotificationLoggerUtil.log( log, level, message );
         }
 
@@ -152,6 +156,8 @@ public class InMemoryNotifier implements Notifier
         if ( id != null && !(level != null && level.isOff()) )
         {
             notificationMap.addSummary( id, jobSummary );
+
+            subscribers.publish( NotificationEvent.summary( id.getJobType(), id.getUid(), jobSummary ) );
         }
 
         return this;
@@ -168,4 +174,10 @@ public class InMemoryNotifier implements Notifier
     {
         return notificationMap.getSummary( jobType, jobId );
     }
+
+    @Override
+    public NotificationSubscription subscribe( JobType jobType, String jobId )
+    {
+        return subscribers.subscribe( jobType, jobId );
+    }
 }
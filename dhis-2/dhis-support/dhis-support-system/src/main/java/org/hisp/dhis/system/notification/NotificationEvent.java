@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.hisp.dhis.scheduling.JobType;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A notification or job summary published by a {@link Notifier} to its
+ * {@link NotificationSubscription subscriptions}.
+ */
+@Getter
+@AllArgsConstructor
+public class NotificationEvent
+{
+    public enum Type
+    {
+        NOTIFICATION,
+        SUMMARY
+    }
+
+    @JsonProperty
+    private final Type type;
+
+    @JsonProperty
+    private final JobType jobType;
+
+    @JsonProperty
+    private final String jobId;
+
+    /**
+     * The {@link Notification} or the job summary.
+     */
+    @JsonProperty
+    private final Object data;
+
+    public static NotificationEvent notification( JobType jobType, String jobId, Notification notification )
+    {
+        return new NotificationEvent( Type.NOTIFICATION, jobType, jobId, notification );
+    }
+
+    public static NotificationEvent summary( JobType jobType, String jobId, Object summary )
+    {
+        return new NotificationEvent( Type.SUMMARY, jobType, jobId, summary );
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.scheduling.JobType;
+
+/**
+ * Fans out the events published by a {@link Notifier} to its subscriptions.
+ * Publishing only adds the event to the bounded buffer of each matching
+ * subscription and never blocks on a subscriber.
+ */
+@Slf4j
+public class NotificationSubscribers
+{
+    /**
+     * Maximum number of events buffered per subscription.
+     */
+    public static final int MAX_BUFFERED_EVENTS = 100;
+
+    private final List<NotificationSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public NotificationSubscription subscribe( JobType jobType, String jobId )
+    {
+        NotificationSubscription subscription = new NotificationSubscription( jobType, jobId, MAX_BUFFERED_EVENTS,
+            subscriptions::remove );
+
+        subscriptions.add( subscription );
+
+        return subscription;
+    }
+
+    public void publish( NotificationEvent event )
+    {
+        for ( NotificationSubscription subscription : subscriptions )
+        {
+            if ( subscription.matches( event ) )
+            {
+                try
+                {
+                    subscription.offer( event );
+                }
+                catch ( RuntimeException ex )
+                {
+                    log.warn( "Notification subscription listener failed: " + ex.getMessage() );
+                }
+            }
+        }
+    }
+
+    public boolean hasSubscriptions()
+    {
+        return !subscriptions.isEmpty();
+    }
+
+    public int getSubscriptionCount()
+    {
+        return subscriptions.size();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hisp.dhis.scheduling.JobType;
+
+/**
+ * Subscription to the events of a {@link Notifier}, either for all jobs of a
+ * job type or for a single job.
+ * <p>
+ * Events are held in a bounded buffer until they are taken by the subscriber.
+ * When the buffer is full the oldest event is dropped, so that a slow
+ * subscriber never holds up the job publishing the events and always sees the
+ * latest progress.
+ */
+public class NotificationSubscription
+    implements AutoCloseable
+{
+    private final JobType jobType;
+
+    private final String jobId;
+
+    private final int capacity;
+
+    private final Consumer<NotificationSubscription> onClose;
+
+    private final Deque<NotificationEvent> buffer = new ArrayDeque<>();
+
+    private volatile Runnable listener;
+
+    private volatile boolean closed;
+
+    private long dropped;
+
+    /**
+     * @param jobType the job type to receive events for.
+     * @param jobId the job to receive events for, or null for all jobs of the
+     *        job type.
+     * @param capacity the maximum number of buffered events.
+     * @param onClose called when this subscription is closed.
+     */
+    NotificationSubscription( JobType jobType, String jobId, int capacity,
+        Consumer<NotificationSubscription> onClose )
+    {
+        this.jobType = jobType;
+        this.jobId = jobId;
+        this.capacity = capacity;
+        this.onClose = onClose;
+    }
+
+    public JobType getJobType()
+    {
+        return jobType;
+    }
+
+    public String getJobId()
+    {
+        return jobId;
+    }
+
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Sets a listener which is called on the publishing thread after each
+     * event added to the buffer. The listener must not block.
+     */
+    public void setListener( Runnable listener )
+    {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns and removes all buffered events, oldest first.
+     */
+    public synchronized List<NotificationEvent> drain()
+    {
+        List<NotificationEvent> events = new ArrayList<>( buffer );
+        buffer.clear();
+        return events;
+    }
+
+    /**
+     * Waits until at least one event is buffered or the timeout elapses, and
+     * then returns and removes all buffered events.
+     *
+     * @return the buffered events, empty if the timeout elapsed or the
+     *         subscription was closed.
+     */
+    public synchronized List<NotificationEvent> poll( long timeout, TimeUnit unit )
+        throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos( timeout );
+
+        while ( buffer.isEmpty() && !closed )
+        {
+            long remaining = deadline - System.nanoTime();
+
+            if ( remaining <= 0 )
+            {
+                break;
+            }
+
+            TimeUnit.NANOSECONDS.timedWait( this, remaining );
+        }
+
+        return drain();
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public synchronized long getDropped()
+    {
+        return dropped;
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized ( this )
+        {
+            if ( closed )
+            {
+                return;
+            }
+
+            closed = true;
+            buffer.clear();
+            notifyAll();
+        }
+
+        onClose.accept( this );
+    }
+
+    boolean matches( NotificationEvent event )
+    {
+        return jobType == event.getJobType() && (jobId == null || jobId.equals( event.getJobId() ));
+    }
+
+    void offer( NotificationEvent event )
+    {
+        synchronized ( this )
+        {
+            if ( closed )
+            {
+                return;
+            }
+
+            if ( buffer.size() >= capacity )
+            {
+                buffer.removeFirst();
+                dropped++;
+            }
+
+            buffer.addLast( event );
+            notifyAll();
+        }
+
+        Runnable current = listener;
+
+        if ( current != null )
+        {
+            current.run();
+        }
+    }
+}
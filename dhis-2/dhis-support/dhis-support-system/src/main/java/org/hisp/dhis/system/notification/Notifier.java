@@ -67,4 +67,15 @@ public interface Notifier
     Map<String, Object> getJobSummariesForJobType( JobType jobType );
 
     Object getJobSummaryByJobId( JobType jobType, String jobId );
+
+    /**
+     * Subscribes to the notifications and job summaries of a single job, or of
+     * all jobs of a job type, as they are published. The subscription must be
+     * closed when no longer needed.
+     *
+     * @param jobType the job type.
+     * @param jobId the job identifier, or null for all jobs of the job type.
+     * @return a {@link NotificationSubscription}.
+     */
+    NotificationSubscription subscribe( JobType jobType, String jobId );
 }
@@ -41,10 +41,15 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobType;
+import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * Notifier implementation backed by redis. It holds 2 types of data.
@@ -52,6 +57,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * are important, (to limit the maximum number of objects held), we use a
  * combination of "Sorted Sets" , "HashMaps" and "Values" (data structures in
  * redis) to have a similar behaviour as InMemoryNotifier.
+ * <p>
+ * In a cluster, notifications and summaries are also published on a redis
+ * channel, so that subscribers on every instance receive the events of jobs
+ * running on any instance. On a single instance events are handed to the local
+ * subscribers directly.
  *
  * @author Ameen Mohamed
  */
@@ -74,16 +84,38 @@ public class RedisNotifier implements Notifier
 
     private static final String COLON = ":";
 
+    private static final String EVENTS_CHANNEL = "notifications:events";
+
     private static final int MAX_POOL_TYPE_SIZE = 500;
 
     private final ObjectMapper jsonMapper;
 
+    private final NotificationSubscribers subscribers = new NotificationSubscribers();
+
+    private final boolean clustered;
+
+    /**
+     * @param redisTemplate the redis template.
+     * @param jsonMapper the JSON object mapper.
+     * @param listenerContainer the container to receive events of other
+     *        instances on, only used when clustered.
+     * @param clustered whether events are shared with other instances over
+     *        the redis events channel.
+     */
     public RedisNotifier(
         RedisTemplate<String, String> redisTemplate,
-        ObjectMapper jsonMapper )
+        ObjectMapper jsonMapper,
+        RedisMessageListenerContainer listenerContainer,
+        boolean clustered )
     {
         this.redisTemplate = redisTemplate;
         this.jsonMapper = jsonMapper;
+        this.clustered = clustered;
+
+        if ( clustered )
+        {
+            listenerContainer.addMessageListener( this::onEvent, new ChannelTopic( EVENTS_CHANNEL ) );
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -137,6 +169,8 @@ public class RedisNotifier implements Notifier
                 redisTemplate.boundZSetOps( notificationKey ).add( jsonMapper.writeValueAsString( notification ),
                     now.getTime() );
                 redisTemplate.boundZSetOps( notificationOrderKey ).add( id.getUid(), now.getTime() );
+
+                publish( NotificationEvent.notification( id.getJobType(), id.getUid(), notification ), null );
             }
             catch ( JsonProcessingException ex )
             {
@@ -269,6 +303,7 @@ public class RedisNotifier implements Notifier
 
                 redisTemplate.boundZSetOps( summaryOrderKey ).add( id.getUid(), now.getTime() );
 
+                publish( NotificationEvent.summary( id.getJobType(), id.getUid(), jobSummary ), jobSummaryType );
             }
             catch ( JsonProcessingException | ClassNotFoundException ex )
             {
@@ -336,6 +371,70 @@ public class RedisNotifier implements Notifier
         return null;
     }
 
+    @Override
+    public NotificationSubscription subscribe( JobType jobType, String jobId )
+    {
+        return subscribers.subscribe( jobType, jobId );
+    }
+
+    /**
+     * Publishes the given event on the events channel when clustered, or hands
+     * it to the local subscriptions otherwise.
+     *
+     * @param event the {@link NotificationEvent}.
+     * @param summaryType the job summary type for summary events.
+     */
+    private void publish( NotificationEvent event, Class<?> summaryType )
+        throws JsonProcessingException
+    {
+        if ( !clustered )
+        {
+            subscribers.publish( event );
+            return;
+        }
+
+        ObjectNode message = jsonMapper.createObjectNode();
+        message.put( "type", event.getType().name() );
+        message.put( "jobType", event.getJobType().name() );
+        message.put( "jobId", event.getJobId() );
+        message.put( "summaryType", summaryType != null ? summaryType.getName() : null );
+        message.set( "data", jsonMapper.valueToTree( event.getData() ) );
+
+        redisTemplate.convertAndSend( EVENTS_CHANNEL, jsonMapper.writeValueAsString( message ) );
+    }
+
+    /**
+     * Receives an event from the events channel and hands it to the local
+     * subscriptions.
+     */
+    private void onEvent( Message message, byte[] pattern )
+    {
+        if ( !subscribers.hasSubscriptions() )
+        {
+            return;
+        }
+
+        try
+        {
+            JsonNode node = jsonMapper.readTree( (String) redisTemplate.getValueSerializer()
+                .deserialize( message.getBody() ) );
+
+            NotificationEvent.Type type = NotificationEvent.Type.valueOf( node.get( "type" ).asText() );
+            JobType jobType = JobType.valueOf( node.get( "jobType" ).asText() );
+            String jobId = node.path( "jobId" ).textValue();
+
+            Object data = type == NotificationEvent.Type.NOTIFICATION
+                ? jsonMapper.treeToValue( node.get( "data" ), Notification.class )
+                : jsonMapper.treeToValue( node.get( "data" ), Class.forName( node.get( "summaryType" ).asText() ) );
+
+            subscribers.publish( new NotificationEvent( type, jobType, jobId, data ) );
+        }
+        catch ( IOException | ClassNotFoundException | IllegalArgumentException ex )
+        {
+            log.warn( String.format( NOTIFIER_ERROR, ex.getMessage() ) );
+        }
+    }
+
     private static String generateNotificationKey( JobType jobType, String jobUid )
     {
         return NOTIFICATIONS_KEY_PREFIX + jobType.toString() + COLON + jobUid;
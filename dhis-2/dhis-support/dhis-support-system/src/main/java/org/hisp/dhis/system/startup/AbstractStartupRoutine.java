@@ -27,6 +27,10 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Convenience class for creating startup routines. Contains a setter for the
  * runlevel property which should be used in bean mappings.
@@ -57,6 +61,18 @@ public abstract class AbstractStartupRoutine
         this.skipInTests = skipInTests;
     }
 
+    private Set<String> dependencies;
+
+    /**
+     * Declares the names of the startup routines this startup routine depends
+     * on. Once declared, the runlevel is no longer used to decide when this
+     * startup routine can be executed.
+     */
+    public void setDependencies( String... dependencies )
+    {
+        this.dependencies = ImmutableSet.copyOf( dependencies );
+    }
+
     // -------------------------------------------------------------------------
     // StartupRoutine implementation
     // -------------------------------------------------------------------------
@@ -78,4 +94,10 @@ public abstract class AbstractStartupRoutine
     {
         return skipInTests;
     }
+
+    @Override
+    public Set<String> getDependencies()
+    {
+        return dependencies;
+    }
 }
@@ -27,18 +27,43 @@
  */
 package org.hisp.dhis.system.startup;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 /**
  * Default implementation of StartupRoutineExecutor. The execute method will
- * execute the added StartupRoutines ordered by their run levels. Startup
- * routines can be ignored from the command line by appending the below.
+ * execute the added StartupRoutines ordered by their run levels, or by their
+ * declared dependencies. StartupRoutines which do not depend on each other
+ * are executed in parallel, up to the configured
+ * {@link ConfigurationKey#SYSTEM_STARTUP_PARALLELISM}. The execution time of
+ * each StartupRoutine is logged when all are done. Startup routines can be
+ * ignored from the command line by appending the below.
  *
  * <code>-Ddhis.skip.startup=true</code>
  *
@@ -47,7 +72,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 @Component( "org.hisp.dhis.system.startup.StartupRoutineExecutor" )
 public class DefaultStartupRoutineExecutor
-    implements StartupRoutineExecutor
+    implements StartupRoutineExecutor, MeterBinder
 {
     private static final String TRUE = "true";
 
@@ -59,6 +84,13 @@ public class DefaultStartupRoutineExecutor
     @Autowired( required = false )
     private List<StartupRoutine> startupRoutines;
 
+    /**
+     * Execution time in milliseconds by StartupRoutine name.
+     */
+    private final Map<String, Long> timings = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalTime = new AtomicLong();
+
     // -------------------------------------------------------------------------
     // Execute
     // -------------------------------------------------------------------------
@@ -98,24 +130,242 @@ public class DefaultStartupRoutineExecutor
             return;
         }
 
-        startupRoutines.sort( new StartupRoutineComparator() );
+        List<StartupRoutine> routines = startupRoutines.stream()
+            .filter( routine -> !(testing && routine.skipInTests()) )
+            .sorted( new StartupRoutineComparator() )
+            .collect( toList() );
 
-        int total = startupRoutines.size();
-        int index = 1;
+        int parallelism = testing ? 1
+            : Integer.parseInt( config.getProperty( ConfigurationKey.SYSTEM_STARTUP_PARALLELISM ) );
 
-        for ( StartupRoutine routine : startupRoutines )
+        execute( routines, parallelism );
+    }
+
+    /**
+     * Executes the given StartupRoutines, which must be sorted by runlevel, in
+     * dependency order.
+     *
+     * @param routines the StartupRoutines to execute.
+     * @param parallelism the maximum number of StartupRoutines to execute at
+     *        the same time.
+     */
+    void execute( List<StartupRoutine> routines, int parallelism )
+        throws Exception
+    {
+        Map<StartupRoutine, List<StartupRoutine>> dependencies = getDependencies( routines );
+        List<StartupRoutine> ordered = orderByDependencies( routines, dependencies );
+
+        long start = System.nanoTime();
+
+        if ( parallelism <= 1 )
         {
-            if ( !(testing && routine.skipInTests()) )
+            AtomicInteger index = new AtomicInteger();
+
+            for ( StartupRoutine routine : ordered )
             {
-                log.info( "Executing startup routine [" + index + " of " + total + ", runlevel " + routine.getRunlevel()
-                    + "]: " + routine.getName() );
+                executeRoutine( routine, index, ordered.size() );
+            }
+        }
+        else
+        {
+            executeInParallel( ordered, dependencies, parallelism );
+        }
+
+        totalTime.set( TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) );
+
+        logTimings( ordered, parallelism );
+    }
+
+    private void executeInParallel( List<StartupRoutine> ordered,
+        Map<StartupRoutine, List<StartupRoutine>> dependencies, int parallelism )
+        throws Exception
+    {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool( parallelism, runnable -> {
+            Thread thread = new Thread( runnable, "startup-routine-" + threads.incrementAndGet() );
+            thread.setDaemon( true );
+            return thread;
+        } );
+
+        AtomicInteger index = new AtomicInteger();
+        Map<StartupRoutine, CompletableFuture<Void>> futures = new HashMap<>();
 
-                routine.execute();
+        for ( StartupRoutine routine : ordered )
+        {
+            CompletableFuture<?>[] prerequisites = dependencies.get( routine ).stream()
+                .map( futures::get )
+                .toArray( CompletableFuture[]::new );
+
+            futures.put( routine, CompletableFuture.allOf( prerequisites ).thenRunAsync( () -> {
+                try
+                {
+                    executeRoutine( routine, index, ordered.size() );
+                }
+                catch ( Exception ex )
+                {
+                    throw new CompletionException( ex );
+                }
+            }, executor ) );
+        }
+
+        try
+        {
+            CompletableFuture.allOf( futures.values().toArray( new CompletableFuture[0] ) ).join();
+        }
+        catch ( CompletionException ex )
+        {
+            Throwable cause = ex;
+
+            while ( cause instanceof CompletionException && cause.getCause() != null )
+            {
+                cause = cause.getCause();
+            }
 
-                ++index;
+            if ( cause instanceof Exception )
+            {
+                throw (Exception) cause;
             }
+
+            throw ex;
         }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private void executeRoutine( StartupRoutine routine, AtomicInteger index, int total )
+        throws Exception
+    {
+        log.info( "Executing startup routine [" + index.incrementAndGet() + " of " + total + ", runlevel "
+            + routine.getRunlevel() + "]: " + routine.getName() );
 
-        log.info( "All startup routines done" );
+        long start = System.nanoTime();
+
+        routine.execute();
+
+        timings.put( routine.getName(), TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) );
+    }
+
+    // -------------------------------------------------------------------------
+    // Dependencies
+    // -------------------------------------------------------------------------
+
+    /**
+     * Resolves the StartupRoutines each StartupRoutine depends on. Routines
+     * which do not declare dependencies depend on all routines with a lower
+     * runlevel.
+     */
+    private Map<StartupRoutine, List<StartupRoutine>> getDependencies( List<StartupRoutine> routines )
+    {
+        Map<String, StartupRoutine> routinesByName = new HashMap<>();
+        routines.forEach( routine -> routinesByName.putIfAbsent( routine.getName(), routine ) );
+
+        Map<StartupRoutine, List<StartupRoutine>> dependencies = new LinkedHashMap<>();
+
+        for ( StartupRoutine routine : routines )
+        {
+            Set<String> names = routine.getDependencies();
+
+            if ( names == null )
+            {
+                dependencies.put( routine, routines.stream()
+                    .filter( other -> other.getRunlevel() < routine.getRunlevel() )
+                    .collect( toList() ) );
+            }
+            else
+            {
+                List<StartupRoutine> declared = new ArrayList<>();
+
+                for ( String name : names )
+                {
+                    StartupRoutine dependency = routinesByName.get( name );
+
+                    if ( dependency != null )
+                    {
+                        declared.add( dependency );
+                    }
+                    else
+                    {
+                        log.debug( "Startup routine " + routine.getName() + " depends on " + name
+                            + " which is not executed" );
+                    }
+                }
+
+                dependencies.put( routine, declared );
+            }
+        }
+
+        return dependencies;
+    }
+
+    /**
+     * Orders the StartupRoutines so that every routine comes after the
+     * routines it depends on, keeping the given order where possible.
+     *
+     * @throws IllegalStateException if the dependencies are cyclic.
+     */
+    private List<StartupRoutine> orderByDependencies( List<StartupRoutine> routines,
+        Map<StartupRoutine, List<StartupRoutine>> dependencies )
+    {
+        List<StartupRoutine> ordered = new ArrayList<>( routines.size() );
+        List<StartupRoutine> remaining = new ArrayList<>( routines );
+
+        while ( !remaining.isEmpty() )
+        {
+            StartupRoutine next = remaining.stream()
+                .filter( routine -> ordered.containsAll( dependencies.get( routine ) ) )
+                .findFirst()
+                .orElseThrow( () -> new IllegalStateException( "Startup routines have cyclic dependencies: "
+                    + remaining.stream().map( StartupRoutine::getName ).collect( toList() ) ) );
+
+            ordered.add( next );
+            remaining.remove( next );
+        }
+
+        return ordered;
+    }
+
+    // -------------------------------------------------------------------------
+    // Timings
+    // -------------------------------------------------------------------------
+
+    private void logTimings( List<StartupRoutine> routines, int parallelism )
+    {
+        StringBuilder report = new StringBuilder( "All startup routines done in " )
+            .append( totalTime.get() ).append( " ms with parallelism " ).append( parallelism )
+            .append( ", execution time by startup routine:" );
+
+        routines.stream()
+            .map( StartupRoutine::getName )
+            .sorted( Comparator.comparing( ( String name ) -> timings.getOrDefault( name, 0L ) ).reversed() )
+            .forEach( name -> report.append( "\n  " ).append( name ).append( ": " )
+                .append( timings.getOrDefault( name, 0L ) ).append( " ms" ) );
+
+        log.info( report.toString() );
+    }
+
+    @Override
+    public void bindTo( MeterRegistry registry )
+    {
+        TimeGauge.builder( "startup.duration", totalTime, TimeUnit.MILLISECONDS, AtomicLong::get )
+            .description( "Time spent executing all startup routines" )
+            .register( registry );
+
+        if ( startupRoutines == null )
+        {
+            return;
+        }
+
+        for ( StartupRoutine routine : startupRoutines )
+        {
+            String name = routine.getName();
+
+            TimeGauge.builder( "startup.routine.duration", timings, TimeUnit.MILLISECONDS,
+                map -> map.getOrDefault( name, 0L ) )
+                .description( "Time spent executing a startup routine" )
+                .tag( "routine", name )
+                .register( registry );
+        }
     }
 }
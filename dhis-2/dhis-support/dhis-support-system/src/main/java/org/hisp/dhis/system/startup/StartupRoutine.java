@@ -27,10 +27,15 @@
  */
 package org.hisp.dhis.system.startup;
 
+import java.util.Set;
+
 /**
  * Defines a startup routine which should be executed when the system is
  * started. The runlevel can be used to group startup routines that are
  * dependent on other startup routines, without too much detail and knowledge.
+ * Startup routines which know what they depend on can declare this through
+ * {@link #getDependencies()} instead, which allows them to be executed in
+ * parallel with unrelated startup routines.
  *
  * @author <a href="mailto:torgeilo@gmail.com">Torgeir Lorange Ostby</a>
  * @version $Id: StartupRoutine.java 5781 2008-10-01 12:12:48Z larshelg $
@@ -61,6 +66,20 @@ public interface StartupRoutine
      */
     int getRunlevel();
 
+    /**
+     * Returns the names of the StartupRoutines which must be completed before
+     * this StartupRoutine is executed. Returns null if this StartupRoutine
+     * depends on all StartupRoutines with a lower runlevel, which is the
+     * default.
+     *
+     * @return the names of the StartupRoutines this StartupRoutine depends
+     *         on, or null.
+     */
+    default Set<String> getDependencies()
+    {
+        return null;
+    }
+
     /**
      * Returns whether this StartupRoutine is to be skipped in tests or not.
      *
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link ColumnarGrid} and its {@link GridColumn} storage.
+ */
+class ColumnarGridTest
+{
+    @Test
+    void testValueTypes()
+    {
+        Grid grid = new ColumnarGrid()
+            .addRow().addValuesVar( "A", 1, 1L, 1.5d, true, null )
+            .addRow().addValuesVar( null, null, null, null, null, null )
+            .addRow().addValuesVar( "B", 3, 3L, 3.5d, false, "X" );
+
+        assertEquals( 3, grid.getHeight() );
+        assertEquals( 6, grid.getWidth() );
+        assertEquals( Arrays.asList( "A", 1, 1L, 1.5d, true, null ), grid.getRow( 0 ) );
+        assertEquals( Arrays.asList( null, null, null, null, null, null ), grid.getRow( 1 ) );
+        assertEquals( Arrays.asList( "B", 3, 3L, 3.5d, false, "X" ), grid.getRow( 2 ) );
+        assertInstanceOf( Integer.class, grid.getValue( 2, 1 ) );
+        assertInstanceOf( Long.class, grid.getValue( 2, 2 ) );
+        assertInstanceOf( Double.class, grid.getValue( 2, 3 ) );
+    }
+
+    @Test
+    void testConvertColumnOnMixedValues()
+    {
+        Grid grid = new ColumnarGrid()
+            .addRow().addValuesVar( 1, 1.5d )
+            .addRow().addValuesVar( 2L, "2" )
+            .addRow().addValuesVar( "3", 3 );
+
+        assertEquals( Arrays.asList( 1, 2L, "3" ), grid.getColumn( 0 ) );
+        assertEquals( Arrays.asList( 1.5d, "2", 3 ), grid.getColumn( 1 ) );
+    }
+
+    @Test
+    void testDictionaryColumn()
+    {
+        GridColumn column = GridColumn.ofNulls( 0 );
+
+        for ( int i = 0; i < 5000; i++ )
+        {
+            column = column.add( i % 3 == 0 ? null : "ou" + (i % 10) );
+        }
+
+        assertInstanceOf( GridColumn.DictionaryColumn.class, column );
+        assertEquals( 5000, column.size() );
+        assertNull( column.get( 0 ) );
+        assertEquals( "ou1", column.get( 1 ) );
+        assertEquals( "ou7", column.get( 4997 ) );
+
+        column.remove( 1 );
+
+        assertEquals( "ou2", column.get( 1 ) );
+        assertEquals( 4999, column.size() );
+    }
+
+    @Test
+    void testDictionaryColumnFallsBackForDistinctValues()
+    {
+        GridColumn column = GridColumn.ofNulls( 0 );
+
+        for ( int i = 0; i < GridColumn.MIN_DICTIONARY_SIZE * 2; i++ )
+        {
+            column = column.add( "value" + i );
+        }
+
+        assertInstanceOf( GridColumn.ObjectColumn.class, column );
+        assertEquals( "value0", column.get( 0 ) );
+        assertEquals( "value2047", column.get( 2047 ) );
+    }
+
+    @Test
+    void testSetValuesThroughRows()
+    {
+        Grid grid = new ColumnarGrid()
+            .addRow().addValuesVar( "A", 1.0d )
+            .addRow().addValuesVar( "B", 2.0d );
+
+        grid.getRow( 0 ).set( 1, "N/A" );
+        grid.getRows().set( 1, Arrays.asList( "C", 3.0d ) );
+        grid.getRows().add( Arrays.asList( "D", 4.0d ) );
+
+        assertEquals( Arrays.asList( "A", "N/A" ), grid.getRow( 0 ) );
+        assertEquals( Arrays.asList( "C", 3.0d ), grid.getRow( 1 ) );
+        assertEquals( Arrays.asList( "D", 4.0d ), grid.getRow( 2 ) );
+        assertEquals( Arrays.asList( "C", 3.0d ), grid.getRows().remove( 1 ) );
+        assertEquals( 2, grid.getHeight() );
+    }
+
+    @Test
+    void testSortAndLimit()
+    {
+        Grid grid = new ColumnarGrid()
+            .addRow().addValuesVar( "A", 2.0d, 20 )
+            .addRow().addValuesVar( "B", null, 10 )
+            .addRow().addValuesVar( "C", 3.0d, 30 )
+            .addRow().addValuesVar( "D", 1.0d, 40 );
+
+        grid.sortGrid( 2, -1 );
+
+        assertEquals( Arrays.asList( "B", "D", "A", "C" ), grid.getColumn( 0 ) );
+
+        grid.sortGrid( 3, 1 );
+
+        assertEquals( Arrays.asList( "D", "C", "A", "B" ), grid.getColumn( 0 ) );
+
+        grid.limitGrid( 1, 3 );
+
+        assertEquals( Arrays.asList( Arrays.asList( "C", 3.0d, 30 ), Arrays.asList( "A", 2.0d, 20 ) ),
+            new ArrayList<>( grid.getRows() ) );
+
+        Collections.sort( grid.getRows(), new ListGrid.GridRowComparator( 0, -1 ) );
+
+        assertEquals( Arrays.asList( "A", "C" ), grid.getColumn( 0 ) );
+    }
+
+    @Test
+    void testRemoveColumn()
+    {
+        Grid grid = new ColumnarGrid()
+            .addHeader( new GridHeader( "colA", "colA", ValueType.TEXT, false, true ) )
+            .addHeader( new GridHeader( "colB", "colB", ValueType.NUMBER, false, false ) )
+            .addRow().addValuesVar( "A", null )
+            .addRow().addValuesVar( "B", null );
+
+        grid.removeEmptyColumns();
+
+        assertEquals( 1, grid.getWidth() );
+        assertEquals( 1, grid.getHeaders().size() );
+        assertEquals( Arrays.asList( "A", "B" ), grid.getColumn( 0 ) );
+        assertThrows( IllegalStateException.class, () -> grid.addColumn( List.of( 1 ) ) );
+    }
+
+    @Test
+    void testSerialize()
+    {
+        Grid grid = new ColumnarGrid()
+            .addRow().addValuesVar( "A", 1, 1.5d )
+            .addRow().addValuesVar( "B", 2, null );
+
+        Grid clone = SerializationUtils.clone( (ColumnarGrid) grid );
+
+        assertEquals( grid.getRows(), clone.getRows() );
+
+        clone.addRow().addValuesVar( "A", 3, 3.5d );
+
+        assertEquals( "A", clone.getValue( 2, 0 ) );
+        assertEquals( 2, grid.getHeight() );
+    }
+}
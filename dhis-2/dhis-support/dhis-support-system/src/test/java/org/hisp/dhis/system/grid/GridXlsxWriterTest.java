@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link GridXlsxWriter}.
+ */
+class GridXlsxWriterTest
+{
+    @Test
+    void testWriteGrid()
+        throws IOException
+    {
+        Grid grid = new ListGrid();
+        grid.setTitle( "Data" );
+        grid.setSubtitle( "Subtitle" );
+        grid.addHeader( new GridHeader( "dx", "Data" ) );
+        grid.addHeader( new GridHeader( "ou", "Organisation unit" ) );
+        grid.addHeader( new GridHeader( "value", "Value" ) );
+        grid.addRow().addValue( "ANC 1st visit" ).addValue( "Bo" ).addValue( 12.5 );
+        grid.addRow().addValue( "ANC 2nd visit" ).addValue( null ).addValue( "3" );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GridUtils.toXlsx( grid, out );
+
+        try ( XSSFWorkbook workbook = read( out ) )
+        {
+            Sheet sheet = workbook.getSheet( "Data" );
+
+            assertEquals( 1, workbook.getNumberOfSheets() );
+            assertEquals( "Data", sheet.getRow( 0 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "Subtitle", sheet.getRow( 1 ).getCell( 0 ).getStringCellValue() );
+            assertNull( sheet.getRow( 2 ) );
+            assertEquals( "Organisation unit", sheet.getRow( 3 ).getCell( 1 ).getStringCellValue() );
+            assertEquals( "ANC 1st visit", sheet.getRow( 4 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( 12.5, sheet.getRow( 4 ).getCell( 2 ).getNumericCellValue() );
+            assertEquals( "", sheet.getRow( 5 ).getCell( 1 ).getStringCellValue() );
+            assertEquals( 3d, sheet.getRow( 5 ).getCell( 2 ).getNumericCellValue() );
+        }
+    }
+
+    @Test
+    void testWriteRowsContinueOnNewSheet()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try ( GridXlsxWriter writer = new GridXlsxWriter( out, 2, 5 ) )
+        {
+            writer.startSheet( "Rows", null );
+            writer.writeHeaders( Arrays.asList( new GridHeader( "a", "A" ), new GridHeader( "b", "B" ) ) );
+
+            for ( int i = 0; i < 5; i++ )
+            {
+                writer.writeRow( Arrays.asList( "row" + i, i ) );
+            }
+
+            writer.finish();
+        }
+
+        try ( XSSFWorkbook workbook = read( out ) )
+        {
+            assertEquals( 2, workbook.getNumberOfSheets() );
+            assertEquals( "Rows", workbook.getSheetName( 0 ) );
+            assertEquals( "Rows (2)", workbook.getSheetName( 1 ) );
+            assertEquals( "A", workbook.getSheetAt( 0 ).getRow( 2 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "row1", workbook.getSheetAt( 0 ).getRow( 4 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( "B", workbook.getSheetAt( 1 ).getRow( 0 ).getCell( 1 ).getStringCellValue() );
+            assertEquals( "row2", workbook.getSheetAt( 1 ).getRow( 1 ).getCell( 0 ).getStringCellValue() );
+            assertEquals( 4d, workbook.getSheetAt( 1 ).getRow( 3 ).getCell( 1 ).getNumericCellValue() );
+        }
+    }
+
+    @Test
+    void testWriteGridsWithSameTitle()
+        throws IOException
+    {
+        Grid gridA = new ListGrid().setTitle( "Report" );
+        Grid gridB = new ListGrid().setTitle( "Report" );
+        Grid gridC = new ListGrid();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GridUtils.toXlsx( Arrays.asList( gridA, gridB, gridC ), out );
+
+        try ( XSSFWorkbook workbook = read( out ) )
+        {
+            assertEquals( "Report", workbook.getSheetName( 0 ) );
+            assertEquals( "Report (2)", workbook.getSheetName( 1 ) );
+            assertEquals( "Sheet 3", workbook.getSheetName( 2 ) );
+        }
+    }
+
+    private static XSSFWorkbook read( ByteArrayOutputStream out )
+        throws IOException
+    {
+        return new XSSFWorkbook( new ByteArrayInputStream( out.toByteArray() ) );
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.notification;
+
+import static org.hisp.dhis.scheduling.JobType.ANALYTICS_TABLE;
+import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
+import static org.hisp.dhis.system.notification.NotificationSubscribers.MAX_BUFFERED_EVENTS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the subscriptions of the {@link InMemoryNotifier}.
+ */
+class NotificationSubscriptionTest
+{
+    private final Notifier notifier = new InMemoryNotifier();
+
+    private final JobConfiguration importJobA = createJob( DATAVALUE_IMPORT, "dviA" );
+
+    private final JobConfiguration importJobB = createJob( DATAVALUE_IMPORT, "dviB" );
+
+    private final JobConfiguration analyticsJob = createJob( ANALYTICS_TABLE, "at1" );
+
+    @Test
+    void testSubscribeToJob()
+    {
+        try ( NotificationSubscription subscription = notifier.subscribe( DATAVALUE_IMPORT, "dviA" ) )
+        {
+            notifier.notify( importJobA, "Started" );
+            notifier.notify( importJobB, "Started" );
+            notifier.notify( analyticsJob, "Started" );
+            notifier.addJobSummary( importJobA, "Summary", String.class );
+
+            List<NotificationEvent> events = subscription.drain();
+
+            assertEquals( 2, events.size() );
+            assertEquals( NotificationEvent.Type.NOTIFICATION, events.get( 0 ).getType() );
+            assertEquals( "Started", ((Notification) events.get( 0 ).getData()).getMessage() );
+            assertEquals( NotificationEvent.Type.SUMMARY, events.get( 1 ).getType() );
+            assertEquals( "Summary", events.get( 1 ).getData() );
+            assertTrue( subscription.drain().isEmpty() );
+        }
+    }
+
+    @Test
+    void testSubscribeToJobType()
+    {
+        try ( NotificationSubscription subscription = notifier.subscribe( DATAVALUE_IMPORT, null ) )
+        {
+            notifier.notify( importJobA, "Started A" );
+            notifier.notify( importJobB, "Started B" );
+            notifier.notify( analyticsJob, "Started" );
+
+            List<NotificationEvent> events = subscription.drain();
+
+            assertEquals( 2, events.size() );
+            assertEquals( "dviA", events.get( 0 ).getJobId() );
+            assertEquals( "dviB", events.get( 1 ).getJobId() );
+        }
+    }
+
+    @Test
+    void testBufferDropsOldestEvents()
+    {
+        try ( NotificationSubscription subscription = notifier.subscribe( DATAVALUE_IMPORT, "dviA" ) )
+        {
+            for ( int i = 0; i < MAX_BUFFERED_EVENTS + 10; i++ )
+            {
+                notifier.notify( importJobA, "Message " + i );
+            }
+
+            List<NotificationEvent> events = subscription.drain();
+
+            assertEquals( MAX_BUFFERED_EVENTS, events.size() );
+            assertEquals( 10, subscription.getDropped() );
+            assertEquals( "Message 10", ((Notification) events.get( 0 ).getData()).getMessage() );
+        }
+    }
+
+    @Test
+    void testListenerAndClose()
+    {
+        AtomicInteger calls = new AtomicInteger();
+        NotificationSubscription subscription = notifier.subscribe( DATAVALUE_IMPORT, "dviA" );
+        subscription.setListener( calls::incrementAndGet );
+
+        notifier.notify( importJobA, "Started" );
+        assertEquals( 1, calls.get() );
+
+        subscription.close();
+        notifier.notify( importJobA, "Completed" );
+
+        assertEquals( 1, calls.get() );
+        assertTrue( subscription.isClosed() );
+        assertTrue( subscription.drain().isEmpty() );
+    }
+
+    @Test
+    void testPollReturnsBufferedEvents()
+        throws InterruptedException
+    {
+        try ( NotificationSubscription subscription = notifier.subscribe( DATAVALUE_IMPORT, "dviA" ) )
+        {
+            assertTrue( subscription.poll( 10, TimeUnit.MILLISECONDS ).isEmpty() );
+
+            notifier.notify( importJobA, "Started" );
+
+            List<NotificationEvent> events = subscription.poll( 1, TimeUnit.SECONDS );
+            assertEquals( 1, events.size() );
+            assertSame( DATAVALUE_IMPORT, events.get( 0 ).getJobType() );
+        }
+    }
+
+    private static JobConfiguration createJob( JobType jobType, String uid )
+    {
+        JobConfiguration job = new JobConfiguration( null, jobType, "userId", false );
+        job.setUid( uid );
+        return job;
+    }
+}
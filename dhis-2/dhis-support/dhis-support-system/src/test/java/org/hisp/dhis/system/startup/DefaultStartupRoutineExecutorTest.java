@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.startup;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class DefaultStartupRoutineExecutorTest
+{
+    private final DefaultStartupRoutineExecutor executor = new DefaultStartupRoutineExecutor();
+
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+
+    @Test
+    void shouldExecuteByRunlevelWithoutDeclaredDependencies()
+        throws Exception
+    {
+        executor.execute( asList( routine( "a", 1 ), routine( "b", 2 ), routine( "c", 3 ) ), 1 );
+
+        assertEquals( asList( "a", "b", "c" ), executed );
+    }
+
+    @Test
+    void shouldExecuteDeclaredDependenciesFirst()
+        throws Exception
+    {
+        TestRoutine a = routine( "a", 1 );
+        a.setDependencies( "c" );
+        TestRoutine c = routine( "c", 3 );
+        c.setDependencies();
+
+        executor.execute( asList( a, routine( "b", 2 ), c ), 1 );
+
+        assertEquals( asList( "c", "a", "b" ), executed );
+    }
+
+    @Test
+    void shouldExecuteIndependentRoutinesInParallel()
+        throws Exception
+    {
+        CountDownLatch latch = new CountDownLatch( 2 );
+        TestRoutine a = new TestRoutine( "a", 1, () -> awaitBoth( latch ) );
+        TestRoutine b = new TestRoutine( "b", 1, () -> awaitBoth( latch ) );
+        TestRoutine c = routine( "c", 2 );
+
+        executor.execute( asList( a, b, c ), 2 );
+
+        assertEquals( 3, executed.size() );
+        assertEquals( "c", executed.get( 2 ) );
+    }
+
+    @Test
+    void shouldNotExecuteDependentsOfFailedRoutine()
+    {
+        IllegalStateException failure = new IllegalStateException( "failed" );
+        TestRoutine a = new TestRoutine( "a", 1, () -> {
+            throw failure;
+        } );
+        TestRoutine b = routine( "b", 2 );
+
+        Exception ex = assertThrows( Exception.class, () -> executor.execute( asList( a, b ), 2 ) );
+
+        assertSame( failure, ex );
+        assertFalse( executed.contains( "b" ) );
+    }
+
+    @Test
+    void shouldRejectCyclicDependencies()
+    {
+        TestRoutine a = routine( "a", 1 );
+        a.setDependencies( "b" );
+        TestRoutine b = routine( "b", 1 );
+        b.setDependencies( "a" );
+
+        IllegalStateException ex = assertThrows( IllegalStateException.class,
+            () -> executor.execute( asList( a, b ), 1 ) );
+
+        assertTrue( ex.getMessage().contains( "cyclic" ) );
+        assertTrue( executed.isEmpty() );
+    }
+
+    private static void awaitBoth( CountDownLatch latch )
+    {
+        latch.countDown();
+
+        try
+        {
+            assertTrue( latch.await( 5, TimeUnit.SECONDS ), "Routines were not executed in parallel" );
+        }
+        catch ( InterruptedException ex )
+        {
+            throw new IllegalStateException( ex );
+        }
+    }
+
+    private TestRoutine routine( String name, int runlevel )
+    {
+        return new TestRoutine( name, runlevel, () -> {
+        } );
+    }
+
+    private class TestRoutine
+        extends AbstractStartupRoutine
+    {
+        private final Runnable work;
+
+        TestRoutine( String name, int runlevel, Runnable work )
+        {
+            setName( name );
+            setRunlevel( runlevel );
+            this.work = work;
+        }
+
+        @Override
+        public void execute()
+        {
+            work.run();
+            executed.add( getName() );
+        }
+    }
+}
@@ -135,6 +135,6 @@ public abstract class DhisControllerConvenienceTest extends DhisMockMvcControlle
     protected final HttpResponse webRequest( MockHttpServletRequestBuilder request )
     {
         return failOnException( () -> new HttpResponse(
-            toResponse( mvc.perform( request.session( session ) ).andReturn().getResponse() ) ) );
+            toResponse( perform( mvc, request.session( session ) ) ) ) );
     }
 }
@@ -91,6 +91,6 @@ public abstract class DhisControllerWithApiTokenAuthTest extends DhisMockMvcCont
     protected final HttpResponse webRequest( MockHttpServletRequestBuilder request )
     {
         return failOnException(
-            () -> new HttpResponse( toResponse( mvc.perform( request ).andReturn().getResponse() ) ) );
+            () -> new HttpResponse( toResponse( perform( mvc, request ) ) ) );
     }
 }
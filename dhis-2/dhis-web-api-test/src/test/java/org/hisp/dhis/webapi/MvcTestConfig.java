@@ -56,6 +56,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
@@ -71,6 +72,7 @@ import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.FixedContentNegotiationStrategy;
 import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -168,6 +170,17 @@ public class MvcTestConfig implements WebMvcConfigurer
         registry.addInterceptor( new RequestInfoInterceptor( requestInfoService ) );
     }
 
+    /**
+     * Runs asynchronous handlers on the calling thread so that they take part
+     * in the transaction and security context of the test.
+     */
+    @Override
+    public void configureAsyncSupport( AsyncSupportConfigurer configurer )
+    {
+        configurer.setTaskExecutor( new TaskExecutorAdapter( Runnable::run ) );
+        configurer.registerCallableInterceptors( new UserContextInterceptor( currentUserService, userSettingService ) );
+    }
+
     @Bean
     public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter()
     {
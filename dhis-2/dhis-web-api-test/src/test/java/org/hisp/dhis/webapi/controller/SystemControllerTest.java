@@ -87,6 +87,20 @@ class SystemControllerTest extends DhisControllerConvenienceTest
         assertEquals( 0, summary.size() );
     }
 
+    @Test
+    void testStreamTasks_InvalidJobType()
+    {
+        assertWebMessage( "Conflict", 409, "ERROR", "Invalid job type: xyz",
+            GET( "/system/tasks/xyz/stream" ).content( HttpStatus.CONFLICT ) );
+    }
+
+    @Test
+    void testStreamTask_InvalidJobType()
+    {
+        assertWebMessage( "Conflict", 409, "ERROR", "Invalid job type: xyz",
+            GET( "/system/tasks/xyz/abc/stream" ).content( HttpStatus.CONFLICT ) );
+    }
+
     private static void assertObjectMembers( JsonObject root, String... members )
     {
         for ( String member : members )
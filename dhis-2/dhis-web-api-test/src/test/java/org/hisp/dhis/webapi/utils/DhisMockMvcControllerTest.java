@@ -29,6 +29,7 @@ package org.hisp.dhis.webapi.utils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
@@ -41,6 +42,9 @@ import org.hisp.dhis.webapi.json.domain.JsonWebMessage;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
@@ -75,6 +79,21 @@ public abstract class DhisMockMvcControllerTest extends DhisConvenienceTest impl
         return new MockMvcResponseAdapter( response );
     }
 
+    /**
+     * Performs the request and, should the handler process it asynchronously,
+     * dispatches the async result so the returned response is complete.
+     */
+    public static MockHttpServletResponse perform( MockMvc mvc, RequestBuilder request )
+        throws Exception
+    {
+        MvcResult result = mvc.perform( request ).andReturn();
+        if ( result.getRequest().isAsyncStarted() )
+        {
+            result = mvc.perform( asyncDispatch( result ) ).andReturn();
+        }
+        return result.getResponse();
+    }
+
     @Override
     public HttpResponse webRequest( HttpMethod method, String url, List<Header> headers, MediaType contentType,
         String content )
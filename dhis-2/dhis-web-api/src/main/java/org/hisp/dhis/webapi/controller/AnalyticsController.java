@@ -32,6 +32,8 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_HTML_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 
+import java.util.concurrent.Callable;
+
 import javax.servlet.http.HttpServletResponse;
 
 import lombok.AllArgsConstructor;
@@ -96,12 +98,15 @@ public class AnalyticsController
     }
 
     @GetMapping( value = RESOURCE_PATH, produces = { APPLICATION_JSON_VALUE, "application/javascript" } )
-    public @ResponseBody Grid getJson( // JSON, JSONP
+    public @ResponseBody Callable<Grid> getJson( // JSON, JSONP
         AggregateAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
     {
-        return getGrid( criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response );
+        DataQueryParams params = getDataQueryParams( criteria, apiVersion, ContextUtils.CONTENT_TYPE_JSON, response,
+            false );
+
+        return () -> getGrid( criteria, params );
     }
 
     @GetMapping( value = RESOURCE_PATH + ".xml" )
@@ -159,6 +164,17 @@ public class AnalyticsController
             "data.xls", response ), response.getOutputStream() );
     }
 
+    @GetMapping( value = RESOURCE_PATH + ".xlsx" )
+    public void getXlsx(
+        AggregateAnalyticsQueryCriteria criteria,
+        DhisApiVersion apiVersion,
+        HttpServletResponse response )
+        throws Exception
+    {
+        GridUtils.toXlsx( getGridWithAttachment( criteria, apiVersion, ContextUtils.CONTENT_TYPE_EXCEL_XLSX,
+            "data.xlsx", response ), response.getOutputStream() );
+    }
+
     @GetMapping( value = RESOURCE_PATH + ".jrxml" )
     public void getJrxml(
         AggregateAnalyticsQueryCriteria criteria,
@@ -286,6 +302,18 @@ public class AnalyticsController
 
     private Grid getGrid( AggregateAnalyticsQueryCriteria criteria, DhisApiVersion apiVersion, String contentType,
         HttpServletResponse response, boolean analyzeOnly )
+    {
+        return getGrid( criteria, getDataQueryParams( criteria, apiVersion, contentType, response, analyzeOnly ) );
+    }
+
+    private Grid getGrid( AggregateAnalyticsQueryCriteria criteria, DataQueryParams params )
+    {
+        return analyticsService.getAggregatedDataValues( params, getItemsFromParam( criteria.getColumns() ),
+            getItemsFromParam( criteria.getRows() ) );
+    }
+
+    private DataQueryParams getDataQueryParams( AggregateAnalyticsQueryCriteria criteria, DhisApiVersion apiVersion,
+        String contentType, HttpServletResponse response, boolean analyzeOnly )
     {
         DataQueryParams params = dataQueryService.getFromRequest( mapFromCriteria( criteria, apiVersion ) );
 
@@ -297,8 +325,7 @@ public class AnalyticsController
         contextUtils.configureAnalyticsResponse( response, contentType, CacheStrategy.RESPECT_SYSTEM_SETTING, null,
             false, params.getLatestEndDate() );
 
-        return analyticsService.getAggregatedDataValues( params, getItemsFromParam( criteria.getColumns() ),
-            getItemsFromParam( criteria.getRows() ) );
+        return params;
     }
 
     private Grid getGridWithAttachment( AggregateAnalyticsQueryCriteria criteria, DhisApiVersion apiVersion,
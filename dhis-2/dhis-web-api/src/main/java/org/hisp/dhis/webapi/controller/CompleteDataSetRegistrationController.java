@@ -319,11 +319,12 @@ public class CompleteDataSetRegistrationController
         JobConfiguration jobId = new JobConfiguration( "inMemoryCompleteDataSetRegistrationImport",
             COMPLETE_DATA_SET_REGISTRATION_IMPORT, currentUserService.getCurrentUser().getUid(), true );
 
-        taskExecutor.executeTask(
+        taskExecutor.executeJob(
             new ImportCompleteDataSetRegistrationsTask(
                 registrationExchangeService, sessionFactory, tmpFile.getLeft(), tmpFile.getRight(), importOptions,
                 format,
-                jobId ) );
+                jobId ),
+            jobId );
 
         return jobConfigurationReport( jobId )
             .setLocation( "/system/tasks/" + COMPLETE_DATA_SET_REGISTRATION_IMPORT );
@@ -77,6 +77,7 @@ import org.hisp.dhis.webapi.security.apikey.ApiTokenAuthenticationException;
 import org.hisp.dhis.webapi.security.apikey.ApiTokenError;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
@@ -93,6 +94,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import com.fasterxml.jackson.core.JsonParseException;
 
@@ -199,6 +201,13 @@ public class CrudControllerAdvice
         return serviceUnavailable( ex.getMessage() );
     }
 
+    @ExceptionHandler( { TaskRejectedException.class, AsyncRequestTimeoutException.class } )
+    @ResponseBody
+    public WebMessage asyncRequestUnavailableExceptionHandler( Exception ex )
+    {
+        return serviceUnavailable( "Server is too busy to process the request, please try again later" );
+    }
+
     @ExceptionHandler( AccessDeniedException.class )
     @ResponseBody
     public WebMessage accessDeniedExceptionHandler( AccessDeniedException ex )
@@ -32,6 +32,7 @@ import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.importSummary;
 import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.jobConfigurationReport;
 import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV;
+import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_DATA_VALUE_SET_BINARY;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_JSON;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_PDF;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_XML;
@@ -135,6 +136,9 @@ public class DataValueSetController
         case "csv":
             getDataValueSetCsv( params, attachment, compression, response );
             break;
+        case "binary":
+            getDataValueSetBinary( params, attachment, compression, response );
+            break;
         default:
             getDataValueSetJson( params, attachment, compression, response );
         }
@@ -191,6 +195,16 @@ public class DataValueSetController
                 new PrintWriter( out ) ) );
     }
 
+    @GetMapping( produces = CONTENT_TYPE_DATA_VALUE_SET_BINARY )
+    public void getDataValueSetBinary( DataValueSetQueryParams params,
+        @RequestParam( required = false ) String attachment,
+        @RequestParam( required = false ) String compression,
+        HttpServletResponse response )
+    {
+        getDataValueSet( attachment, compression, "dvsb", response, CONTENT_TYPE_DATA_VALUE_SET_BINARY,
+            out -> dataValueSetService.exportDataValueSetBinary( dataValueSetService.getFromUrl( params ), out ) );
+    }
+
     private void getDataValueSet( String attachment,
         String compression, String format, HttpServletResponse response, String contentType,
         Consumer<OutputStream> writeOutput )
@@ -278,6 +292,23 @@ public class DataValueSetController
         return importSummary( summary ).withPlainResponseBefore( V38 );
     }
 
+    @PostMapping( consumes = CONTENT_TYPE_DATA_VALUE_SET_BINARY )
+    @PreAuthorize( "hasRole('ALL') or hasRole('F_DATAVALUE_ADD')" )
+    @ResponseBody
+    public WebMessage postBinaryDataValueSet( ImportOptions importOptions, HttpServletRequest request )
+        throws IOException
+    {
+        if ( importOptions.isAsync() )
+        {
+            return startAsyncImport( importOptions, ImportDataValueTask.FORMAT_BINARY, request );
+        }
+        ImportSummary summary = dataValueSetService.importDataValueSetBinary( request.getInputStream(),
+            importOptions );
+        summary.setImportOptions( importOptions );
+
+        return importSummary( summary ).withPlainResponseBefore( V38 );
+    }
+
     @PostMapping( consumes = CONTENT_TYPE_PDF )
     @PreAuthorize( "hasRole('ALL') or hasRole('F_DATAVALUE_ADD')" )
     @ResponseBody
@@ -312,9 +343,10 @@ public class DataValueSetController
 
         JobConfiguration jobId = new JobConfiguration( "dataValueImport", DATAVALUE_IMPORT,
             currentUserService.getCurrentUser().getUid(), true );
-        taskExecutor.executeTask(
+        taskExecutor.executeJob(
             new ImportDataValueTask( dataValueSetService, adxDataService, sessionFactory, inputStream, importOptions,
-                jobId, format ) );
+                jobId, format ),
+            jobId );
 
         return jobConfigurationReport( jobId )
             .setLocation( "/system/tasks/" + DATAVALUE_IMPORT );
@@ -30,6 +30,7 @@ package org.hisp.dhis.webapi.controller;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
@@ -113,7 +114,7 @@ public class EnrollmentAnalyticsController
     }
 
     @GetMapping( value = "/query/{program}", produces = { APPLICATION_JSON_VALUE, "application/javascript" } )
-    public @ResponseBody Grid getQueryJson( // JSON, JSONP
+    public @ResponseBody Callable<Grid> getQueryJson( // JSON, JSONP
         @PathVariable String program,
         EnrollmentAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
@@ -124,7 +125,7 @@ public class EnrollmentAnalyticsController
         contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_JSON,
             CacheStrategy.RESPECT_SYSTEM_SETTING );
 
-        return analyticsService.getEnrollments( params );
+        return () -> analyticsService.getEnrollments( params );
     }
 
     @GetMapping( "/query/{program}.xml" )
@@ -31,6 +31,7 @@ import static org.hisp.dhis.common.DimensionalObjectUtils.getItemsFromParam;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.constraints.NotNull;
@@ -126,18 +127,17 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Grid getAggregateJson( // JSON, JSONP
+    public @ResponseBody Callable<Grid> getAggregateJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
         HttpServletResponse response )
-        throws Exception
     {
         EventQueryParams params = getEventQueryParams( program, criteria, apiVersion, false );
 
         configResponseForJson( response );
 
-        return analyticsService.getAggregatedEventData( params, getItemsFromParam( criteria.getColumns() ),
+        return () -> analyticsService.getAggregatedEventData( params, getItemsFromParam( criteria.getColumns() ),
             getItemsFromParam( criteria.getRows() ) );
     }
 
@@ -165,6 +165,18 @@ public class EventAnalyticsController
             ContextUtils.CONTENT_TYPE_EXCEL, "events.xls", response ), response.getOutputStream() );
     }
 
+    @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.xlsx" )
+    public void getAggregateXlsx(
+        @PathVariable String program,
+        EventsAnalyticsQueryCriteria criteria,
+        DhisApiVersion apiVersion,
+        HttpServletResponse response )
+        throws Exception
+    {
+        GridUtils.toXlsx( getAggregatedGridWithAttachment( criteria, program, apiVersion,
+            ContextUtils.CONTENT_TYPE_EXCEL_XLSX, "events.xlsx", response ), response.getOutputStream() );
+    }
+
     @GetMapping( value = RESOURCE_PATH + "/aggregate/{program}.csv" )
     public void getAggregateCsv(
         @PathVariable String program,
@@ -294,7 +306,7 @@ public class EventAnalyticsController
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}", produces = { APPLICATION_JSON_VALUE,
         "application/javascript" } )
-    public @ResponseBody Grid getQueryJson( // JSON, JSONP
+    public @ResponseBody Callable<Grid> getQueryJson( // JSON, JSONP
         @PathVariable String program,
         EventsAnalyticsQueryCriteria criteria,
         DhisApiVersion apiVersion,
@@ -304,7 +316,7 @@ public class EventAnalyticsController
 
         configResponseForJson( response );
 
-        return analyticsService.getEvents( params );
+        return () -> analyticsService.getEvents( params );
     }
 
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.xml" )
@@ -331,6 +343,18 @@ public class EventAnalyticsController
             "events.xls", true, response ), response.getOutputStream() );
     }
 
+    @GetMapping( value = RESOURCE_PATH + "/query/{program}.xlsx" )
+    public void getQueryXlsx(
+        @PathVariable String program,
+        EventsAnalyticsQueryCriteria criteria,
+        DhisApiVersion apiVersion,
+        HttpServletResponse response )
+        throws Exception
+    {
+        GridUtils.toXlsx( getListGridWithAttachment( criteria, program, apiVersion,
+            ContextUtils.CONTENT_TYPE_EXCEL_XLSX, "events.xlsx", true, response ), response.getOutputStream() );
+    }
+
     @GetMapping( value = RESOURCE_PATH + "/query/{program}.csv" )
     public void getQueryCsv(
         @PathVariable String program,
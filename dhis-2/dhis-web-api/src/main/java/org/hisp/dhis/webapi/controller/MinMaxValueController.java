@@ -44,8 +44,13 @@ import org.hisp.dhis.minmax.MinMaxDataElementService;
 import org.hisp.dhis.minmax.MinMaxValueParams;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.NotifierJobProgress;
 import org.hisp.dhis.setting.SettingKey;
 import org.hisp.dhis.setting.SystemSettingManager;
+import org.hisp.dhis.system.notification.Notifier;
+import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -86,6 +91,12 @@ public class MinMaxValueController
     @Autowired
     private SystemSettingManager systemSettingManager;
 
+    @Autowired
+    private CurrentUserService currentUserService;
+
+    @Autowired
+    private Notifier notifier;
+
     @PostMapping( consumes = APPLICATION_JSON_VALUE )
     @PreAuthorize( "hasRole('ALL') or hasRole('F_GENERATE_MIN_MAX_VALUES')" )
     @ResponseStatus( HttpStatus.NO_CONTENT )
@@ -116,7 +127,11 @@ public class MinMaxValueController
 
         Double factor = this.systemSettingManager.getSystemSetting( SettingKey.FACTOR_OF_DEVIATION, Double.class );
 
-        this.minMaxDataAnalysisService.generateMinMaxValues( organisationUnit, dataElements, factor );
+        JobConfiguration jobId = new JobConfiguration( "inMemoryMinMaxValuesGeneration",
+            JobType.MIN_MAX_VALUES_GENERATION, currentUserService.getCurrentUser().getUid(), true );
+
+        this.minMaxDataAnalysisService.generateMinMaxValues( organisationUnit, dataElements, factor,
+            new NotifierJobProgress( notifier, jobId ) );
 
     }
 
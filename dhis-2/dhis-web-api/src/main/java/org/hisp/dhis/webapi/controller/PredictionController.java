@@ -90,8 +90,9 @@ public class PredictionController
             JobConfiguration jobId = new JobConfiguration( "inMemoryPrediction", PREDICTOR,
                 currentUserService.getCurrentUser().getUid(), true );
 
-            taskExecutor.executeTask(
-                new PredictionTask( startDate, endDate, predictors, predictorGroups, predictionService, jobId ) );
+            taskExecutor.executeJob(
+                new PredictionTask( startDate, endDate, predictors, predictorGroups, predictionService, jobId ),
+                jobId );
 
             return jobConfigurationReport( jobId )
                 .setLocation( "/system/tasks/" + PREDICTOR );
@@ -48,6 +48,7 @@ import org.hisp.dhis.sqlview.SqlView;
 import org.hisp.dhis.sqlview.SqlViewQuery;
 import org.hisp.dhis.sqlview.SqlViewService;
 import org.hisp.dhis.system.grid.GridUtils;
+import org.hisp.dhis.system.grid.GridXlsxWriter;
 import org.hisp.dhis.system.util.CodecUtils;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -150,6 +151,33 @@ public class SqlViewController
         GridUtils.toXls( grid, response.getOutputStream() );
     }
 
+    @GetMapping( "/{uid}/data.xlsx" )
+    public void getViewXlsx( @PathVariable( "uid" ) String uid,
+        @RequestParam( required = false ) Set<String> criteria, @RequestParam( required = false ) Set<String> var,
+        HttpServletResponse response )
+        throws Exception
+    {
+        SqlView sqlView = validateView( uid );
+
+        List<String> filters = Lists.newArrayList( contextService.getParameterValues( "filter" ) );
+        List<String> fields = Lists.newArrayList( contextService.getParameterValues( "fields" ) );
+
+        String filename = CodecUtils.filenameEncode( sqlView.getName() ) + ".xlsx";
+
+        contextUtils.configureResponse( response, ContextUtils.CONTENT_TYPE_EXCEL_XLSX, sqlView.getCacheStrategy(),
+            filename, true );
+
+        try ( GridXlsxWriter writer = new GridXlsxWriter( response.getOutputStream() ) )
+        {
+            writer.startSheet( sqlView.getName(), sqlView.getDescription() );
+
+            sqlViewService.writeSqlViewGrid( sqlView, SqlView.getCriteria( criteria ), SqlView.getCriteria( var ),
+                filters, fields, writer );
+
+            writer.finish();
+        }
+    }
+
     @GetMapping( "/{uid}/data.html" )
     public void getViewHtml( @PathVariable( "uid" ) String uid,
         @RequestParam( required = false ) Set<String> criteria, @RequestParam( required = false ) Set<String> var,
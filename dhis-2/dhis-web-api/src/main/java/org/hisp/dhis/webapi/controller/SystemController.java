@@ -29,6 +29,7 @@ package org.hisp.dhis.webapi.controller;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static org.hisp.dhis.dxf2.webmessage.WebMessageUtils.conflict;
 import static org.hisp.dhis.webapi.utils.ContextUtils.setNoStore;
 import static org.springframework.http.CacheControl.noStore;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
@@ -45,8 +46,10 @@ import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.EnumUtils;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DhisApiVersion;
+import org.hisp.dhis.dxf2.webmessage.WebMessageException;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
 import org.hisp.dhis.render.RenderService;
@@ -61,6 +64,7 @@ import org.hisp.dhis.system.notification.Notification;
 import org.hisp.dhis.system.notification.Notifier;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.NotificationStreamService;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.hisp.dhis.webapi.webdomain.CodeList;
 import org.hisp.dhis.webapi.webdomain.ObjectCount;
@@ -72,9 +76,11 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.dataformat.csv.CsvFactory;
 import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
@@ -106,6 +112,9 @@ public class SystemController
     @Autowired
     private Notifier notifier;
 
+    @Autowired
+    private NotificationStreamService notificationStreamService;
+
     @Autowired
     private RenderService renderService;
 
@@ -200,6 +209,35 @@ public class SystemController
         return ResponseEntity.ok().cacheControl( noStore() ).body( notifications );
     }
 
+    @GetMapping( "/tasks/{jobType}/stream" )
+    public SseEmitter streamTasks( @PathVariable( "jobType" ) String jobType )
+        throws WebMessageException
+    {
+        return notificationStreamService.stream( getJobType( jobType ), null, null );
+    }
+
+    @GetMapping( "/tasks/{jobType}/{jobId}/stream" )
+    public SseEmitter streamTask( @PathVariable( "jobType" ) String jobType,
+        @PathVariable( "jobId" ) String jobId,
+        @RequestHeader( value = "Last-Event-ID", required = false ) String lastEventId )
+        throws WebMessageException
+    {
+        return notificationStreamService.stream( getJobType( jobType ), jobId, lastEventId );
+    }
+
+    private static JobType getJobType( String jobType )
+        throws WebMessageException
+    {
+        JobType type = EnumUtils.getEnum( JobType.class, jobType.toUpperCase() );
+
+        if ( type == null )
+        {
+            throw new WebMessageException( conflict( "Invalid job type: " + jobType ) );
+        }
+
+        return type;
+    }
+
     // -------------------------------------------------------------------------
     // Tasks summary
     // -------------------------------------------------------------------------
@@ -392,7 +392,7 @@ public class EnrollmentController
         JobConfiguration jobId = new JobConfiguration( "inMemoryEventImport",
             ENROLLMENT_IMPORT, currentUserService.getCurrentUser().getUid(), true );
         taskExecutor
-            .executeTask( new ImportEnrollmentsTask( enrollments, enrollmentService, importOptions, jobId ) );
+            .executeJob( new ImportEnrollmentsTask( enrollments, enrollmentService, importOptions, jobId ), jobId );
 
         return jobConfigurationReport( jobId )
             .setLocation( "/system/tasks/" + ENROLLMENT_IMPORT );
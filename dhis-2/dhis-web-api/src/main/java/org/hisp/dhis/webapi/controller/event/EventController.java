@@ -1016,7 +1016,7 @@ public class EventController
     {
         JobConfiguration jobId = new JobConfiguration( "inMemoryEventImport",
             EVENT_IMPORT, currentUserService.getCurrentUser().getUid(), true );
-        taskExecutor.executeTask( new ImportEventsTask( events, eventService, importOptions, jobId ) );
+        taskExecutor.executeJob( new ImportEventsTask( events, eventService, importOptions, jobId ), jobId );
 
         return jobConfigurationReport( jobId )
             .setLocation( "/system/tasks/" + EVENT_IMPORT );
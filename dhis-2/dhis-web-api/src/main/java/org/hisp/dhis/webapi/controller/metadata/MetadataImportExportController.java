@@ -286,7 +286,7 @@ public class MetadataImportExportController
     {
         MetadataAsyncImporter metadataImporter = metadataAsyncImporterFactory.getObject();
         metadataImporter.setParams( params );
-        taskExecutor.executeTask( metadataImporter );
+        taskExecutor.executeJob( metadataImporter, params.getId() );
 
         return jobConfigurationReport( params.getId() )
             .setLocation( "/system/tasks/" + METADATA_IMPORT );
@@ -298,7 +298,7 @@ public class MetadataImportExportController
         GmlAsyncImporter gmlImporter = gmlAsyncImporterFactory.getObject();
         gmlImporter.setInputStream( request.getInputStream() );
         gmlImporter.setParams( params );
-        taskExecutor.executeTask( gmlImporter );
+        taskExecutor.executeJob( gmlImporter, params.getId() );
 
         return jobConfigurationReport( params.getId() )
             .setLocation( "/system/tasks/" + GML_IMPORT );
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller.tracker;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import lombok.RequiredArgsConstructor;
+
+import org.hisp.dhis.tracker.domain.Enrollment;
+import org.hisp.dhis.tracker.domain.Event;
+import org.hisp.dhis.tracker.domain.Relationship;
+import org.hisp.dhis.tracker.domain.TrackedEntity;
+import org.hisp.dhis.tracker.job.TrackerImportSpool;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Streams a tracker import payload into the {@link TrackerImportSpool}
+ * without holding the complete payload in memory.
+ *
+ * The payload is read object by object. Every time
+ * {@link TrackerImportSpool#getChunkSize()} top level objects have been read,
+ * they are flattened by the {@link TrackerBundleParamsConverter} and written to
+ * the spool.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrackerBundleParamsSpooler
+{
+    private final ObjectMapper jsonMapper;
+
+    private final TrackerImportSpool trackerImportSpool;
+
+    private final TrackerBundleParamsConverter converter = new TrackerBundleParamsConverter();
+
+    /**
+     * Reads a payload in the format of {@link TrackerBundleParams} from the
+     * given input stream and spools it for the given job.
+     *
+     * @param in the input stream of the payload.
+     * @param jobId the UID of the import job.
+     * @throws IOException if the payload can not be read or spooled.
+     */
+    public void spool( InputStream in, String jobId )
+        throws IOException
+    {
+        try ( JsonParser parser = jsonMapper.getFactory().createParser( in );
+            TrackerImportSpool.Writer writer = trackerImportSpool.openWriter( jobId ) )
+        {
+            if ( parser.nextToken() != JsonToken.START_OBJECT )
+            {
+                throw new JsonParseException( parser, "Tracker import payload must be a JSON object" );
+            }
+
+            TrackerBundleParams chunk = new TrackerBundleParams();
+            int size = 0;
+
+            while ( parser.nextToken() == JsonToken.FIELD_NAME )
+            {
+                String field = parser.getCurrentName();
+
+                if ( parser.nextToken() != JsonToken.START_ARRAY )
+                {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while ( parser.nextToken() != JsonToken.END_ARRAY )
+                {
+                    if ( !read( parser, field, chunk ) )
+                    {
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    if ( ++size == trackerImportSpool.getChunkSize() )
+                    {
+                        write( writer, chunk );
+                        chunk = new TrackerBundleParams();
+                        size = 0;
+                    }
+                }
+            }
+
+            write( writer, chunk );
+            writer.commit();
+        }
+    }
+
+    private boolean read( JsonParser parser, String field, TrackerBundleParams chunk )
+        throws IOException
+    {
+        switch ( field )
+        {
+        case "trackedEntities":
+            chunk.getTrackedEntities().add( jsonMapper.readValue( parser, TrackedEntity.class ) );
+            return true;
+        case "enrollments":
+            chunk.getEnrollments().add( jsonMapper.readValue( parser, Enrollment.class ) );
+            return true;
+        case "events":
+            chunk.getEvents().add( jsonMapper.readValue( parser, Event.class ) );
+            return true;
+        case "relationships":
+            chunk.getRelationships().add( jsonMapper.readValue( parser, Relationship.class ) );
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private void write( TrackerImportSpool.Writer writer, TrackerBundleParams chunk )
+        throws IOException
+    {
+        TrackerBundleParams flattened = converter.convert( chunk );
+
+        writer.write( flattened.getTrackedEntities() )
+            .write( flattened.getEnrollments() )
+            .write( flattened.getEvents() )
+            .write( flattened.getRelationships() );
+    }
+}
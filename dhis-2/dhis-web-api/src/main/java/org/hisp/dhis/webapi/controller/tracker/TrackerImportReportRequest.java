@@ -53,5 +53,7 @@ public class TrackerImportReportRequest
 
     boolean isAsync;
 
+    boolean isSpooled;
+
     TrackerBundleReportMode trackerBundleReportMode;
 }
@@ -61,6 +61,7 @@ import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.controller.exception.NotFoundException;
 import org.hisp.dhis.webapi.controller.tracker.TrackerBundleParams;
+import org.hisp.dhis.webapi.controller.tracker.TrackerBundleParamsSpooler;
 import org.hisp.dhis.webapi.controller.tracker.TrackerImportReportRequest;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.service.ContextService;
@@ -101,6 +102,8 @@ public class TrackerImportController
 
     private final Notifier notifier;
 
+    private final TrackerBundleParamsSpooler trackerBundleParamsSpooler;
+
     @PostMapping( value = "", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE )
     @ResponseBody
     public WebMessage asyncPostJsonTracker( HttpServletRequest request, HttpServletResponse response,
@@ -125,6 +128,42 @@ public class TrackerImportController
             .setResponse( TrackerJobWebMessageResponse.builder().id( jobId ).location( location ).build() );
     }
 
+    /**
+     * Asynchronous JSON import which streams the payload to the
+     * {@link org.hisp.dhis.tracker.job.TrackerImportSpool} instead of reading
+     * it into memory and passing it through the message broker. The job reads
+     * and commits the payload in chunks and reports progress per chunk.
+     */
+    @PostMapping( value = "", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE, params = {
+        "spool=true", "async!=false" } )
+    @ResponseBody
+    public WebMessage asyncPostSpooledJsonTracker( HttpServletRequest request, @CurrentUser User currentUser )
+        throws IOException
+    {
+        String jobId = CodeGenerator.generateUid();
+        InputStream inputStream = StreamUtils.wrapAndCheckCompressionFormat( request.getInputStream() );
+
+        trackerBundleParamsSpooler.spool( inputStream, jobId );
+
+        TrackerImportReportRequest trackerImportReportRequest = TrackerImportReportRequest.builder()
+            .trackerBundleParams( new TrackerBundleParams() )
+            .contextService( contextService )
+            .userUid( currentUser.getUid() )
+            .isAsync( true )
+            .isSpooled( true )
+            .uid( jobId )
+            .authentication( SecurityContextHolder.getContext().getAuthentication() )
+            .build();
+
+        trackerImportStrategy.importReport( trackerImportReportRequest );
+
+        String location = ContextUtils.getRootPath( request ) + "/tracker/jobs/" + jobId;
+
+        return ok( TRACKER_JOB_ADDED )
+            .setLocation( "/tracker/jobs/" + jobId )
+            .setResponse( TrackerJobWebMessageResponse.builder().id( jobId ).location( location ).build() );
+    }
+
     @PostMapping( value = "", consumes = APPLICATION_JSON_VALUE, params = { "async=false" } )
     public ResponseEntity<TrackerImportReport> syncPostJsonTracker(
         @RequestParam( defaultValue = "errors", required = false ) String reportMode, @CurrentUser User currentUser,
@@ -31,19 +31,24 @@ import static org.hisp.dhis.common.UserContext.reset;
 import static org.hisp.dhis.common.UserContext.setUser;
 import static org.hisp.dhis.common.UserContext.setUserSetting;
 import static org.hisp.dhis.user.UserSettingKey.DB_LOCALE;
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
 
 import java.util.Locale;
+import java.util.concurrent.Callable;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import lombok.AllArgsConstructor;
 
+import org.hisp.dhis.common.UserContext;
 import org.hisp.dhis.dxf2.common.TranslateParams;
 import org.hisp.dhis.user.CurrentUserService;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.user.UserSettingService;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 /**
@@ -52,10 +57,14 @@ import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
  * leave it as simple as possible. Any business rules, if needed, should be
  * evaluated outside (in another interceptor or filter).
  *
+ * For requests processed asynchronously, the user context of the request
+ * thread is carried over to the thread processing the {@link Callable}.
+ *
  * @author maikel arabori
  */
 @AllArgsConstructor
-public class UserContextInterceptor extends HandlerInterceptorAdapter implements InitializingBean
+public class UserContextInterceptor extends HandlerInterceptorAdapter
+    implements InitializingBean, CallableProcessingInterceptor
 {
     private static UserContextInterceptor instance;
 
@@ -63,6 +72,10 @@ public class UserContextInterceptor extends HandlerInterceptorAdapter implements
 
     private static final String PARAM_LOCALE = "locale";
 
+    private static final String ATTR_USER = UserContextInterceptor.class.getName() + ".user";
+
+    private static final String ATTR_DB_LOCALE = UserContextInterceptor.class.getName() + ".dbLocale";
+
     private final CurrentUserService currentUserService;
 
     private final UserSettingService userSettingService;
@@ -104,6 +117,38 @@ public class UserContextInterceptor extends HandlerInterceptorAdapter implements
         reset();
     }
 
+    @Override
+    public void afterConcurrentHandlingStarted( final HttpServletRequest request,
+        final HttpServletResponse response, final Object handler )
+    {
+        reset();
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling( final NativeWebRequest request, final Callable<T> task )
+    {
+        request.setAttribute( ATTR_USER, UserContext.getUser(), SCOPE_REQUEST );
+        request.setAttribute( ATTR_DB_LOCALE, UserContext.getUserSetting( DB_LOCALE ), SCOPE_REQUEST );
+    }
+
+    @Override
+    public <T> void preProcess( final NativeWebRequest request, final Callable<T> task )
+    {
+        final User user = (User) request.getAttribute( ATTR_USER, SCOPE_REQUEST );
+
+        if ( user != null )
+        {
+            setUser( user );
+            setUserSetting( DB_LOCALE, (Locale) request.getAttribute( ATTR_DB_LOCALE, SCOPE_REQUEST ) );
+        }
+    }
+
+    @Override
+    public <T> void postProcess( final NativeWebRequest request, final Callable<T> task, final Object result )
+    {
+        reset();
+    }
+
     private void configureUserContext( final User user, final TranslateParams translateParams )
     {
         final Locale dbLocale = getLocaleWithDefault( translateParams, user );
@@ -33,9 +33,12 @@ import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.hisp.dhis.common.Compression;
 import org.hisp.dhis.common.DefaultRequestInfoService;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.node.DefaultNodeService;
 import org.hisp.dhis.node.NodeService;
 import org.hisp.dhis.user.CurrentUserService;
@@ -65,6 +68,7 @@ import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
@@ -74,6 +78,7 @@ import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.multipart.MultipartResolver;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
@@ -105,6 +110,9 @@ public class WebMvcConfig extends DelegatingWebMvcConfiguration
     @Autowired
     private UserSettingService userSettingService;
 
+    @Autowired
+    private DhisConfigurationProvider dhisConfig;
+
     @Autowired
     @Qualifier( "jsonMapper" )
     private ObjectMapper jsonMapper;
@@ -221,6 +229,40 @@ public class WebMvcConfig extends DelegatingWebMvcConfiguration
         registry.addInterceptor( new RequestInfoInterceptor( requestInfoService ) );
     }
 
+    /**
+     * Asynchronous requests, such as analytics queries returning a
+     * {@link java.util.concurrent.Callable}, are processed by this pool so that
+     * they do not hold on to the request threads of the servlet container while
+     * they run. Requests exceeding the queue capacity are rejected. The pool is
+     * no autowire candidate so that the task scheduler remains the default
+     * executor of {@code @Async} methods.
+     */
+    @Bean( destroyMethod = "shutdown", autowireCandidate = false )
+    public ThreadPoolTaskExecutor asyncRequestTaskExecutor()
+    {
+        int threads = Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.SERVER_ASYNC_REQUEST_THREADS ) );
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize( threads );
+        executor.setMaxPoolSize( threads );
+        executor.setAllowCoreThreadTimeOut( true );
+        executor.setQueueCapacity(
+            Integer.parseInt( dhisConfig.getProperty( ConfigurationKey.SERVER_ASYNC_REQUEST_QUEUE_CAPACITY ) ) );
+        executor.setThreadNamePrefix( "dhis2-async-request-" );
+        executor.setDaemon( true );
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport( AsyncSupportConfigurer configurer )
+    {
+        configurer.setTaskExecutor( asyncRequestTaskExecutor() );
+        configurer.setDefaultTimeout( TimeUnit.SECONDS.toMillis(
+            Long.parseLong( dhisConfig.getProperty( ConfigurationKey.SERVER_ASYNC_REQUEST_TIMEOUT ) ) ) );
+        configurer.registerCallableInterceptors(
+            new UserContextInterceptor( currentUserService, userSettingService ) );
+    }
+
     private Map<String, MediaType> mediaTypeMap = new ImmutableMap.Builder<String, MediaType>()
         .put( "json", MediaType.APPLICATION_JSON )
         .put( "json.gz", parseMediaType( "application/json+gzip" ) )
@@ -232,7 +274,7 @@ public class WebMvcConfig extends DelegatingWebMvcConfiguration
         .put( "png", MediaType.IMAGE_PNG )
         .put( "pdf", MediaType.APPLICATION_PDF )
         .put( "xls", parseMediaType( "application/vnd.ms-excel" ) )
-        .put( "xlsx", parseMediaType( "application/vnd.ms-excel" ) )
+        .put( "xlsx", parseMediaType( "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet" ) )
         .put( "csv", parseMediaType( "application/csv" ) )
         .put( "csv.gz", parseMediaType( "application/csv+gzip" ) )
         .put( "csv.zip", parseMediaType( "application/csv+zip" ) )
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.NotificationEvent;
+import org.hisp.dhis.system.notification.NotificationSubscription;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams job notifications and summaries to clients as server-sent events,
+ * as an alternative to polling the task endpoints.
+ * <p>
+ * Each stream subscribes to the {@link Notifier}. Publishing an event only
+ * schedules the stream to be flushed; events are written to the client by a
+ * sender thread, so a slow client never holds up a job. A stream is flushed by
+ * at most one sender thread at a time, so a slow client only holds up its own
+ * stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationStreamService
+{
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis( 10 );
+
+    private static final int MAX_SENT_IDS = 1000;
+
+    private static final String EVENT_NOTIFICATION = "notification";
+
+    private static final String EVENT_SUMMARY = "summary";
+
+    private final Notifier notifier;
+
+    private final ExecutorService sender = Executors.newCachedThreadPool( runnable -> {
+        Thread thread = new Thread( runnable, "notification-stream" );
+        thread.setDaemon( true );
+        return thread;
+    } );
+
+    /**
+     * Opens a stream of the notifications and summaries of a job, or of all
+     * jobs of a job type. For a single job the notifications and summary
+     * published so far are sent first, starting after the notification with
+     * the given last event identifier if present.
+     *
+     * @param jobType the job type.
+     * @param jobId the job identifier, or null for all jobs of the job type.
+     * @param lastEventId the identifier of the last notification received by
+     *        the client, or null.
+     * @return an {@link SseEmitter}.
+     */
+    public SseEmitter stream( JobType jobType, String jobId, String lastEventId )
+    {
+        SseEmitter emitter = new SseEmitter( STREAM_TIMEOUT_MILLIS );
+        NotificationSubscription subscription = notifier.subscribe( jobType, jobId );
+        Stream stream = new Stream( emitter, subscription );
+
+        emitter.onCompletion( subscription::close );
+        emitter.onTimeout( subscription::close );
+        emitter.onError( ex -> subscription.close() );
+
+        if ( jobId != null )
+        {
+            stream.send( getPublishedEvents( jobType, jobId, lastEventId ) );
+        }
+
+        subscription.setListener( stream::schedule );
+        stream.schedule();
+
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown()
+    {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Returns the notifications of the given job, oldest first and after the
+     * given last event identifier, followed by the job summary if present.
+     */
+    private List<NotificationEvent> getPublishedEvents( JobType jobType, String jobId, String lastEventId )
+    {
+        List<NotificationEvent> events = new ArrayList<>();
+
+        for ( Notification notification : notifier.getNotificationsByJobId( jobType, jobId ) )
+        {
+            if ( getEventId( notification ).equals( lastEventId ) )
+            {
+                break;
+            }
+
+            events.add( 0, NotificationEvent.notification( jobType, jobId, notification ) );
+        }
+
+        Object summary = notifier.getJobSummaryByJobId( jobType, jobId );
+
+        if ( summary != null )
+        {
+            events.add( NotificationEvent.summary( jobType, jobId, summary ) );
+        }
+
+        return events;
+    }
+
+    /**
+     * Returns the event identifier of a notification. The notification
+     * identifier alone is not unique, as notifications of in-memory jobs carry
+     * the identifier of the job.
+     */
+    private static String getEventId( Notification notification )
+    {
+        return notification.getUid() + "-" + notification.getTime().getTime();
+    }
+
+    /**
+     * Connection between a subscription and an emitter.
+     */
+    private class Stream
+    {
+        private final SseEmitter emitter;
+
+        private final NotificationSubscription subscription;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * Identifiers of the most recent notifications sent, to avoid sending
+         * the published notifications again when they were also buffered.
+         * Only the overlap between the published and the buffered
+         * notifications needs to be detected, so the oldest identifiers are
+         * evicted to keep long-lived streams bounded.
+         */
+        private final Set<String> sent = Collections.synchronizedSet( Collections.newSetFromMap(
+            new LinkedHashMap<>()
+            {
+                @Override
+                protected boolean removeEldestEntry( Map.Entry<String, Boolean> eldest )
+                {
+                    return size() > MAX_SENT_IDS;
+                }
+            } ) );
+
+        Stream( SseEmitter emitter, NotificationSubscription subscription )
+        {
+            this.emitter = emitter;
+            this.subscription = subscription;
+        }
+
+        void schedule()
+        {
+            if ( !subscription.isClosed() && scheduled.compareAndSet( false, true ) )
+            {
+                sender.execute( this::flush );
+            }
+        }
+
+        private void flush()
+        {
+            scheduled.set( false );
+            send( subscription.drain() );
+        }
+
+        private void send( List<NotificationEvent> events )
+        {
+            try
+            {
+                for ( NotificationEvent event : events )
+                {
+                    if ( event.getType() == NotificationEvent.Type.NOTIFICATION )
+                    {
+                        Notification notification = (Notification) event.getData();
+                        String id = getEventId( notification );
+
+                        if ( sent.add( id + ":" + notification.getMessage() ) )
+                        {
+                            emitter.send( SseEmitter.event().name( EVENT_NOTIFICATION ).id( id )
+                                .data( event, MediaType.APPLICATION_JSON ) );
+                        }
+                    }
+                    else
+                    {
+                        emitter.send( SseEmitter.event().name( EVENT_SUMMARY )
+                            .data( event, MediaType.APPLICATION_JSON ) );
+                    }
+                }
+            }
+            catch ( IOException | IllegalStateException ex )
+            {
+                log.debug( "Notification stream closed: " + ex.getMessage() );
+
+                subscription.close();
+            }
+        }
+    }
+}
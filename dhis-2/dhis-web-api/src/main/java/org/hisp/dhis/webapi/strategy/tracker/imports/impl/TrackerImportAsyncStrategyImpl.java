@@ -54,6 +54,7 @@ public class TrackerImportAsyncStrategyImpl implements TrackerImportStrategyHand
             .trackerImportParams( trackerImportReportRequest.getTrackerImportParams() )
             .authentication( AuthenticationSerializer.serialize( trackerImportReportRequest.getAuthentication() ) )
             .uid( trackerImportReportRequest.getUid() )
+            .spooled( trackerImportReportRequest.isSpooled() )
             .build();
 
         messageManager.sendQueue( Topics.TRACKER_IMPORT_JOB_TOPIC_NAME, trackerMessage );
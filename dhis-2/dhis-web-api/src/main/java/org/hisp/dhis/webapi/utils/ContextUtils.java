@@ -81,12 +81,17 @@ public class ContextUtils
 
     public static final String CONTENT_TYPE_CSV_GZIP = "application/csv+gzip";
 
+    public static final String CONTENT_TYPE_DATA_VALUE_SET_BINARY = "application/vnd.dhis2.datavalueset+binary";
+
     public static final String CONTENT_TYPE_PNG = "image/png";
 
     public static final String CONTENT_TYPE_JPG = "image/jpeg";
 
     public static final String CONTENT_TYPE_EXCEL = "application/vnd.ms-excel";
 
+    public static final String CONTENT_TYPE_EXCEL_XLSX = "application/vnd.openxmlformats-officedocument"
+        + ".spreadsheetml.sheet";
+
     public static final String CONTENT_TYPE_JAVASCRIPT = "application/javascript; charset=UTF-8";
 
     public static final String CONTENT_TYPE_FORM_ENCODED = "application/x-www-form-urlencoded";
@@ -33,6 +33,7 @@ import static org.hisp.dhis.webapi.controller.tracker.imports.TrackerImportContr
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -63,12 +64,15 @@ import org.hisp.dhis.tracker.report.TrackerStatus;
 import org.hisp.dhis.tracker.report.TrackerTimingsStats;
 import org.hisp.dhis.tracker.report.TrackerValidationReport;
 import org.hisp.dhis.webapi.controller.exception.NotFoundException;
+import org.hisp.dhis.webapi.controller.tracker.TrackerBundleParamsSpooler;
 import org.hisp.dhis.webapi.controller.tracker.TrackerControllerSupport;
+import org.hisp.dhis.webapi.controller.tracker.TrackerImportReportRequest;
 import org.hisp.dhis.webapi.service.DefaultContextService;
 import org.hisp.dhis.webapi.strategy.tracker.imports.TrackerImportStrategyHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
@@ -98,6 +102,9 @@ class TrackerImportControllerTest
     @Mock
     private Notifier notifier;
 
+    @Mock
+    private TrackerBundleParamsSpooler trackerBundleParamsSpooler;
+
     private RenderService renderService;
 
     @BeforeEach
@@ -109,7 +116,7 @@ class TrackerImportControllerTest
 
         // Controller under test
         final TrackerImportController controller = new TrackerImportController( importStrategy, trackerImportService,
-            csvEventService, new DefaultContextService(), notifier );
+            csvEventService, new DefaultContextService(), notifier, trackerBundleParamsSpooler );
 
         mockMvc = MockMvcBuilders.standaloneSetup( controller ).build();
     }
@@ -129,6 +136,28 @@ class TrackerImportControllerTest
             .andExpect( content().contentType( "application/json" ) );
     }
 
+    @Test
+    void verifyAsyncSpooled()
+        throws Exception
+    {
+        ArgumentCaptor<TrackerImportReportRequest> request = ArgumentCaptor
+            .forClass( TrackerImportReportRequest.class );
+
+        // Then
+        mockMvc.perform( post( ENDPOINT + "?spool=true" )
+            .content( "{}" )
+            .contentType( MediaType.APPLICATION_JSON )
+            .accept( MediaType.APPLICATION_JSON ) )
+            .andExpect( status().isOk() )
+            .andExpect( jsonPath( "$.message" ).value( TRACKER_JOB_ADDED ) )
+            .andExpect( content().contentType( "application/json" ) );
+
+        verify( trackerBundleParamsSpooler ).spool( any(), anyString() );
+        verify( importStrategy ).importReport( request.capture() );
+        assertTrue( request.getValue().isSpooled() );
+        assertTrue( request.getValue().isAsync() );
+    }
+
     @Test
     void verifyAsyncForCsv()
         throws Exception